@@ -1,38 +1,142 @@
 package qa.fakestore.base;
 
+import qa.fakestore.http.AuthTokenProvider;
+import qa.fakestore.http.HttpTransport;
+import qa.fakestore.logging.LogSink;
+import qa.fakestore.logging.TestLog;
+import qa.fakestore.perf.LatencyBaselines;
+import qa.fakestore.perf.LatencyBudgetListener;
+import qa.fakestore.perf.PhaseTimingFilter;
+import qa.fakestore.perf.RequestEventLog;
+import qa.fakestore.perf.RequestEventReport;
+import qa.fakestore.perf.RequestTiming;
+import qa.fakestore.validation.JsonSchemas;
+import qa.fakestore.validation.ValidationResult;
+import io.qameta.allure.Allure;
 import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
 import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.util.EntityUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeClass;
-import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// LatencyBudgetListener enforces @LatencyBudget on any test method of a subclass
+@Listeners(LatencyBudgetListener.class)
 public class BaseTest {
-    protected RequestSpecification request;
-    protected Response response;
-    protected String baseURL = "https://fakestoreapi.com";
+    // Tests whose wall time is set by timers (windows, think time, stalls, replayed latency) rather than
+    // by how fast requests complete; throughput runners that time the whole suite exclude them
+    public static final String FIXED_DURATION = "fixed-duration";
+
+    private static boolean httpTransportInstalled;
+
+    protected String baseURL = TestEnvironment.REMOTE_URL;
+    // Async, level-filtered and rate-sampled; see LogSink for the fakestore.log.* properties
+    protected final TestLog log = TestLog.get(getClass());
+    // Built once per class and only read afterwards; every request() merges it into a fresh specification
+    private volatile RequestSpecification baseSpec;
 
     @BeforeClass
     public void setUp() {
         try {
-            RestAssured.baseURI = baseURL;
-            RestAssured.enableLoggingOfRequestAndResponseIfValidationFails();
-            System.out.println("✅ Base URL set to: " + baseURL);
+            baseURL = TestEnvironment.baseUrl();
+            installHttpTransport();
+            baseSpec = new RequestSpecBuilder()
+                    .setBaseUri(baseURL)
+                    .addHeader("Content-Type", "application/json")
+                    .addHeader("Accept", "application/json")
+                    .build();
+            log.info("✅ Base URL set to: {}", baseURL);
         } catch (Exception e) {
-            System.out.println("❌ Setup failed: " + e.getMessage());
+            log.error("❌ Setup failed: {}", e.getMessage());
             throw e;
         }
     }
 
-    @BeforeMethod
-    public void setUpRequest() {
-        try {
-            request = RestAssured.given()
-                    .header("Content-Type", "application/json")
-                    .header("Accept", "application/json");
-            System.out.println("✅ Request specification set up");
-        } catch (Exception e) {
-            System.out.println("❌ Request setup failed: " + e.getMessage());
-            throw e;
+    // Compares this run's per-endpoint latencies with the stored baseline, then stores the run
+    @AfterSuite(alwaysRun = true)
+    public void checkLatencyBaselines() {
+        LatencyBaselines.Result result = LatencyBaselines.shared().finishRun();
+        if (result.report().isEmpty()) {
+            return;
+        }
+        log.info("{}", result.report().stripTrailing());
+        attach("Latency vs baseline", result.report());
+        if (result.shouldFail()) {
+            throw new AssertionError("Latency regression against baseline: " + String.join("; ", result.regressions()));
+        }
+        if (result.hasRegressions()) {
+            log.warn("⚠️ Latency regression against baseline: {}", String.join("; ", result.regressions()));
+        }
+    }
+
+    // Turns the binary request log into a timeline and attaches it. Programmatic runs (soak, scaling)
+    // have no Allure listener and would re-read a growing file on every pass, so they only flush.
+    @AfterSuite(alwaysRun = true)
+    public void reportRequestEvents() throws IOException {
+        RequestEventLog events = RequestEventLog.shared();
+        if (events == null) {
+            return;
+        }
+        events.flush();
+        if (!Allure.getLifecycle().getCurrentTestCaseOrStep().isPresent()) {
+            return;
+        }
+        RequestEventReport report = RequestEventReport.read(events.file());
+        Path timeline = RequestEventReport.defaultTimelinePath(events.file());
+        report.writeTimeline(timeline);
+        attach("Request event timeline", report.summary());
+        Allure.addAttachment("Request event timeline (CSV)", "text/csv", new String(Files.readAllBytes(timeline),
+                StandardCharsets.UTF_8), ".csv");
+        log.info("📼 {} request events ({} dropped) in {}, timeline: {}", report.events(), report.dropped(),
+                events.file(), timeline);
+    }
+
+    // Record and replay runs report what the cassette served or captured
+    @AfterSuite(alwaysRun = true)
+    public void reportCassette() {
+        String summary = TestEnvironment.cassetteSummary();
+        if (summary != null) {
+            log.info("📼 Cassette: {}", summary);
+        }
+    }
+
+    // Writes out queued log lines and reports what sampling and a full queue kept off the console
+    @AfterSuite(alwaysRun = true)
+    public void flushLog() {
+        LogSink sink = LogSink.shared();
+        if (sink.sampled() > 0 || sink.dropped() > 0) {
+            log.warn("🧾 Log: {}", sink.stats());
+        }
+        sink.flush();
+    }
+
+    // New specification per call and no request/response fields, so test methods and
+    // data-provider rows can share a class instance across threads (parallel="methods")
+    protected RequestSpecification request() {
+        return RestAssured.given().spec(baseSpec);
+    }
+
+    // Same as request() plus a bearer token shared suite-wide; logs in only on first use or near expiry
+    protected RequestSpecification authenticatedRequest(String username, String password) {
+        return request().header("Authorization", AuthTokenProvider.shared().token(username, password).bearer());
+    }
+
+    // Text attachment for the running Allure test; skipped when Allure is not listening (soak and scaling runs)
+    protected void attach(String name, String content) {
+        if (Allure.getLifecycle().getCurrentTestCaseOrStep().isPresent()) {
+            Allure.addAttachment(name, "text/plain", content);
         }
     }
 
@@ -43,8 +147,48 @@ public class BaseTest {
         // Content-Type check'i kaldırdık çünkü API bazen farklı döndürüyor
     }
 
-    // Performance measurement helper
+    // Performance measurement helper, backed by the nanosecond PhaseTimingFilter breakdown
     protected long measureResponseTime(Response response) {
-        return response.getTime();
+        RequestTiming timing = measureRequestPhases(response);
+        return timing != null ? TimeUnit.NANOSECONDS.toMillis(timing.totalNanos()) : response.getTime();
+    }
+
+    // Connect / write / first byte / body read breakdown, or null if the filter did not see the request
+    protected RequestTiming measureRequestPhases(Response response) {
+        return PhaseTimingFilter.timingOf(response);
+    }
+
+    // Checks the whole body against a compiled schema (JsonSchemas) in one pass and fails with every violation
+    protected ValidationResult assertMatchesSchema(Response response, String schema) {
+        ValidationResult validation = JsonSchemas.get(schema).validate(response.asByteArray());
+        Assert.assertTrue(validation.isValid(), "Response does not match schema " + schema + ": " + validation.summary());
+        return validation;
+    }
+
+    // Streams a listing straight off the pooled connection, bypassing RestAssured's body buffering,
+    // so catalogs of any size are validated against the schema in constant memory
+    protected ValidationResult validateStream(String path, String schema) throws IOException {
+        HttpGet get = new HttpGet(baseURL + path);
+        get.setHeader("Accept", "application/json");
+        HttpResponse httpResponse = HttpTransport.shared().createHttpClient().execute(get);
+        try {
+            Assert.assertEquals(httpResponse.getStatusLine().getStatusCode(), 200, "Status code should be 200 for " + path);
+            try (InputStream body = httpResponse.getEntity().getContent()) {
+                return JsonSchemas.get(schema).validate(body);
+            }
+        } finally {
+            EntityUtils.consumeQuietly(httpResponse.getEntity());
+        }
+    }
+
+    // RestAssured filters and config are global, so the pooled transport and timing hooks are installed once per JVM
+    private static synchronized void installHttpTransport() {
+        if (httpTransportInstalled) {
+            return;
+        }
+        RestAssured.enableLoggingOfRequestAndResponseIfValidationFails();
+        RestAssured.config = RestAssured.config().httpClient(HttpTransport.shared().httpClientConfig());
+        RestAssured.filters(new PhaseTimingFilter(true));
+        httpTransportInstalled = true;
     }
 }
\ No newline at end of file
@@ -0,0 +1,160 @@
+package qa.fakestore.base;
+
+import qa.fakestore.logging.TestLog;
+import qa.fakestore.stub.CassetteRecorder;
+import qa.fakestore.stub.CassetteServer;
+import qa.fakestore.stub.FakeStoreStub;
+import qa.fakestore.stub.ProductCatalog;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+
+// Resolves which Fake Store the suite talks to:
+//   -Dfakestore.server=remote (default)  -> https://fakestoreapi.com
+//   -Dfakestore.server=local             -> in-process FakeStoreStub, started once per JVM
+//   -Dfakestore.server=record            -> CassetteRecorder proxy in front of fakestore.record.upstream
+//                                           (remote, local or a URL), recording into fakestore.cassette
+//   -Dfakestore.server=replay            -> CassetteServer replaying fakestore.cassette, no network
+//   -Dfakestore.baseUrl=...              -> explicit override, wins over all of them
+// Record and replay pin the payload and journey seeds and keep them in the cassette, so a replay
+// sends the same bodies and walks the same journeys as the recording did.
+public final class TestEnvironment {
+
+    public static final String SERVER_PROPERTY = "fakestore.server";
+    public static final String BASE_URL_PROPERTY = "fakestore.baseUrl";
+    public static final String STUB_PRODUCTS_PROPERTY = "fakestore.stub.products";
+    public static final String STUB_PORT_PROPERTY = "fakestore.stub.port";
+    public static final String CASSETTE_PROPERTY = "fakestore.cassette";
+    public static final String REMOTE_URL = "https://fakestoreapi.com";
+
+    private static final String[] CASSETTE_SEEDS = {"fakestore.payload.seed", "fakestore.journey.seed"};
+
+    private static final TestLog LOG = TestLog.get(TestEnvironment.class);
+
+    private static FakeStoreStub localStub;
+    private static CassetteRecorder recorder;
+    private static CassetteServer replay;
+
+    private TestEnvironment() {
+    }
+
+    public static String baseUrl() {
+        String override = System.getProperty(BASE_URL_PROPERTY);
+        if (override != null && !override.isEmpty()) {
+            return override;
+        }
+        switch (server()) {
+            case "local":
+                return localStub().baseUrl();
+            case "record":
+                return recorder().baseUrl();
+            case "replay":
+                return replay().baseUrl();
+            default:
+                return REMOTE_URL;
+        }
+    }
+
+    public static boolean isLocal() {
+        return server().equals("local");
+    }
+
+    // remote, local, record or replay
+    public static String server() {
+        return System.getProperty(SERVER_PROPERTY, "remote").toLowerCase(Locale.ROOT);
+    }
+
+    public static Path cassetteFile() {
+        return Paths.get(System.getProperty(CASSETTE_PROPERTY, "cassettes/fakestore.cassette"));
+    }
+
+    // One line on what the recorder or replay server did, or null in the other modes
+    public static synchronized String cassetteSummary() {
+        if (recorder != null) {
+            return recorder.recorded() + " interactions recorded from " + recorder.upstream() + " into " + recorder.file()
+                    + " (written at exit)";
+        }
+        return replay == null ? null : replay.summary();
+    }
+
+    public static synchronized CassetteRecorder recorder() {
+        if (recorder == null) {
+            String upstream = System.getProperty("fakestore.record.upstream", "remote");
+            String upstreamUrl = upstream.equals("remote") ? REMOTE_URL : upstream.equals("local") ? localStub().baseUrl() : upstream;
+            for (String seed : CASSETTE_SEEDS) {
+                if (System.getProperty(seed) == null) {
+                    System.setProperty(seed, Long.toString(System.nanoTime()));
+                }
+            }
+            try {
+                recorder = CassetteRecorder.start(0, upstreamUrl, cassetteFile(),
+                        Duration.ofSeconds(Long.getLong("fakestore.record.timeoutSeconds", 30L)));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not start cassette recorder", e);
+            }
+            for (String seed : CASSETTE_SEEDS) {
+                recorder.metadata(seed, System.getProperty(seed));
+            }
+            CassetteRecorder started = recorder;
+            // The index is written on close; a JVM killed before this leaves only a .partial file
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    started.close();
+                } catch (IOException e) {
+                    System.err.println("❌ Could not finish cassette " + started.file() + ": " + e);
+                }
+            }, "fakestore-recorder-shutdown"));
+            LOG.info("📼 Recording {} into {}", upstreamUrl, started.file());
+        }
+        return recorder;
+    }
+
+    public static synchronized CassetteServer replay() {
+        if (replay == null) {
+            Path file = cassetteFile();
+            CassetteServer.Timing timing = CassetteServer.Timing.valueOf(
+                    System.getProperty("fakestore.replay.timing", "fast").toUpperCase(Locale.ROOT));
+            double scale = Double.parseDouble(System.getProperty("fakestore.replay.timingScale", "1.0"));
+            try {
+                replay = CassetteServer.start(0, file, timing, scale);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not replay cassette " + file.toAbsolutePath()
+                        + "; record one with -D" + SERVER_PROPERTY + "=record", e);
+            }
+            for (Map.Entry<String, String> entry : replay.cassette().metadata().entrySet()) {
+                if (System.getProperty(entry.getKey()) == null) {
+                    System.setProperty(entry.getKey(), entry.getValue());
+                }
+            }
+            CassetteServer started = replay;
+            Runtime.getRuntime().addShutdownHook(new Thread(started::close, "fakestore-replay-shutdown"));
+            LOG.info("📼 Replaying {} ({} interactions, {} timing) at {}", file, started.cassette().interactions().size(),
+                    timing.name().toLowerCase(Locale.ROOT), started.baseUrl());
+        }
+        return replay;
+    }
+
+    public static synchronized FakeStoreStub localStub() {
+        if (localStub == null) {
+            int products = Integer.getInteger(STUB_PRODUCTS_PROPERTY, 20);
+            int port = Integer.getInteger(STUB_PORT_PROPERTY, 0);
+            try {
+                localStub = FakeStoreStub.start(port, new ProductCatalog(products));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not start local Fake Store stub", e);
+            }
+            FakeStoreStub stub = localStub;
+            Runtime.getRuntime().addShutdownHook(new Thread(stub::close, "fakestore-stub-shutdown"));
+            LOG.info("✅ Local Fake Store stub started at {} with {} products", stub.baseUrl(), products);
+            if (!stub.faults().isEmpty()) {
+                LOG.warn("💥 Stub fault injection active: {}", System.getProperty("fakestore.stub.faults"));
+            }
+        }
+        return localStub;
+    }
+}
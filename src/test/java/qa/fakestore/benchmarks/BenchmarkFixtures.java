@@ -0,0 +1,67 @@
+package qa.fakestore.benchmarks;
+
+import qa.fakestore.models.Cart;
+import qa.fakestore.models.Product;
+import qa.fakestore.models.User;
+import qa.fakestore.stub.ProductCatalog;
+
+import java.util.Arrays;
+
+// Representative payloads, shaped like the public API's responses
+public final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    public static Object model(String name) {
+        switch (name) {
+            case "product":
+                return product();
+            case "rating":
+                return product().getRating();
+            case "user":
+                return user();
+            case "cart":
+                return cart();
+            default:
+                throw new IllegalArgumentException("Unknown model: " + name);
+        }
+    }
+
+    public static Product product() {
+        return new ProductCatalog(20).get(1);
+    }
+
+    public static User user() {
+        User user = new User("john@gmail.com", "johnd", "m38rmF$");
+        user.setId(1);
+        user.setPhone("1-570-236-7033");
+
+        User.Name name = new User.Name();
+        name.setFirstname("john");
+        name.setLastname("doe");
+        user.setName(name);
+
+        User.Address.Geolocation geolocation = new User.Address.Geolocation();
+        geolocation.setLat("-37.3159");
+        geolocation.setLng("81.1496");
+
+        User.Address address = new User.Address();
+        address.setCity("kilcoole");
+        address.setStreet("new road");
+        address.setNumber(7682);
+        address.setZipcode("12926-3874");
+        address.setGeolocation(geolocation);
+        user.setAddress(address);
+        return user;
+    }
+
+    public static Cart cart() {
+        Cart cart = new Cart(5, "2024-01-01", Arrays.asList(
+                new Cart.CartProduct(5, 1),
+                new Cart.CartProduct(1, 5),
+                new Cart.CartProduct(3, 2)));
+        cart.setId(1);
+        return cart;
+    }
+}
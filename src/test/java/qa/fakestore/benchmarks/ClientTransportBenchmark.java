@@ -0,0 +1,93 @@
+package qa.fakestore.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import qa.fakestore.client.ApiTransport;
+import qa.fakestore.client.CartClient;
+import qa.fakestore.client.ProductClient;
+import qa.fakestore.models.Cart;
+import qa.fakestore.stub.FakeStoreStub;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+// Per-request client cost of the typed clients on each transport. The stub runs in a child JVM so
+// that -prof gc (gc.alloc.rate.norm) and ProcessCpuProfiler (cpu.time.norm) count the client only.
+//   mvn -Pbenchmark test-compile exec:exec \
+//       -Djmh.args="ClientTransportBenchmark -prof gc -prof qa.fakestore.benchmarks.ProcessCpuProfiler"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ClientTransportBenchmark {
+
+    @Param({"restassured", "jdk"})
+    public String transport;
+
+    private Process stubProcess;
+    private ProductClient products;
+    private CartClient carts;
+    private Cart cart;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        stubProcess = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                FakeStoreStub.class.getName(), "0", "20")
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        BufferedReader out = new BufferedReader(new InputStreamReader(stubProcess.getInputStream(), StandardCharsets.UTF_8));
+        String ready = out.readLine();
+        if (ready == null || !ready.startsWith("listening on ")) {
+            stubProcess.destroyForcibly();
+            throw new IllegalStateException("Stub process did not start: " + ready);
+        }
+        String baseUrl = "http://127.0.0.1:" + ready.substring("listening on ".length()).trim();
+
+        ApiTransport api = ApiTransport.create(transport, baseUrl);
+        products = new ProductClient(api);
+        carts = new CartClient(api);
+        cart = new Cart(1, "2020-02-03", Arrays.asList(new Cart.CartProduct(5, 1), new Cart.CartProduct(1, 5)));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        stubProcess.destroy();
+        if (!stubProcess.waitFor(5, TimeUnit.SECONDS)) {
+            stubProcess.destroyForcibly();
+        }
+    }
+
+    @Benchmark
+    public Object getProduct() {
+        return products.get(7);
+    }
+
+    @Benchmark
+    public Object listProducts() {
+        return products.list();
+    }
+
+    @Benchmark
+    public Object createCart() {
+        return carts.create(cart);
+    }
+}
@@ -0,0 +1,117 @@
+package qa.fakestore.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import qa.fakestore.http.AsyncProductClient;
+import qa.fakestore.http.JdkHttpClients;
+import qa.fakestore.models.Product;
+import qa.fakestore.stub.FakeStoreStub;
+import qa.fakestore.stub.ProductCatalog;
+import qa.fakestore.util.Threads;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// Time to fetch N products by id from the local stub: one blocking call after another, blocking calls
+// spread over a fixed thread pool, and AsyncProductClient's non-blocking sliding window. All three go
+// through the JVM-wide JdkHttpClients client, so only the fan-out strategy differs.
+//   mvn -Pbenchmark test-compile exec:exec -Djmh.args="FanOutBenchmark -prof gc"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class FanOutBenchmark {
+
+    private static final ObjectReader PRODUCT_READER = new ObjectMapper().readerFor(Product.class);
+
+    @Param({"100", "1000", "10000"})
+    public int ids;
+
+    // Pool size for the thread-pool variant and window size for the async one
+    @Param({"64"})
+    public int concurrency;
+
+    private FakeStoreStub stub;
+    private HttpClient client;
+    private ExecutorService pool;
+    private AsyncProductClient asyncClient;
+    private int[] productIds;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        stub = FakeStoreStub.start(0, new ProductCatalog(ids));
+        client = JdkHttpClients.shared();
+        pool = Executors.newFixedThreadPool(concurrency, Threads.daemonFactory("fanout-pool"));
+        asyncClient = new AsyncProductClient(stub.baseUrl(), concurrency, Duration.ofSeconds(30));
+        productIds = new int[ids];
+        for (int i = 0; i < ids; i++) {
+            productIds[i] = i + 1;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdownNow();
+        stub.close();
+    }
+
+    @Benchmark
+    public void serial(Blackhole blackhole) throws Exception {
+        for (int id : productIds) {
+            blackhole.consume(get(id));
+        }
+    }
+
+    @Benchmark
+    public void threadPool(Blackhole blackhole) throws Exception {
+        List<Future<Product>> futures = new ArrayList<>(productIds.length);
+        for (int id : productIds) {
+            futures.add(pool.submit(() -> get(id)));
+        }
+        for (Future<Product> future : futures) {
+            blackhole.consume(future.get());
+        }
+    }
+
+    @Benchmark
+    public Object asyncFanOut(Blackhole blackhole) throws Exception {
+        AsyncProductClient.FanOutResult result = asyncClient.fetchAll(productIds, blackhole::consume).get();
+        if (result.succeeded() != productIds.length) {
+            throw new IllegalStateException("Fan-out lost products: " + result.failures());
+        }
+        return result;
+    }
+
+    private Product get(int id) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(stub.baseUrl() + "/products/" + id))
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        return PRODUCT_READER.readValue(client.send(request, HttpResponse.BodyHandlers.ofByteArray()).body());
+    }
+}
@@ -0,0 +1,125 @@
+package qa.fakestore.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// Serialize / deserialize throughput for each model through every JSON path the suite could use.
+// Run with -prof gc (the default in the benchmark profile) to get allocation rate per operation:
+//   mvn -Pbenchmark test-compile exec:exec
+//   mvn -Pbenchmark test-compile exec:exec -Djmh.args="ModelSerializationBenchmark -p model=user -prof gc"
+// org.json works on Strings only; every Jackson variant reads and writes UTF-8 bytes, as the transport does.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModelSerializationBenchmark {
+
+    @Param({"product", "rating", "user", "cart"})
+    public String model;
+
+    private Object value;
+    private Class<?> type;
+    private byte[] jsonBytes;
+    private String jsonString;
+
+    private ObjectMapper plainMapper;
+    private ObjectReader reader;
+    private ObjectWriter writer;
+    private ObjectReader afterburnerReader;
+    private ObjectWriter afterburnerWriter;
+    private ObjectReader blackbirdReader;
+    private ObjectWriter blackbirdWriter;
+
+    @Setup
+    public void setUp() throws IOException {
+        value = BenchmarkFixtures.model(model);
+        type = value.getClass();
+
+        plainMapper = new ObjectMapper();
+        jsonBytes = plainMapper.writeValueAsBytes(value);
+        jsonString = new String(jsonBytes, StandardCharsets.UTF_8);
+
+        reader = plainMapper.readerFor(type);
+        writer = plainMapper.writerFor(type);
+
+        ObjectMapper afterburner = new ObjectMapper().registerModule(new AfterburnerModule());
+        afterburnerReader = afterburner.readerFor(type);
+        afterburnerWriter = afterburner.writerFor(type);
+
+        ObjectMapper blackbird = new ObjectMapper().registerModule(new BlackbirdModule());
+        blackbirdReader = blackbird.readerFor(type);
+        blackbirdWriter = blackbird.writerFor(type);
+    }
+
+    @Benchmark
+    public String serializeOrgJson() {
+        return OrgJsonCodec.toJson(value);
+    }
+
+    @Benchmark
+    public Object deserializeOrgJson() {
+        return OrgJsonCodec.fromJson(jsonString, type);
+    }
+
+    // Plain databind: what response.as(Product.class) and body(product) boil down to
+    @Benchmark
+    public byte[] serializeJackson() throws IOException {
+        return plainMapper.writeValueAsBytes(value);
+    }
+
+    @Benchmark
+    public Object deserializeJackson() throws IOException {
+        return plainMapper.readValue(jsonBytes, type);
+    }
+
+    // Pre-built reader/writer: skips the per-call root type lookup
+    @Benchmark
+    public byte[] serializeJacksonWriter() throws IOException {
+        return writer.writeValueAsBytes(value);
+    }
+
+    @Benchmark
+    public Object deserializeJacksonReader() throws IOException {
+        return reader.readValue(jsonBytes);
+    }
+
+    @Benchmark
+    public byte[] serializeAfterburner() throws IOException {
+        return afterburnerWriter.writeValueAsBytes(value);
+    }
+
+    @Benchmark
+    public Object deserializeAfterburner() throws IOException {
+        return afterburnerReader.readValue(jsonBytes);
+    }
+
+    @Benchmark
+    public byte[] serializeBlackbird() throws IOException {
+        return blackbirdWriter.writeValueAsBytes(value);
+    }
+
+    @Benchmark
+    public Object deserializeBlackbird() throws IOException {
+        return blackbirdReader.readValue(jsonBytes);
+    }
+}
@@ -0,0 +1,167 @@
+package qa.fakestore.benchmarks;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import qa.fakestore.models.Cart;
+import qa.fakestore.models.Product;
+import qa.fakestore.models.User;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// The org.json path as the tests use it today: hand-built JSONObject trees, toString(), and
+// field-by-field reads back out of a parsed tree
+public final class OrgJsonCodec {
+
+    private OrgJsonCodec() {
+    }
+
+    public static String toJson(Object model) {
+        if (model instanceof Product) {
+            return product((Product) model).toString();
+        }
+        if (model instanceof Product.Rating) {
+            return rating((Product.Rating) model).toString();
+        }
+        if (model instanceof User) {
+            return user((User) model).toString();
+        }
+        if (model instanceof Cart) {
+            return cart((Cart) model).toString();
+        }
+        throw new IllegalArgumentException("Unsupported model: " + model.getClass());
+    }
+
+    public static Object fromJson(String json, Class<?> type) {
+        JSONObject node = new JSONObject(json);
+        if (type == Product.class) {
+            return toProduct(node);
+        }
+        if (type == Product.Rating.class) {
+            return toRating(node);
+        }
+        if (type == User.class) {
+            return toUser(node);
+        }
+        if (type == Cart.class) {
+            return toCart(node);
+        }
+        throw new IllegalArgumentException("Unsupported model: " + type);
+    }
+
+    private static JSONObject product(Product product) {
+        JSONObject node = new JSONObject();
+        node.put("id", product.getId());
+        node.put("title", product.getTitle());
+        node.put("price", product.getPrice());
+        node.put("description", product.getDescription());
+        node.put("category", product.getCategory());
+        node.put("image", product.getImage());
+        node.put("rating", rating(product.getRating()));
+        return node;
+    }
+
+    private static JSONObject rating(Product.Rating rating) {
+        JSONObject node = new JSONObject();
+        node.put("rate", rating.getRate());
+        node.put("count", rating.getCount());
+        return node;
+    }
+
+    private static JSONObject user(User user) {
+        JSONObject name = new JSONObject();
+        name.put("firstname", user.getName().getFirstname());
+        name.put("lastname", user.getName().getLastname());
+
+        JSONObject geolocation = new JSONObject();
+        geolocation.put("lat", user.getAddress().getGeolocation().getLat());
+        geolocation.put("lng", user.getAddress().getGeolocation().getLng());
+
+        JSONObject address = new JSONObject();
+        address.put("city", user.getAddress().getCity());
+        address.put("street", user.getAddress().getStreet());
+        address.put("number", user.getAddress().getNumber());
+        address.put("zipcode", user.getAddress().getZipcode());
+        address.put("geolocation", geolocation);
+
+        JSONObject node = new JSONObject();
+        node.put("id", user.getId());
+        node.put("email", user.getEmail());
+        node.put("username", user.getUsername());
+        node.put("password", user.getPassword());
+        node.put("name", name);
+        node.put("address", address);
+        node.put("phone", user.getPhone());
+        return node;
+    }
+
+    private static JSONObject cart(Cart cart) {
+        JSONArray products = new JSONArray();
+        for (Cart.CartProduct line : cart.getProducts()) {
+            JSONObject item = new JSONObject();
+            item.put("productId", line.getProductId());
+            item.put("quantity", line.getQuantity());
+            products.put(item);
+        }
+        JSONObject node = new JSONObject();
+        node.put("id", cart.getId());
+        node.put("userId", cart.getUserId());
+        node.put("date", cart.getDate());
+        node.put("products", products);
+        return node;
+    }
+
+    private static Product toProduct(JSONObject node) {
+        Product product = new Product(node.getString("title"), node.getDouble("price"), node.getString("description"),
+                node.getString("category"), node.getString("image"));
+        product.setId(node.getInt("id"));
+        product.setRating(toRating(node.getJSONObject("rating")));
+        return product;
+    }
+
+    private static Product.Rating toRating(JSONObject node) {
+        Product.Rating rating = new Product.Rating();
+        rating.setRate(node.getDouble("rate"));
+        rating.setCount(node.getInt("count"));
+        return rating;
+    }
+
+    private static User toUser(JSONObject node) {
+        User user = new User(node.getString("email"), node.getString("username"), node.getString("password"));
+        user.setId(node.getInt("id"));
+        user.setPhone(node.getString("phone"));
+
+        JSONObject nameNode = node.getJSONObject("name");
+        User.Name name = new User.Name();
+        name.setFirstname(nameNode.getString("firstname"));
+        name.setLastname(nameNode.getString("lastname"));
+        user.setName(name);
+
+        JSONObject addressNode = node.getJSONObject("address");
+        JSONObject geolocationNode = addressNode.getJSONObject("geolocation");
+        User.Address.Geolocation geolocation = new User.Address.Geolocation();
+        geolocation.setLat(geolocationNode.getString("lat"));
+        geolocation.setLng(geolocationNode.getString("lng"));
+
+        User.Address address = new User.Address();
+        address.setCity(addressNode.getString("city"));
+        address.setStreet(addressNode.getString("street"));
+        address.setNumber(addressNode.getInt("number"));
+        address.setZipcode(addressNode.getString("zipcode"));
+        address.setGeolocation(geolocation);
+        user.setAddress(address);
+        return user;
+    }
+
+    private static Cart toCart(JSONObject node) {
+        JSONArray items = node.getJSONArray("products");
+        List<Cart.CartProduct> products = new ArrayList<>(items.length());
+        for (int i = 0; i < items.length(); i++) {
+            JSONObject item = items.getJSONObject(i);
+            products.add(new Cart.CartProduct(item.getInt("productId"), item.getInt("quantity")));
+        }
+        Cart cart = new Cart(node.getInt("userId"), node.getString("date"), products);
+        cart.setId(node.getInt("id"));
+        return cart;
+    }
+}
@@ -0,0 +1,118 @@
+package qa.fakestore.benchmarks;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import qa.fakestore.models.Product;
+import qa.fakestore.payload.PayloadBuffer;
+import qa.fakestore.payload.PayloadFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// Request body construction: the org.json trees the tests used to build versus PayloadFactory.
+// gc.alloc.rate.norm is the number to read; the factory writes into a reused buffer, so only the
+// exact-size copy handed to RestAssured remains, and the asEntity path allocates just the wrapper.
+//   mvn -Pbenchmark test-compile exec:exec -Djmh.args="PayloadBenchmark -prof gc"
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PayloadBenchmark {
+
+    @Param({"login", "cart", "product"})
+    public String payload;
+
+    // Cart lines per cart payload
+    @Param({"2", "20"})
+    public int lines;
+
+    private int[] productIds;
+    private int[] quantities;
+    private Product product;
+
+    @Setup
+    public void setUp() {
+        productIds = new int[lines];
+        quantities = new int[lines];
+        for (int i = 0; i < lines; i++) {
+            productIds[i] = i + 1;
+            quantities[i] = i % 5 + 1;
+        }
+        product = BenchmarkFixtures.product();
+    }
+
+    // What the tests did before: a JSONObject tree, toString(), then the String encoded for the wire
+    @Benchmark
+    public byte[] orgJson() {
+        return orgJsonBody().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Template into the thread's buffer, then the exact-size copy RestAssured's body(byte[]) needs
+    @Benchmark
+    public byte[] factoryToByteArray() {
+        return factoryBody().toByteArray();
+    }
+
+    // Template into the thread's buffer only: the floor when the transport takes offset/length
+    @Benchmark
+    public int factoryInPlace() {
+        return factoryBody().length();
+    }
+
+    private String orgJsonBody() {
+        JSONObject node = new JSONObject();
+        switch (payload) {
+            case "login":
+                node.put("username", "mor_2314");
+                node.put("password", "83r5^_");
+                return node.toString();
+            case "cart":
+                JSONArray products = new JSONArray();
+                for (int i = 0; i < lines; i++) {
+                    JSONObject line = new JSONObject();
+                    line.put("productId", productIds[i]);
+                    line.put("quantity", quantities[i]);
+                    products.put(line);
+                }
+                node.put("userId", 5);
+                node.put("date", "2024-01-01");
+                node.put("products", products);
+                return node.toString();
+            case "product":
+                node.put("title", product.getTitle());
+                node.put("price", product.getPrice());
+                node.put("description", product.getDescription());
+                node.put("category", product.getCategory());
+                node.put("image", product.getImage());
+                return node.toString();
+            default:
+                throw new IllegalArgumentException("Unknown payload: " + payload);
+        }
+    }
+
+    private PayloadBuffer factoryBody() {
+        switch (payload) {
+            case "login":
+                return PayloadFactory.login("mor_2314", "83r5^_");
+            case "cart":
+                return PayloadFactory.cart(5, "2024-01-01", productIds, quantities);
+            case "product":
+                return PayloadFactory.product(product);
+            default:
+                throw new IllegalArgumentException("Unknown payload: " + payload);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package qa.fakestore.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import qa.fakestore.payload.PayloadBuffer;
+import qa.fakestore.payload.PayloadGenerator;
+
+import java.util.concurrent.TimeUnit;
+
+// Distinct randomized bodies per second from four threads sharing one generator: written in place,
+// copied out for RestAssured, and the model-plus-Jackson route a generator would otherwise take.
+// Multiply ops/us by 60 million for bodies per minute; gc.alloc.rate.norm shows what each route leaves behind.
+//   mvn -Pbenchmark test-compile exec:exec -Djmh.args="PayloadGeneratorBenchmark -prof gc"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class PayloadGeneratorBenchmark {
+
+    @Param({"product", "user", "cart"})
+    public String payload;
+
+    private PayloadGenerator generator;
+    private ObjectMapper mapper;
+
+    @Setup
+    public void setUp() {
+        generator = new PayloadGenerator(42L).products(1_000_000, 1.1).users(100_000);
+        mapper = new ObjectMapper();
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        long index;
+    }
+
+    @Benchmark
+    public int inPlace(Cursor cursor) {
+        return body(cursor.index++).length();
+    }
+
+    @Benchmark
+    public byte[] toByteArray(Cursor cursor) {
+        return body(cursor.index++).toByteArray();
+    }
+
+    @Benchmark
+    public byte[] modelThroughJackson(Cursor cursor) throws JsonProcessingException {
+        return mapper.writeValueAsBytes(model(cursor.index++));
+    }
+
+    private PayloadBuffer body(long index) {
+        switch (payload) {
+            case "product":
+                return generator.product(index);
+            case "user":
+                return generator.user(index);
+            case "cart":
+                return generator.cart(index);
+            default:
+                throw new IllegalArgumentException("Unknown payload: " + payload);
+        }
+    }
+
+    private Object model(long index) {
+        switch (payload) {
+            case "product":
+                return generator.productModel(index);
+            case "user":
+                return generator.userModel(index);
+            case "cart":
+                return generator.cartModel(index);
+            default:
+                throw new IllegalArgumentException("Unknown payload: " + payload);
+        }
+    }
+}
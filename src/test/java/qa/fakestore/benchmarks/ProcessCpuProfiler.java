@@ -0,0 +1,53 @@
+package qa.fakestore.benchmarks;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.Collection;
+import java.util.Collections;
+
+// CPU time of the whole benchmark JVM per operation: caller thread, HTTP client I/O threads and GC
+// alike, which per-thread CPU clocks miss. Only meaningful when the server runs in another process.
+//   -prof qa.fakestore.benchmarks.ProcessCpuProfiler
+public class ProcessCpuProfiler implements InternalProfiler {
+
+    private final OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+    private long startCpuNanos;
+
+    @Override
+    public String getDescription() {
+        return "Process CPU time per operation";
+    }
+
+    @Override
+    public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+        startCpuNanos = processCpuNanos();
+    }
+
+    // InternalProfiler declares the raw Result type, so the override has to match it
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Collection<? extends Result> afterIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams,
+                                                       IterationResult result) {
+        long cpuNanos = processCpuNanos() - startCpuNanos;
+        long ops = result.getMetadata().getAllOps();
+        if (startCpuNanos < 0 || ops == 0) {
+            return Collections.emptyList();
+        }
+        return Collections.singletonList(
+                new ScalarResult("cpu.time.norm", cpuNanos / (double) ops, "ns/op", AggregationPolicy.AVG));
+    }
+
+    private long processCpuNanos() {
+        return os instanceof com.sun.management.OperatingSystemMXBean
+                ? ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuTime()
+                : -1;
+    }
+}
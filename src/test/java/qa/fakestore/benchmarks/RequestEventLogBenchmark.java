@@ -0,0 +1,76 @@
+package qa.fakestore.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import qa.fakestore.perf.RequestEventLog;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Caller-side cost of recording one request: RequestEventLog.record() versus the println of a
+// formatted line that was the only per-request record before. Four producer threads contend on the
+// ring while the drainer writes the mapped file in the background. The loop records millions of events
+// a second, far above any real request rate, so on few cores the ring fills and the tear-down reports
+// drops; a dropped event is cheaper than a recorded one, so compare runs with few drops.
+//   mvn -Pbenchmark test-compile exec:exec -Djmh.args="RequestEventLogBenchmark -prof gc"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class RequestEventLogBenchmark {
+
+    private Path directory;
+    private RequestEventLog log;
+    private PrintStream console;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("event-log-bench");
+        log = new RequestEventLog(directory.resolve("requests.fsev"), 1 << 20);
+        // Synchronized like System.out, but discarding bytes so terminal speed is not measured
+        console = new PrintStream(OutputStream.nullOutputStream(), true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        log.close();
+        System.out.println("events dropped: " + log.dropped());
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public void eventLog() {
+        long start = System.nanoTime();
+        log.record("GET", "/products/7", 200, start, 1_250_000, 0, 412);
+    }
+
+    @Benchmark
+    public void println() {
+        long start = System.nanoTime();
+        console.println("GET /products/7 -> 200 in " + (System.nanoTime() - start) / 1_000_000.0 + "ms, 412 bytes");
+    }
+}
@@ -0,0 +1,96 @@
+package qa.fakestore.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import qa.fakestore.models.Product;
+import qa.fakestore.stub.ProductCatalog;
+import qa.fakestore.validation.JsonSchema;
+import qa.fakestore.validation.JsonSchemas;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Validating a GET /products body: the compiled products schema on the raw bytes versus the two
+// approaches it replaced, an org.json tree with per-field checks and Jackson models with asserts.
+// The schema checks every field of every item; the others only what the old tests looked at.
+//   mvn -Pbenchmark test-compile exec:exec -Djmh.args="SchemaValidationBenchmark -prof gc"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SchemaValidationBenchmark {
+
+    @Param({"20", "1000"})
+    public int products;
+
+    private byte[] body;
+    private JsonSchema schema;
+    private ObjectReader reader;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        ObjectMapper mapper = new ObjectMapper();
+        ProductCatalog catalog = new ProductCatalog(products);
+        List<Product> listing = new ArrayList<>();
+        for (int id = 1; id <= products; id++) {
+            listing.add(catalog.get(id));
+        }
+        body = mapper.writeValueAsBytes(listing);
+        schema = JsonSchemas.get("products");
+        reader = mapper.readerFor(new TypeReference<List<Product>>() {
+        });
+    }
+
+    @Benchmark
+    public long compiledSchema() {
+        return schema.validate(body).violationCount();
+    }
+
+    @Benchmark
+    public int orgJsonTree() {
+        JSONArray items = new JSONArray(new String(body, StandardCharsets.UTF_8));
+        int valid = 0;
+        for (int i = 0; i < items.length(); i++) {
+            JSONObject item = items.getJSONObject(i);
+            if (item.has("id") && item.has("title") && item.getDouble("price") > 0 && item.has("category")) {
+                double rate = item.getJSONObject("rating").getDouble("rate");
+                valid += rate >= 0 && rate <= 5 ? 1 : 0;
+            }
+        }
+        return valid;
+    }
+
+    @Benchmark
+    public int jacksonModels() throws IOException {
+        List<Product> items = reader.readValue(body);
+        int valid = 0;
+        for (Product product : items) {
+            if (product.getTitle() != null && product.getPrice() > 0 && product.getCategory() != null
+                    && product.getRating() != null) {
+                double rate = product.getRating().getRate();
+                valid += rate >= 0 && rate <= 5 ? 1 : 0;
+            }
+        }
+        return valid;
+    }
+}
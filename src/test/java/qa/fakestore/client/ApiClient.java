@@ -0,0 +1,59 @@
+package qa.fakestore.client;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.util.NoSuchElementException;
+
+// Shared plumbing for the typed clients: status checks and Jackson decoding straight from the response
+// bytes. Clients are immutable and thread-safe; the optional authorization is sent on every call.
+abstract class ApiClient {
+
+    // The public API adds Mongo's "__v" to users and carts, which the models don't carry
+    static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    final ApiTransport transport;
+    final String authorization;
+
+    ApiClient(ApiTransport transport, String authorization) {
+        this.transport = transport;
+        this.authorization = authorization;
+    }
+
+    public ApiTransport transport() {
+        return transport;
+    }
+
+    <T> T call(String method, String path, byte[] body, ObjectReader reader) {
+        return decode(method, path, transport.send(method, path, body, authorization), reader);
+    }
+
+    <T> T call(String method, String path, Object body, ObjectWriter writer, ObjectReader reader) {
+        byte[] bytes;
+        try {
+            bytes = writer.writeValueAsBytes(body);
+        } catch (IOException e) {
+            throw new ApiException("Cannot encode " + method + " " + path + " body", -1, e);
+        }
+        return call(method, path, bytes, reader);
+    }
+
+    static <T> T decode(String method, String path, ApiResponse response, ObjectReader reader) {
+        if (!response.isSuccess()) {
+            throw new ApiException(method + " " + path + " returned HTTP " + response.statusCode()
+                    + ": " + response.bodyAsString(), response.statusCode(), null);
+        }
+        if (response.isNullBody()) {
+            throw new NoSuchElementException(method + " " + path + " returned null");
+        }
+        try {
+            return reader.readValue(response.body());
+        } catch (IOException e) {
+            throw new ApiException("Unreadable " + method + " " + path + " response", response.statusCode(), e);
+        }
+    }
+}
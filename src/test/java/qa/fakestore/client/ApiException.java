@@ -0,0 +1,18 @@
+package qa.fakestore.client;
+
+// Non-2xx answer or an undecodable body; carries the status so tests can still assert on it
+public class ApiException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int statusCode;
+
+    public ApiException(String message, int statusCode, Throwable cause) {
+        super(message, cause);
+        this.statusCode = statusCode;
+    }
+
+    public int statusCode() {
+        return statusCode;
+    }
+}
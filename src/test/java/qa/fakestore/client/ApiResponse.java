@@ -0,0 +1,36 @@
+package qa.fakestore.client;
+
+import java.nio.charset.StandardCharsets;
+
+// Status and raw body of one exchange; clients decode the bytes straight into model classes
+public final class ApiResponse {
+
+    private final int statusCode;
+    private final byte[] body;
+
+    public ApiResponse(int statusCode, byte[] body) {
+        this.statusCode = statusCode;
+        this.body = body == null ? new byte[0] : body;
+    }
+
+    public int statusCode() {
+        return statusCode;
+    }
+
+    public byte[] body() {
+        return body;
+    }
+
+    public boolean isSuccess() {
+        return statusCode >= 200 && statusCode < 300;
+    }
+
+    // The public API answers unknown ids with 200 and a literal null instead of 404
+    public boolean isNullBody() {
+        return body.length == 4 && body[0] == 'n' && body[1] == 'u' && body[2] == 'l' && body[3] == 'l';
+    }
+
+    public String bodyAsString() {
+        return new String(body, StandardCharsets.UTF_8);
+    }
+}
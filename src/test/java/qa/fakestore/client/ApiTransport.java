@@ -0,0 +1,32 @@
+package qa.fakestore.client;
+
+// Transport SPI behind the typed clients: one blocking HTTP exchange with an optional JSON body and
+// bearer token. RestAssuredTransport keeps the suite's filters, timing and pooled Apache client for
+// functional tests; JdkHttpTransport skips the RestAssured DSL entirely for load runs.
+public interface ApiTransport {
+
+    ApiResponse send(String method, String path, byte[] jsonBody, String authorization);
+
+    default ApiResponse get(String path) {
+        return send("GET", path, null, null);
+    }
+
+    String name();
+
+    // fakestore.transport=restassured|jdk, default restassured
+    static ApiTransport fromProperty(String baseUrl) {
+        return create(System.getProperty("fakestore.transport", "restassured"), baseUrl);
+    }
+
+    // Wrapped in a ResilientTransport when fakestore.retry.* or fakestore.hedge.* ask for one
+    static ApiTransport create(String name, String baseUrl) {
+        switch (name) {
+            case "restassured":
+                return ResilientTransport.fromProperties(new RestAssuredTransport(baseUrl));
+            case "jdk":
+                return ResilientTransport.fromProperties(new JdkHttpTransport(baseUrl));
+            default:
+                throw new IllegalArgumentException("Unknown transport '" + name + "', expected restassured or jdk");
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package qa.fakestore.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+import qa.fakestore.http.AuthTokenProvider;
+import qa.fakestore.payload.PayloadFactory;
+
+import java.util.NoSuchElementException;
+
+// POST /auth/login. Bad credentials come back as 200 "null" on the public API, 401 on newer builds;
+// both yield null here so callers can tell a rejected login from a transport failure.
+public class AuthClient extends ApiClient {
+
+    private static final ObjectReader TREE = MAPPER.readerFor(JsonNode.class);
+
+    public AuthClient(ApiTransport transport) {
+        super(transport, null);
+    }
+
+    public String login(String username, String password) {
+        ApiResponse response = transport.send("POST", "/auth/login",
+                PayloadFactory.login(username, password).toByteArray(), null);
+        if (response.statusCode() == 401) {
+            return null;
+        }
+        try {
+            JsonNode body = decode("POST", "/auth/login", response, TREE);
+            return body.path("token").isTextual() ? body.get("token").asText() : null;
+        } catch (NoSuchElementException e) {
+            return null;
+        }
+    }
+
+    // Plugs this client into a token cache, e.g. to log in over the JDK transport during load runs
+    public AuthTokenProvider.LoginCall asLoginCall() {
+        return this::login;
+    }
+}
@@ -0,0 +1,48 @@
+package qa.fakestore.client;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectReader;
+import qa.fakestore.models.Cart;
+import qa.fakestore.payload.PayloadFactory;
+
+import java.util.List;
+
+// Typed /carts calls; pass an authorization (AuthToken.bearer()) for the writes that need a login
+public class CartClient extends ApiClient {
+
+    private static final ObjectReader CART = MAPPER.readerFor(Cart.class);
+    private static final ObjectReader CARTS = MAPPER.readerFor(new TypeReference<List<Cart>>() {
+    });
+
+    public CartClient(ApiTransport transport) {
+        this(transport, null);
+    }
+
+    public CartClient(ApiTransport transport, String authorization) {
+        super(transport, authorization);
+    }
+
+    public List<Cart> list() {
+        return call("GET", "/carts", null, CARTS);
+    }
+
+    public Cart get(int id) {
+        return call("GET", "/carts/" + id, null, CART);
+    }
+
+    public List<Cart> byUser(int userId) {
+        return call("GET", "/carts/user/" + userId, null, CARTS);
+    }
+
+    public Cart create(Cart cart) {
+        return call("POST", "/carts", PayloadFactory.cart(cart).toByteArray(), CART);
+    }
+
+    public Cart update(int id, Cart cart) {
+        return call("PUT", "/carts/" + id, PayloadFactory.cart(cart).toByteArray(), CART);
+    }
+
+    public Cart delete(int id) {
+        return call("DELETE", "/carts/" + id, null, CART);
+    }
+}
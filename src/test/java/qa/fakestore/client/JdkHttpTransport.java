@@ -0,0 +1,77 @@
+package qa.fakestore.client;
+
+import qa.fakestore.http.JdkHttpClients;
+import qa.fakestore.perf.RequestEventLog;
+import qa.fakestore.perf.StartupTimer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+// Lean transport for load runs: the shared JDK HttpClient and its keep-alive pool, byte[] bodies in and
+// out, and none of RestAssured's specification merging, Groovy dispatch or filter chain. Requests are
+// therefore not timed by PhaseTimingFilter (LoadGenerator measures them itself) but still go to the
+// RequestEventLog. Timeouts follow fakestore.http.connectTimeoutMs and fakestore.http.readTimeoutMs.
+public class JdkHttpTransport implements ApiTransport {
+
+    private final String baseUrl;
+    private final Duration requestTimeout;
+    private final HttpClient client;
+
+    public JdkHttpTransport(String baseUrl) {
+        this(baseUrl, Duration.ofMillis(Integer.getInteger("fakestore.http.readTimeoutMs", 30000)));
+    }
+
+    // Transports are cheap to create: the underlying client and its pool are JVM-wide (JdkHttpClients)
+    public JdkHttpTransport(String baseUrl, Duration requestTimeout) {
+        this.baseUrl = baseUrl;
+        this.requestTimeout = requestTimeout;
+        this.client = JdkHttpClients.shared();
+    }
+
+    @Override
+    public ApiResponse send(String method, String path, byte[] jsonBody, String authorization) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(requestTimeout)
+                .header("Accept", "application/json")
+                .method(method, jsonBody == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(jsonBody));
+        if (jsonBody != null) {
+            request.header("Content-Type", "application/json");
+        }
+        if (authorization != null) {
+            request.header("Authorization", authorization);
+        }
+        long start = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            record(method, path, response.statusCode(), start, jsonBody, response.body().length);
+            return new ApiResponse(response.statusCode(), response.body());
+        } catch (IOException e) {
+            record(method, path, 0, start, jsonBody, 0);
+            throw new UncheckedIOException(method + " " + path + " failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(method + " " + path + " interrupted", e);
+        }
+    }
+
+    private static void record(String method, String path, int status, long start, byte[] body, long responseBytes) {
+        long latency = System.nanoTime() - start;
+        StartupTimer.requestCompleted(start, latency);
+        RequestEventLog events = RequestEventLog.shared();
+        if (events != null) {
+            events.record(method, path, status, start, latency, body == null ? 0 : body.length, responseBytes);
+        }
+    }
+
+    @Override
+    public String name() {
+        return "jdk";
+    }
+}
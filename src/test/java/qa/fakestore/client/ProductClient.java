@@ -0,0 +1,61 @@
+package qa.fakestore.client;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectReader;
+import qa.fakestore.models.Product;
+import qa.fakestore.payload.PayloadFactory;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+// Typed /products calls. Unknown ids fail with NoSuchElementException (the API answers 200 "null").
+public class ProductClient extends ApiClient {
+
+    private static final ObjectReader PRODUCT = MAPPER.readerFor(Product.class);
+    private static final ObjectReader PRODUCTS = MAPPER.readerFor(new TypeReference<List<Product>>() {
+    });
+    private static final ObjectReader STRINGS = MAPPER.readerFor(new TypeReference<List<String>>() {
+    });
+
+    public ProductClient(ApiTransport transport) {
+        this(transport, null);
+    }
+
+    public ProductClient(ApiTransport transport, String authorization) {
+        super(transport, authorization);
+    }
+
+    public List<Product> list() {
+        return call("GET", "/products", null, PRODUCTS);
+    }
+
+    public List<Product> list(int limit) {
+        return call("GET", "/products?limit=" + limit, null, PRODUCTS);
+    }
+
+    public Product get(int id) {
+        return call("GET", "/products/" + id, null, PRODUCT);
+    }
+
+    public List<Product> byCategory(String category) {
+        return call("GET", "/products/category/" + URLEncoder.encode(category, StandardCharsets.UTF_8).replace("+", "%20"),
+                null, PRODUCTS);
+    }
+
+    public List<String> categories() {
+        return call("GET", "/products/categories", null, STRINGS);
+    }
+
+    public Product create(Product product) {
+        return call("POST", "/products", PayloadFactory.product(product).toByteArray(), PRODUCT);
+    }
+
+    public Product update(int id, Product product) {
+        return call("PUT", "/products/" + id, PayloadFactory.product(product).toByteArray(), PRODUCT);
+    }
+
+    public Product delete(int id) {
+        return call("DELETE", "/products/" + id, null, PRODUCT);
+    }
+}
@@ -0,0 +1,275 @@
+package qa.fakestore.client;
+
+import qa.fakestore.util.Threads;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Decorator adding per-attempt deadlines, bounded retries and hedging to any ApiTransport.
+// Transport failures (reset, truncated body, timeout) and 429/502/503/504 are retried after a
+// full-jitter backoff, uniform in [0, min(maxDelay, baseDelay * 2^(attempt-1))); other statuses,
+// including 200 "null", are answers and come back as they are. A hedge is a second copy of a request
+// sent when the first has not answered within hedgeAfter; the first usable answer wins and the other
+// is cancelled. Only GET, HEAD, PUT and DELETE are retried or hedged unless retryNonIdempotent is set.
+// The attempt deadline covers the whole exchange, body included, which the JDK client's own request
+// timeout does not. ApiTransport.create() applies it from system properties:
+//   fakestore.retry.maxAttempts       (default 1, no retries)
+//   fakestore.retry.baseDelayMs       (default 50)
+//   fakestore.retry.maxDelayMs        (default 1000)
+//   fakestore.retry.attemptTimeoutMs  (default 0, none)
+//   fakestore.retry.nonIdempotent     (default false)
+//   fakestore.hedge.afterMs           (default 0, no hedging)
+public final class ResilientTransport implements ApiTransport {
+
+    // Attempts block a thread while the caller waits on them: virtual threads when the runtime has them
+    private static final ExecutorService ATTEMPTS = Threads.newPerTaskExecutor("resilient-transport");
+
+    private final ApiTransport delegate;
+    private int maxAttempts = 1;
+    private long baseDelayNanos = TimeUnit.MILLISECONDS.toNanos(50);
+    private long maxDelayNanos = TimeUnit.SECONDS.toNanos(1);
+    private long attemptTimeoutNanos;
+    private long hedgeAfterNanos;
+    private boolean retryNonIdempotent;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    private ResilientTransport(ApiTransport delegate) {
+        this.delegate = delegate;
+    }
+
+    public static ResilientTransport wrap(ApiTransport delegate) {
+        return new ResilientTransport(delegate);
+    }
+
+    // The transport itself when no property asks for retries, deadlines or hedging
+    public static ApiTransport fromProperties(ApiTransport delegate) {
+        int maxAttempts = Integer.getInteger("fakestore.retry.maxAttempts", 1);
+        long attemptTimeoutMs = Long.getLong("fakestore.retry.attemptTimeoutMs", 0L);
+        long hedgeAfterMs = Long.getLong("fakestore.hedge.afterMs", 0L);
+        if (maxAttempts <= 1 && attemptTimeoutMs <= 0 && hedgeAfterMs <= 0) {
+            return delegate;
+        }
+        return wrap(delegate)
+                .retries(maxAttempts, Duration.ofMillis(Long.getLong("fakestore.retry.baseDelayMs", 50L)),
+                        Duration.ofMillis(Long.getLong("fakestore.retry.maxDelayMs", 1000L)))
+                .attemptTimeout(Duration.ofMillis(attemptTimeoutMs))
+                .hedgeAfter(Duration.ofMillis(hedgeAfterMs))
+                .retryNonIdempotent(Boolean.getBoolean("fakestore.retry.nonIdempotent"));
+    }
+
+    public ResilientTransport retries(int maxAttempts, Duration baseDelay, Duration maxDelay) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be >= 1: " + maxAttempts);
+        }
+        this.maxAttempts = maxAttempts;
+        this.baseDelayNanos = baseDelay.toNanos();
+        this.maxDelayNanos = maxDelay.toNanos();
+        return this;
+    }
+
+    // Zero turns the deadline off
+    public ResilientTransport attemptTimeout(Duration timeout) {
+        this.attemptTimeoutNanos = timeout.toNanos();
+        return this;
+    }
+
+    // Zero turns hedging off
+    public ResilientTransport hedgeAfter(Duration delay) {
+        this.hedgeAfterNanos = delay.toNanos();
+        return this;
+    }
+
+    // POST and PATCH may be applied twice when retried or hedged; only for servers known to tolerate it
+    public ResilientTransport retryNonIdempotent(boolean retryNonIdempotent) {
+        this.retryNonIdempotent = retryNonIdempotent;
+        return this;
+    }
+
+    @Override
+    public ApiResponse send(String method, String path, byte[] jsonBody, String authorization) {
+        calls.increment();
+        boolean repeatable = retryNonIdempotent || isIdempotent(method);
+        int attempts = repeatable ? maxAttempts : 1;
+        for (int attempt = 1; ; attempt++) {
+            ApiResponse response = null;
+            Exception failure = null;
+            try {
+                response = attempt(method, path, jsonBody, authorization, repeatable);
+                if (!isRetryable(response.statusCode())) {
+                    return response;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(method + " " + path + " interrupted", e);
+            } catch (Exception e) {
+                if (!isRetryable(e)) {
+                    throw unchecked(e);
+                }
+                failure = e;
+            }
+            if (attempt >= attempts) {
+                if (response != null) {
+                    return response;
+                }
+                throw unchecked(failure);
+            }
+            retries.increment();
+            backoff(attempt, method, path);
+        }
+    }
+
+    @Override
+    public String name() {
+        return delegate.name();
+    }
+
+    public ApiTransport delegate() {
+        return delegate;
+    }
+
+    public long retries() {
+        return retries.sum();
+    }
+
+    public long hedges() {
+        return hedges.sum();
+    }
+
+    // Hedges whose answer was used because it beat the original request
+    public long hedgeWins() {
+        return hedgeWins.sum();
+    }
+
+    public long timeouts() {
+        return timeouts.sum();
+    }
+
+    public String stats() {
+        return String.format("%d calls, %d retries, %d timeouts, %d hedges (%d won)",
+                calls.sum(), retries(), timeouts(), hedges(), hedgeWins());
+    }
+
+    private ApiResponse attempt(String method, String path, byte[] jsonBody, String authorization, boolean repeatable)
+            throws Exception {
+        boolean hedge = repeatable && hedgeAfterNanos > 0;
+        if (attemptTimeoutNanos <= 0 && !hedge) {
+            return delegate.send(method, path, jsonBody, authorization);
+        }
+        Callable<ApiResponse> call = () -> delegate.send(method, path, jsonBody, authorization);
+        ExecutorCompletionService<ApiResponse> race = new ExecutorCompletionService<>(ATTEMPTS);
+        List<Future<ApiResponse>> started = new ArrayList<>(2);
+        long start = System.nanoTime();
+        long deadline = attemptTimeoutNanos > 0 ? start + attemptTimeoutNanos : Long.MAX_VALUE;
+        long hedgeAt = hedge ? start + hedgeAfterNanos : Long.MAX_VALUE;
+        started.add(race.submit(call));
+        try {
+            int pending = 1;
+            ApiResponse retryable = null;
+            Exception failure = null;
+            while (pending > 0) {
+                long wakeAt = Math.min(deadline, hedgeAt);
+                Future<ApiResponse> done = wakeAt == Long.MAX_VALUE
+                        ? race.take()
+                        : race.poll(wakeAt - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    if (attemptTimeoutNanos > 0 && System.nanoTime() - deadline >= 0) {
+                        timeouts.increment();
+                        throw new UncheckedIOException(new HttpTimeoutException(method + " " + path
+                                + " did not complete within " + TimeUnit.NANOSECONDS.toMillis(attemptTimeoutNanos) + "ms"));
+                    }
+                    if (hedgeAt != Long.MAX_VALUE && System.nanoTime() - hedgeAt >= 0) {
+                        hedges.increment();
+                        started.add(race.submit(call));
+                        hedgeAt = Long.MAX_VALUE;
+                        pending++;
+                    }
+                    continue;
+                }
+                pending--;
+                try {
+                    ApiResponse response = done.get();
+                    if (!isRetryable(response.statusCode())) {
+                        if (done != started.get(0)) {
+                            hedgeWins.increment();
+                        }
+                        return response;
+                    }
+                    retryable = response;
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof Error) {
+                        throw (Error) e.getCause();
+                    }
+                    failure = (Exception) e.getCause();
+                }
+            }
+            // Both copies, or the only one, failed: the retry loop decides what happens next
+            if (retryable != null) {
+                return retryable;
+            }
+            throw failure;
+        } finally {
+            for (Future<ApiResponse> future : started) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private void backoff(int attempt, String method, String path) {
+        long ceiling = Math.min(maxDelayNanos, baseDelayNanos << Math.min(attempt - 1, 30));
+        long delay = ceiling <= 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling);
+        try {
+            TimeUnit.NANOSECONDS.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(method + " " + path + " interrupted between retries", e);
+        }
+    }
+
+    private static boolean isIdempotent(String method) {
+        switch (method) {
+            case "GET":
+            case "HEAD":
+            case "PUT":
+            case "DELETE":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isRetryable(int status) {
+        return status == 429 || status == 502 || status == 503 || status == 504;
+    }
+
+    private static boolean isRetryable(Exception e) {
+        return e instanceof UncheckedIOException || e instanceof IOException;
+    }
+
+    // RestAssured rethrows checked IOExceptions undeclared, so a failure can be either kind
+    private static RuntimeException unchecked(Exception e) {
+        if (e instanceof RuntimeException) {
+            return (RuntimeException) e;
+        }
+        if (e instanceof IOException) {
+            return new UncheckedIOException((IOException) e);
+        }
+        return new IllegalStateException(e);
+    }
+}
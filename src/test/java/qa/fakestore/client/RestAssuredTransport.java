@@ -0,0 +1,41 @@
+package qa.fakestore.client;
+
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import qa.fakestore.http.HttpTransport;
+
+// Runs every exchange through the RestAssured DSL on the suite's pooled HttpTransport, so global
+// filters (phase timing, latency budgets and baselines) see client calls like any other request
+public class RestAssuredTransport implements ApiTransport {
+
+    private final RequestSpecification baseSpec;
+
+    public RestAssuredTransport(String baseUrl) {
+        baseSpec = new RequestSpecBuilder()
+                .setBaseUri(baseUrl)
+                .setConfig(RestAssured.config().httpClient(HttpTransport.shared().httpClientConfig()))
+                .addHeader("Content-Type", "application/json")
+                .addHeader("Accept", "application/json")
+                .build();
+    }
+
+    @Override
+    public ApiResponse send(String method, String path, byte[] jsonBody, String authorization) {
+        RequestSpecification request = RestAssured.given().spec(baseSpec);
+        if (authorization != null) {
+            request.header("Authorization", authorization);
+        }
+        if (jsonBody != null) {
+            request.body(jsonBody);
+        }
+        Response response = request.request(method, path);
+        return new ApiResponse(response.getStatusCode(), response.asByteArray());
+    }
+
+    @Override
+    public String name() {
+        return "restassured";
+    }
+}
@@ -0,0 +1,50 @@
+package qa.fakestore.client;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import qa.fakestore.models.User;
+
+import java.util.List;
+
+// Typed /users calls. Users have nested name/address objects, so writes go through Jackson
+// rather than a payload template.
+public class UserClient extends ApiClient {
+
+    private static final ObjectReader USER = MAPPER.readerFor(User.class);
+    private static final ObjectReader USERS = MAPPER.readerFor(new TypeReference<List<User>>() {
+    });
+    private static final ObjectWriter WRITER = MAPPER.writerFor(User.class);
+
+    public UserClient(ApiTransport transport) {
+        this(transport, null);
+    }
+
+    public UserClient(ApiTransport transport, String authorization) {
+        super(transport, authorization);
+    }
+
+    public List<User> list() {
+        return call("GET", "/users", null, USERS);
+    }
+
+    public List<User> list(int limit) {
+        return call("GET", "/users?limit=" + limit, null, USERS);
+    }
+
+    public User get(int id) {
+        return call("GET", "/users/" + id, null, USER);
+    }
+
+    public User create(User user) {
+        return call("POST", "/users", user, WRITER, USER);
+    }
+
+    public User update(int id, User user) {
+        return call("PUT", "/users/" + id, user, WRITER, USER);
+    }
+
+    public User delete(int id) {
+        return call("DELETE", "/users/" + id, null, USER);
+    }
+}
@@ -0,0 +1,196 @@
+package qa.fakestore.http;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import qa.fakestore.models.Product;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+// Non-blocking bulk GET /products/{id} on the JDK HttpClient. fetchAll() keeps at most maxInFlight
+// requests outstanding as a sliding window: each completion starts the next id, so no thread ever
+// blocks waiting for a permit. Products are handed to the consumer as they arrive (completion order,
+// not id order) and from several threads at once, so it must be thread-safe. Ids that fail, time out
+// or come back as "null" are collected instead of aborting the rest. Instances are cheap: they all
+// share the JVM-wide JdkHttpClients connection pool.
+public class AsyncProductClient {
+
+    private static final ObjectReader PRODUCT_READER = new ObjectMapper().readerFor(Product.class);
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final int maxInFlight;
+    private final Duration requestTimeout;
+
+    public AsyncProductClient(String baseUrl, int maxInFlight, Duration requestTimeout) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be >= 1: " + maxInFlight);
+        }
+        this.baseUrl = baseUrl;
+        this.maxInFlight = maxInFlight;
+        this.requestTimeout = requestTimeout;
+        this.client = JdkHttpClients.shared();
+    }
+
+    public int maxInFlight() {
+        return maxInFlight;
+    }
+
+    // Single product; fails with NoSuchElementException when the API answers "null"
+    public CompletableFuture<Product> fetch(int id) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/products/" + id))
+                .header("Accept", "application/json")
+                .timeout(requestTimeout)
+                .GET()
+                .build();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> parse(id, response))
+                // HttpRequest.timeout only covers the response headers; this bounds the body as well
+                .orTimeout(requestTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    // Ids must be distinct: failures are reported per id, so a repeated id could not be accounted for
+    public CompletableFuture<FanOutResult> fetchAll(int[] ids, Consumer<Product> onProduct) {
+        Set<Integer> distinct = new HashSet<>();
+        for (int id : ids) {
+            if (!distinct.add(id)) {
+                throw new IllegalArgumentException("Duplicate product id " + id + " in fetchAll");
+            }
+        }
+        FanOut fanOut = new FanOut(ids, onProduct);
+        for (int i = 0; i < Math.min(maxInFlight, ids.length); i++) {
+            fanOut.startNext();
+        }
+        if (ids.length == 0) {
+            fanOut.done.complete(fanOut.result());
+        }
+        return fanOut.done;
+    }
+
+    private static Product parse(int id, HttpResponse<byte[]> response) {
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET /products/" + id + " returned HTTP " + response.statusCode());
+        }
+        byte[] body = response.body();
+        if (body.length == 4 && body[0] == 'n' && body[1] == 'u' && body[2] == 'l' && body[3] == 'l') {
+            throw new NoSuchElementException("Product " + id + " not found");
+        }
+        try {
+            return PRODUCT_READER.readValue(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unreadable product " + id, e);
+        }
+    }
+
+    private final class FanOut {
+        final int[] ids;
+        final Consumer<Product> onProduct;
+        final AtomicInteger cursor = new AtomicInteger();
+        final AtomicInteger remaining;
+        final AtomicInteger succeeded = new AtomicInteger();
+        final Map<Integer, Throwable> failures = new ConcurrentHashMap<>();
+        final CompletableFuture<FanOutResult> done = new CompletableFuture<>();
+        final long startNanos = System.nanoTime();
+
+        FanOut(int[] ids, Consumer<Product> onProduct) {
+            this.ids = ids;
+            this.onProduct = onProduct;
+            this.remaining = new AtomicInteger(ids.length);
+        }
+
+        void startNext() {
+            int index = cursor.getAndIncrement();
+            if (index >= ids.length) {
+                return;
+            }
+            int id = ids[index];
+            CompletableFuture<Product> request;
+            try {
+                request = fetch(id);
+            } catch (RuntimeException e) {
+                // Thrown while building or submitting the request; inside a callback it would vanish
+                // with the window slot, so it goes down the same path as an asynchronous failure
+                request = CompletableFuture.failedFuture(e);
+            }
+            request.whenComplete((product, error) -> {
+                if (error == null) {
+                    try {
+                        onProduct.accept(product);
+                        succeeded.incrementAndGet();
+                    } catch (Throwable e) {
+                        // Assertions in the consumer included: the window must keep moving or done never completes
+                        failures.put(id, e);
+                    }
+                } else {
+                    failures.put(id, error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+                }
+                if (remaining.decrementAndGet() == 0) {
+                    done.complete(result());
+                } else {
+                    startNext();
+                }
+            });
+        }
+
+        FanOutResult result() {
+            return new FanOutResult(ids.length, succeeded.get(), failures, System.nanoTime() - startNanos);
+        }
+    }
+
+    public static final class FanOutResult {
+        private final int requested;
+        private final int succeeded;
+        private final Map<Integer, Throwable> failures;
+        private final long elapsedNanos;
+
+        FanOutResult(int requested, int succeeded, Map<Integer, Throwable> failures, long elapsedNanos) {
+            this.requested = requested;
+            this.succeeded = succeeded;
+            this.failures = Collections.unmodifiableMap(failures);
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public int requested() {
+            return requested;
+        }
+
+        public int succeeded() {
+            return succeeded;
+        }
+
+        // Failed id -> cause (timeout, HTTP error, "null" body, consumer exception)
+        public Map<Integer, Throwable> failures() {
+            return failures;
+        }
+
+        public long elapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public double productsPerSecond() {
+            return elapsedNanos <= 0 ? 0 : succeeded * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d/%d products in %.1fms (%.0f/s), %d failures", succeeded, requested,
+                    elapsedNanos / 1e6, productsPerSecond(), failures.size());
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package qa.fakestore.http;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.restassured.RestAssured;
+import io.restassured.response.Response;
+import qa.fakestore.base.TestEnvironment;
+import qa.fakestore.payload.PayloadFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+// Suite-scoped JWT cache for /auth/login: one login per credential set, shared by every thread.
+//   request().header("Authorization", AuthTokenProvider.shared().token("johnd", "m38rmF$").bearer())
+// The token's exp claim drives expiry (tokens without one get a default TTL). Inside the refresh-ahead
+// window one caller logs in again while everyone else keeps using the still-valid token; once a token
+// has expired, concurrent callers wait on that single login instead of each sending their own.
+public class AuthTokenProvider {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static AuthTokenProvider shared;
+
+    private final LoginCall loginCall;
+    private final long refreshAheadMillis;
+    private final long defaultTtlMillis;
+    // Longest a caller waits on another thread's login; above the default connect + read timeouts
+    private final long waitMillis = TimeUnit.SECONDS.toMillis(Long.getLong("fakestore.auth.waitSeconds", 60L));
+    private final Map<String, AuthToken> tokens = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<AuthToken>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder logins = new LongAdder();
+    private final LongAdder refreshesAhead = new LongAdder();
+    private final LongAdder collapsed = new LongAdder();
+
+    // Performs the actual login round trip and returns the raw token, or null when credentials are rejected
+    @FunctionalInterface
+    public interface LoginCall {
+        String login(String username, String password) throws Exception;
+    }
+
+    public AuthTokenProvider(LoginCall loginCall, Duration refreshAhead, Duration defaultTtl) {
+        this.loginCall = loginCall;
+        this.refreshAheadMillis = refreshAhead.toMillis();
+        this.defaultTtlMillis = defaultTtl.toMillis();
+    }
+
+    public static synchronized AuthTokenProvider shared() {
+        if (shared == null) {
+            shared = new AuthTokenProvider(
+                    AuthTokenProvider::restAssuredLogin,
+                    Duration.ofSeconds(Long.getLong("fakestore.auth.refreshAheadSeconds", 60L)),
+                    Duration.ofSeconds(Long.getLong("fakestore.auth.defaultTtlSeconds", 3600L)));
+        }
+        return shared;
+    }
+
+    public AuthToken token(String username, String password) {
+        String key = username + '\u0000' + password;
+        AuthToken current = tokens.get(key);
+        long now = System.currentTimeMillis();
+        if (current != null && now < current.refreshAt) {
+            hits.increment();
+            return current;
+        }
+
+        CompletableFuture<AuthToken> mine = new CompletableFuture<>();
+        CompletableFuture<AuthToken> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            if (current != null && now < current.expiresAt) {
+                // Someone is already refreshing ahead of expiry; the old token is still good
+                hits.increment();
+                return current;
+            }
+            collapsed.increment();
+            return await(leader, username);
+        }
+
+        try {
+            // Another thread may have finished a login between our lookup and winning the slot
+            AuthToken fresh = tokens.get(key);
+            if (fresh != null && fresh != current && System.currentTimeMillis() < fresh.refreshAt) {
+                hits.increment();
+                mine.complete(fresh);
+                return fresh;
+            }
+            if (current != null && now < current.expiresAt) {
+                refreshesAhead.increment();
+            }
+            AuthToken issued = login(username, password);
+            tokens.put(key, issued);
+            mine.complete(issued);
+            return issued;
+        } catch (Throwable t) {
+            // Errors too (e.g. a failed TestEnvironment initializer): waiters must never be left on an open future
+            mine.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    // Drop a token the server no longer accepts (e.g. after a 401) so the next call logs in again
+    public void invalidate(String username, String password) {
+        tokens.remove(username + '\u0000' + password);
+    }
+
+    public void clear() {
+        tokens.clear();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long logins() {
+        return logins.sum();
+    }
+
+    public long refreshesAhead() {
+        return refreshesAhead.sum();
+    }
+
+    public long collapsed() {
+        return collapsed.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "AuthTokenProvider{tokens=" + tokens.size() + ", hits=" + hits() + ", logins=" + logins()
+                + ", refreshesAhead=" + refreshesAhead() + ", collapsed=" + collapsed() + "}";
+    }
+
+    private AuthToken login(String username, String password) {
+        logins.increment();
+        String raw;
+        try {
+            raw = loginCall.login(username, password);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("Login failed for " + username + ": " + e.getMessage(), e);
+        }
+        if (raw == null || raw.isEmpty()) {
+            throw new IllegalStateException("Login rejected for " + username);
+        }
+        long issuedAt = System.currentTimeMillis();
+        Long exp = expiryMillis(raw);
+        long expiresAt = exp != null ? exp : issuedAt + defaultTtlMillis;
+        // Short-lived tokens refresh at half their life rather than never leaving the refresh window
+        long lead = Math.min(refreshAheadMillis, (expiresAt - issuedAt) / 2);
+        return new AuthToken(raw, expiresAt, expiresAt - lead);
+    }
+
+    // exp claim in epoch millis, or null when the token is not a JWT or carries no expiry
+    static Long expiryMillis(String token) {
+        String[] parts = token.split("\\.");
+        if (parts.length < 2) {
+            return null;
+        }
+        try {
+            JsonNode claims = MAPPER.readTree(Base64.getUrlDecoder().decode(parts[1]));
+            JsonNode exp = claims == null ? null : claims.get("exp");
+            return exp != null && exp.canConvertToLong() ? exp.asLong() * 1000 : null;
+        } catch (IllegalArgumentException | IOException e) {
+            return null;
+        }
+    }
+
+    private static String restAssuredLogin(String username, String password) throws IOException {
+        Response response = RestAssured.given()
+                .baseUri(TestEnvironment.baseUrl())
+                .contentType("application/json")
+                .body(PayloadFactory.login(username, password).toByteArray())
+                .when()
+                .post("/auth/login");
+        if (response.getStatusCode() != 200) {
+            throw new IllegalStateException("Login returned HTTP " + response.getStatusCode());
+        }
+        JsonNode body = MAPPER.readTree(response.asByteArray());
+        return body == null || !body.hasNonNull("token") ? null : body.get("token").asText();
+    }
+
+    // Bounded, so a leader that never finishes fails its waiters instead of hanging the suite
+    private AuthToken await(CompletableFuture<AuthToken> leader, String username) {
+        try {
+            return leader.get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for login of " + username, e);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("No login result for " + username + " after " + waitMillis + "ms", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public static final class AuthToken {
+        private final String value;
+        private final long expiresAt;
+        private final long refreshAt;
+
+        AuthToken(String value, long expiresAt, long refreshAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.refreshAt = refreshAt;
+        }
+
+        public String value() {
+            return value;
+        }
+
+        public String bearer() {
+            return "Bearer " + value;
+        }
+
+        public Instant expiresAt() {
+            return Instant.ofEpochMilli(expiresAt);
+        }
+
+        public Instant refreshAt() {
+            return Instant.ofEpochMilli(refreshAt);
+        }
+
+        public boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAt;
+        }
+    }
+}
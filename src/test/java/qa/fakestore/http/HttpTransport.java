@@ -0,0 +1,157 @@
+package qa.fakestore.http;
+
+import io.restassured.config.HttpClientConfig;
+import org.apache.http.HeaderElement;
+import org.apache.http.HeaderElementIterator;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.params.ClientPNames;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.message.BasicHeaderElementIterator;
+import org.apache.http.params.CoreConnectionPNames;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HTTP;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpRequestExecutor;
+import qa.fakestore.util.Threads;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Suite-scoped RestAssured transport: one thread-safe HttpClient over a bounded keep-alive pool,
+// shared by every test class and thread. Configured through system properties:
+//   fakestore.http.maxConnections   (default 64)     pool size, all routes
+//   fakestore.http.connectTimeoutMs (default 5000)
+//   fakestore.http.readTimeoutMs    (default 30000)
+//   fakestore.http.keepAliveMs      (default 30000)  cap when the server sends no Keep-Alive timeout
+//   fakestore.http.staleCheck       (default false)  per-request stale check, costs a blocking read each time
+@SuppressWarnings("deprecation")
+public final class HttpTransport implements HttpClientConfig.HttpClientFactory {
+
+    private static HttpTransport shared;
+
+    private final int maxConnections;
+    private final int connectTimeoutMs;
+    private final int readTimeoutMs;
+    private final long keepAliveMs;
+    private final boolean staleCheck;
+    private final TransportStats stats = new TransportStats();
+    private final PoolingClientConnectionManager connectionManager;
+    private final DefaultHttpClient client;
+    private final ScheduledExecutorService evictor;
+
+    public HttpTransport(int maxConnections, int connectTimeoutMs, int readTimeoutMs, long keepAliveMs, boolean staleCheck) {
+        this.maxConnections = maxConnections;
+        this.connectTimeoutMs = connectTimeoutMs;
+        this.readTimeoutMs = readTimeoutMs;
+        this.keepAliveMs = keepAliveMs;
+        this.staleCheck = staleCheck;
+
+        connectionManager = new PoolingClientConnectionManager(PhaseTimingHooks.timedSchemeRegistry());
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+
+        client = new DefaultHttpClient(connectionManager) {
+            @Override
+            protected HttpRequestExecutor createRequestExecutor() {
+                return new PhaseTimingHooks.TimedRequestExecutor(stats);
+            }
+
+            @Override
+            protected ConnectionKeepAliveStrategy createConnectionKeepAliveStrategy() {
+                return HttpTransport.this::keepAliveDuration;
+            }
+        };
+        // The same timeouts RestAssured copies in per request, for callers that use the client directly
+        client.getParams()
+                .setIntParameter(CoreConnectionPNames.CONNECTION_TIMEOUT, connectTimeoutMs)
+                .setIntParameter(CoreConnectionPNames.SO_TIMEOUT, readTimeoutMs)
+                .setBooleanParameter(CoreConnectionPNames.STALE_CONNECTION_CHECK, staleCheck)
+                .setLongParameter(ClientPNames.CONN_MANAGER_TIMEOUT, connectTimeoutMs);
+
+        // Drops sockets the server has likely closed, so stale checking can stay off on the hot path
+        evictor = Executors.newSingleThreadScheduledExecutor(Threads.daemonFactory("http-pool-evictor"));
+        long period = Math.max(1000, keepAliveMs / 2);
+        evictor.scheduleAtFixedRate(() -> {
+            connectionManager.closeExpiredConnections();
+            connectionManager.closeIdleConnections(keepAliveMs, TimeUnit.MILLISECONDS);
+        }, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    public static synchronized HttpTransport shared() {
+        if (shared == null) {
+            shared = new HttpTransport(
+                    Integer.getInteger("fakestore.http.maxConnections", 64),
+                    Integer.getInteger("fakestore.http.connectTimeoutMs", 5000),
+                    Integer.getInteger("fakestore.http.readTimeoutMs", 30000),
+                    Long.getLong("fakestore.http.keepAliveMs", 30000L),
+                    Boolean.getBoolean("fakestore.http.staleCheck"));
+        }
+        return shared;
+    }
+
+    // RestAssured applies these params to the client on every request and, because the instance is
+    // marked reusable, never shuts its connection manager down after a call
+    public HttpClientConfig httpClientConfig() {
+        return HttpClientConfig.httpClientConfig()
+                .httpClientFactory(this)
+                .reuseHttpClientInstance()
+                .setParam(CoreConnectionPNames.CONNECTION_TIMEOUT, connectTimeoutMs)
+                .setParam(CoreConnectionPNames.SO_TIMEOUT, readTimeoutMs)
+                .setParam(CoreConnectionPNames.STALE_CONNECTION_CHECK, staleCheck)
+                .setParam(ClientPNames.CONN_MANAGER_TIMEOUT, (long) connectTimeoutMs);
+    }
+
+    @Override
+    public HttpClient createHttpClient() {
+        return client;
+    }
+
+    public ClientConnectionManager connectionManager() {
+        return connectionManager;
+    }
+
+    public TransportStats stats() {
+        return stats;
+    }
+
+    public PoolStats poolStats() {
+        return connectionManager.getTotalStats();
+    }
+
+    public int maxConnections() {
+        return maxConnections;
+    }
+
+    public int connectTimeoutMs() {
+        return connectTimeoutMs;
+    }
+
+    public int readTimeoutMs() {
+        return readTimeoutMs;
+    }
+
+    public void shutdown() {
+        evictor.shutdownNow();
+        connectionManager.shutdown();
+    }
+
+    private long keepAliveDuration(HttpResponse response, HttpContext context) {
+        HeaderElementIterator it = new BasicHeaderElementIterator(response.headerIterator(HTTP.CONN_KEEP_ALIVE));
+        while (it.hasNext()) {
+            HeaderElement element = it.nextElement();
+            if ("timeout".equalsIgnoreCase(element.getName()) && element.getValue() != null) {
+                try {
+                    return Math.min(keepAliveMs, Long.parseLong(element.getValue()) * 1000);
+                } catch (NumberFormatException ignored) {
+                    // fall back to the configured cap
+                }
+            }
+        }
+        return keepAliveMs;
+    }
+}
@@ -0,0 +1,30 @@
+package qa.fakestore.http;
+
+import qa.fakestore.util.Threads;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+// One java.net.http client per JVM, shared by AsyncProductClient and the JDK API transport. Every
+// HttpClient owns a selector thread and an executor that live until it is garbage collected, so one
+// per test leaked threads across soak passes. Connect timeout follows fakestore.http.connectTimeoutMs;
+// callers set per-request timeouts themselves.
+public final class JdkHttpClients {
+
+    private static HttpClient shared;
+
+    private JdkHttpClients() {
+    }
+
+    public static synchronized HttpClient shared() {
+        if (shared == null) {
+            shared = HttpClient.newBuilder()
+                    // The stub and fakestoreapi.com both speak HTTP/1.1; skip the h2c upgrade attempt
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofMillis(Integer.getInteger("fakestore.http.connectTimeoutMs", 5000)))
+                    .executor(Threads.newPerTaskExecutor("jdk-http-client"))
+                    .build();
+        }
+        return shared;
+    }
+}
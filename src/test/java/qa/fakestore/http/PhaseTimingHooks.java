@@ -0,0 +1,191 @@
+package qa.fakestore.http;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpException;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.conn.scheme.Scheme;
+import org.apache.http.conn.scheme.SchemeLayeredSocketFactory;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.conn.scheme.SchemeSocketFactory;
+import org.apache.http.entity.HttpEntityWrapper;
+import org.apache.http.impl.conn.SchemeRegistryFactory;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpRequestExecutor;
+import qa.fakestore.perf.RequestTiming;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.UnknownHostException;
+
+// Phase hooks that HttpTransport installs into its HttpClient. RestAssured still drives HttpClient 4's
+// DefaultHttpClient, so they use its (deprecated) SPI: socket factories time connect + TLS handshake,
+// the request executor times write and first byte, and CountingEntity counts response bytes.
+@SuppressWarnings("deprecation")
+final class PhaseTimingHooks {
+
+    private PhaseTimingHooks() {
+    }
+
+    static SchemeRegistry timedSchemeRegistry() {
+        SchemeRegistry defaults = SchemeRegistryFactory.createDefault();
+        SchemeRegistry registry = new SchemeRegistry();
+        for (String name : defaults.getSchemeNames()) {
+            Scheme scheme = defaults.getScheme(name);
+            SchemeSocketFactory factory = scheme.getSchemeSocketFactory();
+            SchemeSocketFactory timed = factory instanceof SchemeLayeredSocketFactory
+                    ? new TimedLayeredSocketFactory((SchemeLayeredSocketFactory) factory)
+                    : new TimedSocketFactory(factory);
+            registry.register(new Scheme(name, scheme.getDefaultPort(), timed));
+        }
+        return registry;
+    }
+
+    static class TimedRequestExecutor extends HttpRequestExecutor {
+
+        private final TransportStats stats;
+
+        TimedRequestExecutor(TransportStats stats) {
+            this.stats = stats;
+        }
+
+        @Override
+        protected HttpResponse doSendRequest(HttpRequest request, HttpClientConnection conn, HttpContext context)
+                throws IOException, HttpException {
+            // Metrics live with the underlying socket, so a pooled connection keeps counting across leases
+            stats.recordRequest(conn.getMetrics().getRequestCount() > 0);
+            RequestTiming timing = RequestTiming.current();
+            if (timing != null) {
+                timing.markWriteStart(System.nanoTime());
+            }
+            HttpResponse response = super.doSendRequest(request, conn, context);
+            if (timing != null) {
+                timing.markWriteEnd(System.nanoTime());
+                if (request instanceof HttpEntityEnclosingRequest && ((HttpEntityEnclosingRequest) request).getEntity() != null) {
+                    timing.addRequestBytes(((HttpEntityEnclosingRequest) request).getEntity().getContentLength());
+                }
+            }
+            return response;
+        }
+
+        @Override
+        protected HttpResponse doReceiveResponse(HttpRequest request, HttpClientConnection conn, HttpContext context)
+                throws HttpException, IOException {
+            HttpResponse response = super.doReceiveResponse(request, conn, context);
+            RequestTiming timing = RequestTiming.current();
+            if (timing != null) {
+                timing.markHeadersReceived(System.nanoTime());
+                if (response.getEntity() != null) {
+                    response.setEntity(new CountingEntity(response.getEntity(), timing));
+                }
+            }
+            return response;
+        }
+    }
+
+    // Counts response body bytes into the request's timing as the caller reads them
+    static class CountingEntity extends HttpEntityWrapper {
+
+        private final RequestTiming timing;
+
+        CountingEntity(HttpEntity wrapped, RequestTiming timing) {
+            super(wrapped);
+            this.timing = timing;
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            return new FilterInputStream(super.getContent()) {
+                @Override
+                public int read() throws IOException {
+                    int b = super.read();
+                    if (b >= 0) {
+                        timing.addResponseBytes(1);
+                    }
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    int n = super.read(buffer, offset, length);
+                    if (n > 0) {
+                        timing.addResponseBytes(n);
+                    }
+                    return n;
+                }
+            };
+        }
+
+        // The wrapped writeTo would read the body around the counting stream
+        @Override
+        public void writeTo(OutputStream out) throws IOException {
+            try (InputStream in = getContent()) {
+                in.transferTo(out);
+            }
+        }
+    }
+
+    static class TimedSocketFactory implements SchemeSocketFactory {
+
+        final SchemeSocketFactory delegate;
+
+        TimedSocketFactory(SchemeSocketFactory delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Socket createSocket(HttpParams params) throws IOException {
+            return delegate.createSocket(params);
+        }
+
+        @Override
+        public Socket connectSocket(Socket sock, InetSocketAddress remoteAddress, InetSocketAddress localAddress,
+                                    HttpParams params) throws IOException, UnknownHostException, ConnectTimeoutException {
+            long start = System.nanoTime();
+            try {
+                return delegate.connectSocket(sock, remoteAddress, localAddress, params);
+            } finally {
+                recordConnect(start);
+            }
+        }
+
+        @Override
+        public boolean isSecure(Socket sock) throws IllegalArgumentException {
+            return delegate.isSecure(sock);
+        }
+
+        static void recordConnect(long start) {
+            RequestTiming timing = RequestTiming.current();
+            if (timing != null) {
+                timing.addConnect(System.nanoTime() - start);
+            }
+        }
+    }
+
+    static class TimedLayeredSocketFactory extends TimedSocketFactory implements SchemeLayeredSocketFactory {
+
+        TimedLayeredSocketFactory(SchemeLayeredSocketFactory delegate) {
+            super(delegate);
+        }
+
+        // Used for TLS on top of a proxy tunnel
+        @Override
+        public Socket createLayeredSocket(Socket socket, String target, int port, HttpParams params)
+                throws IOException, UnknownHostException {
+            long start = System.nanoTime();
+            try {
+                return ((SchemeLayeredSocketFactory) delegate).createLayeredSocket(socket, target, port, params);
+            } finally {
+                recordConnect(start);
+            }
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package qa.fakestore.http;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+// Opt-in, suite-scoped cache for idempotent read-only fixtures. Add it per request:
+//   request.filter(ResponseCache.shared()).when().get("/products/categories")
+// Only GET 200 responses are stored. Entries live for a TTL, the map is LRU-bounded by entry count and
+// body bytes, expired entries carrying an ETag are revalidated with If-None-Match, and concurrent
+// identical requests share one in-flight call. Perf tests must not add this filter.
+public class ResponseCache implements OrderedFilter {
+
+    public static final String CACHE_HEADER = "X-Fakestore-Cache";
+
+    private static ResponseCache shared;
+
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final long maxBytes;
+    private final boolean enabled;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, CompletableFuture<Entry>> inFlight = new ConcurrentHashMap<>();
+    private long totalBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+    private final LongAdder collapsed = new LongAdder();
+
+    public ResponseCache(Duration ttl, int maxEntries, long maxBytes, boolean enabled) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.enabled = enabled;
+    }
+
+    public static synchronized ResponseCache shared() {
+        if (shared == null) {
+            shared = new ResponseCache(
+                    Duration.ofSeconds(Long.getLong("fakestore.cache.ttlSeconds", 300L)),
+                    Integer.getInteger("fakestore.cache.maxEntries", 256),
+                    Long.getLong("fakestore.cache.maxBytes", 32L * 1024 * 1024),
+                    Boolean.parseBoolean(System.getProperty("fakestore.cache.enabled", "true")));
+        }
+        return shared;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        if (!enabled || !"GET".equalsIgnoreCase(requestSpec.getMethod())) {
+            return ctx.next(requestSpec, responseSpec);
+        }
+        String key = requestSpec.getURI() + " " + requestSpec.getHeaders().getValue("Accept");
+        Entry cached = lookup(key);
+        if (cached != null && cached.expiresAt - System.nanoTime() > 0) {
+            hits.increment();
+            return cached.toResponse("HIT");
+        }
+
+        CompletableFuture<Entry> mine = new CompletableFuture<>();
+        CompletableFuture<Entry> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            collapsed.increment();
+            Entry shared = await(leader);
+            // The leader's response was not cacheable (error status, too large): fetch our own copy
+            return shared != null ? shared.toResponse("COLLAPSED") : ctx.next(requestSpec, responseSpec);
+        }
+
+        Entry stored = null;
+        try {
+            if (cached != null && cached.etag != null) {
+                requestSpec.header("If-None-Match", cached.etag);
+            }
+            Response response = ctx.next(requestSpec, responseSpec);
+            long expiresAt = System.nanoTime() + ttlNanos;
+            if (response.getStatusCode() == 304 && cached != null) {
+                revalidations.increment();
+                stored = cached.renew(expiresAt);
+                store(key, stored);
+                return stored.toResponse("REVALIDATED");
+            }
+            misses.increment();
+            if (response.getStatusCode() == 200) {
+                stored = new Entry(response, expiresAt);
+                store(key, stored);
+            }
+            return response;
+        } finally {
+            inFlight.remove(key, mine);
+            mine.complete(stored);
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return DEFAULT_PRECEDENCE;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long revalidations() {
+        return revalidations.sum();
+    }
+
+    public long collapsed() {
+        return collapsed.sum();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        totalBytes = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "ResponseCache{entries=" + size() + ", hits=" + hits() + ", misses=" + misses()
+                + ", revalidations=" + revalidations() + ", collapsed=" + collapsed() + "}";
+    }
+
+    private synchronized Entry lookup(String key) {
+        return entries.get(key);
+    }
+
+    private synchronized void store(String key, Entry entry) {
+        // One oversized listing must not flush every other fixture
+        if (entry.body.length > maxBytes / 4) {
+            return;
+        }
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            totalBytes -= previous.body.length;
+        }
+        totalBytes += entry.body.length;
+        Iterator<Entry> eldest = entries.values().iterator();
+        while ((entries.size() > maxEntries || totalBytes > maxBytes) && eldest.hasNext()) {
+            totalBytes -= eldest.next().body.length;
+            eldest.remove();
+        }
+    }
+
+    private static Entry await(CompletableFuture<Entry> leader) {
+        try {
+            return leader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+    private static final class Entry {
+        final byte[] body;
+        final String statusLine;
+        final String contentType;
+        final Headers headers;
+        final String etag;
+        final long expiresAt;
+
+        Entry(Response response, long expiresAt) {
+            this(response.asByteArray(), response.getStatusLine(), response.getContentType(), response.getHeaders(),
+                    response.getHeader("ETag"), expiresAt);
+        }
+
+        private Entry(byte[] body, String statusLine, String contentType, Headers headers, String etag, long expiresAt) {
+            this.body = body;
+            this.statusLine = statusLine;
+            this.contentType = contentType;
+            this.headers = headers;
+            this.etag = etag;
+            this.expiresAt = expiresAt;
+        }
+
+        Entry renew(long newExpiresAt) {
+            return new Entry(body, statusLine, contentType, headers, etag, newExpiresAt);
+        }
+
+        Response toResponse(String cacheStatus) {
+            List<Header> copy = new ArrayList<>();
+            for (Header header : headers) {
+                if (!header.getName().equalsIgnoreCase(CACHE_HEADER)) {
+                    copy.add(header);
+                }
+            }
+            copy.add(new Header(CACHE_HEADER, cacheStatus));
+            return new ResponseBuilder()
+                    .setStatusCode(200)
+                    .setStatusLine(statusLine)
+                    .setHeaders(new Headers(copy))
+                    .setContentType(contentType)
+                    .setBody(body)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package qa.fakestore.http;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Counts requests by whether they went out on a freshly opened socket or a kept-alive one
+public class TransportStats {
+
+    private final LongAdder newConnections = new LongAdder();
+    private final LongAdder reusedConnections = new LongAdder();
+
+    void recordRequest(boolean reused) {
+        if (reused) {
+            reusedConnections.increment();
+        } else {
+            newConnections.increment();
+        }
+    }
+
+    public long requests() {
+        return newConnections.sum() + reusedConnections.sum();
+    }
+
+    public long newConnections() {
+        return newConnections.sum();
+    }
+
+    public long reusedConnections() {
+        return reusedConnections.sum();
+    }
+
+    public double reuseRatio() {
+        long requests = requests();
+        return requests == 0 ? 0 : (double) reusedConnections() / requests;
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(newConnections(), reusedConnections());
+    }
+
+    // Point-in-time copy, so a test can report only the connections its own requests caused
+    public static class Snapshot {
+        private final long newConnections;
+        private final long reusedConnections;
+
+        Snapshot(long newConnections, long reusedConnections) {
+            this.newConnections = newConnections;
+            this.reusedConnections = reusedConnections;
+        }
+
+        public long newConnections() {
+            return newConnections;
+        }
+
+        public long reusedConnections() {
+            return reusedConnections;
+        }
+
+        public long requests() {
+            return newConnections + reusedConnections;
+        }
+
+        public Snapshot since(Snapshot earlier) {
+            return new Snapshot(newConnections - earlier.newConnections, reusedConnections - earlier.reusedConnections);
+        }
+
+        @Override
+        public String toString() {
+            return requests() + " requests, " + newConnections + " new connections, " + reusedConnections + " reused";
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package qa.fakestore.logging;
+
+public enum LogLevel {
+    DEBUG, INFO, WARN, ERROR, OFF
+}
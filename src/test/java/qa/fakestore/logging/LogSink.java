@@ -0,0 +1,238 @@
+package qa.fakestore.logging;
+
+import java.io.PrintStream;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Replaces System.out.println in tests. Test threads never touch the stdout lock: a message below the
+// level threshold costs one comparison, DEBUG/INFO beyond ratePerType messages per second for the same
+// template are counted as sampled out, and the rest are formatted and offered to a bounded queue. A
+// daemon thread writes queued lines to stdout in batches. When the queue is full the line is dropped
+// and counted instead of blocking the test. WARN and ERROR are never sampled. Configured through:
+//   fakestore.log.level        DEBUG, INFO, WARN, ERROR or OFF (default INFO)
+//   fakestore.log.async        false writes on the calling thread, in order (default true)
+//   fakestore.log.queueSize    queued lines before dropping (default 8192)
+//   fakestore.log.ratePerType  DEBUG/INFO lines per second per template, 0 = unlimited (default 20)
+public final class LogSink {
+
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss.SSS", Locale.ROOT)
+            .withZone(ZoneId.systemDefault());
+    // Templates built by concatenation would otherwise grow the sampler without bound
+    private static final int MAX_SAMPLED_TYPES = 10_000;
+
+    private static volatile LogSink shared;
+
+    private final LogLevel threshold;
+    private final boolean async;
+    private final int ratePerType;
+    private final PrintStream out;
+    private final BlockingQueue<String> queue;
+    private final Map<String, RateWindow> windows = new ConcurrentHashMap<>();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder sampled = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public LogSink(LogLevel threshold, boolean async, int queueSize, int ratePerType, PrintStream out) {
+        this.threshold = threshold;
+        this.async = async;
+        this.ratePerType = ratePerType;
+        this.out = out;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueSize));
+        if (async) {
+            writer = new Thread(this::writeLoop, "log-sink");
+            writer.setDaemon(true);
+            writer.start();
+        } else {
+            writer = null;
+        }
+    }
+
+    public static LogSink shared() {
+        LogSink sink = shared;
+        if (sink == null) {
+            synchronized (LogSink.class) {
+                if (shared == null) {
+                    shared = fromProperties();
+                    Runtime.getRuntime().addShutdownHook(new Thread(() -> shared.close(), "log-sink-shutdown"));
+                }
+                sink = shared;
+            }
+        }
+        return sink;
+    }
+
+    // Swaps the sink every TestLog writes to, e.g. for runners that compare logging modes; the old one is drained
+    public static void install(LogSink sink) {
+        LogSink previous;
+        synchronized (LogSink.class) {
+            shared();
+            previous = shared;
+            shared = sink;
+        }
+        previous.close();
+    }
+
+    public static LogSink fromProperties() {
+        return new LogSink(
+                LogLevel.valueOf(System.getProperty("fakestore.log.level", "INFO").toUpperCase(Locale.ROOT)),
+                Boolean.parseBoolean(System.getProperty("fakestore.log.async", "true")),
+                Integer.getInteger("fakestore.log.queueSize", 8192),
+                Integer.getInteger("fakestore.log.ratePerType", 20),
+                System.out);
+    }
+
+    public boolean isEnabled(LogLevel level) {
+        return level.compareTo(threshold) >= 0 && level != LogLevel.OFF;
+    }
+
+    void log(LogLevel level, String owner, String template, Object[] args) {
+        if (!isEnabled(level)) {
+            return;
+        }
+        if (level.compareTo(LogLevel.WARN) < 0 && !admit(template)) {
+            sampled.increment();
+            return;
+        }
+        String line = format(level, owner, template, args);
+        if (!async) {
+            accepted.increment();
+            out.println(line);
+            written.increment();
+        } else if (queue.offer(line)) {
+            accepted.increment();
+        } else {
+            dropped.increment();
+        }
+    }
+
+    public long written() {
+        return written.sum();
+    }
+
+    public long sampled() {
+        return sampled.sum();
+    }
+
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    public String stats() {
+        return String.format("%d lines written, %d sampled out, %d dropped (level %s, %s)",
+                written(), sampled(), dropped(), threshold, async ? "async" : "sync");
+    }
+
+    // Waits until every accepted line has been written
+    public void flush() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (running && written.sum() < accepted.sum() && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        out.flush();
+    }
+
+    public void close() {
+        flush();
+        running = false;
+        if (writer != null) {
+            writer.interrupt();
+        }
+    }
+
+    private boolean admit(String template) {
+        if (ratePerType <= 0) {
+            return true;
+        }
+        RateWindow window = windows.get(template);
+        if (window == null) {
+            if (windows.size() >= MAX_SAMPLED_TYPES) {
+                return true;
+            }
+            window = windows.computeIfAbsent(template, t -> new RateWindow());
+        }
+        return window.admit(System.nanoTime() / 1_000_000_000L, ratePerType);
+    }
+
+    private static String format(LogLevel level, String owner, String template, Object[] args) {
+        StringBuilder line = new StringBuilder(template.length() + 64);
+        TIME.formatTo(Instant.now(), line);
+        line.append(' ').append(level.name());
+        for (int pad = level.name().length(); pad < 5; pad++) {
+            line.append(' ');
+        }
+        line.append(" [").append(Thread.currentThread().getName()).append("] ").append(owner).append(" - ");
+        int argument = 0;
+        int from = 0;
+        int at;
+        while ((at = template.indexOf("{}", from)) >= 0) {
+            line.append(template, from, at);
+            line.append(args != null && argument < args.length ? String.valueOf(args[argument++]) : "{}");
+            from = at + 2;
+        }
+        return line.append(template, from, template.length()).toString();
+    }
+
+    private void writeLoop() {
+        List<String> batch = new ArrayList<>(256);
+        StringBuilder text = new StringBuilder(16 * 1024);
+        String separator = System.lineSeparator();
+        while (running) {
+            try {
+                String first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                // close(): fall through and write what is left
+            }
+            queue.drainTo(batch, 255);
+            for (String line : batch) {
+                text.append(line).append(separator);
+            }
+            // One write and one stdout lock acquisition per batch instead of per line
+            out.print(text);
+            out.flush();
+            written.add(batch.size());
+            batch.clear();
+            text.setLength(0);
+        }
+    }
+
+    // Fixed one-second window per template
+    private static final class RateWindow {
+        private volatile long second = Long.MIN_VALUE;
+        private final AtomicInteger count = new AtomicInteger();
+
+        boolean admit(long now, int limit) {
+            if (second != now) {
+                synchronized (this) {
+                    if (second != now) {
+                        count.set(0);
+                        second = now;
+                    }
+                }
+            }
+            return count.incrementAndGet() <= limit;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package qa.fakestore.logging;
+
+// Call-site facade over the shared LogSink. Messages use "{}" placeholders, and the template itself is
+// the message type for rate sampling, so a line logged from a hot loop is sampled on its own without
+// muting anything else. Arguments are only formatted once the level and the sampler let a message through.
+public final class TestLog {
+
+    private final String owner;
+
+    private TestLog(String owner) {
+        this.owner = owner;
+    }
+
+    public static TestLog get(Class<?> type) {
+        return new TestLog(type.getSimpleName());
+    }
+
+    public boolean isDebugEnabled() {
+        return LogSink.shared().isEnabled(LogLevel.DEBUG);
+    }
+
+    public void debug(String template, Object... args) {
+        LogSink.shared().log(LogLevel.DEBUG, owner, template, args);
+    }
+
+    public void info(String template, Object... args) {
+        LogSink.shared().log(LogLevel.INFO, owner, template, args);
+    }
+
+    public void warn(String template, Object... args) {
+        LogSink.shared().log(LogLevel.WARN, owner, template, args);
+    }
+
+    public void error(String template, Object... args) {
+        LogSink.shared().log(LogLevel.ERROR, owner, template, args);
+    }
+}
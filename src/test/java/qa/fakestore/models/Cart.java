@@ -0,0 +1,88 @@
+package qa.fakestore.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// The public API adds a Mongo "__v" field to carts, which we don't model
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class Cart {
+    private int id;
+    private int userId;
+    private String date;
+    private List<CartProduct> products = new ArrayList<>();
+
+    // Constructors
+    public Cart() {
+    }
+
+    public Cart(int userId, String date, List<CartProduct> products) {
+        this.userId = userId;
+        this.date = date;
+        this.products = products;
+    }
+
+    // Getters and Setters
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+
+    public String getDate() {
+        return date;
+    }
+
+    public void setDate(String date) {
+        this.date = date;
+    }
+
+    public List<CartProduct> getProducts() {
+        return products;
+    }
+
+    public void setProducts(List<CartProduct> products) {
+        this.products = products;
+    }
+
+    // Inner class for cart line items
+    public static class CartProduct {
+        private int productId;
+        private int quantity;
+
+        public CartProduct() {
+        }
+
+        public CartProduct(int productId, int quantity) {
+            this.productId = productId;
+            this.quantity = quantity;
+        }
+
+        public int getProductId() {
+            return productId;
+        }
+
+        public void setProductId(int productId) {
+            this.productId = productId;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(int quantity) {
+            this.quantity = quantity;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package qa.fakestore.payload;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// A JSON body with {{name}} slots, split once into constant UTF-8 fragments. Filling a slot is a
+// value write plus an arraycopy of the next fragment; nothing is parsed or allocated per request.
+public final class JsonTemplate {
+
+    private final byte[][] fragments;
+    private final List<String> slotNames;
+
+    private JsonTemplate(byte[][] fragments, List<String> slotNames) {
+        this.fragments = fragments;
+        this.slotNames = slotNames;
+    }
+
+    public static JsonTemplate compile(String template) {
+        List<byte[]> fragments = new ArrayList<>();
+        List<String> slotNames = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int open = template.indexOf("{{", position);
+            if (open < 0) {
+                fragments.add(template.substring(position).getBytes(StandardCharsets.UTF_8));
+                break;
+            }
+            int close = template.indexOf("}}", open + 2);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed slot at offset " + open + ": " + template);
+            }
+            fragments.add(template.substring(position, open).getBytes(StandardCharsets.UTF_8));
+            slotNames.add(template.substring(open + 2, close).trim());
+            position = close + 2;
+        }
+        return new JsonTemplate(fragments.toArray(new byte[0][]), Collections.unmodifiableList(slotNames));
+    }
+
+    public int slotCount() {
+        return slotNames.size();
+    }
+
+    public List<String> slotNames() {
+        return slotNames;
+    }
+
+    void writeFragment(PayloadBuffer buffer, int index) {
+        buffer.writeRaw(fragments[index]);
+    }
+}
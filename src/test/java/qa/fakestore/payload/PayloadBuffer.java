@@ -0,0 +1,234 @@
+package qa.fakestore.payload;
+
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+
+import java.util.Arrays;
+
+// Growable UTF-8 byte buffer that JSON payloads are written into directly. Meant to be reused:
+// reset() keeps the backing array, so steady-state payload writing allocates nothing.
+public final class PayloadBuffer {
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+    private static final long[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000, 10_000_000, 100_000_000};
+
+    private byte[] bytes;
+    private int length;
+
+    // Template cursor state, see begin(JsonTemplate)
+    private JsonTemplate template;
+    private int slot;
+
+    public PayloadBuffer() {
+        this(256);
+    }
+
+    public PayloadBuffer(int initialCapacity) {
+        bytes = new byte[initialCapacity];
+    }
+
+    public PayloadBuffer reset() {
+        length = 0;
+        template = null;
+        slot = 0;
+        return this;
+    }
+
+    // Backing array; only the first length() bytes are payload
+    public byte[] array() {
+        return bytes;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    // Exact-size copy, for APIs (RestAssured's body(byte[])) that cannot take an offset/length pair
+    public byte[] toByteArray() {
+        return Arrays.copyOf(bytes, length);
+    }
+
+    // Wraps the backing array without copying; valid until the buffer is reset
+    public ByteArrayEntity asEntity() {
+        return new ByteArrayEntity(bytes, 0, length, ContentType.APPLICATION_JSON);
+    }
+
+    // ---- template cursor: begin() writes the leading fragment, each value call fills the next slot
+    // and writes the fragment that follows it, end() checks every slot was filled
+
+    public PayloadBuffer begin(JsonTemplate template) {
+        reset();
+        this.template = template;
+        template.writeFragment(this, 0);
+        return this;
+    }
+
+    public PayloadBuffer string(CharSequence value) {
+        checkSlot();
+        writeString(value);
+        return nextFragment();
+    }
+
+    public PayloadBuffer number(long value) {
+        checkSlot();
+        writeLong(value);
+        return nextFragment();
+    }
+
+    public PayloadBuffer decimal(double value, int scale) {
+        checkSlot();
+        writeDecimal(value, scale);
+        return nextFragment();
+    }
+
+    // Lets the caller write an arbitrary JSON value for the current slot, then closeSlot()
+    public PayloadBuffer openSlot() {
+        checkSlot();
+        return this;
+    }
+
+    public PayloadBuffer closeSlot() {
+        return nextFragment();
+    }
+
+    public PayloadBuffer end() {
+        if (template == null || slot != template.slotCount()) {
+            throw new IllegalStateException("Template not complete: filled " + slot + " of "
+                    + (template == null ? 0 : template.slotCount()) + " slots");
+        }
+        template = null;
+        return this;
+    }
+
+    // ---- raw writers
+
+    public PayloadBuffer writeByte(int b) {
+        ensure(1);
+        bytes[length++] = (byte) b;
+        return this;
+    }
+
+    public PayloadBuffer writeRaw(byte[] source) {
+        ensure(source.length);
+        System.arraycopy(source, 0, bytes, length, source.length);
+        length += source.length;
+        return this;
+    }
+
+    public PayloadBuffer writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            return writeAscii("-9223372036854775808");
+        }
+        ensure(20);
+        if (value < 0) {
+            bytes[length++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long probe = value; probe >= 10; probe /= 10) {
+            digits++;
+        }
+        for (int i = length + digits - 1; i >= length; i--) {
+            bytes[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        length += digits;
+        return this;
+    }
+
+    // Fixed-point formatting (no Double.toString garbage); scale is the number of decimals, 0-8
+    public PayloadBuffer writeDecimal(double value, int scale) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new IllegalArgumentException("JSON cannot represent " + value);
+        }
+        if (scale < 0 || scale >= POWERS_OF_TEN.length) {
+            throw new IllegalArgumentException("Scale must be between 0 and 8: " + scale);
+        }
+        long factor = POWERS_OF_TEN[scale];
+        long scaled = Math.round(Math.abs(value) * factor);
+        if (value < 0 && scaled != 0) {
+            writeByte('-');
+        }
+        writeLong(scaled / factor);
+        if (scale > 0) {
+            writeByte('.');
+            long fraction = scaled % factor;
+            for (long divisor = factor / 10; divisor > 0; divisor /= 10) {
+                writeByte('0' + (int) (fraction / divisor % 10));
+            }
+        }
+        return this;
+    }
+
+    // Quoted, escaped JSON string, encoded to UTF-8 in place
+    public PayloadBuffer writeString(CharSequence value) {
+        if (value == null) {
+            return writeAscii("null");
+        }
+        ensure(value.length() * 3 + 2);
+        bytes[length++] = '"';
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                ensure(2 + (value.length() - i) * 3);
+                bytes[length++] = '\\';
+                bytes[length++] = (byte) c;
+            } else if (c < 0x20) {
+                ensure(6 + (value.length() - i) * 3);
+                bytes[length++] = '\\';
+                bytes[length++] = 'u';
+                bytes[length++] = '0';
+                bytes[length++] = '0';
+                bytes[length++] = HEX[c >> 4];
+                bytes[length++] = HEX[c & 0xF];
+            } else if (c < 0x80) {
+                bytes[length++] = (byte) c;
+            } else if (c < 0x800) {
+                bytes[length++] = (byte) (0xC0 | (c >> 6));
+                bytes[length++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                bytes[length++] = (byte) (0xF0 | (codePoint >> 18));
+                bytes[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                bytes[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                bytes[length++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else {
+                bytes[length++] = (byte) (0xE0 | (c >> 12));
+                bytes[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                bytes[length++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        ensure(1);
+        bytes[length++] = '"';
+        return this;
+    }
+
+    private PayloadBuffer writeAscii(String text) {
+        ensure(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            bytes[length++] = (byte) text.charAt(i);
+        }
+        return this;
+    }
+
+    private void checkSlot() {
+        if (template == null) {
+            throw new IllegalStateException("No template in progress, call begin() first");
+        }
+        if (slot >= template.slotCount()) {
+            throw new IllegalStateException("Template has only " + template.slotCount() + " slots");
+        }
+    }
+
+    private PayloadBuffer nextFragment() {
+        template.writeFragment(this, ++slot);
+        return this;
+    }
+
+    private void ensure(int extra) {
+        if (length + extra > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package qa.fakestore.payload;
+
+import qa.fakestore.models.Cart;
+import qa.fakestore.models.Product;
+import qa.fakestore.models.User;
+
+import java.util.List;
+
+// Request bodies for login, cart, product and user calls, written from pre-compiled templates into a
+// per-thread buffer. The returned buffer is reused by the next call on the same thread, so hand it
+// to the transport (toByteArray(), asEntity()) before building another payload.
+public final class PayloadFactory {
+
+    static final JsonTemplate LOGIN = JsonTemplate.compile(
+            "{\"username\":{{username}},\"password\":{{password}}}");
+    static final JsonTemplate CART = JsonTemplate.compile(
+            "{\"userId\":{{userId}},\"date\":{{date}},\"products\":{{products}}}");
+    static final JsonTemplate CART_LINE = JsonTemplate.compile(
+            "{\"productId\":{{productId}},\"quantity\":{{quantity}}}");
+    static final JsonTemplate PRODUCT = JsonTemplate.compile(
+            "{\"title\":{{title}},\"price\":{{price}},\"description\":{{description}},"
+                    + "\"category\":{{category}},\"image\":{{image}}}");
+    static final JsonTemplate USER = JsonTemplate.compile(
+            "{\"email\":{{email}},\"username\":{{username}},\"password\":{{password}},"
+                    + "\"name\":{\"firstname\":{{firstname}},\"lastname\":{{lastname}}},"
+                    + "\"address\":{\"city\":{{city}},\"street\":{{street}},\"number\":{{number}},"
+                    + "\"zipcode\":{{zipcode}},\"geolocation\":{\"lat\":{{lat}},\"lng\":{{lng}}}},"
+                    + "\"phone\":{{phone}}}");
+
+    private static final ThreadLocal<PayloadBuffer> BUFFER = ThreadLocal.withInitial(PayloadBuffer::new);
+
+    private PayloadFactory() {
+    }
+
+    public static PayloadBuffer login(CharSequence username, CharSequence password) {
+        return BUFFER.get()
+                .begin(LOGIN)
+                .string(username)
+                .string(password)
+                .end();
+    }
+
+    // productIds and quantities are parallel arrays, one entry per cart line
+    public static PayloadBuffer cart(int userId, CharSequence date, int[] productIds, int[] quantities) {
+        if (productIds.length != quantities.length) {
+            throw new IllegalArgumentException("productIds and quantities differ in length: "
+                    + productIds.length + " vs " + quantities.length);
+        }
+        PayloadBuffer buffer = BUFFER.get()
+                .begin(CART)
+                .number(userId)
+                .string(date)
+                .openSlot();
+        buffer.writeByte('[');
+        for (int i = 0; i < productIds.length; i++) {
+            if (i > 0) {
+                buffer.writeByte(',');
+            }
+            writeCartLine(buffer, productIds[i], quantities[i]);
+        }
+        buffer.writeByte(']');
+        return buffer.closeSlot().end();
+    }
+
+    public static PayloadBuffer cart(Cart cart) {
+        PayloadBuffer buffer = BUFFER.get()
+                .begin(CART)
+                .number(cart.getUserId())
+                .string(cart.getDate())
+                .openSlot();
+        buffer.writeByte('[');
+        List<Cart.CartProduct> lines = cart.getProducts();
+        for (int i = 0; i < lines.size(); i++) {
+            if (i > 0) {
+                buffer.writeByte(',');
+            }
+            writeCartLine(buffer, lines.get(i).getProductId(), lines.get(i).getQuantity());
+        }
+        buffer.writeByte(']');
+        return buffer.closeSlot().end();
+    }
+
+    // Create/update body: the fields the API accepts, without id and rating
+    public static PayloadBuffer product(Product product) {
+        return product(product.getTitle(), product.getPrice(), product.getDescription(),
+                product.getCategory(), product.getImage());
+    }
+
+    public static PayloadBuffer product(CharSequence title, double price, CharSequence description,
+                                        CharSequence category, CharSequence image) {
+        return BUFFER.get()
+                .begin(PRODUCT)
+                .string(title)
+                .decimal(price, 2)
+                .string(description)
+                .string(category)
+                .string(image)
+                .end();
+    }
+
+    // Create/update body: every field but id; name and address must be set
+    public static PayloadBuffer user(User user) {
+        User.Address address = user.getAddress();
+        User.Address.Geolocation geolocation = address.getGeolocation();
+        return BUFFER.get()
+                .begin(USER)
+                .string(user.getEmail())
+                .string(user.getUsername())
+                .string(user.getPassword())
+                .string(user.getName().getFirstname())
+                .string(user.getName().getLastname())
+                .string(address.getCity())
+                .string(address.getStreet())
+                .number(address.getNumber())
+                .string(address.getZipcode())
+                .string(geolocation == null ? null : geolocation.getLat())
+                .string(geolocation == null ? null : geolocation.getLng())
+                .string(user.getPhone())
+                .end();
+    }
+
+    static void writeCartLine(PayloadBuffer buffer, int productId, int quantity) {
+        CART_LINE.writeFragment(buffer, 0);
+        buffer.writeLong(productId);
+        CART_LINE.writeFragment(buffer, 1);
+        buffer.writeLong(quantity);
+        CART_LINE.writeFragment(buffer, 2);
+    }
+}
@@ -0,0 +1,507 @@
+package qa.fakestore.payload;
+
+import qa.fakestore.logging.TestLog;
+import qa.fakestore.models.Cart;
+import qa.fakestore.models.Product;
+import qa.fakestore.models.User;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Randomized, reproducible Product, User and Cart bodies for write-path and load tests. Payload n is
+// a pure function of (seed, n), like the stub's catalog, so any thread can build any index and a failing
+// body can be rebuilt from the seed and index in the log. product(n), user(n) and cart(n) write through
+// the PayloadFactory templates into a per-thread buffer, with text assembled in per-thread builders,
+// so a body costs no garbage beyond the copy handed to the transport; the *Model(n) variants build the
+// same values as objects for assertions. Distributions:
+//   category    Zipf over categories with exponent categorySkew (0 = uniform)
+//   price       log-uniform within the category's price range, in cents
+//   cart        1 + geometric extra lines with mean cartMeanLines, capped at cartMaxLines; product ids
+//               Zipf(productSkew) over 1..products, quantities 1 + geometric with mean quantityMean
+// Configure before sharing across threads. shared() reads:
+//   fakestore.payload.seed           (default: random per JVM, logged so a run can be replayed)
+//   fakestore.payload.categorySkew   (default 1.0)
+//   fakestore.payload.productSkew    (default 1.1)
+//   fakestore.payload.products       (default 20, ids that exist in the default stub catalog)
+//   fakestore.payload.users          (default 10)
+//   fakestore.payload.cartMeanLines  (default 3.0)
+//   fakestore.payload.cartMaxLines   (default 20)
+//   fakestore.payload.minPrice / maxPrice  (default per-category ranges)
+public final class PayloadGenerator {
+
+    private static final TestLog LOG = TestLog.get(PayloadGenerator.class);
+
+    private static final int PRODUCT = 0;
+    private static final int USER = 1;
+    private static final int CART = 2;
+
+    private static final List<String> DEFAULT_CATEGORIES = Arrays.asList(
+            "electronics", "jewelery", "men's clothing", "women's clothing");
+    // Per default category, roughly the spread of the public API's catalog
+    private static final double[][] DEFAULT_PRICES = {{9.99, 999.99}, {4.99, 695.0}, {7.95, 55.99}, {4.99, 56.99}};
+    private static final String[][] NOUNS = {
+            {"SSD", "Monitor", "Hard Drive", "USB Stick", "Headphones", "Keyboard", "Router", "Webcam"},
+            {"Bracelet", "Ring", "Necklace", "Earrings", "Pendant", "Brooch", "Anklet", "Cufflinks"},
+            {"Backpack", "Jacket", "T-Shirt", "Slim Fit Shirt", "Sweater", "Jeans", "Hoodie", "Chinos"},
+            {"Rain Jacket", "Dress", "Blouse", "Moto Jacket", "Short Sleeve Top", "Skirt", "Cardigan", "Jumpsuit"}
+    };
+    private static final String[] ADJECTIVES = {"Classic", "Premium", "Casual", "Ultra", "Slim", "Vintage",
+            "Essential", "Compact", "Rugged", "Lightweight", "Deluxe", "Everyday"};
+    private static final String[] COLORS = {"black", "white", "navy", "olive", "silver", "rose gold", "charcoal",
+            "burgundy", "sand", "teal"};
+    private static final String[] FEATURES = {"built to last", "with a lifetime warranty", "for everyday use",
+            "made from recycled materials", "in a gift box", "with free returns", "limited edition"};
+    private static final String[] FIRST_NAMES = {"john", "david", "kevin", "don", "derek", "david", "miriam",
+            "william", "kate", "jimmie", "olivia", "emma", "liam", "noah", "ava", "sophia", "lucas", "mia",
+            "ethan", "zoe"};
+    private static final String[] LAST_NAMES = {"doe", "morrison", "ryan", "romer", "powell", "russell", "snyder",
+            "hopkins", "hale", "klein", "garcia", "nguyen", "patel", "kowalski", "silva", "yilmaz", "berg",
+            "okafor", "tanaka", "novak"};
+    private static final String[] CITIES = {"kilcoole", "san antonio", "cullman", "el paso", "fresno", "mesa",
+            "miami", "fort wayne", "boston", "denver", "portland", "austin"};
+    private static final String[] STREETS = {"new road", "prospect st", "hunters creek dr", "frances ct",
+            "lovers ln", "spring st", "avondale ave", "oak lawn ave", "main st", "park ave", "lake view dr"};
+    private static final String[] DOMAINS = {"gmail.com", "example.com", "mail.test", "fakestore.dev"};
+    private static final char[] PASSWORD_CHARS =
+            "abcdefghijkmnopqrstuvwxyzABCDEFGHJKLMNPQRSTUVWXYZ23456789!#$%^&*_".toCharArray();
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+    private static PayloadGenerator shared;
+
+    private final long seed;
+    private final AtomicLong next = new AtomicLong();
+    private List<String> categories;
+    private double[][] prices;
+    private double categorySkew = 1.0;
+    private double[] categoryCdf;
+    private int products = 20;
+    private double productSkew = 1.1;
+    private int users = 10;
+    private double cartMeanLines = 3.0;
+    private int cartMaxLines = 20;
+    private double quantityMean = 2.0;
+    private long firstDay = LocalDate.of(2019, 1, 1).toEpochDay();
+    private long lastDay = LocalDate.of(2024, 12, 31).toEpochDay();
+
+    public PayloadGenerator(long seed) {
+        this.seed = seed;
+        // Copies the default price ranges, so priceRange() never writes into DEFAULT_PRICES
+        categories(DEFAULT_CATEGORIES);
+    }
+
+    public static synchronized PayloadGenerator shared() {
+        if (shared == null) {
+            shared = fromProperties();
+            LOG.info("🎲 Payload seed {} (replay with -Dfakestore.payload.seed={})", shared.seed, shared.seed);
+        }
+        return shared;
+    }
+
+    public static PayloadGenerator fromProperties() {
+        String seed = System.getProperty("fakestore.payload.seed");
+        PayloadGenerator generator = new PayloadGenerator(seed == null ? System.nanoTime() : Long.parseLong(seed))
+                .categorySkew(Double.parseDouble(System.getProperty("fakestore.payload.categorySkew", "1.0")))
+                .products(Integer.getInteger("fakestore.payload.products", 20),
+                        Double.parseDouble(System.getProperty("fakestore.payload.productSkew", "1.1")))
+                .users(Integer.getInteger("fakestore.payload.users", 10))
+                .cartLines(Double.parseDouble(System.getProperty("fakestore.payload.cartMeanLines", "3.0")),
+                        Integer.getInteger("fakestore.payload.cartMaxLines", 20));
+        String minPrice = System.getProperty("fakestore.payload.minPrice");
+        String maxPrice = System.getProperty("fakestore.payload.maxPrice");
+        if (minPrice != null || maxPrice != null) {
+            generator.priceRange(Double.parseDouble(minPrice == null ? "0.01" : minPrice),
+                    Double.parseDouble(maxPrice == null ? "1000" : maxPrice));
+        }
+        return generator;
+    }
+
+    // Categories in popularity order; the first is the most frequent under a positive skew
+    public PayloadGenerator categories(List<String> categories) {
+        if (categories.isEmpty()) {
+            throw new IllegalArgumentException("At least one category is required");
+        }
+        double[][] ranges = new double[categories.size()][];
+        for (int i = 0; i < ranges.length; i++) {
+            int known = DEFAULT_CATEGORIES.indexOf(categories.get(i));
+            ranges[i] = (known >= 0 ? DEFAULT_PRICES[known] : DEFAULT_PRICES[0]).clone();
+        }
+        this.categories = new ArrayList<>(categories);
+        this.prices = ranges;
+        this.categoryCdf = zipfCdf(categories.size(), categorySkew);
+        return this;
+    }
+
+    public PayloadGenerator categorySkew(double exponent) {
+        if (exponent < 0) {
+            throw new IllegalArgumentException("Category skew must not be negative: " + exponent);
+        }
+        this.categorySkew = exponent;
+        this.categoryCdf = zipfCdf(categories.size(), exponent);
+        return this;
+    }
+
+    public PayloadGenerator priceRange(double min, double max) {
+        for (String category : categories) {
+            priceRange(category, min, max);
+        }
+        return this;
+    }
+
+    public PayloadGenerator priceRange(String category, double min, double max) {
+        int index = categories.indexOf(category);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown category: " + category);
+        }
+        if (min <= 0 || max < min) {
+            throw new IllegalArgumentException("Price range must satisfy 0 < min <= max: " + min + ".." + max);
+        }
+        prices[index] = new double[]{min, max};
+        return this;
+    }
+
+    // Cart lines and product ids reference 1..count, popularity Zipf-distributed with the given exponent
+    public PayloadGenerator products(int count, double skew) {
+        if (count < 1 || skew < 0) {
+            throw new IllegalArgumentException("Need at least one product and a non-negative skew: " + count + ", " + skew);
+        }
+        this.products = count;
+        this.productSkew = skew;
+        return this;
+    }
+
+    public PayloadGenerator users(int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Need at least one user: " + count);
+        }
+        this.users = count;
+        return this;
+    }
+
+    public PayloadGenerator cartLines(double mean, int max) {
+        if (mean < 1 || max < 1) {
+            throw new IllegalArgumentException("Cart lines need mean >= 1 and max >= 1: " + mean + ", " + max);
+        }
+        this.cartMeanLines = mean;
+        this.cartMaxLines = max;
+        return this;
+    }
+
+    public PayloadGenerator quantities(double mean) {
+        if (mean < 1) {
+            throw new IllegalArgumentException("Mean quantity must be at least 1: " + mean);
+        }
+        this.quantityMean = mean;
+        return this;
+    }
+
+    public PayloadGenerator dates(LocalDate first, LocalDate last) {
+        if (last.isBefore(first)) {
+            throw new IllegalArgumentException("Date range is reversed: " + first + ".." + last);
+        }
+        this.firstDay = first.toEpochDay();
+        this.lastDay = last.toEpochDay();
+        return this;
+    }
+
+    public long seed() {
+        return seed;
+    }
+
+    // Distinct indices for concurrent callers; the bodies stay reproducible from (seed, index)
+    public long nextIndex() {
+        return next.getAndIncrement();
+    }
+
+    // Create/update body for product n; reused by the next product/user/cart call on this thread
+    public PayloadBuffer product(long n) {
+        Scratch s = drawProduct(n);
+        return s.buffer
+                .begin(PayloadFactory.PRODUCT)
+                .string(s.title)
+                .decimal(s.price, 2)
+                .string(s.description)
+                .string(categories.get(s.category))
+                .string(s.image)
+                .end();
+    }
+
+    public Product productModel(long n) {
+        Scratch s = drawProduct(n);
+        Product product = new Product(s.title.toString(), s.price, s.description.toString(),
+                categories.get(s.category), s.image.toString());
+        Product.Rating rating = new Product.Rating();
+        rating.setRate(s.rate);
+        rating.setCount(s.ratingCount);
+        product.setRating(rating);
+        return product;
+    }
+
+    public PayloadBuffer user(long n) {
+        Scratch s = drawUser(n);
+        return s.buffer
+                .begin(PayloadFactory.USER)
+                .string(s.email)
+                .string(s.username)
+                .string(s.password)
+                .string(s.firstname)
+                .string(s.lastname)
+                .string(s.city)
+                .string(s.street)
+                .number(s.number)
+                .string(s.zipcode)
+                .string(s.lat)
+                .string(s.lng)
+                .string(s.phone)
+                .end();
+    }
+
+    public User userModel(long n) {
+        Scratch s = drawUser(n);
+        User user = new User(s.email.toString(), s.username.toString(), s.password.toString());
+        User.Name name = new User.Name();
+        name.setFirstname(s.firstname);
+        name.setLastname(s.lastname);
+        user.setName(name);
+        User.Address.Geolocation geolocation = new User.Address.Geolocation();
+        geolocation.setLat(s.lat.toString());
+        geolocation.setLng(s.lng.toString());
+        User.Address address = new User.Address();
+        address.setCity(s.city);
+        address.setStreet(s.street);
+        address.setNumber(s.number);
+        address.setZipcode(s.zipcode.toString());
+        address.setGeolocation(geolocation);
+        user.setAddress(address);
+        user.setPhone(s.phone.toString());
+        return user;
+    }
+
+    public PayloadBuffer cart(long n) {
+        Scratch s = drawCart(n);
+        PayloadBuffer buffer = s.buffer
+                .begin(PayloadFactory.CART)
+                .number(s.userId)
+                .string(s.date)
+                .openSlot();
+        buffer.writeByte('[');
+        for (int i = 0; i < s.lines; i++) {
+            if (i > 0) {
+                buffer.writeByte(',');
+            }
+            PayloadFactory.writeCartLine(buffer, s.productIds[i], s.quantities[i]);
+        }
+        buffer.writeByte(']');
+        return buffer.closeSlot().end();
+    }
+
+    public Cart cartModel(long n) {
+        Scratch s = drawCart(n);
+        List<Cart.CartProduct> lines = new ArrayList<>(s.lines);
+        for (int i = 0; i < s.lines; i++) {
+            lines.add(new Cart.CartProduct(s.productIds[i], s.quantities[i]));
+        }
+        return new Cart(s.userId, s.date.toString(), lines);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "PayloadGenerator{seed=%d, categories=%s, categorySkew=%.2f, products=%d, "
+                        + "productSkew=%.2f, users=%d, cartLines=%.1f/%d, quantity=%.1f}", seed, categories, categorySkew,
+                products, productSkew, users, cartMeanLines, cartMaxLines, quantityMean);
+    }
+
+    private SplittableRandom random(int kind, long n) {
+        return new SplittableRandom((seed * 31 + n) * 3 + kind);
+    }
+
+    private Scratch drawProduct(long n) {
+        Scratch s = SCRATCH.get();
+        SplittableRandom random = random(PRODUCT, n);
+        s.category = pick(categoryCdf, random.nextDouble());
+        String[] nouns = NOUNS[s.category % NOUNS.length];
+        String noun = nouns[random.nextInt(nouns.length)];
+        String adjective = ADJECTIVES[random.nextInt(ADJECTIVES.length)];
+
+        s.title.setLength(0);
+        s.title.append(adjective).append(' ').append(noun).append(' ').append(n);
+        s.description.setLength(0);
+        s.description.append(adjective).append(' ').append(noun).append(" in ")
+                .append(COLORS[random.nextInt(COLORS.length)]).append(", ")
+                .append(FEATURES[random.nextInt(FEATURES.length)]);
+        s.image.setLength(0);
+        s.image.append("https://fakestoreapi.com/img/generated/").append(n).append(".jpg");
+
+        double[] range = prices[s.category];
+        double price = Math.exp(Math.log(range[0]) + random.nextDouble() * (Math.log(range[1]) - Math.log(range[0])));
+        s.price = Math.round(price * 100) / 100.0;
+        s.rate = Math.round(random.nextDouble(1.0, 5.0) * 10) / 10.0;
+        s.ratingCount = random.nextInt(1000);
+        return s;
+    }
+
+    private Scratch drawUser(long n) {
+        Scratch s = SCRATCH.get();
+        SplittableRandom random = random(USER, n);
+        s.firstname = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        s.lastname = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+
+        s.username.setLength(0);
+        s.username.append(s.firstname.charAt(0)).append(s.lastname).append(n);
+        s.email.setLength(0);
+        s.email.append(s.firstname).append('.').append(s.lastname).append(n).append('@')
+                .append(DOMAINS[random.nextInt(DOMAINS.length)]);
+        s.password.setLength(0);
+        for (int i = 8 + random.nextInt(7); i > 0; i--) {
+            s.password.append(PASSWORD_CHARS[random.nextInt(PASSWORD_CHARS.length)]);
+        }
+
+        s.city = CITIES[random.nextInt(CITIES.length)];
+        s.street = STREETS[random.nextInt(STREETS.length)];
+        s.number = 1 + random.nextInt(9999);
+        s.zipcode.setLength(0);
+        appendPadded(s.zipcode, random.nextInt(100_000), 5).append('-');
+        appendPadded(s.zipcode, random.nextInt(10_000), 4);
+        s.lat.setLength(0);
+        appendFixed(s.lat, random.nextInt(-900_000, 900_001));
+        s.lng.setLength(0);
+        appendFixed(s.lng, random.nextInt(-1_800_000, 1_800_001));
+        s.phone.setLength(0);
+        s.phone.append("1-");
+        appendPadded(s.phone, 200 + random.nextInt(800), 3).append('-');
+        appendPadded(s.phone, random.nextInt(1000), 3).append('-');
+        appendPadded(s.phone, random.nextInt(10_000), 4);
+        return s;
+    }
+
+    private Scratch drawCart(long n) {
+        Scratch s = SCRATCH.get();
+        SplittableRandom random = random(CART, n);
+        s.userId = 1 + random.nextInt(users);
+        LocalDate date = LocalDate.ofEpochDay(firstDay + random.nextLong(lastDay - firstDay + 1));
+        s.date.setLength(0);
+        appendPadded(s.date, date.getYear(), 4).append('-');
+        appendPadded(s.date, date.getMonthValue(), 2).append('-');
+        appendPadded(s.date, date.getDayOfMonth(), 2);
+
+        int lines = Math.min(Math.min(cartMaxLines, products), 1 + geometric(random, cartMeanLines - 1));
+        if (s.productIds.length < lines) {
+            s.productIds = new int[lines];
+            s.quantities = new int[lines];
+        }
+        for (int i = 0; i < lines; i++) {
+            int id;
+            boolean duplicate;
+            // Lines are distinct products; a few retries are enough because lines << products almost always
+            int attempts = 0;
+            do {
+                id = attempts++ < 8 ? zipf(random, products, productSkew) : 1 + random.nextInt(products);
+                duplicate = false;
+                for (int j = 0; j < i && !duplicate; j++) {
+                    duplicate = s.productIds[j] == id;
+                }
+            } while (duplicate);
+            s.productIds[i] = id;
+            s.quantities[i] = 1 + geometric(random, quantityMean - 1);
+        }
+        s.lines = lines;
+        return s;
+    }
+
+    // Number of failures before the first success, with the given mean
+    private static int geometric(SplittableRandom random, double mean) {
+        if (mean <= 0) {
+            return 0;
+        }
+        double p = 1 / (mean + 1);
+        return (int) Math.min(Integer.MAX_VALUE, Math.floor(Math.log(1 - random.nextDouble()) / Math.log(1 - p)));
+    }
+
+    // Continuous approximation of Zipf over 1..n: O(1) and no table, so catalogs of millions are cheap
+    private static int zipf(SplittableRandom random, int n, double exponent) {
+        if (exponent == 0 || n == 1) {
+            return 1 + random.nextInt(n);
+        }
+        double u = random.nextDouble();
+        double x = exponent == 1.0
+                ? Math.pow(n + 1.0, u)
+                : Math.pow((Math.pow(n + 1.0, 1 - exponent) - 1) * u + 1, 1 / (1 - exponent));
+        return (int) Math.max(1, Math.min(n, (long) x));
+    }
+
+    private static double[] zipfCdf(int n, double exponent) {
+        double[] cdf = new double[n];
+        double total = 0;
+        for (int i = 0; i < n; i++) {
+            total += 1 / Math.pow(i + 1, exponent);
+            cdf[i] = total;
+        }
+        for (int i = 0; i < n; i++) {
+            cdf[i] /= total;
+        }
+        return cdf;
+    }
+
+    private static int pick(double[] cdf, double u) {
+        for (int i = 0; i < cdf.length - 1; i++) {
+            if (u < cdf[i]) {
+                return i;
+            }
+        }
+        return cdf.length - 1;
+    }
+
+    private static StringBuilder appendPadded(StringBuilder target, int value, int width) {
+        for (int limit = 10, digits = 1; digits < width; digits++, limit *= 10) {
+            if (value < limit) {
+                target.append('0');
+            }
+        }
+        return target.append(value);
+    }
+
+    // Coordinate in ten-thousandths of a degree, e.g. -373159 -> "-37.3159"
+    private static void appendFixed(StringBuilder target, int tenThousandths) {
+        if (tenThousandths < 0) {
+            target.append('-');
+            tenThousandths = -tenThousandths;
+        }
+        target.append(tenThousandths / 10_000).append('.');
+        appendPadded(target, tenThousandths % 10_000, 4);
+    }
+
+    // Per-thread drafts, overwritten by every draw on the thread
+    private static final class Scratch {
+        final PayloadBuffer buffer = new PayloadBuffer();
+        final StringBuilder title = new StringBuilder(64);
+        final StringBuilder description = new StringBuilder(96);
+        final StringBuilder image = new StringBuilder(64);
+        int category;
+        double price;
+        double rate;
+        int ratingCount;
+
+        final StringBuilder email = new StringBuilder(48);
+        final StringBuilder username = new StringBuilder(32);
+        final StringBuilder password = new StringBuilder(16);
+        final StringBuilder zipcode = new StringBuilder(10);
+        final StringBuilder lat = new StringBuilder(12);
+        final StringBuilder lng = new StringBuilder(12);
+        final StringBuilder phone = new StringBuilder(16);
+        String firstname;
+        String lastname;
+        String city;
+        String street;
+        int number;
+
+        final StringBuilder date = new StringBuilder(10);
+        int userId;
+        int lines;
+        int[] productIds = new int[32];
+        int[] quantities = new int[32];
+    }
+}
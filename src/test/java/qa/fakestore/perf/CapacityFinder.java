@@ -0,0 +1,207 @@
+package qa.fakestore.perf;
+
+import qa.fakestore.util.Threads;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+
+// Searches for the knee of each endpoint: the highest throughput it sustains with p99 and error rate
+// inside their targets. Concurrency is tuned by AIMD over short measurement windows: +increase
+// after a healthy window, *decrease after a congested one. A window is congested when p99 or the
+// error rate is over target, or when more concurrency bought less than minGain extra throughput
+// (past the knee extra users only queue). The search for an endpoint ends after maxBackoffs
+// decreases, at maxConcurrency, after maxWindows, or once the rate cap is the limit.
+// Every request from every endpoint first takes a permit from one TokenBucket, so the total rate
+// never exceeds maxRequestsPerSecond whatever the concurrency; point it at shared environments with
+// a low cap. Latency is measured from after the permit, so waiting for the cap is not counted.
+// Endpoints are probed one after another, never together.
+public final class CapacityFinder {
+
+    private final TokenBucket rateCap;
+    private Duration window = Duration.ofSeconds(2);
+    private int warmupWindows = 1;
+    private int maxWindows = 20;
+    private int initialConcurrency = 1;
+    private int maxConcurrency = 256;
+    private int increase = 2;
+    private double decrease = 0.5;
+    private int maxBackoffs = 3;
+    private double minGain = 0.05;
+    private double p99TargetMillis = 500;
+    private double maxErrorRate = 0.01;
+
+    private CapacityFinder(double maxRequestsPerSecond) {
+        // A tenth of a second of burst, so a freshly started window cannot spike above the cap
+        this.rateCap = new TokenBucket(maxRequestsPerSecond, Math.max(1, (int) (maxRequestsPerSecond / 10)));
+    }
+
+    public static CapacityFinder withRateCap(double maxRequestsPerSecond) {
+        if (maxRequestsPerSecond <= 0) {
+            throw new IllegalArgumentException("maxRequestsPerSecond must be > 0: " + maxRequestsPerSecond);
+        }
+        return new CapacityFinder(maxRequestsPerSecond);
+    }
+
+    public CapacityFinder window(Duration window) {
+        this.window = window;
+        return this;
+    }
+
+    // Windows run at the initial concurrency before the search, to warm up JIT and connections
+    public CapacityFinder warmupWindows(int warmupWindows) {
+        this.warmupWindows = warmupWindows;
+        return this;
+    }
+
+    public CapacityFinder maxWindows(int maxWindows) {
+        this.maxWindows = maxWindows;
+        return this;
+    }
+
+    public CapacityFinder concurrency(int initial, int max) {
+        if (initial < 1 || max < initial) {
+            throw new IllegalArgumentException("Need 1 <= initial <= max concurrency: " + initial + ", " + max);
+        }
+        this.initialConcurrency = initial;
+        this.maxConcurrency = max;
+        return this;
+    }
+
+    public CapacityFinder aimd(int increase, double decrease) {
+        if (increase < 1 || decrease <= 0 || decrease >= 1) {
+            throw new IllegalArgumentException("Need increase >= 1 and 0 < decrease < 1: " + increase + ", " + decrease);
+        }
+        this.increase = increase;
+        this.decrease = decrease;
+        return this;
+    }
+
+    public CapacityFinder maxBackoffs(int maxBackoffs) {
+        this.maxBackoffs = maxBackoffs;
+        return this;
+    }
+
+    // Relative throughput gain below which a concurrency increase counts as congestion
+    public CapacityFinder minGain(double minGain) {
+        this.minGain = minGain;
+        return this;
+    }
+
+    public CapacityFinder targets(double p99Millis, double maxErrorRate) {
+        this.p99TargetMillis = p99Millis;
+        this.maxErrorRate = maxErrorRate;
+        return this;
+    }
+
+    public double rateCap() {
+        return rateCap.ratePerSecond();
+    }
+
+    public CapacityReport run(Map<String, LoadRequest> endpoints) throws InterruptedException {
+        if (endpoints.isEmpty()) {
+            throw new IllegalArgumentException("At least one endpoint is required");
+        }
+        Map<String, CapacityReport.Result> results = new LinkedHashMap<>();
+        long start = System.nanoTime();
+        ExecutorService executor = Threads.newPerTaskExecutor("capacity-finder");
+        try {
+            for (Map.Entry<String, LoadRequest> endpoint : endpoints.entrySet()) {
+                results.put(endpoint.getKey(), find(executor, endpoint.getKey(), endpoint.getValue()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return new CapacityReport(results, rateCap.ratePerSecond(), p99TargetMillis, maxErrorRate,
+                rateCap.granted(), System.nanoTime() - start);
+    }
+
+    private CapacityReport.Result find(ExecutorService executor, String name, LoadRequest request)
+            throws InterruptedException {
+        for (int i = 0; i < warmupWindows; i++) {
+            measure(executor, name, request, initialConcurrency);
+        }
+        List<CapacityReport.Window> trace = new ArrayList<>();
+        CapacityReport.Window knee = null;
+        CapacityReport.Window previous = null;
+        String limitedBy = "max windows";
+        int concurrency = initialConcurrency;
+        int backoffs = 0;
+        for (int w = 0; w < maxWindows; w++) {
+            CapacityReport.Window current = measure(executor, name, request, concurrency);
+            trace.add(current);
+
+            String congestion = null;
+            if (current.count() == 0) {
+                congestion = "no responses";
+            } else if (current.errorRate() > maxErrorRate) {
+                congestion = "error rate";
+            } else if (current.p99Millis() > p99TargetMillis) {
+                congestion = "p99";
+            } else if (previous != null && current.concurrency() > previous.concurrency()
+                    && current.throughput() < previous.throughput() * (1 + minGain)) {
+                congestion = "throughput plateau";
+            }
+            boolean withinTargets = current.count() > 0 && current.errorRate() <= maxErrorRate
+                    && current.p99Millis() <= p99TargetMillis;
+            if (withinTargets && (knee == null || current.throughput() > knee.throughput())) {
+                knee = current;
+            }
+            previous = current;
+
+            if (withinTargets && current.throughput() >= rateCap.ratePerSecond() * 0.95) {
+                limitedBy = "rate cap";
+                break;
+            }
+            if (congestion != null) {
+                if (++backoffs >= maxBackoffs) {
+                    limitedBy = congestion;
+                    break;
+                }
+                concurrency = Math.max(1, (int) (concurrency * decrease));
+            } else if (concurrency >= maxConcurrency) {
+                limitedBy = "max concurrency";
+                break;
+            } else {
+                concurrency = Math.min(maxConcurrency, concurrency + increase);
+            }
+        }
+        return new CapacityReport.Result(name, knee, limitedBy, trace);
+    }
+
+    private CapacityReport.Window measure(ExecutorService executor, String name, LoadRequest request, int concurrency)
+            throws InterruptedException {
+        EndpointStats stats = new EndpointStats(name);
+        CountDownLatch done = new CountDownLatch(concurrency);
+        long start = System.nanoTime();
+        long deadline = start + window.toNanos();
+        for (int i = 0; i < concurrency; i++) {
+            executor.execute(() -> {
+                try {
+                    while (System.nanoTime() < deadline && rateCap.acquire(deadline)) {
+                        long begin = System.nanoTime();
+                        boolean success = invoke(request);
+                        stats.record(System.nanoTime() - begin, success);
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        return new CapacityReport.Window(concurrency, stats, System.nanoTime() - start);
+    }
+
+    private static boolean invoke(LoadRequest request) {
+        try {
+            int status = request.execute();
+            return status >= 200 && status < 300;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package qa.fakestore.perf;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Knee point and AIMD window trace for each endpoint probed by CapacityFinder
+public class CapacityReport {
+
+    private final Map<String, Result> endpoints;
+    private final double rateCap;
+    private final double p99TargetMillis;
+    private final double maxErrorRate;
+    private final long requests;
+    private final long elapsedNanos;
+
+    CapacityReport(Map<String, Result> endpoints, double rateCap, double p99TargetMillis, double maxErrorRate,
+                   long requests, long elapsedNanos) {
+        this.endpoints = Collections.unmodifiableMap(new LinkedHashMap<>(endpoints));
+        this.rateCap = rateCap;
+        this.p99TargetMillis = p99TargetMillis;
+        this.maxErrorRate = maxErrorRate;
+        this.requests = requests;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public Map<String, Result> endpoints() {
+        return endpoints;
+    }
+
+    public Result endpoint(String name) {
+        Result result = endpoints.get(name);
+        if (result == null) {
+            throw new IllegalArgumentException("No such endpoint in report: " + name);
+        }
+        return result;
+    }
+
+    public double rateCap() {
+        return rateCap;
+    }
+
+    // Requests sent over the whole search, warmup included
+    public long requests() {
+        return requests;
+    }
+
+    public long elapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public String summary() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%-28s %10s %11s %9s %9s %8s  %s%n",
+                "endpoint", "knee req/s", "concurrency", "p50 ms", "p99 ms", "error %", "limited by"));
+        for (Result result : endpoints.values()) {
+            Window knee = result.knee();
+            if (knee == null) {
+                out.append(String.format("%-28s %10s %11s %9s %9s %8s  %s%n",
+                        result.endpoint(), "-", "-", "-", "-", "-", "never within targets (" + result.limitedBy() + ")"));
+            } else {
+                out.append(String.format("%-28s %10.1f %11d %9.2f %9.2f %8.2f  %s%n",
+                        result.endpoint(), knee.throughput(), knee.concurrency(), knee.p50Millis(),
+                        knee.p99Millis(), knee.errorRate() * 100, result.limitedBy()));
+            }
+        }
+        out.append(String.format("targets: p99 <= %.0fms, errors <= %.1f%%; rate cap: %.0f req/s; %d requests in %.1fs%n",
+                p99TargetMillis, maxErrorRate * 100, rateCap, requests, elapsedNanos / 1e9));
+        for (Result result : endpoints.values()) {
+            out.append(result.endpoint()).append(':');
+            for (Window window : result.trace()) {
+                out.append(String.format(" c=%d %.0f/s p99 %.1fms%s", window.concurrency(), window.throughput(),
+                        window.p99Millis(), window.errorRate() > 0 ? String.format(" err %.1f%%", window.errorRate() * 100) : ""));
+            }
+            out.append(System.lineSeparator());
+        }
+        return out.toString();
+    }
+
+    public static final class Result {
+        private final String endpoint;
+        private final Window knee;
+        private final String limitedBy;
+        private final List<Window> trace;
+
+        Result(String endpoint, Window knee, String limitedBy, List<Window> trace) {
+            this.endpoint = endpoint;
+            this.knee = knee;
+            this.limitedBy = limitedBy;
+            this.trace = Collections.unmodifiableList(trace);
+        }
+
+        public String endpoint() {
+            return endpoint;
+        }
+
+        // Best window within targets; null if no window was
+        public Window knee() {
+            return knee;
+        }
+
+        // What ended the search: p99, error rate, throughput plateau, rate cap, max concurrency or max windows
+        public String limitedBy() {
+            return limitedBy;
+        }
+
+        public List<Window> trace() {
+            return trace;
+        }
+    }
+
+    // One measurement window at a fixed concurrency
+    public static final class Window {
+        private final int concurrency;
+        private final long count;
+        private final double throughput;
+        private final double p50Millis;
+        private final double p99Millis;
+        private final double errorRate;
+
+        Window(int concurrency, EndpointStats stats, long elapsedNanos) {
+            this.concurrency = concurrency;
+            this.count = stats.count();
+            this.throughput = stats.throughput(elapsedNanos);
+            this.p50Millis = stats.percentileMillis(50);
+            this.p99Millis = stats.percentileMillis(99);
+            this.errorRate = stats.errorRate();
+        }
+
+        public int concurrency() {
+            return concurrency;
+        }
+
+        public long count() {
+            return count;
+        }
+
+        public double throughput() {
+            return throughput;
+        }
+
+        public double p50Millis() {
+            return p50Millis;
+        }
+
+        public double p99Millis() {
+            return p99Millis;
+        }
+
+        public double errorRate() {
+            return errorRate;
+        }
+    }
+}
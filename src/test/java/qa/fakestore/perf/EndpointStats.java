@@ -0,0 +1,73 @@
+package qa.fakestore.perf;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latency histogram (nanoseconds, 3 significant digits) and error count for one endpoint
+public class EndpointStats {
+
+    private final String name;
+    private final Histogram histogram;
+    private final LongAdder errors = new LongAdder();
+
+    public EndpointStats(String name) {
+        this(name, new ConcurrentHistogram(3));
+    }
+
+    public EndpointStats(String name, Histogram histogram) {
+        this.name = name;
+        this.histogram = histogram;
+    }
+
+    public void record(long latencyNanos, boolean success) {
+        histogram.recordValue(Math.max(0, latencyNanos));
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    public void add(EndpointStats other) {
+        histogram.add(other.histogram);
+        errors.add(other.errors());
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public Histogram histogram() {
+        return histogram;
+    }
+
+    public long count() {
+        return histogram.getTotalCount();
+    }
+
+    public long errors() {
+        return errors.sum();
+    }
+
+    public double errorRate() {
+        long count = count();
+        return count == 0 ? 0 : (double) errors() / count;
+    }
+
+    public double throughput(long elapsedNanos) {
+        return elapsedNanos <= 0 ? 0 : count() * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    public double percentileMillis(double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1_000_000.0;
+    }
+
+    public double meanMillis() {
+        return histogram.getMean() / 1_000_000.0;
+    }
+
+    public double maxMillis() {
+        return histogram.getMaxValue() / 1_000_000.0;
+    }
+}
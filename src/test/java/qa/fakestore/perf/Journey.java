@@ -0,0 +1,70 @@
+package qa.fakestore.perf;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// A named sequence of steps with think time between them, e.g.
+//   Journey.named("shopper")
+//       .step("login", s -> s.put("token", auth.login(username, password)))
+//       .think(ThinkTime.uniform(Duration.ofMillis(500), Duration.ofSeconds(2)))
+//       .step("categories", s -> s.put("category", s.pick(products.categories())))
+//       ...
+// Steps exchange data through the JourneySession. JourneyRunner executes it for many virtual users.
+public final class Journey {
+
+    private final String name;
+    private final List<String> stepNames = new ArrayList<>();
+    private final List<JourneyStep> steps = new ArrayList<>();
+    // thinkBefore.get(i) runs before step i; null means no pause
+    private final List<ThinkTime> thinkBefore = new ArrayList<>();
+    private ThinkTime pendingThink;
+
+    private Journey(String name) {
+        this.name = name;
+    }
+
+    public static Journey named(String name) {
+        return new Journey(name);
+    }
+
+    public Journey step(String stepName, JourneyStep step) {
+        if (stepNames.contains(stepName)) {
+            throw new IllegalArgumentException("Duplicate step name in journey " + name + ": " + stepName);
+        }
+        stepNames.add(stepName);
+        steps.add(step);
+        thinkBefore.add(pendingThink);
+        pendingThink = null;
+        return this;
+    }
+
+    // Pause before the next step
+    public Journey think(ThinkTime thinkTime) {
+        if (steps.isEmpty()) {
+            throw new IllegalStateException("A journey starts with a step, not a pause");
+        }
+        pendingThink = thinkTime;
+        return this;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public List<String> stepNames() {
+        return Collections.unmodifiableList(stepNames);
+    }
+
+    int size() {
+        return steps.size();
+    }
+
+    JourneyStep stepAt(int index) {
+        return steps.get(index);
+    }
+
+    ThinkTime thinkBefore(int index) {
+        return thinkBefore.get(index);
+    }
+}
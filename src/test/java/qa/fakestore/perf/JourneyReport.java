@@ -0,0 +1,148 @@
+package qa.fakestore.perf;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Per-step and per-journey results of a JourneyRunner run. A journey row counts a failure when any
+// of its steps failed; "active" excludes think time (what the user waited for), "wall" includes it.
+public class JourneyReport {
+
+    private static final int MAX_SAMPLE_FAILURES = 5;
+
+    private final String name;
+    private final int virtualUsers;
+    private final Map<String, EndpointStats> steps = new LinkedHashMap<>();
+    private final EndpointStats[] stepsByIndex;
+    private final LongAdder[] skipped;
+    private final EndpointStats active;
+    private final EndpointStats wall;
+    private final AtomicLong peakUsers = new AtomicLong();
+    private final List<String> sampleFailures = Collections.synchronizedList(new ArrayList<>());
+    private long elapsedNanos;
+
+    JourneyReport(String name, List<String> stepNames, int virtualUsers) {
+        this.name = name;
+        this.virtualUsers = virtualUsers;
+        stepsByIndex = new EndpointStats[stepNames.size()];
+        skipped = new LongAdder[stepNames.size()];
+        for (int i = 0; i < stepNames.size(); i++) {
+            stepsByIndex[i] = new EndpointStats(stepNames.get(i));
+            skipped[i] = new LongAdder();
+            steps.put(stepNames.get(i), stepsByIndex[i]);
+        }
+        active = new EndpointStats(name + " (active)");
+        wall = new EndpointStats(name + " (wall)");
+    }
+
+    EndpointStats step(int index) {
+        return stepsByIndex[index];
+    }
+
+    void completed(long activeNanos, long wallNanos) {
+        active.record(activeNanos, true);
+        wall.record(wallNanos, true);
+    }
+
+    void failed(int index, Throwable failure, long activeNanos, long wallNanos) {
+        active.record(activeNanos, false);
+        wall.record(wallNanos, false);
+        for (int i = index + 1; i < skipped.length; i++) {
+            skipped[i].increment();
+        }
+        if (sampleFailures.size() < MAX_SAMPLE_FAILURES) {
+            sampleFailures.add(stepsByIndex[index].name() + ": " + failure);
+        }
+    }
+
+    void peakUsers(long users) {
+        peakUsers.accumulateAndGet(users, Math::max);
+    }
+
+    void elapsed(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public Map<String, EndpointStats> steps() {
+        return Collections.unmodifiableMap(steps);
+    }
+
+    public EndpointStats step(String stepName) {
+        EndpointStats stats = steps.get(stepName);
+        if (stats == null) {
+            throw new IllegalArgumentException("No such step in journey " + name + ": " + stepName);
+        }
+        return stats;
+    }
+
+    // Journeys that never reached this step because an earlier one failed
+    public long skipped(String stepName) {
+        int index = new ArrayList<>(steps.keySet()).indexOf(stepName);
+        if (index < 0) {
+            throw new IllegalArgumentException("No such step in journey " + name + ": " + stepName);
+        }
+        return skipped[index].sum();
+    }
+
+    // One sample per journey: summed step latencies, think time excluded
+    public EndpointStats journeys() {
+        return active;
+    }
+
+    // One sample per journey: first step start to last step end, think time included
+    public EndpointStats journeysWithThinkTime() {
+        return wall;
+    }
+
+    public long completed() {
+        return active.count() - active.errors();
+    }
+
+    public long failed() {
+        return active.errors();
+    }
+
+    public long peakUsers() {
+        return peakUsers.get();
+    }
+
+    public List<String> sampleFailures() {
+        return new ArrayList<>(sampleFailures);
+    }
+
+    public long elapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public String summary() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%-28s %9s %7s %8s %8s %9s %9s %9s %9s%n",
+                "step", "count", "errors", "error %", "skipped", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+        for (int i = 0; i < stepsByIndex.length; i++) {
+            appendRow(out, stepsByIndex[i], skipped[i].sum());
+        }
+        appendRow(out, active, 0);
+        appendRow(out, wall, 0);
+        out.append(String.format("journeys: %d completed, %d failed, %.1f/s; users: %d (peak %d active); elapsed: %.2fs%n",
+                completed(), failed(), active.throughput(elapsedNanos), virtualUsers, peakUsers(), elapsedNanos / 1e9));
+        for (String failure : sampleFailures()) {
+            out.append("  failed ").append(failure).append(System.lineSeparator());
+        }
+        return out.toString();
+    }
+
+    private static void appendRow(StringBuilder out, EndpointStats stats, long skipped) {
+        out.append(String.format("%-28s %9d %7d %8.2f %8d %9.2f %9.2f %9.2f %9.2f%n",
+                stats.name(), stats.count(), stats.errors(), stats.errorRate() * 100, skipped,
+                stats.percentileMillis(50), stats.percentileMillis(90), stats.percentileMillis(99),
+                stats.maxMillis()));
+    }
+}
@@ -0,0 +1,149 @@
+package qa.fakestore.perf;
+
+import qa.fakestore.util.Threads;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Runs a Journey closed-loop for N virtual users, one thread each: virtual threads where the
+// runtime has them, so thousands of mostly-sleeping users are cheap; platform threads otherwise.
+// Users start spread evenly over the ramp-up and repeat the journey until they have done
+// `iterations` or the duration has elapsed; a journey in progress at the deadline runs to the end.
+// A failing step ends that user's journey and counts the remaining steps as skipped.
+// Step latencies are also forwarded to the caller's LatencyRecorder, like LoadGenerator does.
+public final class JourneyRunner {
+
+    private final int virtualUsers;
+    private int firstUser;
+    private Duration rampUp = Duration.ZERO;
+    private Duration duration = Duration.ofSeconds(30);
+    private long iterations = Long.MAX_VALUE;
+    private long seed = Long.getLong("fakestore.journey.seed", System.nanoTime());
+
+    private JourneyRunner(int virtualUsers) {
+        this.virtualUsers = virtualUsers;
+    }
+
+    public static JourneyRunner users(int virtualUsers) {
+        if (virtualUsers < 1) {
+            throw new IllegalArgumentException("virtualUsers must be >= 1: " + virtualUsers);
+        }
+        return new JourneyRunner(virtualUsers);
+    }
+
+    // Index of this runner's first user, when several runners (shards) split one population
+    public JourneyRunner firstUser(int firstUser) {
+        this.firstUser = firstUser;
+        return this;
+    }
+
+    public JourneyRunner rampUp(Duration rampUp) {
+        this.rampUp = rampUp;
+        return this;
+    }
+
+    // Users stop starting new journeys once rampUp + duration has elapsed
+    public JourneyRunner duration(Duration duration) {
+        this.duration = duration;
+        return this;
+    }
+
+    // Journeys per user
+    public JourneyRunner iterations(long iterations) {
+        this.iterations = iterations;
+        return this;
+    }
+
+    public JourneyRunner seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public long seed() {
+        return seed;
+    }
+
+    public JourneyReport run(Journey journey) throws InterruptedException {
+        if (journey.size() == 0) {
+            throw new IllegalArgumentException("Journey " + journey.name() + " has no steps");
+        }
+        JourneyReport report = new JourneyReport(journey.name(), journey.stepNames(), virtualUsers);
+        LatencyRecorder recorder = LatencyRecorder.current();
+        AtomicLong activeUsers = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(virtualUsers);
+        long start = System.nanoTime();
+        long deadline = start + rampUp.toNanos() + duration.toNanos();
+
+        ExecutorService executor = Threads.newPerTaskExecutor("journey");
+        try {
+            for (int user = 0; user < virtualUsers; user++) {
+                long startAt = start + rampUp.toNanos() * user / virtualUsers;
+                // Seeded per global user index, so a user behaves the same whichever shard runs it
+                JourneySession session = new JourneySession(firstUser + user, new SplittableRandom(seed * 31 + firstUser + user));
+                executor.execute(() -> {
+                    try {
+                        parkUntil(startAt);
+                        report.peakUsers(activeUsers.incrementAndGet());
+                        for (long i = 0; i < iterations && System.nanoTime() < deadline; i++) {
+                            session.next(i);
+                            runOnce(journey, session, report, recorder);
+                        }
+                    } finally {
+                        activeUsers.decrementAndGet();
+                        done.countDown();
+                    }
+                });
+            }
+            done.await();
+        } finally {
+            executor.shutdownNow();
+        }
+        long elapsed = System.nanoTime() - start;
+        report.elapsed(elapsed);
+        for (EndpointStats step : report.steps().values()) {
+            ShardHistograms.publish("journey " + journey.name() + ": " + step.name(), step, elapsed);
+        }
+        ShardHistograms.publish("journey " + journey.name(), report.journeys(), elapsed);
+        return report;
+    }
+
+    private static void runOnce(Journey journey, JourneySession session, JourneyReport report, LatencyRecorder recorder) {
+        long journeyStart = System.nanoTime();
+        long active = 0;
+        for (int index = 0; index < journey.size(); index++) {
+            ThinkTime think = journey.thinkBefore(index);
+            if (think != null) {
+                parkUntil(System.nanoTime() + think.nextNanos(session.random()));
+            }
+            long begin = System.nanoTime();
+            Throwable failure = null;
+            try {
+                journey.stepAt(index).run(session);
+            } catch (Exception | AssertionError e) {
+                failure = e;
+            }
+            long latency = System.nanoTime() - begin;
+            active += latency;
+            report.step(index).record(latency, failure == null);
+            if (recorder != null) {
+                recorder.record(latency);
+            }
+            if (failure != null) {
+                report.failed(index, failure, active, System.nanoTime() - journeyStart);
+                return;
+            }
+        }
+        report.completed(active, System.nanoTime() - journeyStart);
+    }
+
+    private static void parkUntil(long nanoTime) {
+        long wait;
+        while ((wait = nanoTime - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(wait);
+        }
+    }
+}
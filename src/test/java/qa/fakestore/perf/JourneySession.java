@@ -0,0 +1,62 @@
+package qa.fakestore.perf;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+// State one virtual user carries from step to step (token, chosen category, product ids...).
+// Values are cleared when the user starts the next journey; the random stream is not, so a run is
+// reproducible from fakestore.journey.seed.
+public final class JourneySession {
+
+    private final int user;
+    private final SplittableRandom random;
+    private final Map<String, Object> values = new HashMap<>();
+    private long iteration;
+
+    JourneySession(int user, SplittableRandom random) {
+        this.user = user;
+        this.random = random;
+    }
+
+    // 0-based index of the virtual user
+    public int user() {
+        return user;
+    }
+
+    // 0-based index of this user's current journey
+    public long iteration() {
+        return iteration;
+    }
+
+    public SplittableRandom random() {
+        return random;
+    }
+
+    public JourneySession put(String key, Object value) {
+        values.put(key, value);
+        return this;
+    }
+
+    // Fails the step if an earlier step did not provide the value
+    public <T> T get(String key, Class<T> type) {
+        Object value = values.get(key);
+        if (value == null) {
+            throw new IllegalStateException("No '" + key + "' in session; an earlier step should have set it");
+        }
+        return type.cast(value);
+    }
+
+    public <T> T pick(List<T> choices) {
+        if (choices.isEmpty()) {
+            throw new IllegalStateException("Nothing to pick from");
+        }
+        return choices.get(random.nextInt(choices.size()));
+    }
+
+    void next(long iteration) {
+        this.iteration = iteration;
+        values.clear();
+    }
+}
@@ -0,0 +1,7 @@
+package qa.fakestore.perf;
+
+// One step of a Journey. Throwing fails the step and ends the journey; later steps are skipped.
+@FunctionalInterface
+public interface JourneyStep {
+    void run(JourneySession session) throws Exception;
+}
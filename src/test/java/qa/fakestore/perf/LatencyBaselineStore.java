@@ -0,0 +1,95 @@
+package qa.fakestore.perf;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.zip.DataFormatException;
+
+// One text file per endpoint, one line per run: "<epoch millis> <base64 compressed HdrHistogram>".
+// A run of a few thousand samples compresses to a few hundred bytes, so months of history stay small.
+// Files are rewritten through a temp file and an atomic move, so a killed run cannot corrupt them.
+public class LatencyBaselineStore {
+
+    private final Path directory;
+
+    public LatencyBaselineStore(Path directory) {
+        this.directory = directory;
+    }
+
+    public Path directory() {
+        return directory;
+    }
+
+    // Up to the last 'runs' stored histograms for the endpoint, oldest first
+    public List<Histogram> recent(String endpoint, int runs) {
+        List<String> lines = read(fileFor(endpoint));
+        List<Histogram> histograms = new ArrayList<>();
+        for (String line : lines.subList(Math.max(0, lines.size() - runs), lines.size())) {
+            histograms.add(decode(line.substring(line.indexOf(' ') + 1)));
+        }
+        return histograms;
+    }
+
+    // Appends this run and drops the oldest runs beyond maxRuns
+    public void append(String endpoint, Histogram histogram, int maxRuns) {
+        Path file = fileFor(endpoint);
+        List<String> lines = new ArrayList<>(read(file));
+        lines.add(System.currentTimeMillis() + " " + encode(histogram));
+        List<String> kept = lines.subList(Math.max(0, lines.size() - maxRuns), lines.size());
+        try {
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            Files.write(temp, kept, StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot store latency baseline for " + endpoint + " in " + file, e);
+        }
+    }
+
+    Path fileFor(String endpoint) {
+        return directory.resolve(endpoint.replaceAll("[^A-Za-z0-9._{}-]+", "_") + ".hlog");
+    }
+
+    private static List<String> read(Path file) {
+        if (!Files.exists(file)) {
+            return new ArrayList<>();
+        }
+        try {
+            List<String> lines = new ArrayList<>();
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                if (!line.isEmpty() && line.indexOf(' ') > 0) {
+                    lines.add(line);
+                }
+            }
+            return lines;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read latency baseline " + file, e);
+        }
+    }
+
+    static String encode(Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        byte[] bytes = new byte[length];
+        buffer.flip();
+        buffer.get(bytes);
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+
+    static Histogram decode(String encoded) {
+        try {
+            return Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(Base64.getDecoder().decode(encoded)), 0);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt latency baseline entry", e);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package qa.fakestore.perf;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import qa.fakestore.base.TestEnvironment;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Suite-wide latency per endpoint, compared at the end of the run against the same endpoint's last
+// runs and then stored as the newest run. PhaseTimingFilter feeds it every request; paths are folded
+// into routes (/products/7 -> /products/{id}) so ids and categories share one histogram.
+//   fakestore.baseline.mode       off | warn | fail (default warn)
+//   fakestore.baseline.dir        default latency-baselines, one subdirectory per target server
+//   fakestore.baseline.window     stored runs merged into the baseline (default 5)
+//   fakestore.baseline.maxRuns    runs kept per endpoint (default 30)
+//   fakestore.baseline.alpha      Mann-Whitney significance level (default 0.01)
+//   fakestore.baseline.minEffect  Cliff's delta needed to call it a regression (default 0.33)
+//   fakestore.baseline.minSamples samples needed on each side before comparing (default 20)
+public class LatencyBaselines {
+
+    public enum Mode { OFF, WARN, FAIL }
+
+    private static LatencyBaselines shared;
+
+    private final Mode mode;
+    private final LatencyBaselineStore store;
+    private final int window;
+    private final int maxRuns;
+    private final double alpha;
+    private final double minEffect;
+    private final long minSamples;
+    private final Map<String, Histogram> current = new ConcurrentHashMap<>();
+
+    public LatencyBaselines(Mode mode, LatencyBaselineStore store, int window, int maxRuns, double alpha,
+                            double minEffect, long minSamples) {
+        this.mode = mode;
+        this.store = store;
+        this.window = window;
+        this.maxRuns = maxRuns;
+        this.alpha = alpha;
+        this.minEffect = minEffect;
+        this.minSamples = minSamples;
+    }
+
+    public static synchronized LatencyBaselines shared() {
+        if (shared == null) {
+            Path root = Paths.get(System.getProperty("fakestore.baseline.dir", "latency-baselines"));
+            shared = new LatencyBaselines(
+                    Mode.valueOf(System.getProperty("fakestore.baseline.mode", "warn").toUpperCase(Locale.ROOT)),
+                    new LatencyBaselineStore(root.resolve(targetKey())),
+                    Integer.getInteger("fakestore.baseline.window", 5),
+                    Integer.getInteger("fakestore.baseline.maxRuns", 30),
+                    Double.parseDouble(System.getProperty("fakestore.baseline.alpha", "0.01")),
+                    Double.parseDouble(System.getProperty("fakestore.baseline.minEffect", "0.33")),
+                    Long.getLong("fakestore.baseline.minSamples", 20L));
+        }
+        return shared;
+    }
+
+    public Mode mode() {
+        return mode;
+    }
+
+    public void record(String method, String path, long latencyNanos) {
+        if (mode == Mode.OFF) {
+            return;
+        }
+        current.computeIfAbsent(route(method, path), key -> new ConcurrentHistogram(3))
+                .recordValue(Math.max(0, latencyNanos));
+    }
+
+    // Compares every endpoint seen in this run with its stored baseline, stores the run, and resets
+    public synchronized Result finishRun() {
+        Map<String, Histogram> run = new TreeMap<>(current);
+        current.clear();
+        StringBuilder report = new StringBuilder();
+        List<String> regressions = new ArrayList<>();
+        if (mode == Mode.OFF || run.isEmpty()) {
+            return new Result(mode, report.toString(), regressions);
+        }
+
+        report.append(String.format("Latency vs baseline (%s, last %d runs, alpha %.3f, min delta %.2f)%n",
+                store.directory(), window, alpha, minEffect));
+        report.append(String.format("%-34s %6s %6s %10s %10s %8s %7s  %s%n",
+                "endpoint", "base n", "n", "base p50", "p50", "p", "delta", "verdict"));
+        for (Map.Entry<String, Histogram> endpoint : run.entrySet()) {
+            String name = endpoint.getKey();
+            Histogram histogram = endpoint.getValue();
+            Histogram baseline = merge(store.recent(name, window));
+
+            String verdict;
+            if (baseline == null) {
+                verdict = "new";
+                report.append(String.format("%-34s %6s %6d %10s %9.1fms %8s %7s  %s%n", name, "-",
+                        histogram.getTotalCount(), "-", histogram.getValueAtPercentile(50) / 1e6, "-", "-", verdict));
+            } else if (baseline.getTotalCount() < minSamples || histogram.getTotalCount() < minSamples) {
+                verdict = "too few samples";
+                report.append(String.format("%-34s %6d %6d %9.1fms %9.1fms %8s %7s  %s%n", name,
+                        baseline.getTotalCount(), histogram.getTotalCount(), baseline.getValueAtPercentile(50) / 1e6,
+                        histogram.getValueAtPercentile(50) / 1e6, "-", "-", verdict));
+            } else {
+                LatencyComparison comparison = LatencyComparison.of(baseline, histogram);
+                if (comparison.isRegression(alpha, minEffect)) {
+                    verdict = "REGRESSION";
+                    regressions.add(name + " (" + comparison + ")");
+                } else {
+                    verdict = comparison.cliffsDelta() <= -minEffect ? "faster" : "ok";
+                }
+                report.append(String.format("%-34s %6d %6d %9.1fms %9.1fms %8.4f %+7.2f  %s%n", name,
+                        comparison.baselineCount(), comparison.currentCount(), comparison.baselineMedianMillis(),
+                        comparison.currentMedianMillis(), comparison.pValue(), comparison.cliffsDelta(), verdict));
+            }
+            store.append(name, histogram, maxRuns);
+        }
+        return new Result(mode, report.toString(), regressions);
+    }
+
+    public static String route(String method, String path) {
+        String[] segments = path.split("\\?", 2)[0].split("/");
+        StringBuilder route = new StringBuilder(method.toUpperCase(Locale.ROOT)).append(' ');
+        for (int i = 1; i < segments.length; i++) {
+            route.append('/');
+            if (segments[i].matches("-?\\d+")) {
+                route.append("{id}");
+            } else if (segments[i - 1].equals("category")) {
+                route.append("{category}");
+            } else {
+                route.append(segments[i]);
+            }
+        }
+        return segments.length <= 1 ? route.append('/').toString() : route.toString();
+    }
+
+    // The local stub, recorder and replay server get a fresh port each run, so they are keyed by mode, not host:port
+    static String targetKey() {
+        String override = System.getProperty(TestEnvironment.BASE_URL_PROPERTY);
+        if (override == null || override.isEmpty()) {
+            switch (TestEnvironment.server()) {
+                case "local":
+                case "record":
+                case "replay":
+                    return TestEnvironment.server();
+                default:
+                    return URI.create(TestEnvironment.REMOTE_URL).getHost();
+            }
+        }
+        URI uri = URI.create(override);
+        return uri.getPort() < 0 ? uri.getHost() : uri.getHost() + "_" + uri.getPort();
+    }
+
+    private static Histogram merge(List<Histogram> runs) {
+        if (runs.isEmpty()) {
+            return null;
+        }
+        Histogram merged = new Histogram(3);
+        for (Histogram run : runs) {
+            merged.add(run);
+        }
+        return merged;
+    }
+
+    public static final class Result {
+        private final Mode mode;
+        private final String report;
+        private final List<String> regressions;
+
+        Result(Mode mode, String report, List<String> regressions) {
+            this.mode = mode;
+            this.report = report;
+            this.regressions = regressions;
+        }
+
+        public boolean hasRegressions() {
+            return !regressions.isEmpty();
+        }
+
+        public boolean shouldFail() {
+            return mode == Mode.FAIL && hasRegressions();
+        }
+
+        public List<String> regressions() {
+            return regressions;
+        }
+
+        public String report() {
+            return report;
+        }
+    }
+}
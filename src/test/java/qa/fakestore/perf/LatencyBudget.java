@@ -0,0 +1,26 @@
+package qa.fakestore.perf;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Latency SLO for a test method, enforced by LatencyBudgetListener. The method body is run
+// warmup + samples times; every request completed during the measured runs is one latency sample,
+// and the run fails if the p50 or p99 of those samples (in milliseconds) exceeds the budget.
+//   @LatencyBudget(p50 = 500, p99 = 1500, samples = 30, warmup = 5)
+// Don't put it on tests that go through ResponseCache: cache hits would be measured, not the server.
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface LatencyBudget {
+
+    long p50();
+
+    long p99();
+
+    // Measured invocations of the test method
+    int samples() default 20;
+
+    // Invocations run first and discarded (connection setup, JIT, server-side caches)
+    int warmup() default 3;
+}
@@ -0,0 +1,138 @@
+package qa.fakestore.perf;
+
+import io.qameta.allure.Allure;
+import qa.fakestore.logging.TestLog;
+import org.HdrHistogram.Histogram;
+import org.testng.IHookCallBack;
+import org.testng.IHookable;
+import org.testng.ITestResult;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Enforces @LatencyBudget: reruns the annotated test method warmup + samples times with a
+// LatencyRecorder bound to the test thread, then checks p50/p99 against the budget and attaches the
+// histogram to Allure. A functional failure in any run fails the test as usual and skips the budget.
+// Budgets can be scaled for slow environments with -Dfakestore.latency.budgetScale=2.0.
+public class LatencyBudgetListener implements IHookable {
+
+    private static final double BUDGET_SCALE = Double.parseDouble(System.getProperty("fakestore.latency.budgetScale", "1.0"));
+    private static final TestLog LOG = TestLog.get(LatencyBudgetListener.class);
+    private static final int HISTOGRAM_BARS = 12;
+    private static final int BAR_WIDTH = 40;
+
+    @Override
+    public void run(IHookCallBack callBack, ITestResult result) {
+        Method method = result.getMethod().getConstructorOrMethod().getMethod();
+        LatencyBudget budget = method == null ? null : method.getAnnotation(LatencyBudget.class);
+        if (budget == null) {
+            callBack.runTestMethod(result);
+            return;
+        }
+
+        LatencyRecorder recorder = new LatencyRecorder();
+        LatencyRecorder previous = LatencyRecorder.current();
+        LatencyRecorder.setCurrent(recorder);
+        try {
+            for (int i = 0; i < budget.warmup() + budget.samples(); i++) {
+                recorder.setRecording(i >= budget.warmup());
+                callBack.runTestMethod(result);
+                if (result.getThrowable() != null) {
+                    return;
+                }
+            }
+        } finally {
+            LatencyRecorder.setCurrent(previous);
+        }
+
+        Histogram histogram = recorder.histogram();
+        List<String> violations = violations(budget, histogram);
+        String summary = summarize(method.getName(), budget, histogram, violations);
+        if (Allure.getLifecycle().getCurrentTestCaseOrStep().isPresent()) {
+            Allure.addAttachment("Latency budget " + method.getName(), "text/plain", summary + histogramOf(histogram));
+        }
+        LOG.info("{}", summary.stripTrailing());
+        if (!violations.isEmpty()) {
+            throw new AssertionError("Latency budget exceeded for " + method.getName() + ": " + String.join(", ", violations));
+        }
+    }
+
+    static List<String> violations(LatencyBudget budget, Histogram histogram) {
+        List<String> violations = new ArrayList<>();
+        if (histogram.getTotalCount() == 0) {
+            violations.add("no requests were recorded");
+            return violations;
+        }
+        check(violations, "p50", histogram, 50, budget.p50());
+        check(violations, "p99", histogram, 99, budget.p99());
+        return violations;
+    }
+
+    private static void check(List<String> violations, String label, Histogram histogram, double percentile, long budgetMillis) {
+        double limit = budgetMillis * BUDGET_SCALE;
+        double actual = millis(histogram.getValueAtPercentile(percentile));
+        if (actual > limit) {
+            violations.add(String.format("%s %.1fms > %.1fms", label, actual, limit));
+        }
+    }
+
+    static String summarize(String name, LatencyBudget budget, Histogram histogram, List<String> violations) {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("Latency budget for %s: p50 <= %.0fms, p99 <= %.0fms (%d samples after %d warmup runs)%n",
+                name, budget.p50() * BUDGET_SCALE, budget.p99() * BUDGET_SCALE, budget.samples(), budget.warmup()));
+        if (histogram.getTotalCount() == 0) {
+            return out.append("  no requests recorded").append(System.lineSeparator()).toString();
+        }
+        out.append(String.format("  requests %d, min %.1fms, mean %.1fms, p50 %.1fms, p90 %.1fms, p99 %.1fms, max %.1fms%n",
+                histogram.getTotalCount(), millis(histogram.getMinValue()), histogram.getMean() / 1e6,
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)), millis(histogram.getMaxValue())));
+        return out.append(violations.isEmpty() ? "  within budget" : "  VIOLATED: " + String.join(", ", violations))
+                .append(System.lineSeparator()).toString();
+    }
+
+    static String histogramOf(Histogram histogram) {
+        StringBuilder out = new StringBuilder(System.lineSeparator());
+        if (histogram.getTotalCount() == 0) {
+            return out.toString();
+        }
+
+        // Linear buckets between min and max, one bar each
+        long min = histogram.getMinValue();
+        long max = histogram.getMaxValue();
+        long width = Math.max(1, (max - min) / HISTOGRAM_BARS + 1);
+        long[] counts = new long[HISTOGRAM_BARS];
+        long peak = 1;
+        for (int i = 0; i < HISTOGRAM_BARS; i++) {
+            long from = min + i * width;
+            counts[i] = histogram.getCountBetweenValues(from, from + width - 1);
+            peak = Math.max(peak, counts[i]);
+        }
+        for (int i = 0; i < HISTOGRAM_BARS; i++) {
+            long from = min + i * width;
+            StringBuilder bar = new StringBuilder();
+            for (long j = 0; j < counts[i] * BAR_WIDTH / peak; j++) {
+                bar.append('#');
+            }
+            out.append(String.format("  %9.1f - %9.1f ms | %-" + BAR_WIDTH + "s %d%n",
+                    millis(from), millis(from + width - 1), bar, counts[i]));
+        }
+
+        // HdrHistogram's own percentile distribution, loadable in the HdrHistogram plotter
+        ByteArrayOutputStream distribution = new ByteArrayOutputStream();
+        try (PrintStream stream = new PrintStream(distribution, true, StandardCharsets.UTF_8)) {
+            histogram.outputPercentileDistribution(stream, 5, (double) TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        out.append(System.lineSeparator()).append(new String(distribution.toByteArray(), StandardCharsets.UTF_8));
+        return out.toString();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
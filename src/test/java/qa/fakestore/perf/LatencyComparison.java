@@ -0,0 +1,134 @@
+package qa.fakestore.perf;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+// Mann-Whitney U test of "current is slower than baseline", computed straight from two latency
+// histograms (values in the same HdrHistogram bucket count as ties), plus Cliff's delta as the
+// effect size. A shift is only worth reporting when it is both significant and large: with
+// thousands of samples even a 1% wobble becomes significant, and a big delta on a handful of
+// samples can be luck.
+public final class LatencyComparison {
+
+    private final long baselineCount;
+    private final long currentCount;
+    private final double u;
+    private final double z;
+    private final double pValue;
+    private final double cliffsDelta;
+    private final double baselineMedianMillis;
+    private final double currentMedianMillis;
+
+    private LatencyComparison(long baselineCount, long currentCount, double u, double z, double pValue,
+                              double cliffsDelta, double baselineMedianMillis, double currentMedianMillis) {
+        this.baselineCount = baselineCount;
+        this.currentCount = currentCount;
+        this.u = u;
+        this.z = z;
+        this.pValue = pValue;
+        this.cliffsDelta = cliffsDelta;
+        this.baselineMedianMillis = baselineMedianMillis;
+        this.currentMedianMillis = currentMedianMillis;
+    }
+
+    public static LatencyComparison of(Histogram baseline, Histogram current) {
+        long n1 = current.getTotalCount();
+        long n2 = baseline.getTotalCount();
+        if (n1 == 0 || n2 == 0) {
+            throw new IllegalArgumentException("Both histograms need samples: baseline " + n2 + ", current " + n1);
+        }
+
+        // Bucket -> {current count, baseline count}, in ascending latency order
+        TreeMap<Long, long[]> buckets = new TreeMap<>();
+        collect(buckets, current, 0);
+        collect(buckets, baseline, 1);
+
+        // Mid-ranks for each tie group; R1 is the rank sum of the current run
+        double rankSum = 0;
+        double tieCorrection = 0;
+        long seen = 0;
+        for (Map.Entry<Long, long[]> bucket : buckets.entrySet()) {
+            long[] counts = bucket.getValue();
+            long ties = counts[0] + counts[1];
+            double midRank = seen + (ties + 1) / 2.0;
+            rankSum += counts[0] * midRank;
+            tieCorrection += (double) ties * ties * ties - ties;
+            seen += ties;
+        }
+
+        double n = n1 + n2;
+        double u1 = rankSum - n1 * (n1 + 1) / 2.0;
+        double mean = n1 * (double) n2 / 2.0;
+        double variance = n1 * (double) n2 / 12.0 * ((n + 1) - tieCorrection / (n * (n - 1)));
+        double z = variance <= 0 ? 0 : (u1 - mean - 0.5) / Math.sqrt(variance);
+        double pValue = variance <= 0 ? 1.0 : 1.0 - normalCdf(z);
+        // P(current > baseline) - P(current < baseline), from U with ties counted half
+        double cliffsDelta = 2.0 * u1 / (n1 * (double) n2) - 1.0;
+
+        return new LatencyComparison(n2, n1, u1, z, pValue, cliffsDelta,
+                baseline.getValueAtPercentile(50) / 1e6, current.getValueAtPercentile(50) / 1e6);
+    }
+
+    private static void collect(TreeMap<Long, long[]> buckets, Histogram histogram, int slot) {
+        for (HistogramIterationValue value : histogram.recordedValues()) {
+            long key = histogram.lowestEquivalentValue(value.getValueIteratedTo());
+            buckets.computeIfAbsent(key, k -> new long[2])[slot] += value.getCountAtValueIteratedTo();
+        }
+    }
+
+    // Standard normal CDF via the Abramowitz-Stegun 7.1.26 erf approximation (|error| < 1.5e-7)
+    static double normalCdf(double z) {
+        double x = Math.abs(z) / Math.sqrt(2);
+        double t = 1 / (1 + 0.3275911 * x);
+        double erf = 1 - t * (0.254829592 + t * (-0.284496736 + t * (1.421413741
+                + t * (-1.453152027 + t * 1.061405429)))) * Math.exp(-x * x);
+        return z >= 0 ? 0.5 * (1 + erf) : 0.5 * (1 - erf);
+    }
+
+    public boolean isRegression(double alpha, double minCliffsDelta) {
+        return pValue < alpha && cliffsDelta >= minCliffsDelta;
+    }
+
+    public long baselineCount() {
+        return baselineCount;
+    }
+
+    public long currentCount() {
+        return currentCount;
+    }
+
+    public double u() {
+        return u;
+    }
+
+    public double z() {
+        return z;
+    }
+
+    // One-sided: probability of a shift at least this large if current were not slower
+    public double pValue() {
+        return pValue;
+    }
+
+    // -1 (always faster) .. 0 (no difference) .. 1 (always slower)
+    public double cliffsDelta() {
+        return cliffsDelta;
+    }
+
+    public double baselineMedianMillis() {
+        return baselineMedianMillis;
+    }
+
+    public double currentMedianMillis() {
+        return currentMedianMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("p50 %.1fms -> %.1fms, n %d vs %d, U %.0f, z %.2f, p %.4f, delta %+.2f",
+                baselineMedianMillis, currentMedianMillis, baselineCount, currentCount, u, z, pValue, cliffsDelta);
+    }
+}
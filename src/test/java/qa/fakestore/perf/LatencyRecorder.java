@@ -0,0 +1,42 @@
+package qa.fakestore.perf;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+// Collects request latencies for the test currently running on a thread. PhaseTimingFilter feeds it
+// every completed RestAssured request; LoadGenerator feeds it the latencies it measures on its own
+// worker threads. Samples arriving while recording is off (warmup) are dropped.
+public class LatencyRecorder {
+
+    private static final ThreadLocal<LatencyRecorder> CURRENT = new ThreadLocal<>();
+
+    private final Histogram histogram = new ConcurrentHistogram(3);
+    private volatile boolean recording = true;
+
+    // Recorder of the test executing on this thread, or null when no latency budget is being evaluated
+    public static LatencyRecorder current() {
+        return CURRENT.get();
+    }
+
+    static void setCurrent(LatencyRecorder recorder) {
+        if (recorder == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(recorder);
+        }
+    }
+
+    public void record(long latencyNanos) {
+        if (recording) {
+            histogram.recordValue(Math.max(0, latencyNanos));
+        }
+    }
+
+    void setRecording(boolean recording) {
+        this.recording = recording;
+    }
+
+    public Histogram histogram() {
+        return histogram;
+    }
+}
@@ -0,0 +1,190 @@
+package qa.fakestore.perf;
+
+import qa.fakestore.util.Threads;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Drives a set of named endpoints either closed-loop (N virtual users, each issuing its next request
+// as soon as the previous one returns) or open-loop (fixed arrival schedule at a target rate,
+// latency measured from the scheduled start so a stalled server cannot hide queueing delay).
+// Recorded latencies are also forwarded to the caller's LatencyRecorder, so a @LatencyBudget on
+// a load test is judged on the generator's measurements rather than on per-thread filter timings.
+public final class LoadGenerator {
+
+    public enum Mode { CLOSED_LOOP, OPEN_LOOP }
+
+    private final Mode mode;
+    private final int virtualUsers;
+    private final double requestsPerSecond;
+    private Duration duration = Duration.ofSeconds(10);
+    private Duration warmup = Duration.ZERO;
+    private long maxRequests = Long.MAX_VALUE;
+    private int maxInFlight = 10_000;
+
+    private LoadGenerator(Mode mode, int virtualUsers, double requestsPerSecond) {
+        this.mode = mode;
+        this.virtualUsers = virtualUsers;
+        this.requestsPerSecond = requestsPerSecond;
+    }
+
+    public static LoadGenerator closedLoop(int virtualUsers) {
+        if (virtualUsers < 1) {
+            throw new IllegalArgumentException("virtualUsers must be >= 1: " + virtualUsers);
+        }
+        return new LoadGenerator(Mode.CLOSED_LOOP, virtualUsers, 0);
+    }
+
+    public static LoadGenerator openLoop(double requestsPerSecond) {
+        if (requestsPerSecond <= 0) {
+            throw new IllegalArgumentException("requestsPerSecond must be > 0: " + requestsPerSecond);
+        }
+        return new LoadGenerator(Mode.OPEN_LOOP, 0, requestsPerSecond);
+    }
+
+    public LoadGenerator duration(Duration duration) {
+        this.duration = duration;
+        return this;
+    }
+
+    // Requests started before the warmup ends are executed but not recorded
+    public LoadGenerator warmup(Duration warmup) {
+        this.warmup = warmup;
+        return this;
+    }
+
+    // Stops after this many requests (warmup included), even if the duration has not elapsed
+    public LoadGenerator maxRequests(long maxRequests) {
+        this.maxRequests = maxRequests;
+        return this;
+    }
+
+    // Open loop only: arrivals beyond this many outstanding requests are dropped and counted
+    public LoadGenerator maxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+        return this;
+    }
+
+    public Mode mode() {
+        return mode;
+    }
+
+    public LoadReport run(Map<String, LoadRequest> endpoints) throws InterruptedException {
+        if (endpoints.isEmpty()) {
+            throw new IllegalArgumentException("At least one endpoint is required");
+        }
+        List<String> names = new ArrayList<>(endpoints.keySet());
+        List<LoadRequest> requests = new ArrayList<>(endpoints.values());
+        Map<String, EndpointStats> stats = new LinkedHashMap<>();
+        for (String name : names) {
+            stats.put(name, new EndpointStats(name));
+        }
+        EndpointStats[] statsByIndex = stats.values().toArray(new EndpointStats[0]);
+
+        LatencyRecorder recorder = LatencyRecorder.current();
+        long start = System.nanoTime();
+        long recordFrom = start + warmup.toNanos();
+        long deadline = recordFrom + duration.toNanos();
+        long dropped;
+
+        ExecutorService executor = Threads.newPerTaskExecutor("load-generator");
+        try {
+            if (mode == Mode.CLOSED_LOOP) {
+                runClosedLoop(executor, requests, statsByIndex, recorder, recordFrom, deadline);
+                dropped = 0;
+            } else {
+                dropped = runOpenLoop(executor, requests, statsByIndex, recorder, start, recordFrom, deadline);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        long end = System.nanoTime();
+        long elapsed = end - Math.min(recordFrom, end);
+        for (EndpointStats endpoint : stats.values()) {
+            ShardHistograms.publish("load " + endpoint.name(), endpoint, elapsed);
+        }
+        return new LoadReport(stats, elapsed, dropped);
+    }
+
+    private void runClosedLoop(ExecutorService executor, List<LoadRequest> requests, EndpointStats[] stats,
+                               LatencyRecorder recorder, long recordFrom, long deadline) throws InterruptedException {
+        AtomicLong issued = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(virtualUsers);
+        for (int user = 0; user < virtualUsers; user++) {
+            int offset = user;
+            executor.execute(() -> {
+                try {
+                    for (long i = offset; System.nanoTime() < deadline && issued.getAndIncrement() < maxRequests; i++) {
+                        int index = (int) (i % requests.size());
+                        long begin = System.nanoTime();
+                        boolean success = invoke(requests.get(index));
+                        if (begin >= recordFrom) {
+                            record(stats[index], recorder, System.nanoTime() - begin, success);
+                        }
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+    }
+
+    private long runOpenLoop(ExecutorService executor, List<LoadRequest> requests, EndpointStats[] stats,
+                             LatencyRecorder recorder, long start, long recordFrom, long deadline) throws InterruptedException {
+        double intervalNanos = 1e9 / requestsPerSecond;
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        long dropped = 0;
+        for (long i = 0; i < maxRequests; i++) {
+            long intended = start + (long) (i * intervalNanos);
+            if (intended >= deadline) {
+                break;
+            }
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (!inFlight.tryAcquire()) {
+                dropped++;
+                continue;
+            }
+            int index = (int) (i % requests.size());
+            executor.execute(() -> {
+                try {
+                    boolean success = invoke(requests.get(index));
+                    if (intended >= recordFrom) {
+                        record(stats[index], recorder, System.nanoTime() - intended, success);
+                    }
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }
+        inFlight.acquire(maxInFlight);
+        return dropped;
+    }
+
+    private static void record(EndpointStats stats, LatencyRecorder recorder, long latencyNanos, boolean success) {
+        stats.record(latencyNanos, success);
+        if (recorder != null) {
+            recorder.record(latencyNanos);
+        }
+    }
+
+    private static boolean invoke(LoadRequest request) {
+        try {
+            int status = request.execute();
+            return status >= 200 && status < 300;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
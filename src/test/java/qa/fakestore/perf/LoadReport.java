@@ -0,0 +1,66 @@
+package qa.fakestore.perf;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class LoadReport {
+
+    private final Map<String, EndpointStats> endpoints;
+    private final long elapsedNanos;
+    private final long dropped;
+
+    public LoadReport(Map<String, EndpointStats> endpoints, long elapsedNanos, long dropped) {
+        this.endpoints = Collections.unmodifiableMap(new LinkedHashMap<>(endpoints));
+        this.elapsedNanos = elapsedNanos;
+        this.dropped = dropped;
+    }
+
+    public Map<String, EndpointStats> endpoints() {
+        return endpoints;
+    }
+
+    public EndpointStats endpoint(String name) {
+        EndpointStats stats = endpoints.get(name);
+        if (stats == null) {
+            throw new IllegalArgumentException("No such endpoint in report: " + name);
+        }
+        return stats;
+    }
+
+    public EndpointStats total() {
+        EndpointStats total = new EndpointStats("TOTAL");
+        endpoints.values().forEach(total::add);
+        return total;
+    }
+
+    public long elapsedNanos() {
+        return elapsedNanos;
+    }
+
+    // Open-loop arrivals skipped because maxInFlight was reached; always 0 for closed loop
+    public long dropped() {
+        return dropped;
+    }
+
+    public String summary() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%-28s %9s %7s %10s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        for (EndpointStats stats : endpoints.values()) {
+            appendRow(out, stats);
+        }
+        if (endpoints.size() > 1) {
+            appendRow(out, total());
+        }
+        out.append(String.format("elapsed: %.2fs, dropped arrivals: %d%n", elapsedNanos / 1e9, dropped));
+        return out.toString();
+    }
+
+    private void appendRow(StringBuilder out, EndpointStats stats) {
+        out.append(String.format("%-28s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                stats.name(), stats.count(), stats.errors(), stats.throughput(elapsedNanos),
+                stats.percentileMillis(50), stats.percentileMillis(90), stats.percentileMillis(99),
+                stats.percentileMillis(99.9), stats.maxMillis()));
+    }
+}
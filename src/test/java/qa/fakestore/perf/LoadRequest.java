@@ -0,0 +1,8 @@
+package qa.fakestore.perf;
+
+// One request issued by the load generator. Returns the HTTP status code; anything outside 2xx,
+// or a thrown exception, is counted as an error for the endpoint.
+@FunctionalInterface
+public interface LoadRequest {
+    int execute() throws Exception;
+}
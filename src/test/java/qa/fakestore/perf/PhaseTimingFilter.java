@@ -0,0 +1,81 @@
+package qa.fakestore.perf;
+
+import io.qameta.allure.Allure;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import qa.fakestore.http.ResponseCache;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+// Outermost RestAssured filter: opens a RequestTiming for the HttpClient hooks to fill in,
+// then attaches the breakdown to the running Allure test (if there is one on this thread) or, when a
+// latency budget is being evaluated, records the total in the thread's LatencyRecorder. Every request,
+// failed ones included, also goes to the binary RequestEventLog.
+public class PhaseTimingFilter implements OrderedFilter {
+
+    private static final Map<Response, RequestTiming> TIMINGS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final boolean attachToAllure;
+
+    public PhaseTimingFilter(boolean attachToAllure) {
+        this.attachToAllure = attachToAllure;
+    }
+
+    public static RequestTiming timingOf(Response response) {
+        return TIMINGS.get(response);
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        RequestTiming timing = new RequestTiming(requestSpec.getMethod(), requestSpec.getDerivedPath(), System.nanoTime());
+        RequestTiming previous = RequestTiming.current();
+        RequestTiming.setCurrent(timing);
+        Response response;
+        try {
+            response = ctx.next(requestSpec, responseSpec);
+        } catch (RuntimeException e) {
+            timing.finish(System.nanoTime(), 0);
+            recordEvent(timing);
+            throw e;
+        } finally {
+            RequestTiming.setCurrent(previous);
+        }
+        timing.finish(System.nanoTime(), response.getStatusCode());
+        TIMINGS.put(response, timing);
+        recordEvent(timing);
+        // Cache hits and server errors say nothing about the endpoint's normal latency
+        if (response.getHeader(ResponseCache.CACHE_HEADER) == null && timing.status() < 500) {
+            LatencyBaselines.shared().record(timing.method(), timing.path(), timing.totalNanos());
+        }
+        SoakMonitor.recordRequest(timing.totalNanos());
+        StartupTimer.requestCompleted(timing.startNanos(), timing.totalNanos());
+
+        // Under a @LatencyBudget the histogram attachment replaces one attachment per rerun request
+        LatencyRecorder recorder = LatencyRecorder.current();
+        if (recorder != null) {
+            recorder.record(timing.totalNanos());
+        } else if (attachToAllure && Allure.getLifecycle().getCurrentTestCaseOrStep().isPresent()) {
+            Allure.addAttachment("Timing " + timing.method() + " " + timing.path(), "text/plain", timing.describe());
+        }
+        return response;
+    }
+
+    private static void recordEvent(RequestTiming timing) {
+        RequestEventLog events = RequestEventLog.shared();
+        if (events != null) {
+            events.record(timing.method(), timing.path(), timing.status(), timing.startNanos(), timing.totalNanos(),
+                    timing.requestBytes(), timing.responseBytes());
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return HIGHEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,314 @@
+package qa.fakestore.perf;
+
+import qa.fakestore.logging.TestLog;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Complete per-request record for runs of any length. record() claims a slot in a preallocated
+// ring buffer with one CAS and publishes it with a release store: no locks, no allocation, no I/O
+// on the calling thread. A daemon thread drains published slots in order into a memory-mapped,
+// append-only file of fixed-size little-endian events:
+//   header (64 bytes)  magic "FSEV", version, event size, -, created epoch ms, event count, dropped
+//   event  (48 bytes)  start epoch ns, endpoint id (int), status (short), -, latency ns,
+//                      request body bytes, response body bytes, thread id
+// Endpoint ids map to routes (GET /products/{id}) in a text sidecar, <file>.endpoints. If the ring is
+// full the event is dropped and counted rather than stalling the request; the count is in the header.
+// RequestEventReport turns the file into timelines. Configured through system properties:
+//   fakestore.events.enabled     (default true)
+//   fakestore.events.file        (default target/events/requests.fsev)
+//   fakestore.events.bufferSize  (default 65536 events, rounded up to a power of two)
+public final class RequestEventLog implements AutoCloseable {
+
+    private static final TestLog LOG = TestLog.get(RequestEventLog.class);
+
+    static final int MAGIC = 0x56455346;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 64;
+    static final int EVENT_BYTES = 48;
+
+    private static final int FIELDS = 6;
+    private static final int MAX_CACHED_PATHS = 4096;
+    private static final long REGION_BYTES = 16L * 1024 * 1024 / EVENT_BYTES * EVENT_BYTES;
+
+    private static RequestEventLog shared;
+
+    private final Path file;
+    private final int capacity;
+    private final int mask;
+    private final long[] slots;
+    private final AtomicLongArray published;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+    private final LongAdder dropped = new LongAdder();
+    private final Map<String, Integer> endpointIds = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Integer>> pathIds = new ConcurrentHashMap<>();
+    private final long epochNanosAtStart;
+    private final long nanoTimeAtStart;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final Writer endpoints;
+    private MappedByteBuffer region;
+    private long regionStart;
+    private long written;
+
+    private final Thread drainer;
+    private volatile boolean running = true;
+
+    public RequestEventLog(Path file, int bufferSize) throws IOException {
+        this.file = file;
+        this.capacity = Integer.highestOneBit(Math.max(2, bufferSize - 1)) << 1;
+        this.mask = capacity - 1;
+        this.slots = new long[capacity * FIELDS];
+        // Slot i holds sequence + 1 once published, so the initial zeros never match
+        this.published = new AtomicLongArray(capacity);
+        this.nanoTimeAtStart = System.nanoTime();
+        this.epochNanosAtStart = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+        header.order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, EVENT_BYTES)
+                .putLong(16, System.currentTimeMillis()).putLong(24, 0).putLong(32, 0);
+        regionStart = HEADER_BYTES;
+        region = mapRegion(regionStart);
+        endpoints = Files.newBufferedWriter(endpointsFile(file), StandardCharsets.UTF_8);
+
+        drainer = new Thread(this::drainLoop, "request-event-log");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    // Null when fakestore.events.enabled=false or the log file cannot be created
+    public static synchronized RequestEventLog shared() {
+        if (shared == null && !Boolean.parseBoolean(System.getProperty("fakestore.events.enabled", "true"))) {
+            return null;
+        }
+        if (shared == null) {
+            Path file = Paths.get(System.getProperty("fakestore.events.file", "target/events/requests.fsev"));
+            try {
+                shared = new RequestEventLog(file, Integer.getInteger("fakestore.events.bufferSize", 65536));
+            } catch (IOException e) {
+                LOG.warn("⚠️ Request event log disabled, cannot create {}: {}", file, e.getMessage());
+                System.setProperty("fakestore.events.enabled", "false");
+                return null;
+            }
+            RequestEventLog log = shared;
+            Runtime.getRuntime().addShutdownHook(new Thread(log::close, "request-event-log-shutdown"));
+        }
+        return shared;
+    }
+
+    static Path endpointsFile(Path file) {
+        return file.resolveSibling(file.getFileName() + ".endpoints");
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    // startNanos is the System.nanoTime() at which the request began; status 0 means no response
+    public void record(String method, String path, int status, long startNanos, long latencyNanos,
+                       long requestBytes, long responseBytes) {
+        int endpoint = endpointId(method, path);
+        long sequence;
+        do {
+            sequence = tail.get();
+            if (sequence - head >= capacity) {
+                dropped.increment();
+                return;
+            }
+        } while (!tail.compareAndSet(sequence, sequence + 1));
+
+        int index = (int) sequence & mask;
+        int base = index * FIELDS;
+        slots[base] = epochNanosAtStart + (startNanos - nanoTimeAtStart);
+        slots[base + 1] = ((long) endpoint << 32) | (status & 0xFFFFL);
+        slots[base + 2] = latencyNanos;
+        slots[base + 3] = requestBytes;
+        slots[base + 4] = responseBytes;
+        slots[base + 5] = Thread.currentThread().getId();
+        published.lazySet(index, sequence + 1);
+    }
+
+    // Waits until everything recorded so far is in the file and forces it to disk, so the file can be
+    // read while the log stays open for later suites in the same JVM
+    public void flush() {
+        long target = tail.get();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (head < target && running && System.nanoTime() < deadline) {
+            LockSupport.unpark(drainer);
+            LockSupport.parkNanos(100_000);
+        }
+        synchronized (this) {
+            if (running) {
+                writeHeader();
+                header.force();
+                region.force();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (!running) {
+                return;
+            }
+            running = false;
+        }
+        LockSupport.unpark(drainer);
+        try {
+            drainer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            drain();
+            writeHeader();
+            try {
+                header.force();
+                region.force();
+                synchronized (endpointIds) {
+                    endpoints.close();
+                }
+                // Drop the unused tail of the last mapped region
+                channel.truncate(HEADER_BYTES + written * EVENT_BYTES);
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot close request event log " + file, e);
+            }
+        }
+    }
+
+    // Raw paths are cached per method so the steady state is two map lookups with no allocation;
+    // route folding (split plus StringBuilder) only runs for paths not seen before
+    private int endpointId(String method, String path) {
+        Map<String, Integer> paths = pathIds.get(method);
+        if (paths == null) {
+            paths = pathIds.computeIfAbsent(method, m -> new ConcurrentHashMap<>());
+        }
+        Integer id = paths.get(path);
+        if (id != null) {
+            return id;
+        }
+        String route = LatencyBaselines.route(method, path);
+        id = endpointIds.get(route);
+        if (id == null) {
+            id = register(route);
+        }
+        // Ids in paths (/products/1..N) would grow this without bound on big catalogs
+        if (paths.size() < MAX_CACHED_PATHS) {
+            paths.put(path, id);
+        }
+        return id;
+    }
+
+    // Own lock rather than the drainer's monitor, so a new route never waits for a drain batch
+    private int register(String route) {
+        synchronized (endpointIds) {
+            Integer id = endpointIds.get(route);
+            if (id == null) {
+                id = endpointIds.size();
+                try {
+                    endpoints.write(id + "\t" + route + "\n");
+                    endpoints.flush();
+                } catch (IOException e) {
+                    // the event itself is still recorded; only the route name is lost
+                }
+                endpointIds.put(route, id);
+            }
+            return id;
+        }
+    }
+
+    private void drainLoop() {
+        while (running) {
+            int drained;
+            synchronized (this) {
+                drained = running ? drain() : 0;
+            }
+            if (drained == 0) {
+                LockSupport.parkNanos(1_000_000);
+            }
+        }
+    }
+
+    // Copies published slots, in sequence order, to the mapped file; called with the monitor held
+    private int drain() {
+        long next = head;
+        int drained = 0;
+        int index = (int) next & mask;
+        while (published.get(index) == next + 1) {
+            if (!region.hasRemaining()) {
+                regionStart += REGION_BYTES;
+                region = mapRegion(regionStart);
+            }
+            int base = index * FIELDS;
+            long endpointAndStatus = slots[base + 1];
+            region.putLong(slots[base])
+                    .putInt((int) (endpointAndStatus >>> 32))
+                    .putShort((short) endpointAndStatus)
+                    .putShort((short) 0)
+                    .putLong(slots[base + 2])
+                    .putLong(slots[base + 3])
+                    .putLong(slots[base + 4])
+                    .putLong(slots[base + 5]);
+            next++;
+            drained++;
+            index = (int) next & mask;
+            // Hand slots back in batches; producers only check head when the ring looks full
+            if ((drained & 1023) == 0) {
+                head = next;
+            }
+        }
+        head = next;
+        written += drained;
+        if (drained > 0) {
+            writeHeader();
+        }
+        return drained;
+    }
+
+    private void writeHeader() {
+        header.putLong(24, written).putLong(32, dropped.sum());
+    }
+
+    private MappedByteBuffer mapRegion(long position) {
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, position, REGION_BYTES);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return buffer;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot extend request event log " + file, e);
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package qa.fakestore.perf;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Offline reader for RequestEventLog files: per-endpoint totals plus a per-second timeline of
+// throughput, errors, active threads, latency percentiles and payload bytes. Events are bucketed by
+// completion second. A second's percentiles are computed once it is more than LATE_SECONDS behind the
+// newest event, so memory stays flat for runs of any length; stragglers after that only add to counts.
+// Errors are responses outside 2xx/3xx, or no response at all. Usage:
+//   java -cp <test classpath> qa.fakestore.perf.RequestEventReport target/events/requests.fsev [timeline.csv]
+public final class RequestEventReport {
+
+    private static final int LATE_SECONDS = 120;
+    private static final int MAX_SUMMARY_ROWS = 60;
+    private static final long EVENTS_PER_WINDOW = 1L << 22;
+
+    private final Path file;
+    private final long events;
+    private final long dropped;
+    private final Map<Integer, String> routes;
+    private final Histogram overall = new Histogram(3);
+    private final Map<Integer, Totals> endpoints = new TreeMap<>();
+    private final TreeMap<Long, Second> timeline = new TreeMap<>();
+    private final Set<Long> threads = new HashSet<>();
+    private long newestSecond = Long.MIN_VALUE;
+    private long finishedBefore = Long.MIN_VALUE;
+
+    private RequestEventReport(Path file, long events, long dropped, Map<Integer, String> routes) {
+        this.file = file;
+        this.events = events;
+        this.dropped = dropped;
+        this.routes = routes;
+    }
+
+    public static RequestEventReport read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, RequestEventLog.HEADER_BYTES);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) != RequestEventLog.MAGIC || header.getInt(4) != RequestEventLog.VERSION) {
+                throw new IOException(file + " is not a version " + RequestEventLog.VERSION + " request event log");
+            }
+            int eventBytes = header.getInt(8);
+            // A run that died before close() leaves mapped but unwritten space; the header count is authoritative
+            long count = Math.min(header.getLong(24), (channel.size() - RequestEventLog.HEADER_BYTES) / eventBytes);
+            RequestEventReport report = new RequestEventReport(file, count, header.getLong(32), readRoutes(file));
+
+            for (long first = 0; first < count; first += EVENTS_PER_WINDOW) {
+                long n = Math.min(EVENTS_PER_WINDOW, count - first);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY,
+                        RequestEventLog.HEADER_BYTES + first * eventBytes, n * eventBytes);
+                window.order(ByteOrder.LITTLE_ENDIAN);
+                for (long i = 0; i < n; i++) {
+                    int base = (int) (i * eventBytes);
+                    report.add(window.getLong(base), window.getInt(base + 8), window.getShort(base + 12) & 0xFFFF,
+                            window.getLong(base + 16), window.getLong(base + 24), window.getLong(base + 32),
+                            window.getLong(base + 40));
+                }
+            }
+            report.finishAll();
+            return report;
+        }
+    }
+
+    private static Map<Integer, String> readRoutes(Path file) throws IOException {
+        Map<Integer, String> routes = new HashMap<>();
+        Path sidecar = RequestEventLog.endpointsFile(file);
+        if (Files.exists(sidecar)) {
+            for (String line : Files.readAllLines(sidecar, StandardCharsets.UTF_8)) {
+                int tab = line.indexOf('\t');
+                if (tab > 0) {
+                    routes.put(Integer.parseInt(line.substring(0, tab)), line.substring(tab + 1));
+                }
+            }
+        }
+        return routes;
+    }
+
+    private void add(long startEpochNanos, int endpoint, int status, long latencyNanos, long requestBytes,
+                     long responseBytes, long threadId) {
+        boolean error = status < 200 || status >= 400;
+        long latency = Math.max(0, latencyNanos);
+        overall.recordValue(latency);
+        threads.add(threadId);
+        endpoints.computeIfAbsent(endpoint, id -> new Totals()).add(latency, error, requestBytes, responseBytes);
+
+        long second = Math.floorDiv(startEpochNanos + latency, 1_000_000_000L);
+        timeline.computeIfAbsent(second, s -> new Second()).add(latency, error, requestBytes, responseBytes, threadId);
+        if (second > newestSecond) {
+            newestSecond = second;
+            long finishBefore = newestSecond - LATE_SECONDS;
+            if (finishBefore > finishedBefore) {
+                for (Second open : timeline.subMap(finishedBefore, finishBefore).values()) {
+                    open.finish();
+                }
+                finishedBefore = finishBefore;
+            }
+        }
+    }
+
+    private void finishAll() {
+        for (Second second : timeline.values()) {
+            second.finish();
+        }
+    }
+
+    public long events() {
+        return events;
+    }
+
+    public long dropped() {
+        return dropped;
+    }
+
+    public long errors() {
+        long errors = 0;
+        for (Totals totals : endpoints.values()) {
+            errors += totals.errors;
+        }
+        return errors;
+    }
+
+    public int seconds() {
+        return timeline.isEmpty() ? 0 : (int) (timeline.lastKey() - timeline.firstKey() + 1);
+    }
+
+    public String summary() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format(Locale.ROOT, "Request events: %s (%d recorded, %d dropped, %d threads, %d s)%n",
+                file, events, dropped, threads.size(), seconds()));
+        if (events == 0) {
+            return out.toString();
+        }
+        out.append(String.format(Locale.ROOT, "Overall: %.1f req/s, p50 %.1fms, p99 %.1fms, p99.9 %.1fms, max %.1fms, %d errors%n%n",
+                events / (double) Math.max(1, seconds()), millis(overall.getValueAtPercentile(50)),
+                millis(overall.getValueAtPercentile(99)), millis(overall.getValueAtPercentile(99.9)),
+                millis(overall.getMaxValue()), errors()));
+
+        out.append(String.format("%-40s %8s %7s %9s %9s %9s %12s%n",
+                "endpoint", "count", "errors", "p50 ms", "p99 ms", "max ms", "resp bytes"));
+        for (Map.Entry<Integer, Totals> entry : endpoints.entrySet()) {
+            Totals totals = entry.getValue();
+            out.append(String.format(Locale.ROOT, "%-40s %8d %7d %9.1f %9.1f %9.1f %12d%n",
+                    routes.getOrDefault(entry.getKey(), "#" + entry.getKey()), totals.histogram.getTotalCount(),
+                    totals.errors, millis(totals.histogram.getValueAtPercentile(50)),
+                    millis(totals.histogram.getValueAtPercentile(99)), millis(totals.histogram.getMaxValue()),
+                    totals.responseBytes));
+        }
+
+        // Long runs are folded into at most MAX_SUMMARY_ROWS rows; the CSV keeps every second
+        int fold = Math.max(1, (seconds() + MAX_SUMMARY_ROWS - 1) / MAX_SUMMARY_ROWS);
+        out.append(String.format("%nTimeline (%d s per row; worst p99 of the folded seconds)%n", fold));
+        out.append(String.format("%7s %9s %7s %7s %9s %9s  %s%n", "t (s)", "req/s", "errors", "threads", "p50 ms", "p99 ms", "throughput"));
+        double peak = 0;
+        for (Second second : timeline.values()) {
+            peak = Math.max(peak, second.count);
+        }
+        long origin = timeline.firstKey();
+        for (long t = origin; t <= timeline.lastKey(); t += fold) {
+            long count = 0;
+            long errors = 0;
+            int activeThreads = 0;
+            double p50 = 0;
+            double p99 = 0;
+            for (Second second : timeline.subMap(t, t + fold).values()) {
+                count += second.count;
+                errors += second.errors;
+                activeThreads = Math.max(activeThreads, second.threads);
+                p50 = Math.max(p50, second.p50);
+                p99 = Math.max(p99, second.p99);
+            }
+            double rate = count / (double) fold;
+            out.append(String.format(Locale.ROOT, "%7d %9.1f %7d %7d %9.1f %9.1f  %s%n",
+                    t - origin, rate, errors, activeThreads, millis(p50), millis(p99),
+                    "#".repeat((int) Math.round(peak == 0 ? 0 : 30 * rate / peak))));
+        }
+        return out.toString();
+    }
+
+    public void writeTimeline(Path csv) throws IOException {
+        Path parent = csv.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        try (BufferedWriter writer = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            writer.write("second,epoch_s,requests,errors,threads,p50_ms,p99_ms,max_ms,request_bytes,response_bytes");
+            writer.newLine();
+            if (timeline.isEmpty()) {
+                return;
+            }
+            long origin = timeline.firstKey();
+            for (Map.Entry<Long, Second> entry : timeline.entrySet()) {
+                Second second = entry.getValue();
+                writer.write(String.format(Locale.ROOT, "%d,%d,%d,%d,%d,%.3f,%.3f,%.3f,%d,%d",
+                        entry.getKey() - origin, entry.getKey(), second.count, second.errors, second.threads,
+                        millis(second.p50), millis(second.p99), millis(second.max), second.requestBytes,
+                        second.responseBytes));
+                writer.newLine();
+            }
+        }
+    }
+
+    // requests.fsev -> requests-timeline.csv next to it
+    public static Path defaultTimelinePath(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return file.resolveSibling((dot > 0 ? name.substring(0, dot) : name) + "-timeline.csv");
+    }
+
+    private static double millis(double nanos) {
+        return nanos / 1e6;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: RequestEventReport <events file> [timeline.csv]");
+            System.exit(2);
+        }
+        Path file = Paths.get(args[0]);
+        Path csv = args.length > 1 ? Paths.get(args[1]) : defaultTimelinePath(file);
+        RequestEventReport report = read(file);
+        report.writeTimeline(csv);
+        System.out.print(report.summary());
+        System.out.println("Timeline written to " + csv.toAbsolutePath());
+    }
+
+    private static final class Totals {
+        final Histogram histogram = new Histogram(3);
+        long errors;
+        long requestBytes;
+        long responseBytes;
+
+        void add(long latency, boolean error, long requestBytes, long responseBytes) {
+            histogram.recordValue(latency);
+            errors += error ? 1 : 0;
+            this.requestBytes += Math.max(0, requestBytes);
+            this.responseBytes += Math.max(0, responseBytes);
+        }
+    }
+
+    private static final class Second {
+        Histogram histogram = new Histogram(2);
+        Set<Long> threadIds = new HashSet<>();
+        long count;
+        long errors;
+        long requestBytes;
+        long responseBytes;
+        int threads;
+        double p50;
+        double p99;
+        double max;
+
+        void add(long latency, boolean error, long requestBytes, long responseBytes, long threadId) {
+            count++;
+            errors += error ? 1 : 0;
+            this.requestBytes += Math.max(0, requestBytes);
+            this.responseBytes += Math.max(0, responseBytes);
+            if (histogram != null) {
+                histogram.recordValue(latency);
+                threadIds.add(threadId);
+            }
+        }
+
+        void finish() {
+            if (histogram == null) {
+                return;
+            }
+            p50 = histogram.getValueAtPercentile(50);
+            p99 = histogram.getValueAtPercentile(99);
+            max = histogram.getMaxValue();
+            threads = threadIds.size();
+            histogram = null;
+            threadIds = null;
+        }
+    }
+}
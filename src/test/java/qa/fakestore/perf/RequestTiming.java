@@ -0,0 +1,138 @@
+package qa.fakestore.perf;
+
+// Phase breakdown of one RestAssured request, all in System.nanoTime() units.
+// Filled in by PhaseTimingFilter (start/end) and the instrumented HttpClient (connect/write/headers).
+public class RequestTiming {
+
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+
+    private final String method;
+    private final String path;
+    private final long startNanos;
+    private long connectNanos;
+    private long writeStartNanos;
+    private long writeEndNanos;
+    private long headersReceivedNanos;
+    private long endNanos;
+    private int status;
+    private long requestBytes;
+    private long responseBytes;
+
+    public RequestTiming(String method, String path, long startNanos) {
+        this.method = method;
+        this.path = path;
+        this.startNanos = startNanos;
+    }
+
+    // Timing of the request currently executing on this thread, or null outside PhaseTimingFilter
+    public static RequestTiming current() {
+        return CURRENT.get();
+    }
+
+    static void setCurrent(RequestTiming timing) {
+        if (timing == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(timing);
+        }
+    }
+
+    public void addConnect(long nanos) {
+        connectNanos += nanos;
+    }
+
+    public void markWriteStart(long nanos) {
+        writeStartNanos = nanos;
+    }
+
+    public void markWriteEnd(long nanos) {
+        writeEndNanos = nanos;
+    }
+
+    public void markHeadersReceived(long nanos) {
+        headersReceivedNanos = nanos;
+    }
+
+    public void addRequestBytes(long bytes) {
+        requestBytes += bytes;
+    }
+
+    public void addResponseBytes(long bytes) {
+        responseBytes += bytes;
+    }
+
+    void finish(long nanos, int status) {
+        this.endNanos = nanos;
+        this.status = status;
+    }
+
+    public String method() {
+        return method;
+    }
+
+    public String path() {
+        return path;
+    }
+
+    public int status() {
+        return status;
+    }
+
+    public long startNanos() {
+        return startNanos;
+    }
+
+    // Request entity length, -1 when streamed without a known length
+    public long requestBytes() {
+        return requestBytes;
+    }
+
+    // Response body bytes read from the socket so far; a body the test streams later is not yet counted
+    public long responseBytes() {
+        return responseBytes;
+    }
+
+    // TCP connect plus TLS handshake; zero when a pooled connection was reused
+    public long connectNanos() {
+        return connectNanos;
+    }
+
+    public long requestWriteNanos() {
+        return writeEndNanos - writeStartNanos;
+    }
+
+    // Server think time plus one network round trip
+    public long timeToFirstByteNanos() {
+        return headersReceivedNanos == 0 ? 0 : headersReceivedNanos - writeEndNanos;
+    }
+
+    // Payload transfer plus RestAssured buffering of the body
+    public long bodyReadNanos() {
+        return headersReceivedNanos == 0 ? 0 : endNanos - headersReceivedNanos;
+    }
+
+    public long totalNanos() {
+        return endNanos - startNanos;
+    }
+
+    // Filters, request building and connection pool lease: everything not covered by a phase above
+    public long overheadNanos() {
+        return totalNanos() - connectNanos - requestWriteNanos() - timeToFirstByteNanos() - bodyReadNanos();
+    }
+
+    public String describe() {
+        return String.format("%s %s -> %d%n"
+                        + "connect:       %10.3f ms%n"
+                        + "request write: %10.3f ms%n"
+                        + "first byte:    %10.3f ms%n"
+                        + "body read:     %10.3f ms%n"
+                        + "client other:  %10.3f ms%n"
+                        + "total:         %10.3f ms%n",
+                method, path, status, millis(connectNanos), millis(requestWriteNanos()),
+                millis(timeToFirstByteNanos()), millis(bodyReadNanos()), millis(overheadNanos()), millis(totalNanos()));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,60 @@
+package qa.fakestore.perf;
+
+// The slice of the work this JVM owns when ShardedRunner forks several worker JVMs. Both ways of
+// splitting are pure functions of (index, count), so a rerun with the same count repeats the split:
+//   owns(item)        round-robin, for test methods and data-provider rows
+//   rangeStart/share  contiguous ranges differing in size by at most one, for virtual users
+// Outside a sharded run the count is 1 and this JVM owns everything.
+//   fakestore.shard.index  (0-based, default 0)
+//   fakestore.shard.count  (default 1)
+public final class Shard {
+
+    private static final Shard CURRENT = new Shard(
+            Integer.getInteger("fakestore.shard.index", 0), Integer.getInteger("fakestore.shard.count", 1));
+
+    private final int index;
+    private final int count;
+
+    public Shard(int index, int count) {
+        if (count < 1 || index < 0 || index >= count) {
+            throw new IllegalArgumentException("Bad shard " + index + " of " + count);
+        }
+        this.index = index;
+        this.count = count;
+    }
+
+    public static Shard current() {
+        return CURRENT;
+    }
+
+    public int index() {
+        return index;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public boolean isSharded() {
+        return count > 1;
+    }
+
+    public boolean owns(int item) {
+        return item % count == index;
+    }
+
+    // First of this shard's items out of [0, total)
+    public int rangeStart(int total) {
+        return (int) ((long) total * index / count);
+    }
+
+    // Number of items in this shard's range; may be 0 when there are fewer items than shards
+    public int share(int total) {
+        return (int) ((long) total * (index + 1) / count) - rangeStart(total);
+    }
+
+    @Override
+    public String toString() {
+        return "shard " + (index + 1) + "/" + count;
+    }
+}
@@ -0,0 +1,64 @@
+package qa.fakestore.perf;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Latency histograms a worker JVM hands to the ShardedRunner coordinator, which merges them
+// losslessly across workers. LoadGenerator and JourneyRunner publish theirs at the end of a run;
+// outside a sharded run publishing does nothing.
+public final class ShardHistograms {
+
+    private static final Queue<Entry> PUBLISHED = new ConcurrentLinkedQueue<>();
+
+    private ShardHistograms() {
+    }
+
+    public static void publish(String name, EndpointStats stats, long elapsedNanos) {
+        if (Shard.current().isSharded()) {
+            PUBLISHED.add(new Entry(name, stats.histogram().copy(), stats.errors(), elapsedNanos));
+        }
+    }
+
+    public static List<Entry> drain() {
+        List<Entry> entries = new ArrayList<>();
+        Entry entry;
+        while ((entry = PUBLISHED.poll()) != null) {
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    public static final class Entry {
+        private final String name;
+        private final Histogram histogram;
+        private final long errors;
+        private final long elapsedNanos;
+
+        public Entry(String name, Histogram histogram, long errors, long elapsedNanos) {
+            this.name = name;
+            this.histogram = histogram;
+            this.errors = errors;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public Histogram histogram() {
+            return histogram;
+        }
+
+        public long errors() {
+            return errors;
+        }
+
+        public long elapsedNanos() {
+            return elapsedNanos;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package qa.fakestore.perf;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Marks a load test that runs on every shard of a sharded run, each worker driving its own range of
+// the virtual users (Shard.current().rangeStart/share), instead of being assigned to one worker.
+// Its LoadGenerator and JourneyRunner histograms are merged by the coordinator.
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface ShardedLoad {
+}
@@ -0,0 +1,299 @@
+package qa.fakestore.perf;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.UnixOperatingSystemMXBean;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import qa.fakestore.logging.TestLog;
+import qa.fakestore.util.Threads;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Samples the client JVM at a fixed interval while a soak run loops the suite, and writes one CSV row
+// per sample: heap, heap left after the last GC, GC count/time/longest pause, allocation rate, threads,
+// open file descriptors, and the interval's request count and latency (fed by PhaseTimingFilter), so
+// client health can be charted next to request latency. stop() checks the series for steady growth.
+public class SoakMonitor {
+
+    private static final TestLog LOG = TestLog.get(SoakMonitor.class);
+    private static final double MB = 1024.0 * 1024.0;
+    private static final String HEADER = "epoch_ms,elapsed_s,heap_used_mb,heap_committed_mb,heap_after_gc_mb,gc_count,"
+            + "gc_time_ms,gc_max_pause_ms,alloc_mb_per_s,threads,open_fds,requests,req_p50_ms,req_p99_ms,iterations";
+
+    private static final Method TOTAL_ALLOCATED = totalAllocatedMethod();
+
+    private static volatile SoakMonitor active;
+
+    private final Path output;
+    private final long intervalMillis;
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+    private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+    private final Recorder requests = new Recorder(3);
+    private final AtomicLong maxPauseMillis = new AtomicLong();
+    private final AtomicLong iterations = new AtomicLong();
+    private final NotificationListener gcListener = this::onGc;
+    private final List<double[]> samples = new ArrayList<>();
+
+    private ScheduledExecutorService scheduler;
+    private BufferedWriter writer;
+    private long startMillis;
+    private long lastSampleNanos;
+    private long lastAllocatedBytes;
+    private long lastGcCount;
+    private long lastGcTimeMillis;
+    private Histogram intervalHistogram;
+    private boolean stopped;
+
+    public SoakMonitor(Path output, long intervalMillis) {
+        this.output = output;
+        this.intervalMillis = intervalMillis;
+    }
+
+    // Request latencies from PhaseTimingFilter; a no-op unless a soak run is being monitored
+    public static void recordRequest(long latencyNanos) {
+        SoakMonitor monitor = active;
+        if (monitor != null) {
+            monitor.requests.recordValue(Math.max(0, latencyNanos));
+        }
+    }
+
+    public synchronized void start() {
+        try {
+            Files.createDirectories(output.toAbsolutePath().getParent());
+            writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8);
+            writer.write(HEADER);
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write soak time series to " + output, e);
+        }
+        for (GarbageCollectorMXBean collector : collectors) {
+            if (collector instanceof NotificationEmitter) {
+                ((NotificationEmitter) collector).addNotificationListener(gcListener, null, null);
+            }
+        }
+        startMillis = System.currentTimeMillis();
+        lastSampleNanos = System.nanoTime();
+        lastAllocatedBytes = allocatedBytes();
+        lastGcCount = gcCount();
+        lastGcTimeMillis = gcTimeMillis();
+        active = this;
+        scheduler = Executors.newSingleThreadScheduledExecutor(Threads.daemonFactory("soak-sampler"));
+        scheduler.scheduleAtFixedRate(this::sampleQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // One suite pass finished; recorded in the iterations column
+    public void iterationCompleted() {
+        iterations.incrementAndGet();
+    }
+
+    public synchronized List<TrendDetector.Trend> stop(TrendDetector detector) {
+        scheduler.shutdownNow();
+        try {
+            scheduler.awaitTermination(intervalMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        sample();
+        stopped = true;
+        active = null;
+        for (GarbageCollectorMXBean collector : collectors) {
+            if (collector instanceof NotificationEmitter) {
+                try {
+                    ((NotificationEmitter) collector).removeNotificationListener(gcListener);
+                } catch (ListenerNotFoundException ignored) {
+                    // never registered
+                }
+            }
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        // The first samples cover class loading and warm-up, which always "grow"
+        List<double[]> steady = samples.subList(Math.min(samples.size(), samples.size() / 10), samples.size());
+        List<TrendDetector.Trend> trends = new ArrayList<>();
+        trends.add(detector.analyze("heap after GC (MB)", column(steady, 4, true)));
+        trends.add(detector.analyze("threads", column(steady, 9, false)));
+        trends.add(detector.analyze("open file descriptors", column(steady, 10, true)));
+        trends.add(detector.analyze("request p99 (ms)", column(steady, 13, true)));
+        return trends;
+    }
+
+    public int sampleCount() {
+        return samples.size();
+    }
+
+    private void sampleQuietly() {
+        try {
+            sample();
+        } catch (RuntimeException e) {
+            LOG.warn("⚠️ Soak sample failed: {}", e.getMessage());
+        }
+    }
+
+    private synchronized void sample() {
+        if (stopped) {
+            return;
+        }
+        long now = System.nanoTime();
+        double seconds = Math.max(1e-9, (now - lastSampleNanos) / 1e9);
+        lastSampleNanos = now;
+
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        long allocated = allocatedBytes();
+        long gcCount = gcCount();
+        long gcTime = gcTimeMillis();
+        intervalHistogram = requests.getIntervalHistogram(intervalHistogram);
+
+        double[] row = {
+                System.currentTimeMillis(),
+                (System.currentTimeMillis() - startMillis) / 1000.0,
+                heap.getUsed() / MB,
+                heap.getCommitted() / MB,
+                heapAfterGc() / MB,
+                gcCount - lastGcCount,
+                gcTime - lastGcTimeMillis,
+                maxPauseMillis.getAndSet(0),
+                Math.max(0, allocated - lastAllocatedBytes) / MB / seconds,
+                threads.getThreadCount(),
+                openFileDescriptors(),
+                intervalHistogram.getTotalCount(),
+                intervalHistogram.getTotalCount() == 0 ? -1 : intervalHistogram.getValueAtPercentile(50) / 1e6,
+                intervalHistogram.getTotalCount() == 0 ? -1 : intervalHistogram.getValueAtPercentile(99) / 1e6,
+                iterations.get()
+        };
+        lastAllocatedBytes = allocated;
+        lastGcCount = gcCount;
+        lastGcTimeMillis = gcTime;
+        samples.add(row);
+
+        try {
+            writer.write(String.format(Locale.ROOT,
+                    "%.0f,%.1f,%.1f,%.1f,%.1f,%.0f,%.0f,%.0f,%.1f,%.0f,%.0f,%.0f,%.2f,%.2f,%.0f",
+                    row[0], row[1], row[2], row[3], row[4], row[5], row[6], row[7], row[8], row[9], row[10],
+                    row[11], row[12], row[13], row[14]));
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write soak sample to " + output, e);
+        }
+    }
+
+    // Longest stop-the-world pause per interval; concurrent cycles (G1 Concurrent GC, ZGC Cycles) are not pauses
+    private void onGc(Notification notification, Object handback) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            return;
+        }
+        GarbageCollectionNotificationInfo info =
+                GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        String name = info.getGcName();
+        if (name.contains("Concurrent") || name.contains("Cycles")) {
+            return;
+        }
+        maxPauseMillis.accumulateAndGet(info.getGcInfo().getDuration(), Math::max);
+    }
+
+    // Live heap as of the most recent collection of each pool; unlike heap used, this is not a sawtooth
+    private static long heapAfterGc() {
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            MemoryUsage afterGc = pool.getType() == MemoryType.HEAP ? pool.getCollectionUsage() : null;
+            if (afterGc != null) {
+                used += afterGc.getUsed();
+            }
+        }
+        return used;
+    }
+
+    private long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            count += Math.max(0, collector.getCollectionCount());
+        }
+        return count;
+    }
+
+    private long gcTimeMillis() {
+        long time = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            time += Math.max(0, collector.getCollectionTime());
+        }
+        return time;
+    }
+
+    private long openFileDescriptors() {
+        return os instanceof UnixOperatingSystemMXBean ? ((UnixOperatingSystemMXBean) os).getOpenFileDescriptorCount() : -1;
+    }
+
+    // Total bytes allocated by all threads. getTotalThreadAllocatedBytes (JDK 14+) includes threads that
+    // have died; on 11 we fall back to summing live threads, which undercounts short-lived workers.
+    private long allocatedBytes() {
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return 0;
+        }
+        com.sun.management.ThreadMXBean sunThreads = (com.sun.management.ThreadMXBean) threads;
+        if (TOTAL_ALLOCATED != null) {
+            try {
+                return (long) TOTAL_ALLOCATED.invoke(sunThreads);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                // fall through to the per-thread sum
+            }
+        }
+        long total = 0;
+        for (long bytes : sunThreads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            total += Math.max(0, bytes);
+        }
+        return total;
+    }
+
+    private static Method totalAllocatedMethod() {
+        try {
+            return com.sun.management.ThreadMXBean.class.getMethod("getTotalThreadAllocatedBytes");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static double[] column(List<double[]> rows, int index, boolean skipNegative) {
+        double[] values = new double[rows.size()];
+        int count = 0;
+        for (double[] row : rows) {
+            // heap after GC stays 0 until the first collection; missing latency/FD values are -1
+            if (skipNegative && row[index] <= 0) {
+                continue;
+            }
+            values[count++] = row[index];
+        }
+        return Arrays.copyOf(values, count);
+    }
+}
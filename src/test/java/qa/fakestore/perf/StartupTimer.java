@@ -0,0 +1,53 @@
+package qa.fakestore.perf;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+// Where a TestRunner run spends its time before the tests proper: when the run started, when the
+// first test started, and when the first HTTP request of the run came back. Both transports report
+// every request; only the first after runStarted() is kept, and outside a TestRunner run it is a no-op.
+public final class StartupTimer {
+
+    private static volatile long runStartNanos;
+    private static final AtomicReference<long[]> FIRST_TEST = new AtomicReference<>();
+    // {completed at, latency}
+    private static final AtomicReference<long[]> FIRST_REQUEST = new AtomicReference<>();
+
+    private StartupTimer() {
+    }
+
+    public static void runStarted() {
+        FIRST_TEST.set(null);
+        FIRST_REQUEST.set(null);
+        runStartNanos = System.nanoTime();
+    }
+
+    public static void testStarted() {
+        if (runStartNanos != 0 && FIRST_TEST.get() == null) {
+            FIRST_TEST.compareAndSet(null, new long[]{System.nanoTime()});
+        }
+    }
+
+    public static void requestCompleted(long startNanos, long latencyNanos) {
+        if (runStartNanos != 0 && FIRST_REQUEST.get() == null) {
+            FIRST_REQUEST.compareAndSet(null, new long[]{startNanos + latencyNanos, latencyNanos});
+        }
+    }
+
+    // Run start to the first test starting: TestNG, class loading, RestAssured/Groovy, @BeforeClass; -1 if none ran
+    public static long setupNanos() {
+        long[] first = FIRST_TEST.get();
+        return first == null ? -1 : first[0] - runStartNanos;
+    }
+
+    // Latency of the run's first request; -1 if it made none
+    public static long firstRequestNanos() {
+        long[] first = FIRST_REQUEST.get();
+        return first == null ? -1 : first[1];
+    }
+
+    // Run start to the first response; -1 if the run made no request
+    public static long firstResponseAtNanos() {
+        long[] first = FIRST_REQUEST.get();
+        return first == null ? -1 : first[0] - runStartNanos;
+    }
+}
@@ -0,0 +1,54 @@
+package qa.fakestore.perf;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+
+// Pause a virtual user takes between journey steps. Every distribution is multiplied by
+// fakestore.journey.thinkScale (default 1.0), so CI can shrink or disable think time without
+// editing journeys.
+@FunctionalInterface
+public interface ThinkTime {
+
+    double SCALE = Double.parseDouble(System.getProperty("fakestore.journey.thinkScale", "1.0"));
+
+    long nextNanos(SplittableRandom random);
+
+    static ThinkTime none() {
+        return random -> 0;
+    }
+
+    static ThinkTime fixed(Duration pause) {
+        long nanos = scaled(pause.toNanos());
+        return random -> nanos;
+    }
+
+    static ThinkTime uniform(Duration min, Duration max) {
+        long from = scaled(min.toNanos());
+        long to = scaled(max.toNanos());
+        if (to < from) {
+            throw new IllegalArgumentException("Think time range is reversed: " + min + ".." + max);
+        }
+        return random -> from == to ? from : random.nextLong(from, to + 1);
+    }
+
+    // Memoryless pauses, as between independent user actions
+    static ThinkTime exponential(Duration mean) {
+        double meanNanos = scaled(mean.toNanos());
+        return random -> (long) (-meanNanos * Math.log(1 - random.nextDouble()));
+    }
+
+    // Right-skewed: most pauses near the median, a long tail of slow readers
+    static ThinkTime logNormal(Duration median, double sigma) {
+        double mu = Math.log(Math.max(1, scaled(median.toNanos())));
+        return random -> SCALE == 0 ? 0 : (long) Math.exp(mu + sigma * gaussian(random));
+    }
+
+    private static long scaled(long nanos) {
+        return (long) (nanos * SCALE);
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        // Box-Muller; one of the pair is enough here
+        return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+}
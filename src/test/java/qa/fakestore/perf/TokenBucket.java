@@ -0,0 +1,64 @@
+package qa.fakestore.perf;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Client-side rate limiter: at most `ratePerSecond` permits a second on average, with up to `burst`
+// granted back to back after an idle spell. Kept as a single "theoretical arrival time" (GCRA), so a
+// permit is one short synchronized block and no refill thread. Share one instance between every
+// worker that must stay under the same cap.
+public final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final double ratePerSecond;
+    private final LongAdder granted = new LongAdder();
+    private long theoreticalArrival = Long.MIN_VALUE;
+
+    public TokenBucket(double ratePerSecond, int burst) {
+        if (ratePerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Need a positive rate and burst: " + ratePerSecond + "/s, burst " + burst);
+        }
+        this.ratePerSecond = ratePerSecond;
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond));
+        this.toleranceNanos = intervalNanos * (burst - 1);
+    }
+
+    public double ratePerSecond() {
+        return ratePerSecond;
+    }
+
+    public long granted() {
+        return granted.sum();
+    }
+
+    // Waits for a permit; false, with nothing consumed, if none is available before the deadline
+    public boolean acquire(long deadlineNanos) {
+        long allowedAt = reserve(System.nanoTime(), deadlineNanos);
+        if (allowedAt == Long.MIN_VALUE) {
+            return false;
+        }
+        long wait;
+        while ((wait = allowedAt - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(wait);
+        }
+        return true;
+    }
+
+    public boolean tryAcquire() {
+        long now = System.nanoTime();
+        return reserve(now, now) != Long.MIN_VALUE;
+    }
+
+    private synchronized long reserve(long now, long deadlineNanos) {
+        long arrival = theoreticalArrival == Long.MIN_VALUE ? now : Math.max(theoreticalArrival, now);
+        long allowedAt = Math.max(now, arrival - toleranceNanos);
+        if (allowedAt > deadlineNanos) {
+            return Long.MIN_VALUE;
+        }
+        theoreticalArrival = arrival + intervalNanos;
+        granted.increment();
+        return allowedAt;
+    }
+}
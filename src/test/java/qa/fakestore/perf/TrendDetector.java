@@ -0,0 +1,91 @@
+package qa.fakestore.perf;
+
+import java.util.Arrays;
+
+// Flags steady growth in a sampled series (post-GC heap, threads, file descriptors). Growth counts as
+// monotonic when Kendall's tau against time is strongly positive, i.e. almost every later sample is
+// higher than almost every earlier one, and the last third of the run sits clearly above the first
+// third. A sawtooth or a one-off step up from warm-up does not qualify; a leak does.
+public final class TrendDetector {
+
+    private final double minTau;
+    private final double minRelativeGrowth;
+    private final int minSamples;
+
+    public TrendDetector(double minTau, double minRelativeGrowth, int minSamples) {
+        this.minTau = minTau;
+        this.minRelativeGrowth = minRelativeGrowth;
+        this.minSamples = minSamples;
+    }
+
+    public Trend analyze(String metric, double[] values) {
+        int n = values.length;
+        if (n < minSamples) {
+            return new Trend(metric, n, 0, 0, false, "too few samples");
+        }
+        // Mann-Kendall S: concordant minus discordant pairs, ties contribute nothing
+        long s = 0;
+        for (int i = 0; i < n - 1; i++) {
+            for (int j = i + 1; j < n; j++) {
+                s += Double.compare(values[j], values[i]);
+            }
+        }
+        double tau = s / (n * (n - 1) / 2.0);
+
+        int third = Math.max(1, n / 3);
+        double head = median(Arrays.copyOfRange(values, 0, third));
+        double tail = median(Arrays.copyOfRange(values, n - third, n));
+        double growth = head == 0 ? (tail > 0 ? Double.POSITIVE_INFINITY : 0) : (tail - head) / Math.abs(head);
+
+        boolean growing = tau >= minTau && growth >= minRelativeGrowth;
+        return new Trend(metric, n, tau, growth, growing, growing ? "MONOTONIC GROWTH" : "stable");
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+
+    public static final class Trend {
+        private final String metric;
+        private final int samples;
+        private final double tau;
+        private final double growth;
+        private final boolean growing;
+        private final String verdict;
+
+        Trend(String metric, int samples, double tau, double growth, boolean growing, String verdict) {
+            this.metric = metric;
+            this.samples = samples;
+            this.tau = tau;
+            this.growth = growth;
+            this.growing = growing;
+            this.verdict = verdict;
+        }
+
+        public String metric() {
+            return metric;
+        }
+
+        public double tau() {
+            return tau;
+        }
+
+        // Relative change from the first third's median to the last third's
+        public double growth() {
+            return growth;
+        }
+
+        public boolean isGrowing() {
+            return growing;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-22s samples %4d, tau %+.2f, growth %+7.1f%%  %s",
+                    metric, samples, tau, growth * 100, verdict);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package qa.fakestore.runner;
+
+import org.testng.ITestNGListener;
+import org.testng.TestListenerAdapter;
+import org.testng.TestNG;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// The API test classes as one programmatic parallel="methods" suite, for runners that execute it repeatedly
+final class ApiSuite {
+
+    static final String[] TEST_CLASSES = {
+            "qa.fakestore.tests.ProductAPITests",
+            "qa.fakestore.tests.AuthenticationTests",
+            "qa.fakestore.tests.CartTests",
+            "qa.fakestore.tests.JourneyTests",
+            "qa.fakestore.tests.ResilienceTests",
+            "qa.fakestore.tests.CassetteTests"
+    };
+
+    private ApiSuite() {
+    }
+
+    // Runs the suite once, without TestNG's report writers, and returns the pass/fail bookkeeping.
+    // Extra listeners may be interceptors (ShardFilter) as well as result listeners.
+    static TestListenerAdapter run(String name, int threads, ITestNGListener... listeners) {
+        return run(name, threads, List.of(), listeners);
+    }
+
+    // Same, skipping the given groups; runners that time the whole suite leave out BaseTest.FIXED_DURATION,
+    // whose tests take as long at 64 threads as at one
+    static TestListenerAdapter run(String name, int threads, List<String> excludedGroups, ITestNGListener... listeners) {
+        XmlSuite suite = new XmlSuite();
+        suite.setName(name);
+        suite.setParallel(XmlSuite.ParallelMode.METHODS);
+        suite.setThreadCount(threads);
+        suite.setDataProviderThreadCount(threads);
+
+        XmlTest test = new XmlTest(suite);
+        test.setName("API Tests x" + threads);
+        List<XmlClass> classes = new ArrayList<>();
+        for (String className : TEST_CLASSES) {
+            classes.add(new XmlClass(className));
+        }
+        test.setXmlClasses(classes);
+        excludedGroups.forEach(test::addExcludedGroup);
+
+        TestListenerAdapter listener = new TestListenerAdapter();
+        TestNG testng = new TestNG();
+        testng.setXmlSuites(List.of(suite));
+        testng.setUseDefaultListeners(false);
+        // Repeated runs would otherwise write thousands of Allure result files per hour
+        testng.setListenersToSkipFromBeingWiredInViaServiceLoaders("io.qameta.allure.testng.AllureTestNg");
+        testng.setVerbose(0);
+        testng.addListener(listener);
+        for (ITestNGListener extra : listeners) {
+            testng.addListener(extra);
+        }
+        testng.run();
+        return listener;
+    }
+}
@@ -0,0 +1,67 @@
+package qa.fakestore.runner;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.function.Predicate;
+
+// Command lines for runners that fork JVMs on the suite's classpath (ShardedRunner, StartupReport)
+final class JvmFork {
+
+    private JvmFork() {
+    }
+
+    // java, the given JVM options, the test classpath and every fakestore.* property the filter passes
+    static List<String> command(List<String> jvmOptions, Predicate<String> passProperty) {
+        return command(jvmOptions, classpath(), passProperty);
+    }
+
+    static List<String> command(List<String> jvmOptions, String classpath, Predicate<String> passProperty) {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmOptions);
+        command.add("-cp");
+        command.add(classpath);
+        Properties properties = System.getProperties();
+        for (String name : properties.stringPropertyNames()) {
+            if (name.startsWith("fakestore.") && passProperty.test(name)) {
+                command.add("-D" + name + "=" + properties.getProperty(name));
+            }
+        }
+        return command;
+    }
+
+    static List<String> options(String spaceSeparated) {
+        List<String> options = new ArrayList<>();
+        for (String option : spaceSeparated.trim().split("\\s+")) {
+            if (!option.isEmpty()) {
+                options.add(option);
+            }
+        }
+        return options;
+    }
+
+    // Under exec:java the test classes live in a plugin class loader, not on java.class.path
+    static String classpath() {
+        List<String> entries = new ArrayList<>();
+        for (ClassLoader loader = JvmFork.class.getClassLoader(); loader != null; loader = loader.getParent()) {
+            if (loader instanceof URLClassLoader) {
+                for (URL url : ((URLClassLoader) loader).getURLs()) {
+                    if ("file".equals(url.getProtocol())) {
+                        try {
+                            entries.add(new File(url.toURI()).getPath());
+                        } catch (URISyntaxException e) {
+                            entries.add(url.getPath());
+                        }
+                    }
+                }
+            }
+        }
+        return entries.isEmpty() ? System.getProperty("java.class.path") : String.join(File.pathSeparator, entries);
+    }
+}
@@ -0,0 +1,132 @@
+package qa.fakestore.runner;
+
+import qa.fakestore.base.BaseTest;
+import qa.fakestore.base.TestEnvironment;
+import qa.fakestore.logging.LogLevel;
+import qa.fakestore.logging.LogSink;
+import org.testng.TestListenerAdapter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Suite throughput with test logging on and off at one thread count (default 64) against the local stub:
+//   println  every line written synchronously on the test thread, as System.out.println did
+//   async    the default sink: INFO, sampled per message type, written by the background thread
+//   off      fakestore.log.level=OFF
+// Tests in BaseTest.FIXED_DURATION are left out, as in ScalingReport.
+// Modes run round-robin after a warm-up so that JIT and stub drift affect all of them alike. Usage:
+//   mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=qa.fakestore.runner.LoggingReport \
+//       -Dexec.args="64 5"
+public class LoggingReport {
+
+    private static final List<String> MODES = Arrays.asList("println", "async", "off");
+
+    public static void main(String[] args) throws IOException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        if (System.getProperty(TestEnvironment.BASE_URL_PROPERTY) == null) {
+            System.setProperty(TestEnvironment.SERVER_PROPERTY, "local");
+        }
+        if (System.getProperty("fakestore.cache.enabled") == null) {
+            System.setProperty("fakestore.cache.enabled", "false");
+        }
+        if (System.getProperty("fakestore.baseline.mode") == null) {
+            System.setProperty("fakestore.baseline.mode", "off");
+        }
+
+        runSuite("warmup", threads);
+        System.out.println("✅ Warm-up run finished");
+
+        Map<String, List<Run>> runs = new LinkedHashMap<>();
+        for (int round = 0; round < rounds; round++) {
+            for (String mode : MODES) {
+                Run run = runSuite(mode, threads);
+                runs.computeIfAbsent(mode, m -> new ArrayList<>()).add(run);
+                System.out.println("✅ " + mode + " round " + (round + 1) + ": " + run.wallMillis + "ms");
+            }
+        }
+        LogSink.install(LogSink.fromProperties());
+
+        StringBuilder report = new StringBuilder();
+        report.append("Suite throughput by logging mode, ").append(threads).append(" threads, ").append(rounds)
+                .append(" rounds against ").append(TestEnvironment.baseUrl()).append(System.lineSeparator());
+        report.append(String.format("%-8s %12s %10s %9s %9s %9s %9s %7s%n",
+                "mode", "median ms", "tests/s", "vs off", "written", "sampled", "dropped", "failed"));
+        double offMedian = median(runs.get("off"));
+        for (Map.Entry<String, List<Run>> entry : runs.entrySet()) {
+            List<Run> modeRuns = entry.getValue();
+            double medianMillis = median(modeRuns);
+            Run last = modeRuns.get(modeRuns.size() - 1);
+            report.append(String.format("%-8s %12.0f %10.1f %8.0f%% %9d %9d %9d %7d%n", entry.getKey(), medianMillis,
+                    1000.0 * last.tests / medianMillis, 100 * (medianMillis - offMedian) / offMedian,
+                    last.written, last.sampled, last.dropped, last.failed));
+        }
+        System.out.print(report);
+
+        Path output = Paths.get("target", "logging-report.txt");
+        Files.createDirectories(output.getParent());
+        Files.write(output, report.toString().getBytes(StandardCharsets.UTF_8));
+        System.out.println("📄 Report written to " + output.toAbsolutePath());
+        System.exit(0);
+    }
+
+    private static Run runSuite(String mode, int threads) {
+        LogSink sink = sinkFor(mode);
+        LogSink.install(sink);
+        long start = System.nanoTime();
+        TestListenerAdapter listener = ApiSuite.run("LoggingSuite-" + mode, threads, List.of(BaseTest.FIXED_DURATION));
+        // Lines still queued are part of the cost of the run
+        sink.flush();
+        long wallMillis = (System.nanoTime() - start) / 1_000_000;
+        int tests = listener.getPassedTests().size() + listener.getFailedTests().size();
+        return new Run(wallMillis, tests, listener.getFailedTests().size(), sink.written(), sink.sampled(), sink.dropped());
+    }
+
+    private static LogSink sinkFor(String mode) {
+        switch (mode) {
+            case "println":
+                return new LogSink(LogLevel.INFO, false, 1, 0, System.out);
+            case "off":
+                return new LogSink(LogLevel.OFF, false, 1, 0, System.out);
+            default:
+                return LogSink.fromProperties();
+        }
+    }
+
+    private static double median(List<Run> runs) {
+        long[] millis = new long[runs.size()];
+        for (int i = 0; i < millis.length; i++) {
+            millis[i] = runs.get(i).wallMillis;
+        }
+        Arrays.sort(millis);
+        return millis.length % 2 == 1
+                ? millis[millis.length / 2]
+                : (millis[millis.length / 2 - 1] + millis[millis.length / 2]) / 2.0;
+    }
+
+    private static final class Run {
+        final long wallMillis;
+        final int tests;
+        final int failed;
+        final long written;
+        final long sampled;
+        final long dropped;
+
+        Run(long wallMillis, int tests, int failed, long written, long sampled, long dropped) {
+            this.wallMillis = wallMillis;
+            this.tests = tests;
+            this.failed = failed;
+            this.written = written;
+            this.sampled = sampled;
+            this.dropped = dropped;
+        }
+    }
+}
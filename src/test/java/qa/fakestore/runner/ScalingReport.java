@@ -0,0 +1,98 @@
+package qa.fakestore.runner;
+
+import qa.fakestore.base.BaseTest;
+import qa.fakestore.base.TestEnvironment;
+import org.testng.TestListenerAdapter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+// Runs the API suite with parallel="methods" at increasing thread counts against the local stub
+// and reports wall-clock time per run. Tests in BaseTest.FIXED_DURATION are left out: their timers
+// would set a floor on every run that no thread count can lower. Usage:
+//   mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=qa.fakestore.runner.ScalingReport -Dexec.args="1,4,16,64"
+public class ScalingReport {
+
+    public static void main(String[] args) throws IOException {
+        List<Integer> threadCounts = new ArrayList<>();
+        for (String count : (args.length > 0 ? args[0] : "1,4,16,64").split(",")) {
+            threadCounts.add(Integer.parseInt(count.trim()));
+        }
+        if (System.getProperty(TestEnvironment.BASE_URL_PROPERTY) == null) {
+            System.setProperty(TestEnvironment.SERVER_PROPERTY, "local");
+        }
+        // Every run would otherwise be served from fixtures cached by the warm-up
+        if (System.getProperty("fakestore.cache.enabled") == null) {
+            System.setProperty("fakestore.cache.enabled", "false");
+        }
+        // Runs at different thread counts are not comparable with the suite's stored latency baselines
+        if (System.getProperty("fakestore.baseline.mode") == null) {
+            System.setProperty("fakestore.baseline.mode", "off");
+        }
+
+        // First run pays for class loading, Groovy and JIT warm-up; keep it out of the comparison
+        Result warmup = runSuite(1);
+        System.out.println("✅ Warm-up run finished in " + warmup.wallMillis + "ms");
+
+        // Speedup is against a warm single-threaded run, measured even when 1 is not among the thread counts;
+        // taking the first row instead would credit it with perfect scaling
+        Result reference = null;
+        if (!threadCounts.contains(1)) {
+            reference = runSuite(1);
+            System.out.println("✅ 1-thread reference: " + reference.wallMillis + "ms");
+        }
+        List<Result> results = new ArrayList<>();
+        for (int threads : threadCounts) {
+            Result result = runSuite(threads);
+            results.add(result);
+            if (threads == 1 && reference == null) {
+                reference = result;
+            }
+            System.out.println("✅ " + threads + " threads: " + result.wallMillis + "ms");
+        }
+
+        StringBuilder report = new StringBuilder();
+        report.append("Suite wall-clock scaling against ").append(TestEnvironment.baseUrl())
+                .append(", speedup vs a ").append(reference.wallMillis).append("ms 1-thread run").append(System.lineSeparator());
+        report.append(String.format("%8s %10s %8s %11s %7s %7s%n", "threads", "wall ms", "speedup", "efficiency", "passed", "failed"));
+        double baseline = reference.wallMillis;
+        for (Result result : results) {
+            double speedup = baseline / result.wallMillis;
+            report.append(String.format("%8d %10d %8.2f %10.0f%% %7d %7d%n", result.threads, result.wallMillis,
+                    speedup, 100 * speedup / result.threads, result.passed, result.failed));
+        }
+        System.out.print(report);
+
+        Path output = Paths.get("target", "scaling-report.txt");
+        Files.createDirectories(output.getParent());
+        Files.write(output, report.toString().getBytes(StandardCharsets.UTF_8));
+        System.out.println("📄 Report written to " + output.toAbsolutePath());
+        System.exit(0);
+    }
+
+    private static Result runSuite(int threads) {
+        long start = System.nanoTime();
+        TestListenerAdapter listener = ApiSuite.run("ScalingSuite-" + threads, threads, List.of(BaseTest.FIXED_DURATION));
+        long wallMillis = (System.nanoTime() - start) / 1_000_000;
+        return new Result(threads, wallMillis, listener.getPassedTests().size(), listener.getFailedTests().size());
+    }
+
+    private static final class Result {
+        final int threads;
+        final long wallMillis;
+        final int passed;
+        final int failed;
+
+        Result(int threads, long wallMillis, int passed, int failed) {
+            this.threads = threads;
+            this.wallMillis = wallMillis;
+            this.passed = passed;
+            this.failed = failed;
+        }
+    }
+}
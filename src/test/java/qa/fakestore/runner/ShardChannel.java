@@ -0,0 +1,135 @@
+package qa.fakestore.runner;
+
+import qa.fakestore.perf.ShardHistograms;
+import org.HdrHistogram.Histogram;
+import org.testng.ITestResult;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+
+// Wire format between a ShardWorker and the ShardedRunner coordinator, one local socket per worker.
+// Every frame is a type byte and its fields in DataOutputStream encoding:
+//   HELLO      shard index
+//   RESULT     class, method, parameters, status, duration ms, failure message
+//   HISTOGRAM  name, errors, elapsed ns, compressed HdrHistogram (length-prefixed)
+//   DONE       no fields; a stream that ends without it means the worker died
+// Histograms travel in HdrHistogram's own compressed encoding, so merging loses nothing.
+final class ShardChannel {
+
+    static final byte HELLO = 1;
+    static final byte RESULT = 2;
+    static final byte HISTOGRAM = 3;
+    static final byte DONE = 4;
+
+    static final byte PASSED = 1;
+    static final byte FAILED = 2;
+    static final byte SKIPPED = 3;
+
+    // writeUTF caps a string at 64KB; a stack trace's first line is enough for the report
+    private static final int MAX_MESSAGE = 2000;
+
+    private final DataOutputStream out;
+
+    ShardChannel(DataOutputStream out) {
+        this.out = out;
+    }
+
+    synchronized void hello(int shard) throws IOException {
+        out.writeByte(HELLO);
+        out.writeInt(shard);
+        out.flush();
+    }
+
+    // Called from TestNG's worker threads as tests finish
+    synchronized void result(ITestResult result) throws IOException {
+        Throwable failure = result.getThrowable();
+        String message = failure == null ? "" : String.valueOf(failure);
+        out.writeByte(RESULT);
+        out.writeUTF(result.getMethod().getRealClass().getName());
+        out.writeUTF(result.getMethod().getMethodName());
+        out.writeUTF(result.getParameters().length == 0 ? "" : Arrays.toString(result.getParameters()));
+        out.writeByte(status(result.getStatus()));
+        out.writeLong(result.getEndMillis() - result.getStartMillis());
+        out.writeUTF(message.length() > MAX_MESSAGE ? message.substring(0, MAX_MESSAGE) : message);
+        out.flush();
+    }
+
+    synchronized void histogram(ShardHistograms.Entry entry) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(entry.histogram().getNeededByteBufferCapacity());
+        int length = entry.histogram().encodeIntoCompressedByteBuffer(buffer);
+        out.writeByte(HISTOGRAM);
+        out.writeUTF(entry.name());
+        out.writeLong(entry.errors());
+        out.writeLong(entry.elapsedNanos());
+        out.writeInt(length);
+        out.write(buffer.array(), 0, length);
+        out.flush();
+    }
+
+    synchronized void done() throws IOException {
+        out.writeByte(DONE);
+        out.flush();
+    }
+
+    static TestOutcome readResult(int shard, DataInputStream in) throws IOException {
+        return new TestOutcome(shard, in.readUTF(), in.readUTF(), in.readUTF(), in.readByte(), in.readLong(), in.readUTF());
+    }
+
+    static ShardHistograms.Entry readHistogram(DataInputStream in) throws IOException {
+        String name = in.readUTF();
+        long errors = in.readLong();
+        long elapsedNanos = in.readLong();
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        try {
+            Histogram histogram = Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(bytes), 0);
+            return new ShardHistograms.Entry(name, histogram, errors, elapsedNanos);
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt histogram '" + name + "' from a shard worker", e);
+        }
+    }
+
+    private static byte status(int testNgStatus) {
+        switch (testNgStatus) {
+            case ITestResult.SUCCESS:
+                return PASSED;
+            case ITestResult.SKIP:
+                return SKIPPED;
+            default:
+                return FAILED;
+        }
+    }
+
+    static final class TestOutcome {
+        final int shard;
+        final String className;
+        final String method;
+        final String parameters;
+        final byte status;
+        final long millis;
+        final String message;
+
+        TestOutcome(int shard, String className, String method, String parameters, byte status, long millis, String message) {
+            this.shard = shard;
+            this.className = className;
+            this.method = method;
+            this.parameters = parameters;
+            this.status = status;
+            this.millis = millis;
+            this.message = message;
+        }
+
+        String key() {
+            String name = className.substring(className.lastIndexOf('.') + 1) + "." + method;
+            return parameters.isEmpty() ? name : name + parameters;
+        }
+
+        String statusName() {
+            return status == PASSED ? "PASSED" : status == SKIPPED ? "SKIPPED" : "FAILED";
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package qa.fakestore.runner;
+
+import qa.fakestore.perf.Shard;
+import qa.fakestore.perf.ShardedLoad;
+import org.testng.IDataProviderInterceptor;
+import org.testng.IDataProviderMethod;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeSet;
+
+// Keeps this worker's slice of the suite. Units (whole classes by default, single methods with
+// fakestore.shard.by=methods) are sorted by name and dealt out round-robin, so every worker computes
+// the same split without talking to the others. Two kinds of method run on every worker instead:
+// @ShardedLoad load tests, which split their virtual users, and data-driven tests, whose rows are
+// dealt out round-robin by index.
+final class ShardFilter implements IMethodInterceptor, IDataProviderInterceptor {
+
+    private final Shard shard;
+    private final boolean byMethod;
+
+    ShardFilter(Shard shard, String by) {
+        if (!by.equals("classes") && !by.equals("methods")) {
+            throw new IllegalArgumentException("fakestore.shard.by must be 'classes' or 'methods': " + by);
+        }
+        this.shard = shard;
+        this.byMethod = by.equals("methods");
+    }
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        TreeSet<String> units = new TreeSet<>();
+        for (IMethodInstance instance : methods) {
+            units.add(unit(instance.getMethod()));
+        }
+        List<String> order = new ArrayList<>(units);
+        List<IMethodInstance> kept = new ArrayList<>();
+        for (IMethodInstance instance : methods) {
+            ITestNGMethod method = instance.getMethod();
+            if (runsEverywhere(method) || shard.owns(order.indexOf(unit(method)))) {
+                kept.add(instance);
+            }
+        }
+        return kept;
+    }
+
+    @Override
+    public Iterator<Object[]> intercept(Iterator<Object[]> rows, IDataProviderMethod provider,
+                                        ITestNGMethod method, ITestContext context) {
+        List<Object[]> kept = new ArrayList<>();
+        for (int row = 0; rows.hasNext(); row++) {
+            Object[] parameters = rows.next();
+            if (shard.owns(row)) {
+                kept.add(parameters);
+            }
+        }
+        return kept.iterator();
+    }
+
+    private String unit(ITestNGMethod method) {
+        String className = method.getRealClass().getName();
+        return byMethod ? className + "." + method.getMethodName() : className;
+    }
+
+    private static boolean runsEverywhere(ITestNGMethod method) {
+        return method.isDataDriven()
+                || method.getConstructorOrMethod().getMethod().isAnnotationPresent(ShardedLoad.class);
+    }
+}
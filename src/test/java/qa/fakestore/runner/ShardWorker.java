@@ -0,0 +1,85 @@
+package qa.fakestore.runner;
+
+import qa.fakestore.perf.Shard;
+import qa.fakestore.perf.ShardHistograms;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import org.testng.TestListenerAdapter;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.Socket;
+
+// One worker JVM of a sharded run, forked by ShardedRunner rather than started by hand. Runs its
+// slice of the API suite (see ShardFilter) and streams each test result, then the load histograms,
+// back to the coordinator over a local socket. Reads, besides fakestore.shard.index/count:
+//   fakestore.shard.coordinatorPort  coordinator's loopback port
+//   fakestore.shard.by               classes (default) or methods
+//   fakestore.shard.threads          suite thread count (default 8, as in testng.xml)
+public class ShardWorker {
+
+    public static void main(String[] args) throws IOException {
+        Shard shard = Shard.current();
+        int port = Integer.getInteger("fakestore.shard.coordinatorPort", 0);
+        if (port == 0) {
+            throw new IllegalStateException("fakestore.shard.coordinatorPort is not set; start workers through ShardedRunner");
+        }
+        int threads = Integer.getInteger("fakestore.shard.threads", 8);
+        ShardFilter filter = new ShardFilter(shard, System.getProperty("fakestore.shard.by", "classes"));
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            ShardChannel channel = new ShardChannel(new DataOutputStream(new BufferedOutputStream(socket.getOutputStream())));
+            channel.hello(shard.index());
+            System.out.println("✅ " + shard + " connected to coordinator port " + port);
+
+            TestListenerAdapter result = ApiSuite.run("ShardSuite-" + shard.index(), threads, filter, new Streamer(channel));
+            for (ShardHistograms.Entry entry : ShardHistograms.drain()) {
+                channel.histogram(entry);
+            }
+            channel.done();
+            System.out.println("✅ " + shard + " finished: " + result.getPassedTests().size() + " passed, "
+                    + result.getFailedTests().size() + " failed, " + result.getSkippedTests().size() + " skipped");
+        }
+        System.exit(0);
+    }
+
+    // Sends each result as it completes, so a worker that dies still leaves its finished tests behind
+    private static final class Streamer implements ITestListener {
+        private final ShardChannel channel;
+
+        Streamer(ShardChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public void onTestSuccess(ITestResult result) {
+            send(result);
+        }
+
+        @Override
+        public void onTestFailure(ITestResult result) {
+            send(result);
+        }
+
+        @Override
+        public void onTestSkipped(ITestResult result) {
+            send(result);
+        }
+
+        @Override
+        public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+            send(result);
+        }
+
+        private void send(ITestResult result) {
+            try {
+                channel.result(result);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Lost the connection to the shard coordinator", e);
+            }
+        }
+    }
+}
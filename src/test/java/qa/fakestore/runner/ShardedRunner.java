@@ -0,0 +1,310 @@
+package qa.fakestore.runner;
+
+import qa.fakestore.base.TestEnvironment;
+import qa.fakestore.perf.EndpointStats;
+import qa.fakestore.perf.ShardHistograms;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+// Coordinator for multi-JVM runs: forks N ShardWorker JVMs, each running its slice of the API suite,
+// and merges what they stream back. Test classes (or methods) and data-provider rows are dealt out by
+// ShardFilter; @ShardedLoad tests run on every worker with a share of the virtual users, and their
+// histograms are merged losslessly, so p99 is over all requests rather than an average of p99s.
+// Against the local stub the coordinator starts one stub and all workers share it. Exits 1 when any
+// test failed or a worker did not finish. Usage:
+//   mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=qa.fakestore.runner.ShardedRunner \
+//       -Dexec.args="4" -Dfakestore.server=local -Dfakestore.load.users=200
+//   fakestore.shard.by              classes (default) or methods
+//   fakestore.shard.threads         suite thread count per worker (default 8)
+//   fakestore.shard.jvmArgs         extra worker JVM options, e.g. "-Xmx512m -XX:+UseParallelGC"
+//   fakestore.shard.timeoutMinutes  give up on workers after this long (default 30)
+//   fakestore.shard.output          report directory (default target/shards)
+// Every other fakestore.* property is passed on to the workers.
+public class ShardedRunner {
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int workers = args.length > 0 ? Integer.parseInt(args[0].trim()) : Runtime.getRuntime().availableProcessors();
+        long timeoutMillis = TimeUnit.MINUTES.toMillis(Long.getLong("fakestore.shard.timeoutMinutes", 30L));
+        Path output = Paths.get(System.getProperty("fakestore.shard.output", "target/shards"));
+        Files.createDirectories(output);
+
+        // One stub for all workers: the load is spread over JVMs, the server it hits is the same
+        String baseUrl = TestEnvironment.baseUrl();
+        long start = System.nanoTime();
+        List<Worker> forked = new ArrayList<>();
+        try (ServerSocket server = new ServerSocket(0, workers, InetAddress.getLoopbackAddress())) {
+            for (int shard = 0; shard < workers; shard++) {
+                forked.add(Worker.fork(shard, workers, server.getLocalPort(), baseUrl, output));
+            }
+            System.out.println("✅ Forked " + workers + " workers against " + baseUrl + ", logs in " + output.toAbsolutePath());
+
+            // Workers connect in any order; HELLO says which shard a connection belongs to. Short accept
+            // timeouts let a worker that died before connecting fail the run now rather than at the deadline.
+            List<Thread> readers = new ArrayList<>();
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            server.setSoTimeout(1000);
+            while (readers.size() < workers) {
+                Socket socket;
+                try {
+                    socket = server.accept();
+                } catch (SocketTimeoutException e) {
+                    Worker dead = exitedBeforeConnecting(forked);
+                    if (dead != null) {
+                        System.out.println("❌ Shard " + (dead.shard + 1) + " exited with code " + dead.process.exitValue()
+                                + " before connecting, stopping the run; see " + dead.log.toAbsolutePath());
+                        forked.forEach(worker -> worker.process.destroyForcibly());
+                        break;
+                    }
+                    if (System.nanoTime() > deadline) {
+                        System.out.println("❌ Only " + readers.size() + " of " + workers + " workers connected");
+                        break;
+                    }
+                    continue;
+                }
+                Thread reader = new Thread(() -> read(socket, forked), "shard-reader-" + readers.size());
+                reader.start();
+                readers.add(reader);
+            }
+            for (Worker worker : forked) {
+                long left = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (!worker.process.waitFor(Math.max(1, left), TimeUnit.MILLISECONDS)) {
+                    System.out.println("❌ Shard " + (worker.shard + 1) + " timed out, killing it");
+                    worker.process.destroyForcibly().waitFor(10, TimeUnit.SECONDS);
+                }
+            }
+            for (Thread reader : readers) {
+                reader.join(TimeUnit.SECONDS.toMillis(10));
+            }
+        }
+        long wallMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        Merged merged = merge(forked);
+        String report = report(forked, merged, baseUrl, wallMillis);
+        System.out.print(report);
+        Files.write(output.resolve("sharded-report.txt"), report.getBytes(StandardCharsets.UTF_8));
+        writeResults(forked, output.resolve("results.tsv"));
+        writeHistograms(merged, output.resolve("histograms.hlog"));
+        System.out.println("📄 Report, results and histograms written to " + output.toAbsolutePath());
+
+        boolean complete = true;
+        for (Worker worker : forked) {
+            complete &= worker.done && !worker.process.isAlive() && worker.process.exitValue() == 0;
+        }
+        System.exit(complete && merged.failed == 0 ? 0 : 1);
+    }
+
+    private static void read(Socket socket, List<Worker> workers) {
+        Worker worker = null;
+        try (Socket connection = socket;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(connection.getInputStream()))) {
+            while (true) {
+                byte type = in.readByte();
+                if (type == ShardChannel.HELLO) {
+                    worker = workers.get(in.readInt());
+                    worker.connected = true;
+                } else if (worker == null) {
+                    throw new IOException("Shard worker sent frame " + type + " before HELLO");
+                } else if (type == ShardChannel.RESULT) {
+                    worker.results.add(ShardChannel.readResult(worker.shard, in));
+                } else if (type == ShardChannel.HISTOGRAM) {
+                    worker.histograms.add(ShardChannel.readHistogram(in));
+                } else if (type == ShardChannel.DONE) {
+                    worker.done = true;
+                    return;
+                } else {
+                    throw new IOException("Unknown frame type " + type);
+                }
+            }
+        } catch (EOFException e) {
+            System.out.println("❌ " + (worker == null ? "A worker" : "Shard " + (worker.shard + 1))
+                    + " disconnected before finishing");
+        } catch (IOException e) {
+            System.out.println("❌ Reading from " + (worker == null ? "a worker" : "shard " + (worker.shard + 1))
+                    + " failed: " + e.getMessage());
+        }
+    }
+
+    // A worker whose JVM is gone without ever saying HELLO: bad JVM options, classpath or a crash in main
+    private static Worker exitedBeforeConnecting(List<Worker> workers) {
+        for (Worker worker : workers) {
+            if (!worker.connected && !worker.process.isAlive()) {
+                return worker;
+            }
+        }
+        return null;
+    }
+
+    // A test that ran on several workers (@ShardedLoad) passes only if it passed on every one of them
+    private static Merged merge(List<Worker> workers) {
+        Merged merged = new Merged();
+        Map<String, Byte> statuses = new TreeMap<>();
+        for (Worker worker : workers) {
+            for (ShardChannel.TestOutcome outcome : worker.results) {
+                Byte previous = statuses.get(outcome.key());
+                if (previous == null || outcome.status == ShardChannel.FAILED
+                        || (previous == ShardChannel.SKIPPED && outcome.status == ShardChannel.PASSED)) {
+                    statuses.put(outcome.key(), outcome.status);
+                }
+            }
+            for (ShardHistograms.Entry entry : worker.histograms) {
+                MergedHistogram histogram = merged.histograms.computeIfAbsent(entry.name(), MergedHistogram::new);
+                histogram.stats.histogram().add(entry.histogram());
+                histogram.errors += entry.errors();
+                histogram.elapsedNanos = Math.max(histogram.elapsedNanos, entry.elapsedNanos());
+                // Workers ran side by side, so their rates add up
+                histogram.throughput += entry.elapsedNanos() == 0 ? 0
+                        : entry.histogram().getTotalCount() * 1e9 / entry.elapsedNanos();
+            }
+        }
+        for (Map.Entry<String, Byte> status : statuses.entrySet()) {
+            if (status.getValue() == ShardChannel.PASSED) {
+                merged.passed++;
+            } else if (status.getValue() == ShardChannel.SKIPPED) {
+                merged.skipped++;
+            } else {
+                merged.failed++;
+                merged.failures.add(status.getKey());
+            }
+        }
+        return merged;
+    }
+
+    private static String report(List<Worker> workers, Merged merged, String baseUrl, long wallMillis) {
+        StringBuilder report = new StringBuilder();
+        report.append("Sharded run: ").append(workers.size()).append(" workers against ").append(baseUrl)
+                .append(" in ").append(wallMillis).append("ms").append(System.lineSeparator());
+        report.append(String.format("%8s %7s %7s %8s %6s %5s%n", "shard", "passed", "failed", "skipped", "exit", "done"));
+        for (Worker worker : workers) {
+            int[] counts = new int[4];
+            for (ShardChannel.TestOutcome outcome : worker.results) {
+                counts[outcome.status]++;
+            }
+            report.append(String.format("%8s %7d %7d %8d %6s %5s%n", (worker.shard + 1) + "/" + workers.size(),
+                    counts[ShardChannel.PASSED], counts[ShardChannel.FAILED], counts[ShardChannel.SKIPPED],
+                    worker.process.isAlive() ? "-" : String.valueOf(worker.process.exitValue()), worker.done ? "yes" : "NO"));
+        }
+        report.append(String.format("Merged tests: %d passed, %d failed, %d skipped%n", merged.passed, merged.failed, merged.skipped));
+        for (String failure : merged.failures) {
+            report.append("  ❌ ").append(failure).append(System.lineSeparator());
+        }
+        if (!merged.histograms.isEmpty()) {
+            report.append("Merged latency (ms) across workers").append(System.lineSeparator());
+            report.append(String.format("%-48s %8s %7s %9s %9s %9s %9s %9s%n",
+                    "histogram", "count", "errors", "req/s", "p50", "p90", "p99", "max"));
+            for (MergedHistogram histogram : merged.histograms.values()) {
+                EndpointStats stats = histogram.stats;
+                report.append(String.format("%-48s %8d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n", stats.name(),
+                        stats.count(), histogram.errors, histogram.throughput, stats.percentileMillis(50),
+                        stats.percentileMillis(90), stats.percentileMillis(99), stats.maxMillis()));
+            }
+        }
+        return report.toString();
+    }
+
+    private static void writeResults(List<Worker> workers, Path file) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("shard\tclass\tmethod\tparameters\tstatus\tmillis\tmessage");
+        for (Worker worker : workers) {
+            for (ShardChannel.TestOutcome outcome : worker.results) {
+                lines.add((outcome.shard + 1) + "\t" + outcome.className + "\t" + outcome.method + "\t"
+                        + outcome.parameters + "\t" + outcome.statusName() + "\t" + outcome.millis + "\t"
+                        + outcome.message.replaceAll("\\s+", " "));
+            }
+        }
+        Files.write(file, lines, StandardCharsets.UTF_8);
+    }
+
+    // One tagged interval per merged histogram, readable with HistogramLogReader or HdrHistogram's plotters
+    private static void writeHistograms(Merged merged, Path file) throws IOException {
+        HistogramLogWriter writer = new HistogramLogWriter(file.toFile());
+        try {
+            writer.outputLogFormatVersion();
+            writer.outputStartTime(System.currentTimeMillis());
+            writer.outputLegend();
+            for (MergedHistogram histogram : merged.histograms.values()) {
+                Histogram copy = histogram.stats.histogram().copy();
+                copy.setTag(histogram.stats.name().replaceAll("[\\s,]+", "_"));
+                writer.outputIntervalHistogram(0, histogram.elapsedNanos / 1e9, copy, 1e6);
+            }
+        } finally {
+            writer.close();
+        }
+    }
+
+    private static final class Worker {
+        final int shard;
+        final Process process;
+        final Path log;
+        final List<ShardChannel.TestOutcome> results = Collections.synchronizedList(new ArrayList<>());
+        final List<ShardHistograms.Entry> histograms = Collections.synchronizedList(new ArrayList<>());
+        volatile boolean connected;
+        volatile boolean done;
+
+        private Worker(int shard, Process process, Path log) {
+            this.shard = shard;
+            this.process = process;
+            this.log = log;
+        }
+
+        static Worker fork(int shard, int count, int port, String baseUrl, Path output) throws IOException {
+            List<String> command = JvmFork.command(JvmFork.options(System.getProperty("fakestore.shard.jvmArgs", "")),
+                    name -> !name.startsWith("fakestore.shard.") && !name.equals(TestEnvironment.BASE_URL_PROPERTY));
+            // The coordinator's stub, not one per worker; isLocal() stays true for the local-only checks
+            command.add("-D" + TestEnvironment.BASE_URL_PROPERTY + "=" + baseUrl);
+            command.add("-Dfakestore.shard.index=" + shard);
+            command.add("-Dfakestore.shard.count=" + count);
+            command.add("-Dfakestore.shard.coordinatorPort=" + port);
+            command.add("-Dfakestore.shard.by=" + System.getProperty("fakestore.shard.by", "classes"));
+            command.add("-Dfakestore.shard.threads=" + Integer.getInteger("fakestore.shard.threads", 8));
+            // Workers writing one event file or one baseline store would corrupt each other's
+            command.add("-Dfakestore.events.file=" + output.resolve("worker-" + shard + ".fsev"));
+            if (System.getProperty("fakestore.baseline.mode") == null) {
+                command.add("-Dfakestore.baseline.mode=off");
+            }
+            command.add(ShardWorker.class.getName());
+
+            Path log = output.resolve("worker-" + shard + ".log");
+            Process process = new ProcessBuilder(command).redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.to(log.toFile())).start();
+            return new Worker(shard, process, log);
+        }
+    }
+
+    private static final class MergedHistogram {
+        final EndpointStats stats;
+        long errors;
+        long elapsedNanos;
+        double throughput;
+
+        MergedHistogram(String name) {
+            this.stats = new EndpointStats(name, new Histogram(3));
+        }
+    }
+
+    private static final class Merged {
+        final Map<String, MergedHistogram> histograms = new TreeMap<>();
+        final List<String> failures = new ArrayList<>();
+        int passed;
+        int failed;
+        int skipped;
+    }
+}
@@ -0,0 +1,92 @@
+package qa.fakestore.runner;
+
+import qa.fakestore.base.TestEnvironment;
+import qa.fakestore.perf.RequestEventLog;
+import qa.fakestore.perf.RequestEventReport;
+import qa.fakestore.perf.SoakMonitor;
+import qa.fakestore.perf.TrendDetector;
+import org.testng.TestListenerAdapter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+
+// Endurance mode: loops the API suite for a fixed duration while SoakMonitor samples the client JVM,
+// then reports whether heap-after-GC, threads, file descriptors or request p99 grew steadily.
+// Exits 1 on monotonic growth so a canary job fails. Usage:
+//   mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=qa.fakestore.runner.SoakRunner \
+//       -Dfakestore.soak.minutes=240 -Dfakestore.server=local
+//   fakestore.soak.minutes        run length (default 60)
+//   fakestore.soak.sampleSeconds  sampling interval (default 10)
+//   fakestore.soak.threads        suite thread count (default 8)
+//   fakestore.soak.output         time series CSV (default target/soak/jvm-timeseries.csv)
+//   fakestore.soak.minTau         Kendall tau that counts as monotonic (default 0.6)
+//   fakestore.soak.minGrowth      relative first-third to last-third growth (default 0.10)
+public class SoakRunner {
+
+    public static void main(String[] args) throws IOException {
+        Duration length = Duration.ofMillis((long) (Double.parseDouble(System.getProperty("fakestore.soak.minutes", "60")) * 60_000));
+        long sampleMillis = (long) (Double.parseDouble(System.getProperty("fakestore.soak.sampleSeconds", "10")) * 1000);
+        int threads = Integer.getInteger("fakestore.soak.threads", 8);
+        Path csv = Paths.get(System.getProperty("fakestore.soak.output", "target/soak/jvm-timeseries.csv"));
+        TrendDetector detector = new TrendDetector(
+                Double.parseDouble(System.getProperty("fakestore.soak.minTau", "0.6")),
+                Double.parseDouble(System.getProperty("fakestore.soak.minGrowth", "0.10")),
+                12);
+        // Every pass would otherwise append to the stored latency baselines
+        if (System.getProperty("fakestore.baseline.mode") == null) {
+            System.setProperty("fakestore.baseline.mode", "off");
+        }
+
+        SoakMonitor monitor = new SoakMonitor(csv, sampleMillis);
+        monitor.start();
+        System.out.println("✅ Soak run against " + TestEnvironment.baseUrl() + " for " + length.getSeconds()
+                + "s, sampling every " + sampleMillis + "ms to " + csv.toAbsolutePath());
+
+        long deadline = System.nanoTime() + length.toNanos();
+        long iterations = 0;
+        long passed = 0;
+        long failed = 0;
+        while (System.nanoTime() < deadline) {
+            TestListenerAdapter result = ApiSuite.run("SoakSuite-" + iterations, threads);
+            iterations++;
+            passed += result.getPassedTests().size();
+            failed += result.getFailedTests().size();
+            monitor.iterationCompleted();
+            if (!result.getFailedTests().isEmpty()) {
+                System.out.println("⚠️ Iteration " + iterations + ": " + result.getFailedTests().size() + " failed tests");
+            }
+        }
+        List<TrendDetector.Trend> trends = monitor.stop(detector);
+
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("Soak run: %d iterations in %ds, %d passed, %d failed, %d JVM samples%n",
+                iterations, length.getSeconds(), passed, failed, monitor.sampleCount()));
+        boolean growing = false;
+        for (TrendDetector.Trend trend : trends) {
+            report.append("  ").append(trend).append(System.lineSeparator());
+            growing |= trend.isGrowing();
+        }
+        report.append("Time series: ").append(csv.toAbsolutePath()).append(System.lineSeparator());
+        RequestEventLog events = RequestEventLog.shared();
+        if (events != null) {
+            events.flush();
+            RequestEventReport requests = RequestEventReport.read(events.file());
+            Path timeline = csv.resolveSibling("request-timeline.csv");
+            requests.writeTimeline(timeline);
+            report.append(String.format("Requests: %d recorded, %d dropped, %d errors; per-second timeline: %s%n",
+                    requests.events(), requests.dropped(), requests.errors(), timeline.toAbsolutePath()));
+        }
+        System.out.print(report);
+
+        Path output = csv.resolveSibling("soak-report.txt");
+        Files.write(output, report.toString().getBytes(StandardCharsets.UTF_8));
+        System.out.println((growing ? "❌ Monotonic growth detected. " : "✅ No monotonic growth. ")
+                + "Report written to " + output.toAbsolutePath());
+        System.exit(growing ? 1 : 0);
+    }
+}
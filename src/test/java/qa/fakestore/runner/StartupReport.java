@@ -0,0 +1,263 @@
+package qa.fakestore.runner;
+
+import qa.fakestore.base.TestEnvironment;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Compares the cost of a short run three ways: a cold JVM per run, a cold JVM started from the build's
+// class-data-sharing archive, and runs sent to one warm TestRunner daemon. Each row splits the run into
+// TestRunner's startup phases next to the wall time the caller waited. Usage:
+//   mvn -Pcds test-compile exec:exec@cds-archive exec:exec@startup-report
+//   java -cp <test classpath> qa.fakestore.runner.StartupReport archive [suite]   dump the archive from a training run
+//   java -cp <test classpath> qa.fakestore.runner.StartupReport [class qa.fakestore.tests.CartTests]
+//   fakestore.startup.runs  runs per mode (default 3)
+//   fakestore.startup.cds   the archive (default target/fakestore-cds.jsa); the cds rows are skipped when missing
+// The selection defaults to "class qa.fakestore.tests.AuthenticationTests". Runs target the local stub
+// unless fakestore.server or fakestore.baseUrl say otherwise. The JVM only archives classes from jars,
+// so the compiled classes are packed into target/cds/fakestore-classes.jar and both cold modes run on
+// that jar plus the dependencies. An archive is ignored once the jar is rebuilt; dump a new one after
+// recompiling.
+public class StartupReport {
+
+    private static final Path CLASSES_JAR = Paths.get("target", "cds", "fakestore-classes.jar");
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Path archive = Paths.get(System.getProperty("fakestore.startup.cds", "target/fakestore-cds.jsa"));
+        if (System.getProperty(TestEnvironment.BASE_URL_PROPERTY) == null && System.getProperty(TestEnvironment.SERVER_PROPERTY) == null) {
+            System.setProperty(TestEnvironment.SERVER_PROPERTY, "local");
+        }
+        // Runs of different kinds are not comparable with the suite's stored latency baselines
+        if (System.getProperty("fakestore.baseline.mode") == null) {
+            System.setProperty("fakestore.baseline.mode", "off");
+        }
+        if (args.length > 0 && args[0].equals("archive")) {
+            String[] training = args.length > 1 ? Arrays.copyOfRange(args, 1, args.length) : new String[]{"suite"};
+            System.exit(archive(archive, training));
+        }
+        String[] selection = args.length > 0 ? args : new String[]{"class", "qa.fakestore.tests.AuthenticationTests"};
+        int runs = Integer.getInteger("fakestore.startup.runs", 3);
+        Path output = Paths.get("target", "startup");
+        Files.createDirectories(output);
+
+        // Reuses the jar the archive was dumped against; a rebuilt one would not match it
+        String classpath = Files.exists(archive) && Files.exists(CLASSES_JAR) ? jarClasspath() : packClasses();
+        List<Row> rows = new ArrayList<>();
+        for (int run = 1; run <= runs; run++) {
+            rows.add(cold("cold", run, List.of(), classpath, selection, output));
+        }
+        if (Files.exists(archive)) {
+            for (int run = 1; run <= runs; run++) {
+                rows.add(cold("cold+cds", run, List.of("-XX:SharedArchiveFile=" + archive, "-Xlog:cds=off"), classpath,
+                        selection, output));
+            }
+        } else {
+            System.out.println("⚠️ No CDS archive at " + archive.toAbsolutePath()
+                    + "; create one with mvn -Pcds test-compile exec:exec@cds-archive");
+        }
+        rows.addAll(daemon(runs, selection, output));
+
+        StringBuilder report = new StringBuilder();
+        report.append("Startup for '").append(String.join(" ", selection)).append("' against ")
+                .append(TestEnvironment.isLocal() ? "the local stub" : TestEnvironment.baseUrl()).append(System.lineSeparator());
+        report.append(String.format("%-9s %4s %8s %7s %9s %10s %11s %9s %7s %7s%n", "mode", "run", "wall ms",
+                "jvm ms", "setup ms", "first req", "first resp", "total ms", "passed", "failed"));
+        for (Row row : rows) {
+            report.append(String.format("%-9s %4d %8d %7d %9d %10d %11d %9d %7d %7d%n", row.mode, row.run, row.wallMillis,
+                    row.value("jvm"), row.value("setup"), row.value("firstRequest"), row.value("firstResponseAt"),
+                    row.value("total"), row.value("passed"), row.value("failed")));
+        }
+        report.append("Median wall ms per mode:");
+        for (String mode : List.of("cold", "cold+cds", "daemon")) {
+            long median = medianWall(rows, mode);
+            if (median >= 0) {
+                report.append(' ').append(mode).append('=').append(median);
+            }
+        }
+        report.append(System.lineSeparator());
+        report.append("jvm: JVM start to main(); setup: run start to first test; first req: first request latency; ")
+                .append("first resp: run start to that response; -1: did not happen").append(System.lineSeparator());
+        System.out.print(report);
+
+        Path file = Paths.get("target", "startup-report.txt");
+        Files.write(file, report.toString().getBytes(StandardCharsets.UTF_8));
+        System.out.println("📄 Report written to " + file.toAbsolutePath());
+        boolean failed = rows.stream().anyMatch(row -> row.value("failed") != 0 || row.value("total") < 0);
+        System.exit(failed ? 1 : 0);
+    }
+
+    // Runs the training selection on the packed classes with -XX:ArchiveClassesAtExit; returns its exit code
+    private static int archive(Path archive, String[] training) throws IOException, InterruptedException {
+        String classpath = packClasses();
+        Files.deleteIfExists(archive);
+        List<String> command = JvmFork.command(List.of("-XX:ArchiveClassesAtExit=" + archive), classpath,
+                name -> !name.startsWith("fakestore.startup."));
+        command.add(TestRunner.class.getName());
+        command.addAll(Arrays.asList(training));
+        System.out.println("🏋️ Training run for the CDS archive: " + String.join(" ", training));
+        int exit = new ProcessBuilder(command).inheritIO().start().waitFor();
+        if (!Files.exists(archive)) {
+            System.out.println("❌ No archive written; the training run exited with " + exit);
+            return exit == 0 ? 1 : exit;
+        }
+        System.out.println("📦 CDS archive " + archive.toAbsolutePath() + " (" + Files.size(archive) / 1024 + " KB)");
+        return 0;
+    }
+
+    // Packs every classpath directory (the compiled test and main classes) into one jar
+    private static String packClasses() throws IOException {
+        Files.createDirectories(CLASSES_JAR.getParent());
+        try (JarOutputStream jar = new JarOutputStream(Files.newOutputStream(CLASSES_JAR))) {
+            Set<String> written = new HashSet<>();
+            for (String entry : JvmFork.classpath().split(File.pathSeparator)) {
+                Path directory = Paths.get(entry);
+                if (!Files.isDirectory(directory)) {
+                    continue;
+                }
+                List<Path> files;
+                try (Stream<Path> walk = Files.walk(directory)) {
+                    files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+                }
+                for (Path file : files) {
+                    String name = directory.relativize(file).toString().replace(File.separatorChar, '/');
+                    if (written.add(name)) {
+                        jar.putNextEntry(new JarEntry(name));
+                        Files.copy(file, jar);
+                        jar.closeEntry();
+                    }
+                }
+            }
+        }
+        return jarClasspath();
+    }
+
+    private static String jarClasspath() {
+        List<String> entries = new ArrayList<>();
+        entries.add(CLASSES_JAR.toAbsolutePath().toString());
+        for (String entry : JvmFork.classpath().split(File.pathSeparator)) {
+            if (!entry.isEmpty() && !Files.isDirectory(Paths.get(entry))) {
+                entries.add(entry);
+            }
+        }
+        return String.join(File.pathSeparator, entries);
+    }
+
+    private static Row cold(String mode, int run, List<String> jvmOptions, String classpath, String[] selection,
+                            Path output) throws IOException, InterruptedException {
+        List<String> command = JvmFork.command(jvmOptions, classpath, name -> !name.startsWith("fakestore.startup."));
+        command.add(TestRunner.class.getName());
+        command.addAll(Arrays.asList(selection));
+        Path log = output.resolve(mode.replace('+', '-') + "-" + run + ".log");
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.to(log.toFile())).start();
+        process.waitFor();
+        Row row = new Row(mode, run, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        for (String line : Files.readAllLines(log, StandardCharsets.UTF_8)) {
+            row.parse(line);
+        }
+        System.out.println("✅ " + mode + " run " + run + ": " + row.wallMillis + "ms");
+        return row;
+    }
+
+    // One daemon for every run, so the first row shows the first command's cost and the rest the warm ones
+    private static List<Row> daemon(int runs, String[] selection, Path output) throws IOException, InterruptedException {
+        Path portFile = output.resolve("daemon.port");
+        Files.deleteIfExists(portFile);
+        List<String> command = JvmFork.command(List.of(), name -> !name.startsWith("fakestore.startup.")
+                && !name.startsWith("fakestore.daemon."));
+        command.add("-Dfakestore.daemon.portFile=" + portFile);
+        command.add(TestRunner.class.getName());
+        command.add("daemon");
+        Process process = new ProcessBuilder(command).redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.to(output.resolve("daemon.log").toFile())).start();
+        List<Row> rows = new ArrayList<>();
+        try {
+            long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(5);
+            while (!Files.exists(portFile) || Files.size(portFile) == 0) {
+                if (!process.isAlive() || System.nanoTime() > deadline) {
+                    System.out.println("❌ Daemon did not start; see " + output.resolve("daemon.log").toAbsolutePath());
+                    return rows;
+                }
+                Thread.sleep(100);
+            }
+            int port = Integer.parseInt(new String(Files.readAllBytes(portFile), StandardCharsets.UTF_8).trim());
+            String request = "run " + String.join(" ", selection);
+            for (int run = 1; run <= runs; run++) {
+                List<String> lines = new ArrayList<>();
+                long start = System.nanoTime();
+                TestDaemon.request(port, request, lines::add);
+                Row row = new Row("daemon", run, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                lines.forEach(row::parse);
+                System.out.println("✅ daemon run " + run + ": " + row.wallMillis + "ms");
+                rows.add(row);
+            }
+            TestDaemon.request(port, "stop", line -> { });
+            process.waitFor(30, TimeUnit.SECONDS);
+        } finally {
+            process.destroy();
+        }
+        return rows;
+    }
+
+    private static long medianWall(List<Row> rows, String mode) {
+        List<Long> walls = new ArrayList<>();
+        for (Row row : rows) {
+            if (row.mode.equals(mode)) {
+                walls.add(row.wallMillis);
+            }
+        }
+        if (walls.isEmpty()) {
+            return -1;
+        }
+        walls.sort(null);
+        return walls.get(walls.size() / 2);
+    }
+
+    private static final class Row {
+        final String mode;
+        final int run;
+        final long wallMillis;
+        final Map<String, Long> values = new HashMap<>();
+
+        Row(String mode, int run, long wallMillis) {
+            this.mode = mode;
+            this.run = run;
+            this.wallMillis = wallMillis;
+        }
+
+        // Picks up TestRunner's "startup jvm=.. setup=.. ..." line; the emoji in front may not survive the console
+        void parse(String line) {
+            int at = line.indexOf("startup jvm=");
+            if (at < 0) {
+                return;
+            }
+            for (String pair : line.substring(at + "startup ".length()).trim().split("\\s+")) {
+                int equals = pair.indexOf('=');
+                if (equals > 0) {
+                    values.put(pair.substring(0, equals), Long.parseLong(pair.substring(equals + 1)));
+                }
+            }
+        }
+
+        long value(String key) {
+            return values.getOrDefault(key, -1L);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package qa.fakestore.runner;
+
+import qa.fakestore.client.ApiTransport;
+import qa.fakestore.client.ProductClient;
+import qa.fakestore.stub.FakeStoreStub;
+import qa.fakestore.stub.ProductCatalog;
+import io.qameta.allure.Allure;
+import org.testng.TestNGException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Resident TestRunner: loads the suite's classes, JIT-compiles the client stack against a private stub,
+// then takes commands over a loopback socket so short runs skip JVM and RestAssured/Groovy startup.
+// One command per connection, one line each:
+//   run suite | run class <name> | run method <class>#<method>   one line per finished test, then the timing line
+//   ping                                                         pong
+//   stop                                                         shuts the daemon down
+// Every answer ends with "exit <code>". Runs are serialized: TestNG's and the suite's shared state
+// (stub, baselines, token cache) is per JVM. Reads:
+//   fakestore.daemon.port            listening port (default 0, any free port)
+//   fakestore.daemon.portFile        where the port is written for clients (default target/testrunner-daemon.port)
+//   fakestore.daemon.warmupRequests  requests per transport during warm-up (default 500)
+final class TestDaemon {
+
+    private TestDaemon() {
+    }
+
+    static void serve() throws IOException {
+        long jvmMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        long warmupStart = System.nanoTime();
+        int warmupRequests = warmUp(Integer.getInteger("fakestore.daemon.warmupRequests", 500));
+        long warmupMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - warmupStart);
+
+        Path portFile = portFile();
+        try (ServerSocket server = new ServerSocket(Integer.getInteger("fakestore.daemon.port", 0), 16,
+                InetAddress.getLoopbackAddress())) {
+            if (portFile.getParent() != null) {
+                Files.createDirectories(portFile.getParent());
+            }
+            Files.write(portFile, String.valueOf(server.getLocalPort()).getBytes(StandardCharsets.UTF_8));
+            System.out.println("✅ TestRunner daemon listening on " + server.getLocalPort() + " (JVM start " + jvmMillis
+                    + "ms, warm-up " + warmupMillis + "ms for " + warmupRequests + " requests)");
+            boolean running = true;
+            while (running) {
+                try (Socket socket = server.accept();
+                     BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                     PrintWriter out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true)) {
+                    String command = in.readLine();
+                    if (command == null) {
+                        continue;
+                    }
+                    command = command.trim();
+                    System.out.println("📨 " + command);
+                    if (command.equals("stop")) {
+                        running = false;
+                        out.println("stopping");
+                        out.println("exit 0");
+                    } else {
+                        out.println("exit " + handle(command, out::println));
+                    }
+                } catch (IOException e) {
+                    System.out.println("⚠️ Client went away: " + e.getMessage());
+                }
+            }
+        } finally {
+            Files.deleteIfExists(portFile);
+        }
+        System.exit(0);
+    }
+
+    // Sends one command to a running daemon and prints its answer; returns the daemon's exit code
+    static int send(String command) throws IOException {
+        Path portFile = portFile();
+        Integer port = Integer.getInteger("fakestore.daemon.port");
+        if (port == null || port == 0) {
+            if (!Files.exists(portFile)) {
+                System.out.println("❌ No daemon port file at " + portFile.toAbsolutePath() + "; start one with TestRunner daemon");
+                return 2;
+            }
+            port = Integer.parseInt(new String(Files.readAllBytes(portFile), StandardCharsets.UTF_8).trim());
+        }
+        try {
+            return request(port, command, System.out::println);
+        } catch (ConnectException e) {
+            System.out.println("❌ No daemon on port " + port + ": " + e.getMessage());
+            return 2;
+        }
+    }
+
+    static int request(int port, String command, Consumer<String> lines) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true)) {
+            out.println(command);
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.startsWith("exit ")) {
+                    return Integer.parseInt(line.substring(5).trim());
+                }
+                lines.accept(line);
+            }
+            throw new IOException("Daemon closed the connection without an exit code");
+        }
+    }
+
+    private static int handle(String command, Consumer<String> out) {
+        if (command.equals("ping")) {
+            out.accept("pong");
+            return 0;
+        }
+        String[] words = command.split("\\s+");
+        if (!words[0].equals("run")) {
+            out.accept("❌ Unknown command '" + command + "', expected run suite|class <name>|method <class>#<method>, ping or stop");
+            return 2;
+        }
+        try {
+            String[] selection = words.length == 1 ? new String[]{"suite"} : Arrays.copyOfRange(words, 1, words.length);
+            TestRunner.Run run = TestRunner.run(selection, out);
+            String timing = run.describe(0);
+            System.out.println(timing);
+            out.accept(timing);
+            return run.exitCode();
+        } catch (IllegalArgumentException | TestNGException e) {
+            out.accept("❌ " + e.getMessage());
+            return 2;
+        }
+    }
+
+    // Loads the suite's classes and runs both client transports, Jackson binding included, against a
+    // private stub until the hot paths are compiled; returns the number of requests made
+    private static int warmUp(int requests) {
+        for (String className : ApiSuite.TEST_CLASSES) {
+            try {
+                Class.forName(className);
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException("Suite class missing from the classpath: " + className, e);
+            }
+        }
+        Allure.getLifecycle();
+        int made = 0;
+        try (FakeStoreStub stub = FakeStoreStub.start(0, new ProductCatalog(20))) {
+            for (String transport : List.of("restassured", "jdk")) {
+                ProductClient products = new ProductClient(ApiTransport.create(transport, stub.baseUrl()));
+                for (int i = 0; i < requests; i++) {
+                    if (i % 10 == 0) {
+                        products.list();
+                    } else {
+                        products.get(1 + i % 20);
+                    }
+                    made++;
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("⚠️ Warm-up stub failed to start, the first run will be cold: " + e.getMessage());
+        }
+        return made;
+    }
+
+    private static Path portFile() {
+        return Paths.get(System.getProperty("fakestore.daemon.portFile", "target/testrunner-daemon.port"));
+    }
+}
@@ -1,17 +1,169 @@
 package qa.fakestore.runner;
 
+import qa.fakestore.perf.StartupTimer;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import org.testng.TestListenerAdapter;
 import org.testng.TestNG;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
+// Runs testng.xml, one class or one method, and prints where the time went before the tests proper:
+//   TestRunner                                                   testng.xml
+//   TestRunner class qa.fakestore.tests.CartTests                one class
+//   TestRunner method qa.fakestore.tests.CartTests#testGetCart    one method
+//   TestRunner daemon                                            stay resident and warm, see TestDaemon
+//   TestRunner client run class qa.fakestore.tests.CartTests     send a command to the daemon
+// The timing line reads "startup jvm=.. setup=.. firstRequest=.. firstResponseAt=.. total=..", in ms:
+// JVM start to main() (0 in the daemon), run start to the first test starting, the first HTTP request's
+// latency, run start to its response, and run start to the end. StartupReport compares them across a
+// cold JVM, a cold JVM with the build's class-data-sharing archive and the daemon.
 public class TestRunner {
-    public static void main(String[] args) {
-        TestNG testng = new TestNG();
 
-        List<String> suites = new ArrayList<>();
-        suites.add("src/test/resources/testng.xml");
-        testng.setTestSuites(suites);
+    static final String SUITE_FILE = "src/test/resources/testng.xml";
+
+    public static void main(String[] args) throws IOException {
+        long jvmMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        String mode = args.length == 0 ? "suite" : args[0];
+        if (mode.equals("daemon")) {
+            TestDaemon.serve();
+            return;
+        }
+        if (mode.equals("client")) {
+            System.exit(TestDaemon.send(String.join(" ", Arrays.copyOfRange(args, 1, args.length))));
+        }
+        Run run = run(args, System.out::println);
+        System.out.println(run.describe(jvmMillis));
+        System.exit(run.exitCode());
+    }
 
+    // Runs the selection ("suite", "class <name>" or "method <class>#<method>") in this JVM
+    static Run run(String[] selection, Consumer<String> progress) {
+        TestNG testng = configure(selection);
+        TestListenerAdapter results = new TestListenerAdapter();
+        testng.addListener(results);
+        testng.addListener(new Progress(progress));
+        StartupTimer.runStarted();
+        long start = System.nanoTime();
         testng.run();
+        return new Run(results, System.nanoTime() - start, testng.getStatus());
+    }
+
+    private static TestNG configure(String[] selection) {
+        TestNG testng = new TestNG();
+        String kind = selection.length == 0 ? "suite" : selection[0];
+        switch (kind) {
+            case "suite":
+                testng.setTestSuites(List.of(SUITE_FILE));
+                return testng;
+            case "class":
+            case "method":
+                if (selection.length < 2) {
+                    throw new IllegalArgumentException("'" + kind + "' needs a target, e.g. " + kind
+                            + " qa.fakestore.tests.CartTests" + (kind.equals("method") ? "#testGetCart" : ""));
+                }
+                String target = selection[1];
+                int hash = target.indexOf('#');
+                if (kind.equals("method") && hash < 0) {
+                    throw new IllegalArgumentException("Expected <class>#<method>: " + target);
+                }
+                // Same parallelism as testng.xml
+                XmlSuite suite = new XmlSuite();
+                suite.setName("TestRunner");
+                suite.setParallel(XmlSuite.ParallelMode.METHODS);
+                suite.setThreadCount(8);
+                suite.setDataProviderThreadCount(4);
+                XmlTest test = new XmlTest(suite);
+                test.setName(target);
+                XmlClass xmlClass = new XmlClass(hash < 0 ? target : target.substring(0, hash));
+                if (kind.equals("method")) {
+                    xmlClass.setIncludedMethods(new ArrayList<>(List.of(new XmlInclude(target.substring(hash + 1)))));
+                }
+                test.setXmlClasses(new ArrayList<>(List.of(xmlClass)));
+                testng.setXmlSuites(List.of(suite));
+                return testng;
+            default:
+                throw new IllegalArgumentException("Unknown selection '" + kind
+                        + "', expected suite, class <name>, method <class>#<method>, daemon or client <command>");
+        }
+    }
+
+    static final class Run {
+        final int passed;
+        final int failed;
+        final int skipped;
+        final long totalNanos;
+        final long setupNanos = StartupTimer.setupNanos();
+        final long firstRequestNanos = StartupTimer.firstRequestNanos();
+        final long firstResponseAtNanos = StartupTimer.firstResponseAtNanos();
+        private final int status;
+
+        Run(TestListenerAdapter results, long totalNanos, int status) {
+            this.passed = results.getPassedTests().size();
+            this.failed = results.getFailedTests().size();
+            this.skipped = results.getSkippedTests().size();
+            this.totalNanos = totalNanos;
+            this.status = status;
+        }
+
+        // A selection that ran nothing is a typo in a class or method name, not a pass
+        int exitCode() {
+            return failed > 0 || status != 0 || passed + skipped == 0 ? 1 : 0;
+        }
+
+        String describe(long jvmMillis) {
+            return String.format("⏱️ startup jvm=%d setup=%d firstRequest=%d firstResponseAt=%d total=%d passed=%d failed=%d skipped=%d",
+                    jvmMillis, millis(setupNanos), millis(firstRequestNanos), millis(firstResponseAtNanos),
+                    millis(totalNanos), passed, failed, skipped);
+        }
+
+        private static long millis(long nanos) {
+            return nanos < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(nanos);
+        }
+    }
+
+    // One line per finished test, for the daemon's clients; also marks when the first test started
+    private static final class Progress implements ITestListener {
+        private final Consumer<String> out;
+
+        Progress(Consumer<String> out) {
+            this.out = out;
+        }
+
+        @Override
+        public void onTestStart(ITestResult result) {
+            StartupTimer.testStarted();
+        }
+
+        @Override
+        public void onTestSuccess(ITestResult result) {
+            report("✅ PASSED", result);
+        }
+
+        @Override
+        public void onTestFailure(ITestResult result) {
+            report("❌ FAILED", result);
+        }
+
+        @Override
+        public void onTestSkipped(ITestResult result) {
+            report("⏭️ SKIPPED", result);
+        }
+
+        private void report(String status, ITestResult result) {
+            out.accept(status + " " + result.getTestClass().getRealClass().getSimpleName() + "." + result.getName()
+                    + " (" + (result.getEndMillis() - result.getStartMillis()) + "ms)"
+                    + (result.getThrowable() == null ? "" : ": " + result.getThrowable()));
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,329 @@
+package qa.fakestore.stub;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// On-disk store of recorded request/response pairs, written by CassetteRecorder and served by
+// CassetteServer. Layout, big-endian:
+//   header    magic "FSCS", version, interaction count, offset of the index, recording start (epoch ms)
+//   records   one per interaction: compressed length, raw length, deflated response (status, recorded
+//             latency, headers, body)
+//   index     metadata (key/value pairs such as the seeds the run used), then per interaction: method,
+//             URI, request body CRC, start offset from the first request, record offset
+// The index is uncompressed and at the end, so a replay maps the file and builds its lookup tables
+// without inflating a single body; bodies are inflated on first use.
+public final class Cassette {
+
+    private static final int MAGIC = 0x46534353;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 4 + 8 + 8;
+
+    private final List<Interaction> interactions;
+    private final Map<String, String> metadata;
+    private final long recordedAtMillis;
+    private final MappedByteBuffer records;
+
+    private Cassette(List<Interaction> interactions, Map<String, String> metadata, long recordedAtMillis,
+                     MappedByteBuffer records) {
+        this.interactions = interactions;
+        this.metadata = metadata;
+        this.recordedAtMillis = recordedAtMillis;
+        this.records = records;
+    }
+
+    public static Cassette open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (mapped.limit() < HEADER_BYTES || mapped.getInt(0) != MAGIC) {
+                throw new IOException(file + " is not a cassette");
+            }
+            if (mapped.getInt(4) != VERSION) {
+                throw new IOException(file + " has cassette version " + mapped.getInt(4) + ", expected " + VERSION);
+            }
+            int count = mapped.getInt(8);
+            long indexOffset = mapped.getLong(12);
+            long recordedAtMillis = mapped.getLong(20);
+
+            ByteBuffer index = mapped.duplicate();
+            index.position((int) indexOffset);
+            Map<String, String> metadata = new LinkedHashMap<>();
+            for (int i = index.getShort(); i > 0; i--) {
+                metadata.put(getString(index), getString(index));
+            }
+            List<Interaction> interactions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                interactions.add(new Interaction(getString(index), getString(index), index.getLong(), index.getLong(),
+                        index.getLong()));
+            }
+            return new Cassette(Collections.unmodifiableList(interactions), metadata, recordedAtMillis, mapped);
+        }
+    }
+
+    public static Writer create(Path file) throws IOException {
+        return new Writer(file);
+    }
+
+    public List<Interaction> interactions() {
+        return interactions;
+    }
+
+    public Map<String, String> metadata() {
+        return Collections.unmodifiableMap(metadata);
+    }
+
+    public long recordedAtMillis() {
+        return recordedAtMillis;
+    }
+
+    public static long digest(byte[] requestBody) {
+        if (requestBody.length == 0) {
+            return 0;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(requestBody);
+        return crc.getValue();
+    }
+
+    // Inflates the interaction's response from the mapped file
+    public Response response(Interaction interaction) {
+        ByteBuffer record = records.duplicate();
+        record.position((int) interaction.recordOffset);
+        byte[] compressed = new byte[record.getInt()];
+        byte[] raw = new byte[record.getInt()];
+        record.get(compressed);
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            if (inflater.inflate(raw) != raw.length) {
+                throw new IllegalStateException("Truncated cassette record at " + interaction.recordOffset);
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt cassette record at " + interaction.recordOffset, e);
+        } finally {
+            inflater.end();
+        }
+        ByteBuffer in = ByteBuffer.wrap(raw);
+        int status = in.getInt();
+        long latencyNanos = in.getLong();
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (int i = in.getShort(); i > 0; i--) {
+            headers.put(getString(in), getString(in));
+        }
+        byte[] body = new byte[in.getInt()];
+        in.get(body);
+        return new Response(status, latencyNanos, headers, body);
+    }
+
+    private static String getString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getShort() & 0xFFFF];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void putString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("Cassette strings are limited to 64KB: " + value.substring(0, 64) + "...");
+        }
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    // What the index knows about one recorded request
+    public static final class Interaction {
+        private final String method;
+        private final String uri;
+        private final long requestDigest;
+        private final long startOffsetNanos;
+        private final long recordOffset;
+
+        Interaction(String method, String uri, long requestDigest, long startOffsetNanos, long recordOffset) {
+            this.method = method;
+            this.uri = uri;
+            this.requestDigest = requestDigest;
+            this.startOffsetNanos = startOffsetNanos;
+            this.recordOffset = recordOffset;
+        }
+
+        public String method() {
+            return method;
+        }
+
+        // Path and query as the client sent them
+        public String uri() {
+            return uri;
+        }
+
+        public long requestDigest() {
+            return requestDigest;
+        }
+
+        public long startOffsetNanos() {
+            return startOffsetNanos;
+        }
+    }
+
+    public static final class Response {
+        private final int status;
+        private final long latencyNanos;
+        private final Map<String, String> headers;
+        private final byte[] body;
+
+        public Response(int status, long latencyNanos, Map<String, String> headers, byte[] body) {
+            this.status = status;
+            this.latencyNanos = latencyNanos;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        public int status() {
+            return status;
+        }
+
+        // Upstream time from sending the request to the last body byte, as seen by the recorder
+        public long latencyNanos() {
+            return latencyNanos;
+        }
+
+        public Map<String, String> headers() {
+            return headers;
+        }
+
+        public byte[] body() {
+            return body;
+        }
+    }
+
+    // Appends records as they arrive and writes index and header on close. It writes to a temporary
+    // file moved into place on close, so an aborted recording never replaces a good cassette.
+    public static final class Writer implements AutoCloseable {
+        private final Path file;
+        private final Path partial;
+        private final FileChannel channel;
+        private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        private final ByteArrayOutputStream index = new ByteArrayOutputStream();
+        private final DataOutputStream indexOut = new DataOutputStream(index);
+        private final Map<String, String> metadata = new LinkedHashMap<>();
+        private final long startNanos = System.nanoTime();
+        private final long startMillis = System.currentTimeMillis();
+        private long position = HEADER_BYTES;
+        private int count;
+        private boolean closed;
+
+        private Writer(Path file) throws IOException {
+            this.file = file;
+            this.partial = file.resolveSibling(file.getFileName() + ".partial");
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            this.channel = FileChannel.open(partial, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        public synchronized Writer metadata(String key, String value) {
+            metadata.put(key, value);
+            return this;
+        }
+
+        public synchronized int count() {
+            return count;
+        }
+
+        // startNanos is the System.nanoTime() at which the request was received
+        public synchronized void append(String method, String uri, byte[] requestBody, long startNanos,
+                                        Response response) throws IOException {
+            if (closed) {
+                return;
+            }
+            ByteArrayOutputStream raw = new ByteArrayOutputStream(response.body.length + 256);
+            DataOutputStream out = new DataOutputStream(raw);
+            out.writeInt(response.status);
+            out.writeLong(response.latencyNanos);
+            out.writeShort(response.headers.size());
+            for (Map.Entry<String, String> header : response.headers.entrySet()) {
+                putString(out, header.getKey());
+                putString(out, header.getValue());
+            }
+            out.writeInt(response.body.length);
+            out.write(response.body);
+            byte[] rawBytes = raw.toByteArray();
+
+            deflater.reset();
+            deflater.setInput(rawBytes);
+            deflater.finish();
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(rawBytes.length / 4 + 64);
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                compressed.write(chunk, 0, deflater.deflate(chunk));
+            }
+
+            ByteBuffer record = ByteBuffer.allocate(8 + compressed.size());
+            record.putInt(compressed.size()).putInt(rawBytes.length).put(compressed.toByteArray()).flip();
+            long offset = position;
+            while (record.hasRemaining()) {
+                position += channel.write(record, position);
+            }
+
+            putString(indexOut, method);
+            putString(indexOut, uri);
+            indexOut.writeLong(digest(requestBody));
+            indexOut.writeLong(Math.max(0, startNanos - this.startNanos));
+            indexOut.writeLong(offset);
+            count++;
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                ByteArrayOutputStream tail = new ByteArrayOutputStream();
+                DataOutputStream out = new DataOutputStream(tail);
+                out.writeShort(metadata.size());
+                for (Map.Entry<String, String> entry : metadata.entrySet()) {
+                    putString(out, entry.getKey());
+                    putString(out, entry.getValue());
+                }
+                indexOut.flush();
+                index.writeTo(out);
+                ByteBuffer bytes = ByteBuffer.wrap(tail.toByteArray());
+                long indexOffset = position;
+                while (bytes.hasRemaining()) {
+                    position += channel.write(bytes, position);
+                }
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                header.putInt(MAGIC).putInt(VERSION).putInt(count).putLong(indexOffset).putLong(startMillis).flip();
+                channel.write(header, 0);
+                channel.force(true);
+            } finally {
+                channel.close();
+                deflater.end();
+            }
+            Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        public Path file() {
+            return file;
+        }
+    }
+}
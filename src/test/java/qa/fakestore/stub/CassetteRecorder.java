@@ -0,0 +1,170 @@
+package qa.fakestore.stub;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import qa.fakestore.util.Threads;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+
+// Recording proxy, used when -Dfakestore.server=record: forwards every request to the upstream
+// server and appends the request/response pair, with the upstream latency, to a cassette. Both client
+// transports go through it unchanged, since all they see is another base URL. The cassette is only
+// complete once the recorder is closed. A request the upstream never answers gets a 502 and is not
+// recorded, so a replay never serves a failure that was really the network's.
+public class CassetteRecorder implements AutoCloseable {
+
+    // Hop-by-hop and length headers, which the client, the JDK and the replay server set themselves.
+    // Accept-Encoding is dropped so the cassette holds plain bodies whatever the client asked for.
+    private static final Set<String> SKIPPED_HEADERS = new HashSet<>(Arrays.asList(
+            "connection", "content-length", "date", "expect", "host", "keep-alive", "proxy-connection",
+            "te", "trailer", "transfer-encoding", "upgrade", "accept-encoding", "content-encoding"));
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final HttpClient client;
+    private final URI upstream;
+    private final Duration timeout;
+    private final Cassette.Writer cassette;
+
+    private CassetteRecorder(HttpServer server, ExecutorService executor, URI upstream, Duration timeout,
+                             Cassette.Writer cassette) {
+        this.server = server;
+        this.executor = executor;
+        this.upstream = upstream;
+        this.timeout = timeout;
+        this.cassette = cassette;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .executor(executor)
+                .build();
+    }
+
+    public static CassetteRecorder start(int port, String upstreamUrl, Path file, Duration timeout) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        ExecutorService executor = Threads.newPerTaskExecutor("cassette-recorder");
+        String base = upstreamUrl.endsWith("/") ? upstreamUrl.substring(0, upstreamUrl.length() - 1) : upstreamUrl;
+        CassetteRecorder recorder = new CassetteRecorder(server, executor, URI.create(base), timeout, Cassette.create(file));
+        server.createContext("/", recorder::handle);
+        server.setExecutor(executor);
+        server.start();
+        return recorder;
+    }
+
+    public String baseUrl() {
+        InetSocketAddress address = server.getAddress();
+        return "http://" + address.getHostString() + ":" + address.getPort();
+    }
+
+    public String upstream() {
+        return upstream.toString();
+    }
+
+    public Path file() {
+        return cassette.file();
+    }
+
+    public int recorded() {
+        return cassette.count();
+    }
+
+    // Stored in the cassette so a replay can restore it, e.g. the payload and journey seeds
+    public CassetteRecorder metadata(String key, String value) {
+        cassette.metadata(key, value);
+        return this;
+    }
+
+    // Stops accepting requests and writes the cassette's index
+    @Override
+    public void close() throws IOException {
+        server.stop(0);
+        executor.shutdownNow();
+        cassette.close();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        try {
+            String method = exchange.getRequestMethod();
+            String uri = exchange.getRequestURI().getRawPath()
+                    + (exchange.getRequestURI().getRawQuery() == null ? "" : "?" + exchange.getRequestURI().getRawQuery());
+            byte[] requestBody;
+            try (InputStream in = exchange.getRequestBody()) {
+                requestBody = in.readAllBytes();
+            }
+
+            HttpRequest.Builder forward = HttpRequest.newBuilder(URI.create(upstream + uri))
+                    .timeout(timeout)
+                    .method(method, requestBody.length == 0
+                            ? HttpRequest.BodyPublishers.noBody()
+                            : HttpRequest.BodyPublishers.ofByteArray(requestBody));
+            for (Map.Entry<String, List<String>> header : exchange.getRequestHeaders().entrySet()) {
+                if (!SKIPPED_HEADERS.contains(header.getKey().toLowerCase(Locale.ROOT))) {
+                    for (String value : header.getValue()) {
+                        forward.header(header.getKey(), value);
+                    }
+                }
+            }
+
+            long sent = System.nanoTime();
+            HttpResponse<byte[]> upstreamResponse;
+            try {
+                upstreamResponse = client.send(forward.build(), HttpResponse.BodyHandlers.ofByteArray());
+            } catch (IOException e) {
+                send(exchange, 502, new LinkedHashMap<>(), ("Upstream failed: " + e).getBytes(StandardCharsets.UTF_8));
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                send(exchange, 502, new LinkedHashMap<>(), "Recorder interrupted".getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            long latency = System.nanoTime() - sent;
+
+            Map<String, String> headers = new LinkedHashMap<>();
+            upstreamResponse.headers().map().forEach((name, values) -> {
+                if (!SKIPPED_HEADERS.contains(name.toLowerCase(Locale.ROOT)) && !name.startsWith(":")) {
+                    headers.put(name, String.join(",", values));
+                }
+            });
+            Cassette.Response response = new Cassette.Response(upstreamResponse.statusCode(), latency, headers,
+                    upstreamResponse.body());
+            cassette.append(method, uri, requestBody, start, response);
+            send(exchange, response.status(), headers, response.body());
+        } catch (RuntimeException e) {
+            send(exchange, 500, new LinkedHashMap<>(), ("Recorder error: " + e).getBytes(StandardCharsets.UTF_8));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    static void send(HttpExchange exchange, int status, Map<String, String> headers, byte[] body) throws IOException {
+        headers.forEach((name, value) -> exchange.getResponseHeaders().set(name, value));
+        // 204, 304 and HEAD answers must not announce a body
+        boolean empty = body.length == 0 || status == 204 || status == 304 || exchange.getRequestMethod().equals("HEAD");
+        exchange.sendResponseHeaders(status, empty ? -1 : body.length);
+        if (!empty) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package qa.fakestore.stub;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import qa.fakestore.perf.LatencyBaselines;
+import qa.fakestore.util.Threads;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Replays a cassette, used when -Dfakestore.server=replay. A request is answered with the first
+// level that has recordings:
+//   exact  same method, path, query and request body
+//   uri    same method, path and query (bodies built from a different payload index)
+//   route  same method and route with ids folded to {id}, as in the latency baselines
+// Repeated requests cycle through the matching recordings in the order they were made. Anything else
+// is a 404 and counted as a miss. Timing is fast (answer at once) or recorded (wait the recorded
+// upstream latency, times timingScale first).
+public class CassetteServer implements AutoCloseable {
+
+    public enum Timing { FAST, RECORDED }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Cassette cassette;
+    private final Timing timing;
+    private final double timingScale;
+    private final Map<String, Slot> exact = new HashMap<>();
+    private final Map<String, Slot> byUri = new HashMap<>();
+    private final Map<String, Slot> byRoute = new HashMap<>();
+    // Inflated once, on first use
+    private final AtomicReferenceArray<Cassette.Response> responses;
+    private final LongAdder exactHits = new LongAdder();
+    private final LongAdder uriHits = new LongAdder();
+    private final LongAdder routeHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private CassetteServer(HttpServer server, ExecutorService executor, Cassette cassette, Timing timing, double timingScale) {
+        this.server = server;
+        this.executor = executor;
+        this.cassette = cassette;
+        this.timing = timing;
+        this.timingScale = timingScale;
+        this.responses = new AtomicReferenceArray<>(cassette.interactions().size());
+        Map<String, List<Integer>> exactLists = new HashMap<>();
+        Map<String, List<Integer>> uriLists = new HashMap<>();
+        Map<String, List<Integer>> routeLists = new HashMap<>();
+        List<Cassette.Interaction> interactions = cassette.interactions();
+        for (int i = 0; i < interactions.size(); i++) {
+            Cassette.Interaction interaction = interactions.get(i);
+            exactLists.computeIfAbsent(exactKey(interaction.method(), interaction.uri(), interaction.requestDigest()),
+                    key -> new ArrayList<>()).add(i);
+            uriLists.computeIfAbsent(interaction.method() + " " + interaction.uri(), key -> new ArrayList<>()).add(i);
+            routeLists.computeIfAbsent(routeKey(interaction.method(), interaction.uri()), key -> new ArrayList<>()).add(i);
+        }
+        exactLists.forEach((key, list) -> exact.put(key, new Slot(list)));
+        uriLists.forEach((key, list) -> byUri.put(key, new Slot(list)));
+        routeLists.forEach((key, list) -> byRoute.put(key, new Slot(list)));
+    }
+
+    public static CassetteServer start(int port, Path file, Timing timing, double timingScale) throws IOException {
+        Cassette cassette = Cassette.open(file);
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        ExecutorService executor = Threads.newPerTaskExecutor("cassette-server");
+        CassetteServer replay = new CassetteServer(server, executor, cassette, timing, timingScale);
+        server.createContext("/", replay::handle);
+        server.setExecutor(executor);
+        server.start();
+        return replay;
+    }
+
+    // Out-of-process replay, like FakeStoreStub.main, so client benchmarks can run against a recording.
+    // Prints "listening on <port>" once ready and exits when stdin closes.
+    //   java -cp <test classpath> qa.fakestore.stub.CassetteServer <cassette> [port] [fast|recorded]
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+        Timing timing = args.length > 2 ? Timing.valueOf(args[2].toUpperCase(Locale.ROOT)) : Timing.FAST;
+        CassetteServer replay = start(port, Paths.get(args[0]), timing, 1.0);
+        System.out.println("listening on " + replay.port());
+        System.out.flush();
+        while (System.in.read() != -1) {
+            // drain until the parent closes the pipe
+        }
+        System.out.println(replay.summary());
+        replay.close();
+    }
+
+    public String baseUrl() {
+        InetSocketAddress address = server.getAddress();
+        return "http://" + address.getHostString() + ":" + address.getPort();
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    public Cassette cassette() {
+        return cassette;
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public String summary() {
+        return String.format("%d recorded interactions, %s timing; served %d exact, %d by URI, %d by route, %d misses",
+                cassette.interactions().size(), timing.name().toLowerCase(Locale.ROOT),
+                exactHits.sum(), uriHits.sum(), routeHits.sum(), misses());
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String method = exchange.getRequestMethod();
+            String uri = exchange.getRequestURI().getRawPath()
+                    + (exchange.getRequestURI().getRawQuery() == null ? "" : "?" + exchange.getRequestURI().getRawQuery());
+            byte[] requestBody;
+            try (InputStream in = exchange.getRequestBody()) {
+                requestBody = in.readAllBytes();
+            }
+
+            int index = lookup(method, uri, Cassette.digest(requestBody));
+            if (index < 0) {
+                misses.increment();
+                CassetteRecorder.send(exchange, 404, new LinkedHashMap<>(),
+                        ("Not in cassette: " + method + " " + uri).getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            Cassette.Response response = response(index);
+            if (timing == Timing.RECORDED) {
+                long deadline = System.nanoTime() + (long) (response.latencyNanos() * timingScale);
+                long wait;
+                while ((wait = deadline - System.nanoTime()) > 0 && !Thread.currentThread().isInterrupted()) {
+                    LockSupport.parkNanos(wait);
+                }
+            }
+            CassetteRecorder.send(exchange, response.status(), new LinkedHashMap<>(response.headers()), response.body());
+        } catch (RuntimeException e) {
+            CassetteRecorder.send(exchange, 500, new LinkedHashMap<>(), ("Replay error: " + e).getBytes(StandardCharsets.UTF_8));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private int lookup(String method, String uri, long digest) {
+        Slot slot = exact.get(exactKey(method, uri, digest));
+        if (slot != null) {
+            exactHits.increment();
+            return slot.next();
+        }
+        slot = byUri.get(method + " " + uri);
+        if (slot != null) {
+            uriHits.increment();
+            return slot.next();
+        }
+        slot = byRoute.get(routeKey(method, uri));
+        if (slot != null) {
+            routeHits.increment();
+            return slot.next();
+        }
+        return -1;
+    }
+
+    private Cassette.Response response(int index) {
+        Cassette.Response response = responses.get(index);
+        if (response == null) {
+            // Two threads may inflate the same record; both get equal copies
+            response = cassette.response(cassette.interactions().get(index));
+            responses.set(index, response);
+        }
+        return response;
+    }
+
+    private static String exactKey(String method, String uri, long digest) {
+        return method + " " + uri + " #" + Long.toHexString(digest);
+    }
+
+    private static String routeKey(String method, String uri) {
+        int query = uri.indexOf('?');
+        return LatencyBaselines.route(method, query < 0 ? uri : uri.substring(0, query));
+    }
+
+    // The recordings for one key, handed out round-robin
+    private static final class Slot {
+        private final int[] indexes;
+        private final AtomicInteger next = new AtomicInteger();
+
+        Slot(List<Integer> indexes) {
+            this.indexes = indexes.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        int next() {
+            return indexes[Math.floorMod(next.getAndIncrement(), indexes.length)];
+        }
+    }
+}
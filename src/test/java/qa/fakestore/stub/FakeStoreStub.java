@@ -0,0 +1,455 @@
+package qa.fakestore.stub;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import qa.fakestore.models.Product;
+import qa.fakestore.models.User;
+import qa.fakestore.util.Threads;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+// In-process stand-in for https://fakestoreapi.com, used when -Dfakestore.server=local
+public class FakeStoreStub implements AutoCloseable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final byte[] NULL_BODY = "null".getBytes(StandardCharsets.UTF_8);
+    private static final long TOKEN_TTL_SECONDS = Long.getLong("fakestore.stub.tokenTtlSeconds", 3600L);
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ProductCatalog catalog;
+    private final AtomicLong requestCount = new AtomicLong();
+    private volatile FaultInjector faults = FaultInjector.fromProperties();
+
+    private FakeStoreStub(HttpServer server, ExecutorService executor, ProductCatalog catalog) {
+        this.server = server;
+        this.executor = executor;
+        this.catalog = catalog;
+    }
+
+    public static FakeStoreStub start(int port, ProductCatalog catalog) throws IOException {
+        // Without TCP_NODELAY small chunked responses stall ~40ms on Nagle + delayed ACK;
+        // the JDK server reads this once, when the first HttpServer is created
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        ExecutorService executor = Threads.newPerTaskExecutor("fakestore-stub");
+        FakeStoreStub stub = new FakeStoreStub(server, executor, catalog);
+        server.createContext("/", stub::handle);
+        server.setExecutor(executor);
+        server.start();
+        return stub;
+    }
+
+    // Out-of-process stub, so a benchmark JVM measures only client CPU and allocation. Prints
+    // "listening on <port>" once ready and exits when stdin closes, i.e. when the parent goes away.
+    //   java -cp <test classpath> qa.fakestore.stub.FakeStoreStub [port] [products]
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 0;
+        int products = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        FakeStoreStub stub = start(port, new ProductCatalog(products));
+        System.out.println("listening on " + stub.port());
+        System.out.flush();
+        while (System.in.read() != -1) {
+            // drain until the parent closes the pipe
+        }
+        stub.close();
+    }
+
+    public String baseUrl() {
+        InetSocketAddress address = server.getAddress();
+        return "http://" + address.getHostString() + ":" + address.getPort();
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    public ProductCatalog catalog() {
+        return catalog;
+    }
+
+    public long requestCount() {
+        return requestCount.get();
+    }
+
+    // Starts from -Dfakestore.stub.faults; swapping applies to requests that arrive afterwards
+    public FaultInjector faults() {
+        return faults;
+    }
+
+    public FakeStoreStub faults(FaultInjector faults) {
+        this.faults = faults;
+        return this;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        try {
+            FaultInjector injector = faults;
+            if (injector.isEmpty()) {
+                dispatch(exchange);
+            } else {
+                injector.apply(exchange, this::dispatch);
+            }
+        } catch (NumberFormatException e) {
+            sendBytes(exchange, 400, ("Invalid id: " + e.getMessage()).getBytes(StandardCharsets.UTF_8));
+        } catch (JsonProcessingException e) {
+            // Malformed login, cart or product body; thrown while reading it, before any header is sent
+            sendBytes(exchange, 400, ("Invalid JSON body: " + e.getOriginalMessage()).getBytes(StandardCharsets.UTF_8));
+        } catch (RuntimeException e) {
+            sendBytes(exchange, 500, ("Stub error: " + e).getBytes(StandardCharsets.UTF_8));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void dispatch(HttpExchange exchange) throws IOException {
+        String[] path = segments(exchange.getRequestURI().getPath());
+        String method = exchange.getRequestMethod();
+        String resource = path.length > 0 ? path[0] : "";
+
+        switch (resource) {
+            case "products":
+                handleProducts(exchange, method, path);
+                return;
+            case "carts":
+                handleCarts(exchange, method, path);
+                return;
+            case "users":
+                handleUsers(exchange, method, path);
+                return;
+            case "auth":
+                if (path.length == 2 && path[1].equals("login") && method.equals("POST")) {
+                    handleLogin(exchange);
+                    return;
+                }
+                break;
+            default:
+                break;
+        }
+        sendBytes(exchange, 404, ("Cannot " + method + " " + exchange.getRequestURI().getPath()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void handleProducts(HttpExchange exchange, String method, String[] path) throws IOException {
+        if (path.length == 1) {
+            if (method.equals("GET")) {
+                streamProducts(exchange, null);
+            } else if (method.equals("POST")) {
+                sendJson(exchange, echoWithId(exchange, catalog.size() + 1));
+            } else {
+                sendMethodNotAllowed(exchange);
+            }
+            return;
+        }
+        if (path.length == 2 && path[1].equals("categories") && method.equals("GET")) {
+            sendJson(exchange, ProductCatalog.CATEGORIES);
+            return;
+        }
+        if (path.length == 3 && path[1].equals("category") && method.equals("GET")) {
+            streamProducts(exchange, path[2]);
+            return;
+        }
+        if (path.length == 2) {
+            int id = Integer.parseInt(path[1]);
+            switch (method) {
+                case "GET":
+                case "DELETE":
+                    sendJson(exchange, catalog.get(id));
+                    return;
+                case "PUT":
+                case "PATCH":
+                    sendJson(exchange, echoWithId(exchange, id));
+                    return;
+                default:
+                    sendMethodNotAllowed(exchange);
+                    return;
+            }
+        }
+        sendBytes(exchange, 404, NULL_BODY);
+    }
+
+    private void handleCarts(HttpExchange exchange, String method, String[] path) throws IOException {
+        if (path.length == 1) {
+            if (method.equals("GET")) {
+                sendJson(exchange, cartsJson(null));
+            } else if (method.equals("POST")) {
+                sendJson(exchange, echoWithId(exchange, StubData.CARTS.size() + 1));
+            } else {
+                sendMethodNotAllowed(exchange);
+            }
+            return;
+        }
+        if (path.length == 3 && path[1].equals("user") && method.equals("GET")) {
+            sendJson(exchange, cartsJson(Integer.parseInt(path[2])));
+            return;
+        }
+        if (path.length == 2) {
+            int id = Integer.parseInt(path[1]);
+            switch (method) {
+                case "GET":
+                case "DELETE":
+                    sendJson(exchange, id >= 1 && id <= StubData.CARTS.size() ? cartJson(StubData.CARTS.get(id - 1)) : null);
+                    return;
+                case "PUT":
+                case "PATCH":
+                    sendJson(exchange, echoWithId(exchange, id));
+                    return;
+                default:
+                    sendMethodNotAllowed(exchange);
+                    return;
+            }
+        }
+        sendBytes(exchange, 404, NULL_BODY);
+    }
+
+    private void handleUsers(HttpExchange exchange, String method, String[] path) throws IOException {
+        if (path.length == 1) {
+            if (method.equals("GET")) {
+                sendJson(exchange, limit(StubData.USERS, queryInt(exchange, "limit")));
+            } else if (method.equals("POST")) {
+                sendJson(exchange, echoWithId(exchange, StubData.USERS.size() + 1));
+            } else {
+                sendMethodNotAllowed(exchange);
+            }
+            return;
+        }
+        if (path.length == 2) {
+            int id = Integer.parseInt(path[1]);
+            switch (method) {
+                case "GET":
+                case "DELETE":
+                    sendJson(exchange, id >= 1 && id <= StubData.USERS.size() ? StubData.USERS.get(id - 1) : null);
+                    return;
+                case "PUT":
+                case "PATCH":
+                    sendJson(exchange, echoWithId(exchange, id));
+                    return;
+                default:
+                    sendMethodNotAllowed(exchange);
+                    return;
+            }
+        }
+        sendBytes(exchange, 404, NULL_BODY);
+    }
+
+    private void handleLogin(HttpExchange exchange) throws IOException {
+        JsonNode credentials = MAPPER.readTree(exchange.getRequestBody());
+        String username = credentials == null ? "" : credentials.path("username").asText("");
+        String password = credentials == null ? "" : credentials.path("password").asText("");
+
+        // The suite asserts the public API's historic behaviour: 200 with a literal null on bad credentials
+        User user = StubData.findUser(username, password);
+        if (user == null) {
+            sendBytes(exchange, 200, NULL_BODY);
+            return;
+        }
+        ObjectNode body = MAPPER.createObjectNode();
+        body.put("token", issueToken(user));
+        sendJson(exchange, body);
+    }
+
+    // Writes products straight to the chunked response so millions of items never sit in memory
+    private void streamProducts(HttpExchange exchange, String category) throws IOException {
+        if (category != null && !ProductCatalog.CATEGORIES.contains(category)) {
+            sendJson(exchange, new ArrayList<>());
+            return;
+        }
+        Integer limit = queryInt(exchange, "limit");
+        boolean descending = "desc".equals(queryParam(exchange, "sort"));
+        int max = limit == null ? Integer.MAX_VALUE : limit;
+
+        // The catalog is immutable, so its identity plus the query is a valid validator without hashing the body
+        String etag = "W/\"catalog-" + catalog.size() + "-" + catalog.seed() + "-" + (category == null ? "" : category.hashCode())
+                + "-" + max + (descending ? "-desc" : "") + "\"";
+        exchange.getResponseHeaders().set("ETag", etag);
+        if (notModified(exchange, etag)) {
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = exchange.getResponseBody();
+             JsonGenerator generator = MAPPER.getFactory().createGenerator(out)) {
+            Product product = new Product();
+            int written = 0;
+            generator.writeStartArray();
+            for (int i = 1; i <= catalog.size() && written < max; i++) {
+                int id = descending ? catalog.size() - i + 1 : i;
+                if (category != null && !ProductCatalog.categoryOf(id).equals(category)) {
+                    continue;
+                }
+                catalog.fill(product, id);
+                writeProduct(generator, product);
+                written++;
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    private static void writeProduct(JsonGenerator generator, Product product) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", product.getId());
+        generator.writeStringField("title", product.getTitle());
+        generator.writeNumberField("price", product.getPrice());
+        generator.writeStringField("description", product.getDescription());
+        generator.writeStringField("category", product.getCategory());
+        generator.writeStringField("image", product.getImage());
+        generator.writeObjectFieldStart("rating");
+        generator.writeNumberField("rate", product.getRating().getRate());
+        generator.writeNumberField("count", product.getRating().getCount());
+        generator.writeEndObject();
+        generator.writeEndObject();
+    }
+
+    private static List<ObjectNode> cartsJson(Integer userId) {
+        List<ObjectNode> carts = new ArrayList<>();
+        for (StubData.Cart cart : StubData.CARTS) {
+            if (userId == null || cart.userId == userId) {
+                carts.add(cartJson(cart));
+            }
+        }
+        return carts;
+    }
+
+    private static ObjectNode cartJson(StubData.Cart cart) {
+        ObjectNode node = MAPPER.createObjectNode();
+        node.put("id", cart.id);
+        node.put("userId", cart.userId);
+        node.put("date", cart.date);
+        for (int[] line : cart.products) {
+            ObjectNode item = node.withArray("products").addObject();
+            item.put("productId", line[0]);
+            item.put("quantity", line[1]);
+        }
+        return node;
+    }
+
+    private static ObjectNode echoWithId(HttpExchange exchange, int id) throws IOException {
+        JsonNode body = MAPPER.readTree(exchange.getRequestBody());
+        ObjectNode result = MAPPER.createObjectNode();
+        result.put("id", id);
+        if (body != null && body.isObject()) {
+            body.fields().forEachRemaining(field -> {
+                if (!field.getKey().equals("id")) {
+                    result.set(field.getKey(), field.getValue());
+                }
+            });
+        }
+        return result;
+    }
+
+    private static String issueToken(User user) {
+        long now = System.currentTimeMillis() / 1000;
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String header = encoder.encodeToString("{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+        String payload = encoder.encodeToString(("{\"sub\":" + user.getId() + ",\"user\":\"" + user.getUsername()
+                + "\",\"iat\":" + now + ",\"exp\":" + (now + TOKEN_TTL_SECONDS) + "}").getBytes(StandardCharsets.UTF_8));
+        try {
+            byte[] signature = MessageDigest.getInstance("SHA-256")
+                    .digest((header + "." + payload).getBytes(StandardCharsets.UTF_8));
+            return header + "." + payload + "." + encoder.encodeToString(signature);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static <T> List<T> limit(List<T> items, Integer limit) {
+        return limit == null || limit >= items.size() ? items : items.subList(0, Math.max(0, limit));
+    }
+
+    private static void sendJson(HttpExchange exchange, Object value) throws IOException {
+        byte[] body = value == null ? NULL_BODY : MAPPER.writeValueAsBytes(value);
+        if (exchange.getRequestMethod().equals("GET")) {
+            CRC32 crc = new CRC32();
+            crc.update(body, 0, body.length);
+            String etag = "\"" + Long.toHexString(crc.getValue()) + "-" + Integer.toHexString(body.length) + "\"";
+            exchange.getResponseHeaders().set("ETag", etag);
+            if (notModified(exchange, etag)) {
+                return;
+            }
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        sendBytes(exchange, 200, body);
+    }
+
+    private static boolean notModified(HttpExchange exchange, String etag) throws IOException {
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag)) {
+                exchange.sendResponseHeaders(304, -1);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void sendMethodNotAllowed(HttpExchange exchange) throws IOException {
+        sendBytes(exchange, 405, ("Method " + exchange.getRequestMethod() + " not allowed").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void sendBytes(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        if (body.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private static String[] segments(String path) {
+        List<String> parts = new ArrayList<>();
+        for (String part : path.split("/")) {
+            if (!part.isEmpty()) {
+                parts.add(part);
+            }
+        }
+        return parts.toArray(new String[0]);
+    }
+
+    private static String queryParam(HttpExchange exchange, String name) {
+        String query = exchange.getRequestURI().getQuery();
+        if (query == null) {
+            return null;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0 && pair.substring(0, eq).equals(name)) {
+                return pair.substring(eq + 1);
+            }
+        }
+        return null;
+    }
+
+    private static Integer queryInt(HttpExchange exchange, String name) {
+        String value = queryParam(exchange, name);
+        return value == null ? null : Integer.valueOf(value);
+    }
+}
@@ -0,0 +1,318 @@
+package qa.fakestore.stub;
+
+import com.sun.net.httpserver.HttpExchange;
+import qa.fakestore.perf.LatencyBaselines;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Per-route latency and fault rules for the stub, e.g. -Dfakestore.stub.faults=
+//   "GET /products/{id} latency=lognormal:20:0.5 stall=0.01:2000 error=0.05:503; POST /carts reset=0.02"
+// Rules are separated by ';'. A rule starts with a route as in the latency baselines (ids folded to {id}),
+// where '*' matches any method or path and a trailing '*' any path prefix; the first matching rule wins.
+//   latency=fixed:MS | uniform:MIN:MAX | lognormal:MEDIAN:SIGMA   delay before the request is handled
+//   stall=P:MS          with probability P, MS more on top (a GC pause, a cold cache)
+//   error=P[:STATUS]    answer STATUS (default 500) instead
+//   null=P              answer 200 with a literal null, as the public API does for unknown ids
+//   reset=P             close the connection without answering
+//   truncate=P[:BYTES]  announce the full Content-Length, send BYTES (default 32) and close
+//   drip=BYTES_PER_S    send the body in small chunks at this rate
+// Draws come from one seeded random (fakestore.stub.faultSeed), so a sequential run is reproducible.
+public final class FaultInjector {
+
+    public static final FaultInjector NONE = new FaultInjector(Collections.emptyList(), 0);
+
+    private static final byte[] NULL_BODY = "null".getBytes(StandardCharsets.UTF_8);
+    private static final int DRIP_CHUNKS_PER_SECOND = 20;
+
+    private final List<Rule> rules;
+    private final SplittableRandom random;
+    private final LongAdder delayed = new LongAdder();
+    private final LongAdder stalls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder nulls = new LongAdder();
+    private final LongAdder resets = new LongAdder();
+    private final LongAdder truncations = new LongAdder();
+    private final LongAdder drips = new LongAdder();
+
+    private FaultInjector(List<Rule> rules, long seed) {
+        this.rules = rules;
+        this.random = new SplittableRandom(seed);
+    }
+
+    public static FaultInjector parse(String spec, long seed) {
+        List<Rule> rules = new ArrayList<>();
+        for (String text : spec.split(";")) {
+            if (!text.isBlank()) {
+                rules.add(Rule.parse(text.strip()));
+            }
+        }
+        return rules.isEmpty() ? NONE : new FaultInjector(rules, seed);
+    }
+
+    public static FaultInjector fromProperties() {
+        String spec = System.getProperty("fakestore.stub.faults", "");
+        return parse(spec, Long.getLong("fakestore.stub.faultSeed", System.nanoTime()));
+    }
+
+    public boolean isEmpty() {
+        return rules.isEmpty();
+    }
+
+    public String summary() {
+        return String.format("%d delayed, %d stalls, %d errors, %d nulls, %d resets, %d truncations, %d drips",
+                delayed.sum(), stalls.sum(), errors.sum(), nulls.sum(), resets.sum(), truncations.sum(), drips.sum());
+    }
+
+    @Override
+    public String toString() {
+        return rules.isEmpty() ? "no faults" : rules.size() + " fault rule(s): " + summary();
+    }
+
+    interface Handler {
+        void handle(HttpExchange exchange) throws IOException;
+    }
+
+    // Runs the handler with the matching rule's faults applied; without a match it is a direct call
+    void apply(HttpExchange exchange, Handler handler) throws IOException {
+        Rule rule = match(LatencyBaselines.route(exchange.getRequestMethod(), exchange.getRequestURI().getPath()));
+        if (rule == null) {
+            handler.handle(exchange);
+            return;
+        }
+        long delayNanos = rule.delayNanos(this);
+        if (rule.stallProbability > 0 && draw() < rule.stallProbability) {
+            delayNanos += rule.stallNanos;
+            stalls.increment();
+        }
+        if (delayNanos > 0) {
+            delayed.increment();
+            sleep(delayNanos);
+        }
+        if (rule.resetProbability > 0 && draw() < rule.resetProbability) {
+            // Closing an exchange before any response headers drops the connection
+            resets.increment();
+            return;
+        }
+        if (rule.errorProbability > 0 && draw() < rule.errorProbability) {
+            errors.increment();
+            send(exchange, rule.errorStatus, ("{\"message\":\"Injected " + rule.errorStatus + "\"}").getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        if (rule.nullProbability > 0 && draw() < rule.nullProbability) {
+            nulls.increment();
+            send(exchange, 200, NULL_BODY);
+            return;
+        }
+        boolean truncate = rule.truncateProbability > 0 && draw() < rule.truncateProbability;
+        if (!truncate && rule.dripBytesPerSecond <= 0) {
+            handler.handle(exchange);
+            return;
+        }
+        // Body faults need the whole response first, so the handler writes into a buffer
+        CapturingExchange capture = new CapturingExchange(exchange);
+        handler.handle(capture);
+        byte[] body = capture.body();
+        if (capture.status() == 0 || body.length == 0) {
+            send(exchange, capture.status() == 0 ? 500 : capture.status(), body);
+        } else if (truncate) {
+            truncations.increment();
+            exchange.sendResponseHeaders(capture.status(), body.length);
+            OutputStream out = exchange.getResponseBody();
+            out.write(body, 0, Math.min(rule.truncateBytes, body.length - 1));
+            out.flush();
+            // Closing the exchange with bytes still owed makes the server drop the connection
+            exchange.close();
+        } else {
+            drips.increment();
+            exchange.sendResponseHeaders(capture.status(), body.length);
+            int chunk = Math.max(1, rule.dripBytesPerSecond / DRIP_CHUNKS_PER_SECOND);
+            long pauseNanos = TimeUnit.SECONDS.toNanos(chunk) / rule.dripBytesPerSecond;
+            try (OutputStream out = exchange.getResponseBody()) {
+                for (int offset = 0; offset < body.length; offset += chunk) {
+                    out.write(body, offset, Math.min(chunk, body.length - offset));
+                    out.flush();
+                    sleep(pauseNanos);
+                }
+            }
+        }
+    }
+
+    private Rule match(String route) {
+        for (Rule rule : rules) {
+            if (rule.matches(route)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private synchronized double draw() {
+        return random.nextDouble();
+    }
+
+    private static void sleep(long nanos) {
+        long deadline = System.nanoTime() + nanos;
+        long wait;
+        while ((wait = deadline - System.nanoTime()) > 0 && !Thread.currentThread().isInterrupted()) {
+            LockSupport.parkNanos(wait);
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        if (body.length > 0) {
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        }
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        if (body.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    static final class Rule {
+        private final String method;
+        private final String path;
+        private String latency = "none";
+        private double latencyA;
+        private double latencyB;
+        private double stallProbability;
+        private long stallNanos;
+        private double errorProbability;
+        private int errorStatus = 500;
+        private double nullProbability;
+        private double resetProbability;
+        private double truncateProbability;
+        private int truncateBytes = 32;
+        private int dripBytesPerSecond;
+
+        private Rule(String method, String path) {
+            this.method = method;
+            this.path = path;
+        }
+
+        static Rule parse(String text) {
+            String[] parts = text.split("\\s+");
+            Rule rule;
+            int options;
+            if (parts.length > 1 && !parts[1].contains("=")) {
+                rule = new Rule(parts[0].toUpperCase(Locale.ROOT), parts[1]);
+                options = 2;
+            } else if (parts[0].equals("*")) {
+                rule = new Rule("*", "*");
+                options = 1;
+            } else {
+                throw new IllegalArgumentException("Fault rule must start with a route such as 'GET /products/{id}' or '*': " + text);
+            }
+            for (int i = options; i < parts.length; i++) {
+                rule.set(parts[i], text);
+            }
+            return rule;
+        }
+
+        private void set(String option, String text) {
+            int equals = option.indexOf('=');
+            if (equals < 0) {
+                throw new IllegalArgumentException("Expected key=value in fault rule '" + text + "': " + option);
+            }
+            String key = option.substring(0, equals);
+            String[] args = option.substring(equals + 1).split(":");
+            try {
+                switch (key) {
+                    case "latency":
+                        latency = args[0];
+                        switch (latency) {
+                            case "fixed":
+                                latencyA = Double.parseDouble(args[1]);
+                                break;
+                            case "uniform":
+                            case "lognormal":
+                                latencyA = Double.parseDouble(args[1]);
+                                latencyB = Double.parseDouble(args[2]);
+                                break;
+                            default:
+                                throw new IllegalArgumentException("Unknown latency '" + latency
+                                        + "', expected fixed, uniform or lognormal");
+                        }
+                        break;
+                    case "stall":
+                        stallProbability = probability(args[0]);
+                        stallNanos = TimeUnit.MILLISECONDS.toNanos(Long.parseLong(args[1]));
+                        break;
+                    case "error":
+                        errorProbability = probability(args[0]);
+                        errorStatus = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+                        break;
+                    case "null":
+                        nullProbability = probability(args[0]);
+                        break;
+                    case "reset":
+                        resetProbability = probability(args[0]);
+                        break;
+                    case "truncate":
+                        truncateProbability = probability(args[0]);
+                        truncateBytes = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+                        break;
+                    case "drip":
+                        dripBytesPerSecond = Integer.parseInt(args[0]);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown fault '" + key + "'");
+                }
+            } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+                throw new IllegalArgumentException("Bad fault option '" + option + "' in rule '" + text + "'", e);
+            }
+        }
+
+        private static double probability(String value) {
+            double p = Double.parseDouble(value);
+            if (p < 0 || p > 1) {
+                throw new IllegalArgumentException("Probability must be within 0..1: " + value);
+            }
+            return p;
+        }
+
+        boolean matches(String route) {
+            int space = route.indexOf(' ');
+            String routeMethod = route.substring(0, space);
+            String routePath = route.substring(space + 1);
+            if (!method.equals("*") && !method.equals(routeMethod)) {
+                return false;
+            }
+            if (path.endsWith("*")) {
+                return routePath.startsWith(path.substring(0, path.length() - 1));
+            }
+            return path.equals(routePath);
+        }
+
+        long delayNanos(FaultInjector faults) {
+            double millis;
+            switch (latency) {
+                case "fixed":
+                    millis = latencyA;
+                    break;
+                case "uniform":
+                    millis = latencyA + (latencyB - latencyA) * faults.draw();
+                    break;
+                case "lognormal":
+                    // Box-Muller from two uniform draws
+                    double gaussian = Math.sqrt(-2 * Math.log(1 - faults.draw())) * Math.cos(2 * Math.PI * faults.draw());
+                    millis = latencyA * Math.exp(latencyB * gaussian);
+                    break;
+                default:
+                    return 0;
+            }
+            return (long) (millis * 1_000_000);
+        }
+    }
+}
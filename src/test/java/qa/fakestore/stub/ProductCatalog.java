@@ -0,0 +1,87 @@
+package qa.fakestore.stub;
+
+import qa.fakestore.models.Product;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Products are derived from (seed, id) on demand, so a catalog of millions costs no heap
+public class ProductCatalog {
+
+    public static final List<String> CATEGORIES = Collections.unmodifiableList(
+            Arrays.asList("electronics", "jewelery", "men's clothing", "women's clothing"));
+
+    private static final String[][] NOUNS = {
+            {"SSD", "Monitor", "Hard Drive", "USB Stick", "Headphones", "Keyboard"},
+            {"Bracelet", "Ring", "Necklace", "Earrings", "Pendant", "Brooch"},
+            {"Backpack", "Jacket", "T-Shirt", "Slim Fit Shirt", "Sweater", "Jeans"},
+            {"Rain Jacket", "Dress", "Blouse", "Moto Jacket", "Short Sleeve Top", "Skirt"}
+    };
+    private static final String[] ADJECTIVES = {"Classic", "Premium", "Casual", "Ultra", "Slim", "Vintage", "Essential"};
+
+    private final int size;
+    private final long seed;
+
+    public ProductCatalog(int size) {
+        this(size, 42L);
+    }
+
+    public ProductCatalog(int size, long seed) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Catalog size must not be negative: " + size);
+        }
+        this.size = size;
+        this.seed = seed;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long seed() {
+        return seed;
+    }
+
+    public boolean contains(int id) {
+        return id >= 1 && id <= size;
+    }
+
+    public static String categoryOf(int id) {
+        return CATEGORIES.get((id - 1) % CATEGORIES.size());
+    }
+
+    public Product get(int id) {
+        if (!contains(id)) {
+            return null;
+        }
+        Product product = new Product();
+        product.setRating(new Product.Rating());
+        fill(product, id);
+        return product;
+    }
+
+    // Overwrites every field of target; lets streaming callers reuse one instance per response
+    public void fill(Product target, int id) {
+        SplittableRandom random = new SplittableRandom(seed * 31 + id);
+        int categoryIndex = (id - 1) % CATEGORIES.size();
+        String noun = NOUNS[categoryIndex][random.nextInt(NOUNS[categoryIndex].length)];
+        String adjective = ADJECTIVES[random.nextInt(ADJECTIVES.length)];
+
+        target.setId(id);
+        target.setTitle(adjective + " " + noun + " #" + id);
+        target.setPrice(Math.round(random.nextDouble(1.0, 1000.0) * 100) / 100.0);
+        target.setDescription("Generated " + noun.toLowerCase() + " for the local Fake Store stub");
+        target.setCategory(CATEGORIES.get(categoryIndex));
+        target.setImage("https://fakestoreapi.com/img/" + id + ".jpg");
+
+        Product.Rating rating = target.getRating();
+        if (rating == null) {
+            rating = new Product.Rating();
+            target.setRating(rating);
+        }
+        rating.setRate(Math.round(random.nextDouble(0.0, 5.0) * 10) / 10.0);
+        rating.setCount(random.nextInt(1000));
+    }
+}
@@ -0,0 +1,94 @@
+package qa.fakestore.stub;
+
+import qa.fakestore.models.User;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Fixed users and carts served by the stub, shaped like the public Fake Store API
+final class StubData {
+
+    static final List<User> USERS = buildUsers();
+    static final List<Cart> CARTS = buildCarts();
+
+    private StubData() {
+    }
+
+    static User findUser(String username, String password) {
+        for (User user : USERS) {
+            if (user.getUsername().equals(username) && user.getPassword().equals(password)) {
+                return user;
+            }
+        }
+        return null;
+    }
+
+    static final class Cart {
+        final int id;
+        final int userId;
+        final String date;
+        final int[][] products; // {productId, quantity}
+
+        Cart(int id, int userId, String date, int[][] products) {
+            this.id = id;
+            this.userId = userId;
+            this.date = date;
+            this.products = products;
+        }
+    }
+
+    private static List<User> buildUsers() {
+        String[][] rows = {
+                {"johnd", "m38rmF$", "john", "doe", "kilcoole"},
+                {"mor_2314", "83r5^_", "david", "morrison", "kilcoole"},
+                {"kevinryan", "kev02937@", "kevin", "ryan", "Cullman"},
+                {"donero", "ewedon", "don", "romer", "San Antonio"},
+                {"derek", "jklg*_56", "derek", "powell", "san Antonio"},
+                {"david_r", "3478*#54", "david", "russell", "el paso"},
+                {"snyder", "f238&@*$", "miriam", "snyder", "fresno"},
+                {"hopkins", "William56$hj", "william", "hopkins", "mesa"},
+                {"kate_h", "kfejk@*_", "kate", "hale", "miami"},
+                {"jimmie_k", "klein*#%*", "jimmie", "klein", "fort wayne"}
+        };
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < rows.length; i++) {
+            String[] row = rows[i];
+            User user = new User(row[2] + "@gmail.com", row[0], row[1]);
+            user.setId(i + 1);
+            user.setPhone("1-570-236-" + (7000 + i * 37));
+
+            User.Name name = new User.Name();
+            name.setFirstname(row[2]);
+            name.setLastname(row[3]);
+            user.setName(name);
+
+            User.Address.Geolocation geolocation = new User.Address.Geolocation();
+            geolocation.setLat(String.valueOf(-37.3159 + i));
+            geolocation.setLng(String.valueOf(81.1496 - i));
+
+            User.Address address = new User.Address();
+            address.setCity(row[4]);
+            address.setStreet("new road");
+            address.setNumber(7682 + i);
+            address.setZipcode("12926-" + (3874 + i));
+            address.setGeolocation(geolocation);
+            user.setAddress(address);
+
+            users.add(user);
+        }
+        return Collections.unmodifiableList(users);
+    }
+
+    private static List<Cart> buildCarts() {
+        List<Cart> carts = new ArrayList<>();
+        carts.add(new Cart(1, 1, "2020-03-02T00:00:00.000Z", new int[][]{{1, 4}, {2, 1}, {3, 6}}));
+        carts.add(new Cart(2, 1, "2020-01-02T00:00:00.000Z", new int[][]{{2, 4}, {1, 10}, {5, 2}}));
+        carts.add(new Cart(3, 2, "2020-03-01T00:00:00.000Z", new int[][]{{1, 2}, {9, 1}}));
+        carts.add(new Cart(4, 3, "2020-01-01T00:00:00.000Z", new int[][]{{1, 4}}));
+        carts.add(new Cart(5, 3, "2020-03-01T00:00:00.000Z", new int[][]{{7, 1}, {8, 1}}));
+        carts.add(new Cart(6, 4, "2020-03-01T00:00:00.000Z", new int[][]{{10, 2}, {12, 3}}));
+        carts.add(new Cart(7, 8, "2020-03-01T00:00:00.000Z", new int[][]{{18, 1}}));
+        return Collections.unmodifiableList(carts);
+    }
+}
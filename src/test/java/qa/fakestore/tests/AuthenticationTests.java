@@ -1,11 +1,28 @@
 package qa.fakestore.tests;
 
 import qa.fakestore.base.BaseTest;
+import qa.fakestore.base.TestEnvironment;
+import qa.fakestore.client.ApiTransport;
+import qa.fakestore.client.AuthClient;
+import qa.fakestore.client.UserClient;
+import qa.fakestore.http.AuthTokenProvider;
+import qa.fakestore.models.User;
+import qa.fakestore.payload.PayloadFactory;
+import qa.fakestore.payload.PayloadGenerator;
 import io.qameta.allure.*;
+import io.restassured.response.Response;
 import org.json.JSONObject;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 @Epic("Fake Store API Testing")
 @Feature("Authentication")
 public class AuthenticationTests extends BaseTest {
@@ -16,12 +33,8 @@ public class AuthenticationTests extends BaseTest {
     @Severity(SeverityLevel.BLOCKER)
     public void testValidLogin() {
         try {
-            JSONObject loginData = new JSONObject();
-            loginData.put("username", "mor_2314");
-            loginData.put("password", "83r5^_");
-
-            response = request
-                    .body(loginData.toString())
+            Response response = request()
+                    .body(PayloadFactory.login("mor_2314", "83r5^_").toByteArray())
                     .when()
                     .post("/auth/login");
 
@@ -29,20 +42,19 @@ public class AuthenticationTests extends BaseTest {
             Assert.assertEquals(response.getStatusCode(), 200, "Status code should be 200");
 
             String responseBody = response.getBody().asString();
-            System.out.println("Response: " + responseBody);
+            log.debug("Response: {}", responseBody);
 
             // Token kontrolü - eğer null değilse
             if (!responseBody.equals("null")) {
-                JSONObject responseJson = new JSONObject(responseBody);
-                Assert.assertTrue(responseJson.has("token"), "Response should contain token");
-                String token = responseJson.getString("token");
-                System.out.println("✅ Login successful. Token received: " + token.substring(0, Math.min(10, token.length())) + "...");
+                assertMatchesSchema(response, "login");
+                String token = new JSONObject(responseBody).getString("token");
+                log.info("✅ Login successful. Token received: {}...", token.substring(0, Math.min(10, token.length())));
             } else {
-                System.out.println("⚠️ Login returned null - API behavior may have changed");
+                log.warn("⚠️ Login returned null - API behavior may have changed");
             }
 
         } catch (Exception e) {
-            System.out.println("❌ Test failed: " + e.getMessage());
+            log.error("❌ Test failed: {}", e.getMessage());
             throw e;
         }
     }
@@ -53,27 +65,23 @@ public class AuthenticationTests extends BaseTest {
     @Severity(SeverityLevel.CRITICAL)
     public void testInvalidLogin() {
         try {
-            JSONObject loginData = new JSONObject();
-            loginData.put("username", "invalid_user");
-            loginData.put("password", "wrong_password");
-
-            response = request
-                    .body(loginData.toString())
+            Response response = request()
+                    .body(PayloadFactory.login("invalid_user", "wrong_password").toByteArray())
                     .when()
                     .post("/auth/login");
 
             Assert.assertEquals(response.getStatusCode(), 200, "Status code should be 200");
 
             String responseBody = response.getBody().asString();
-            System.out.println("Invalid login response: " + responseBody);
+            log.debug("Invalid login response: {}", responseBody);
 
             // API null döndürüyor invalid credentials için
             Assert.assertEquals(responseBody, "null", "Response should be null for invalid credentials");
 
-            System.out.println("✅ Invalid login test completed");
+            log.info("✅ Invalid login test completed");
 
         } catch (Exception e) {
-            System.out.println("❌ Test failed: " + e.getMessage());
+            log.error("❌ Test failed: {}", e.getMessage());
             throw e;
         }
     }
@@ -84,25 +92,109 @@ public class AuthenticationTests extends BaseTest {
     @Severity(SeverityLevel.NORMAL)
     public void testEmptyCredentials() {
         try {
-            JSONObject loginData = new JSONObject();
-            loginData.put("username", "");
-            loginData.put("password", "");
-
-            response = request
-                    .body(loginData.toString())
+            Response response = request()
+                    .body(PayloadFactory.login("", "").toByteArray())
                     .when()
                     .post("/auth/login");
 
             Assert.assertEquals(response.getStatusCode(), 200, "Status code should be 200");
 
             String responseBody = response.getBody().asString();
-            System.out.println("Empty credentials response: " + responseBody);
+            log.debug("Empty credentials response: {}", responseBody);
 
-            System.out.println("✅ Empty credentials test completed");
+            log.info("✅ Empty credentials test completed");
 
         } catch (Exception e) {
-            System.out.println("❌ Test failed: " + e.getMessage());
+            log.error("❌ Test failed: {}", e.getMessage());
             throw e;
         }
     }
-}
\ No newline at end of file
+
+    @Test(priority = 4)
+    @Story("Shared Auth Token")
+    @Description("Verify that concurrent callers share one login and one cached token")
+    @Severity(SeverityLevel.NORMAL)
+    public void testTokenProviderSharesLogin() throws Exception {
+        int callers = 32;
+        // Private provider so the login count is not disturbed by other tests using the shared one
+        AuthTokenProvider provider = new AuthTokenProvider((username, password) -> {
+            Response response = request()
+                    .body(PayloadFactory.login(username, password).toByteArray())
+                    .when()
+                    .post("/auth/login");
+            String body = response.getBody().asString();
+            return body.equals("null") ? null : new JSONObject(body).getString("token");
+        }, Duration.ofSeconds(60), Duration.ofHours(1));
+
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<AuthTokenProvider.AuthToken>> tokens = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                tokens.add(pool.submit(() -> {
+                    start.await();
+                    return provider.token("mor_2314", "83r5^_");
+                }));
+            }
+            start.countDown();
+
+            String first = tokens.get(0).get().value();
+            for (Future<AuthTokenProvider.AuthToken> token : tokens) {
+                Assert.assertEquals(token.get().value(), first, "Every caller should receive the same token");
+            }
+            Assert.assertEquals(provider.logins(), 1, "Concurrent callers should trigger a single login");
+            Assert.assertFalse(tokens.get(0).get().isExpired(), "Fresh token should not be expired");
+
+            log.info("✅ {} callers shared one token, expires at {} - {}", callers, tokens.get(0).get().expiresAt(), provider);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test(priority = 5)
+    @Story("Valid User Login")
+    @Description("Verify login and user lookup through the typed clients")
+    @Severity(SeverityLevel.NORMAL)
+    public void testTypedAuthClientLogin() {
+        // -Dfakestore.transport=jdk runs this over the JDK HttpClient instead of RestAssured
+        ApiTransport transport = ApiTransport.fromProperty(baseURL);
+        AuthClient auth = new AuthClient(transport);
+
+        String token = auth.login("johnd", "m38rmF$");
+        Assert.assertNotNull(token, "Valid credentials should return a token");
+        Assert.assertNull(auth.login("johnd", "wrong-password"), "Invalid credentials should not return a token");
+
+        User user = new UserClient(transport, "Bearer " + token).get(1);
+        Assert.assertEquals(user.getUsername(), "johnd", "User 1 should be johnd");
+
+        log.info("✅ Typed login over {} transport for {}", transport.name(), user.getEmail());
+    }
+
+    @Test(priority = 6)
+    @Story("User Registration")
+    @Description("Verify that a randomized user with nested name and address can be registered")
+    @Severity(SeverityLevel.NORMAL)
+    public void testRegisterGeneratedUser() {
+        PayloadGenerator payloads = PayloadGenerator.shared();
+        long index = payloads.nextIndex();
+        User expected = payloads.userModel(index);
+
+        Response response = request()
+                .body(payloads.user(index).toByteArray())
+                .when()
+                .post("/users");
+
+        Assert.assertEquals(response.getStatusCode(), 200, "Status code should be 200");
+        User created = response.as(User.class);
+        Assert.assertTrue(created.getId() > 0, "Registered user should have an ID");
+        if (TestEnvironment.isLocal()) {
+            // The public API only echoes the new id; the stub echoes the whole body
+            assertMatchesSchema(response, "user");
+            Assert.assertEquals(created.getUsername(), expected.getUsername(), "Username should be echoed back");
+            Assert.assertEquals(created.getAddress().getGeolocation().getLat(),
+                    expected.getAddress().getGeolocation().getLat(), "Nested geolocation should be echoed back");
+        }
+
+        log.info("✅ Registered user {} from payload #{}", expected.getUsername(), index);
+    }
+}
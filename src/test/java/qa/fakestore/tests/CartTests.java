@@ -1,8 +1,12 @@
 package qa.fakestore.tests;
 
 import qa.fakestore.base.BaseTest;
+import qa.fakestore.http.ResponseCache;
+import qa.fakestore.models.Cart;
+import qa.fakestore.payload.PayloadGenerator;
+import qa.fakestore.validation.ValidationResult;
 import io.qameta.allure.*;
-import org.json.JSONArray;
+import io.restassured.response.Response;
 import org.json.JSONObject;
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -16,21 +20,14 @@ public class CartTests extends BaseTest {
     @Description("Verify that all carts can be retrieved")
     @Severity(SeverityLevel.NORMAL)
     public void testGetAllCarts() {
-        response = request.when().get("/carts");
+        Response response = request().filter(ResponseCache.shared()).when().get("/carts");
 
         validateSuccessResponse(response);
 
-        JSONArray carts = new JSONArray(response.getBody().asString());
-        Assert.assertTrue(carts.length() > 0, "Carts list should not be empty");
+        // Every cart and cart line, not just the first: ids, user, date and positive quantities
+        ValidationResult validation = assertMatchesSchema(response, "carts");
 
-        // Validate cart structure
-        JSONObject firstCart = carts.getJSONObject(0);
-        Assert.assertTrue(firstCart.has("id"), "Cart should have id");
-        Assert.assertTrue(firstCart.has("userId"), "Cart should have userId");
-        Assert.assertTrue(firstCart.has("date"), "Cart should have date");
-        Assert.assertTrue(firstCart.has("products"), "Cart should have products");
-
-        System.out.println("✅ Retrieved " + carts.length() + " carts successfully");
+        log.info("✅ Retrieved {} carts successfully", validation.items());
     }
 
     @Test(priority = 2)
@@ -38,33 +35,25 @@ public class CartTests extends BaseTest {
     @Description("Verify that a new cart can be created")
     @Severity(SeverityLevel.NORMAL)
     public void testAddNewCart() {
-        JSONObject cartData = new JSONObject();
-        cartData.put("userId", 5);
-        cartData.put("date", "2024-01-01");
-
-        JSONArray products = new JSONArray();
-        JSONObject product1 = new JSONObject();
-        product1.put("productId", 5);
-        product1.put("quantity", 1);
-        products.put(product1);
-
-        JSONObject product2 = new JSONObject();
-        product2.put("productId", 1);
-        product2.put("quantity", 5);
-        products.put(product2);
-
-        cartData.put("products", products);
+        PayloadGenerator payloads = PayloadGenerator.shared();
+        long index = payloads.nextIndex();
+        Cart cart = payloads.cartModel(index);
 
-        response = request
-                .body(cartData.toString())
+        Response response = authenticatedRequest("johnd", "m38rmF$")
+                .body(payloads.cart(index).toByteArray())
                 .when()
                 .post("/carts");
 
         validateSuccessResponse(response);
 
+        assertMatchesSchema(response, "cart");
         JSONObject createdCart = new JSONObject(response.getBody().asString());
-        Assert.assertTrue(createdCart.has("id"), "Created cart should have an ID");
+        Assert.assertEquals(createdCart.getInt("userId"), cart.getUserId(), "User ID should be echoed back");
+        Assert.assertEquals(createdCart.getString("date"), cart.getDate(), "Date should be echoed back");
+        Assert.assertEquals(createdCart.getJSONArray("products").length(), cart.getProducts().size(),
+                "Every cart line should be echoed back");
 
-        System.out.println("✅ Cart created with ID: " + createdCart.getInt("id"));
+        log.info("✅ Cart created with ID: {} from payload #{} ({} lines)", createdCart.getInt("id"), index,
+                cart.getProducts().size());
     }
 }
\ No newline at end of file
@@ -0,0 +1,103 @@
+package qa.fakestore.tests;
+
+import qa.fakestore.base.BaseTest;
+import qa.fakestore.client.ApiResponse;
+import qa.fakestore.client.ApiTransport;
+import qa.fakestore.client.JdkHttpTransport;
+import qa.fakestore.stub.CassetteRecorder;
+import qa.fakestore.stub.CassetteServer;
+import qa.fakestore.stub.FakeStoreStub;
+import qa.fakestore.stub.FaultInjector;
+import qa.fakestore.stub.ProductCatalog;
+import io.qameta.allure.*;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+// Records against a private stub into a temporary cassette and replays it, whatever fakestore.server says
+@Epic("Fake Store API Testing")
+@Feature("Record and Replay")
+public class CassetteTests extends BaseTest {
+
+    private static final String[] PATHS = {"/products", "/products/1", "/products/categories", "/carts/2"};
+    private static final byte[] CART = "{\"userId\":3,\"date\":\"2020-02-03\",\"products\":[{\"productId\":5,\"quantity\":1}]}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Test(priority = 1)
+    @Story("Replay")
+    @Description("A replay serves the recorded statuses and bodies byte for byte, and reports requests it never saw")
+    @Severity(SeverityLevel.CRITICAL)
+    public void testReplayServesRecordedResponses() throws IOException {
+        Path cassette = Files.createTempDirectory("cassette").resolve("replay.cassette");
+        ApiResponse[] recorded = new ApiResponse[PATHS.length + 1];
+        try (FakeStoreStub stub = FakeStoreStub.start(0, new ProductCatalog(20));
+             CassetteRecorder recorder = CassetteRecorder.start(0, stub.baseUrl(), cassette, Duration.ofSeconds(5))) {
+            ApiTransport client = new JdkHttpTransport(recorder.baseUrl(), Duration.ofSeconds(5));
+            for (int i = 0; i < PATHS.length; i++) {
+                recorded[i] = client.get(PATHS[i]);
+            }
+            recorded[PATHS.length] = client.send("POST", "/carts", CART, null);
+        }
+
+        try (CassetteServer replay = CassetteServer.start(0, cassette, CassetteServer.Timing.FAST, 1.0)) {
+            ApiTransport client = new JdkHttpTransport(replay.baseUrl(), Duration.ofSeconds(5));
+            for (int i = 0; i < PATHS.length; i++) {
+                assertSame(client.get(PATHS[i]), recorded[i], PATHS[i]);
+            }
+            assertSame(client.send("POST", "/carts", CART, null), recorded[PATHS.length], "POST /carts");
+            Assert.assertEquals(client.get("/users/1").statusCode(), 404, "Unrecorded requests should not be invented");
+
+            log.info("📼 {}", replay.summary());
+            Assert.assertEquals(replay.cassette().interactions().size(), PATHS.length + 1);
+            Assert.assertEquals(replay.misses(), 1L, "Only the unrecorded request should miss");
+        }
+    }
+
+    @Test(priority = 2, groups = FIXED_DURATION)
+    @Story("Replay Timing")
+    @Description("Recorded timing reproduces the upstream latency; fast timing answers without it")
+    @Severity(SeverityLevel.NORMAL)
+    public void testRecordedTimingReproducesLatency() throws IOException {
+        long latencyMillis = 150;
+        Path cassette = Files.createTempDirectory("cassette").resolve("timing.cassette");
+        try (FakeStoreStub stub = FakeStoreStub.start(0, new ProductCatalog(20))
+                .faults(FaultInjector.parse("GET /products/{id} latency=fixed:" + latencyMillis, 7L));
+             CassetteRecorder recorder = CassetteRecorder.start(0, stub.baseUrl(), cassette, Duration.ofSeconds(5))) {
+            ApiTransport client = new JdkHttpTransport(recorder.baseUrl(), Duration.ofSeconds(5));
+            for (int id = 1; id <= 5; id++) {
+                Assert.assertTrue(client.get("/products/" + id).isSuccess());
+            }
+        }
+
+        long recordedMillis = replayMillis(cassette, CassetteServer.Timing.RECORDED);
+        long fastMillis = replayMillis(cassette, CassetteServer.Timing.FAST);
+        log.info("⏱️ Five slow calls replayed in {}ms with recorded timing, {}ms fast", recordedMillis, fastMillis);
+        Assert.assertTrue(recordedMillis >= 5 * latencyMillis,
+                "Recorded timing should wait the recorded latency, took " + recordedMillis + "ms");
+        Assert.assertTrue(fastMillis < recordedMillis / 2,
+                "Fast timing should not wait. Fast: " + fastMillis + "ms, recorded: " + recordedMillis + "ms");
+    }
+
+    private static long replayMillis(Path cassette, CassetteServer.Timing timing) throws IOException {
+        try (CassetteServer replay = CassetteServer.start(0, cassette, timing, 1.0)) {
+            ApiTransport client = new JdkHttpTransport(replay.baseUrl(), Duration.ofSeconds(5));
+            long start = System.nanoTime();
+            for (int id = 1; id <= 5; id++) {
+                Assert.assertTrue(client.get("/products/" + id).isSuccess());
+            }
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        }
+    }
+
+    private static void assertSame(ApiResponse replayed, ApiResponse recorded, String request) {
+        Assert.assertEquals(replayed.statusCode(), recorded.statusCode(), "Status of " + request);
+        Assert.assertTrue(Arrays.equals(replayed.body(), recorded.body()), "Body of " + request + " should be replayed as recorded");
+    }
+}
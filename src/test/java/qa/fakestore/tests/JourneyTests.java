@@ -0,0 +1,115 @@
+package qa.fakestore.tests;
+
+import qa.fakestore.base.BaseTest;
+import qa.fakestore.client.ApiTransport;
+import qa.fakestore.client.AuthClient;
+import qa.fakestore.client.CartClient;
+import qa.fakestore.client.ProductClient;
+import qa.fakestore.models.Cart;
+import qa.fakestore.models.Product;
+import qa.fakestore.perf.EndpointStats;
+import qa.fakestore.perf.Journey;
+import qa.fakestore.perf.JourneyReport;
+import qa.fakestore.perf.JourneyRunner;
+import qa.fakestore.perf.Shard;
+import qa.fakestore.perf.ShardedLoad;
+import qa.fakestore.perf.ThinkTime;
+import qa.fakestore.util.Threads;
+import io.qameta.allure.*;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Epic("Fake Store API Testing")
+@Feature("User Journeys")
+public class JourneyTests extends BaseTest {
+
+    // username, password; the user id is the row number
+    private static final String[][] SHOPPERS = {
+            {"johnd", "m38rmF$"},
+            {"mor_2314", "83r5^_"},
+            {"kevinryan", "kev02937@"},
+            {"donero", "ewedon"},
+            {"derek", "jklg*_56"}
+    };
+
+    @Test(priority = 1, groups = FIXED_DURATION)
+    @Story("Shopper Journey")
+    @Description("Virtual users log in, browse a category, view a product and check out a cart built from what they saw")
+    @Severity(SeverityLevel.CRITICAL)
+    @ShardedLoad
+    public void testShopperJourney() throws InterruptedException {
+        // In a sharded run each worker JVM drives its own range of the users
+        Shard shard = Shard.current();
+        int totalUsers = Integer.getInteger("fakestore.journey.users", 20);
+        int virtualUsers = shard.share(totalUsers);
+        if (virtualUsers == 0) {
+            throw new SkipException("No shopper left for " + shard);
+        }
+        long iterations = Long.getLong("fakestore.journey.iterations", 2L);
+
+        ApiTransport transport = ApiTransport.create(System.getProperty("fakestore.load.transport", "jdk"), baseURL);
+        AuthClient auth = new AuthClient(transport);
+        ProductClient products = new ProductClient(transport);
+
+        // Think times are scaled by -Dfakestore.journey.thinkScale; 0 turns them off
+        Journey shopper = Journey.named("shopper")
+                .step("login", session -> {
+                    int row = session.user() % SHOPPERS.length;
+                    String token = auth.login(SHOPPERS[row][0], SHOPPERS[row][1]);
+                    Assert.assertNotNull(token, "Login should return a token for " + SHOPPERS[row][0]);
+                    session.put("token", token).put("userId", row + 1);
+                })
+                .think(ThinkTime.uniform(Duration.ofMillis(20), Duration.ofMillis(80)))
+                .step("browse categories", session ->
+                        session.put("category", session.pick(products.categories())))
+                .think(ThinkTime.exponential(Duration.ofMillis(50)))
+                .step("browse category", session -> {
+                    List<Product> listed = products.byCategory(session.get("category", String.class));
+                    session.put("productId", session.pick(listed).getId());
+                })
+                .think(ThinkTime.logNormal(Duration.ofMillis(60), 0.5))
+                .step("view product", session -> {
+                    Product product = products.get(session.get("productId", Integer.class));
+                    Assert.assertEquals(product.getCategory(), session.get("category", String.class),
+                            "Viewed product should belong to the browsed category");
+                })
+                .think(ThinkTime.uniform(Duration.ofMillis(20), Duration.ofMillis(80)))
+                .step("add to cart", session -> {
+                    List<Cart.CartProduct> lines = new ArrayList<>();
+                    lines.add(new Cart.CartProduct(session.get("productId", Integer.class), 1 + session.random().nextInt(3)));
+                    Cart cart = new Cart(session.get("userId", Integer.class), LocalDate.now().toString(), lines);
+                    CartClient carts = new CartClient(transport, "Bearer " + session.get("token", String.class));
+                    Cart created = carts.create(cart);
+                    Assert.assertEquals(created.getUserId(), cart.getUserId(), "Cart should belong to the logged-in user");
+                    Assert.assertEquals(created.getProducts().get(0).getProductId(), lines.get(0).getProductId(),
+                            "Cart should hold the viewed product");
+                });
+
+        JourneyRunner runner = JourneyRunner.users(virtualUsers)
+                .firstUser(shard.rangeStart(totalUsers))
+                .rampUp(Duration.ofMillis(Long.getLong("fakestore.journey.rampUpMillis", 500L)))
+                .duration(Duration.ofSeconds(Long.getLong("fakestore.journey.seconds", 60L)))
+                .iterations(iterations);
+        JourneyReport report = runner.run(shopper);
+
+        log.info("🧭 Journey '{}' with {} users on {} threads, seed {}", shopper.name(), virtualUsers,
+                Threads.virtualThreadsAvailable() ? "virtual" : "platform", runner.seed());
+        log.info("{}", report.summary().stripTrailing());
+        attach("Journey report", report.summary());
+
+        Assert.assertEquals(report.failed(), 0L, "Every journey should complete. " + report.sampleFailures());
+        for (EndpointStats step : report.steps().values()) {
+            Assert.assertEquals(step.count(), virtualUsers * iterations,
+                    "Every user should run step '" + step.name() + "' once per journey");
+        }
+
+        log.info("✅ {} journeys completed, p99 per journey: {}ms (think time excluded)", report.completed(),
+                report.journeys().percentileMillis(99));
+    }
+}
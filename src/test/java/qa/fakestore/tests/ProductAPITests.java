@@ -1,14 +1,47 @@
 package qa.fakestore.tests;
 
 import qa.fakestore.base.BaseTest;
+import qa.fakestore.base.TestEnvironment;
+import qa.fakestore.client.ApiResponse;
+import qa.fakestore.client.ApiTransport;
+import qa.fakestore.client.ProductClient;
+import qa.fakestore.http.AsyncProductClient;
+import qa.fakestore.http.HttpTransport;
+import qa.fakestore.http.ResponseCache;
+import qa.fakestore.http.TransportStats;
 import qa.fakestore.models.Product;
+import qa.fakestore.payload.PayloadFactory;
+import qa.fakestore.payload.PayloadGenerator;
+import qa.fakestore.perf.CapacityFinder;
+import qa.fakestore.perf.CapacityReport;
+import qa.fakestore.perf.EndpointStats;
+import qa.fakestore.perf.LatencyBudget;
+import qa.fakestore.perf.LoadGenerator;
+import qa.fakestore.perf.LoadReport;
+import qa.fakestore.perf.LoadRequest;
+import qa.fakestore.perf.RequestTiming;
+import qa.fakestore.perf.Shard;
+import qa.fakestore.perf.ShardedLoad;
+import qa.fakestore.validation.JsonSchema;
+import qa.fakestore.validation.JsonSchemas;
+import qa.fakestore.validation.ValidationResult;
 import io.qameta.allure.*;
 import io.restassured.response.Response;
 import org.testng.Assert;
+import org.testng.SkipException;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
+import java.io.IOException;
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 @Epic("Fake Store API Testing")
 @Feature("Product Management")
@@ -18,28 +51,25 @@ public class ProductAPITests extends BaseTest {
     @Story("Get All Products")
     @Description("Verify that all products can be retrieved successfully")
     @Severity(SeverityLevel.CRITICAL)
-    public void testGetAllProducts() {
-        response = request.when().get("/products");
+    @LatencyBudget(p50 = 1500, p99 = 3000, samples = 30, warmup = 5)
+    public void testGetAllProducts() throws IOException {
+        Response response = request().when().get("/products");
 
         validateSuccessResponse(response);
 
-        // Validate response structure
-        Product[] products = response.as(Product[].class);
-        Assert.assertTrue(products.length > 0, "Products list should not be empty");
-
-        // Validate first product structure
-        Product firstProduct = products[0];
-        Assert.assertNotNull(firstProduct.getTitle(), "Product title should not be null");
-        Assert.assertTrue(firstProduct.getPrice() > 0, "Product price should be positive");
-        Assert.assertNotNull(firstProduct.getCategory(), "Product category should not be null");
+        // Validate response structure without materializing the whole catalog
+        ValidationResult validation = JsonSchemas.get("products").validate(response.asInputStream());
+        Assert.assertTrue(validation.items() > 0, "Products list should not be empty");
+        Assert.assertTrue(validation.isValid(), validation.summary());
 
-        // Performance validation
         long responseTime = measureResponseTime(response);
-        Assert.assertTrue(responseTime < 3000,
-                "Response time should be less than 3 seconds. Actual: " + responseTime + "ms");
-
-        System.out.println("✅ Retrieved " + products.length + " products successfully");
-        System.out.println("🕐 Response time: " + responseTime + "ms");
+        log.info("✅ Retrieved {} products successfully", validation.items());
+        log.info("🕐 Response time: {}ms", responseTime);
+        RequestTiming phases = measureRequestPhases(response);
+        // Runs 35 times under the budget; the multi-line breakdown is only built when DEBUG is on
+        if (phases != null && log.isDebugEnabled()) {
+            log.debug("Request phases:\n{}", phases.describe().stripTrailing());
+        }
     }
 
     @Test(priority = 2)
@@ -48,19 +78,62 @@ public class ProductAPITests extends BaseTest {
     @Severity(SeverityLevel.CRITICAL)
     public void testGetSingleProduct() {
         int productId = 1;
-        response = request.when().get("/products/" + productId);
+        Response response = request().filter(ResponseCache.shared()).when().get("/products/" + productId);
 
         validateSuccessResponse(response);
 
+        // Title, positive price, category and a 0-5 rating are all in the product schema
+        assertMatchesSchema(response, "product");
         Product product = response.as(Product.class);
         Assert.assertEquals(product.getId(), productId, "Product ID should match requested ID");
-        Assert.assertNotNull(product.getTitle(), "Product title should not be null");
-        Assert.assertTrue(product.getPrice() > 0, "Product price should be positive");
-        Assert.assertNotNull(product.getRating(), "Product rating should not be null");
-        Assert.assertTrue(product.getRating().getRate() >= 0 && product.getRating().getRate() <= 5,
-                "Rating should be between 0 and 5");
 
-        System.out.println("✅ Product retrieved: " + product.getTitle());
+        log.info("✅ Product retrieved: {}", product.getTitle());
+    }
+
+    @Test(priority = 2)
+    @Story("Get Single Product")
+    @Description("Verify that many products can be fetched concurrently by ID")
+    @Severity(SeverityLevel.NORMAL)
+    public void testBulkProductFetch() throws Exception {
+        int[] ids = new int[21];
+        for (int i = 0; i < 20; i++) {
+            ids[i] = i + 1;
+        }
+        ids[20] = 999;
+
+        AsyncProductClient client = new AsyncProductClient(baseURL, 8, Duration.ofSeconds(10));
+        Set<Integer> received = ConcurrentHashMap.newKeySet();
+        AsyncProductClient.FanOutResult result = client.fetchAll(ids, product -> {
+            Assert.assertTrue(product.getPrice() > 0, "Product price should be positive");
+            received.add(product.getId());
+        }).get(60, TimeUnit.SECONDS);
+
+        Assert.assertEquals(result.succeeded(), 20, "All existing products should be fetched: " + result.failures());
+        Assert.assertEquals(received.size(), 20, "Every product should arrive exactly once");
+        Assert.assertEquals(result.failures().keySet(), Set.of(999), "Only the non-existent ID should fail");
+        Assert.assertTrue(result.failures().get(999) instanceof NoSuchElementException,
+                "Non-existent product should fail as not found");
+
+        log.info("✅ Bulk fetch: {}", result);
+    }
+
+    @Test(priority = 2)
+    @Story("Get Single Product")
+    @Description("Verify that the typed product client returns the same data on both transports")
+    @Severity(SeverityLevel.NORMAL)
+    public void testTypedClientTransportsAgree() {
+        ProductClient restAssured = new ProductClient(ApiTransport.create("restassured", baseURL));
+        ProductClient jdk = new ProductClient(ApiTransport.create("jdk", baseURL));
+
+        Product viaRestAssured = restAssured.get(1);
+        Product viaJdk = jdk.get(1);
+        Assert.assertEquals(viaJdk.getId(), 1, "Product ID should match requested ID");
+        Assert.assertEquals(viaJdk.getTitle(), viaRestAssured.getTitle(), "Title should not depend on the transport");
+        Assert.assertEquals(viaJdk.getPrice(), viaRestAssured.getPrice(), "Price should not depend on the transport");
+        Assert.assertEquals(jdk.categories(), restAssured.categories(), "Categories should not depend on the transport");
+        Assert.assertThrows(NoSuchElementException.class, () -> jdk.get(999));
+
+        log.info("✅ Typed clients agree on product 1: {}", viaJdk.getTitle());
     }
 
     @Test(priority = 3)
@@ -68,7 +141,7 @@ public class ProductAPITests extends BaseTest {
     @Description("Verify that all product categories can be retrieved")
     @Severity(SeverityLevel.NORMAL)
     public void testGetCategories() {
-        response = request.when().get("/products/categories");
+        Response response = request().filter(ResponseCache.shared()).when().get("/products/categories");
 
         validateSuccessResponse(response);
 
@@ -81,7 +154,7 @@ public class ProductAPITests extends BaseTest {
                     "Category '" + category + "' should be in expected categories");
         }
 
-        System.out.println("✅ Retrieved categories: " + Arrays.toString(categories));
+        log.info("✅ Retrieved categories: {}", Arrays.asList(categories));
     }
 
     @Test(priority = 4, dataProvider = "categoryData")
@@ -89,7 +162,7 @@ public class ProductAPITests extends BaseTest {
     @Description("Verify that products can be filtered by category")
     @Severity(SeverityLevel.NORMAL)
     public void testGetProductsByCategory(String category) {
-        response = request.when().get("/products/category/" + category);
+        Response response = request().filter(ResponseCache.shared()).when().get("/products/category/" + category);
 
         validateSuccessResponse(response);
 
@@ -102,7 +175,7 @@ public class ProductAPITests extends BaseTest {
                     "All products should belong to category: " + category);
         }
 
-        System.out.println("✅ Found " + products.length + " products in category: " + category);
+        log.info("✅ Found {} products in category: {}", products.length, category);
     }
 
     @Test(priority = 5)
@@ -110,16 +183,13 @@ public class ProductAPITests extends BaseTest {
     @Description("Verify that a new product can be added successfully")
     @Severity(SeverityLevel.CRITICAL)
     public void testAddNewProduct() {
-        Product newProduct = new Product(
-                "QA Test Product",
-                29.99,
-                "This is a test product created by QA automation",
-                "electronics",
-                "https://i.pravatar.cc/300"
-        );
-
-        response = request
-                .body(newProduct)
+        // A fresh randomized body per run; rebuild it from the logged seed and index
+        PayloadGenerator payloads = PayloadGenerator.shared();
+        long index = payloads.nextIndex();
+        Product newProduct = payloads.productModel(index);
+
+        Response response = request()
+                .body(payloads.product(index).toByteArray())
                 .when()
                 .post("/products");
 
@@ -130,7 +200,7 @@ public class ProductAPITests extends BaseTest {
         Assert.assertEquals(createdProduct.getTitle(), newProduct.getTitle(), "Title should match");
         Assert.assertEquals(createdProduct.getPrice(), newProduct.getPrice(), 0.01, "Price should match");
 
-        System.out.println("✅ Product created with ID: " + createdProduct.getId());
+        log.info("✅ Product created with ID: {} from payload #{}: {}", createdProduct.getId(), index, newProduct.getTitle());
     }
 
     @Test(priority = 6)
@@ -139,16 +209,12 @@ public class ProductAPITests extends BaseTest {
     @Severity(SeverityLevel.NORMAL)
     public void testUpdateProduct() {
         int productId = 1;
-        Product updatedProduct = new Product(
-                "Updated Test Product",
-                39.99,
-                "This product has been updated by QA automation",
-                "electronics",
-                "https://i.pravatar.cc/400"
-        );
-
-        response = request
-                .body(updatedProduct)
+        PayloadGenerator payloads = PayloadGenerator.shared();
+        long index = payloads.nextIndex();
+        Product updatedProduct = payloads.productModel(index);
+
+        Response response = request()
+                .body(payloads.product(index).toByteArray())
                 .when()
                 .put("/products/" + productId);
 
@@ -157,8 +223,9 @@ public class ProductAPITests extends BaseTest {
         Product resultProduct = response.as(Product.class);
         Assert.assertEquals(resultProduct.getId(), productId, "Product ID should remain the same");
         Assert.assertEquals(resultProduct.getTitle(), updatedProduct.getTitle(), "Title should be updated");
+        Assert.assertEquals(resultProduct.getCategory(), updatedProduct.getCategory(), "Category should be updated");
 
-        System.out.println("✅ Product updated: " + resultProduct.getTitle());
+        log.info("✅ Product updated: {}", resultProduct.getTitle());
     }
 
     @Test(priority = 7)
@@ -168,14 +235,14 @@ public class ProductAPITests extends BaseTest {
     public void testDeleteProduct() {
         int productId = 1;
 
-        response = request.when().delete("/products/" + productId);
+        Response response = request().when().delete("/products/" + productId);
 
         validateSuccessResponse(response);
 
         Product deletedProduct = response.as(Product.class);
         Assert.assertNotNull(deletedProduct, "Response should contain deleted product info");
 
-        System.out.println("✅ Product deleted: " + deletedProduct.getTitle());
+        log.info("✅ Product deleted: {}", deletedProduct.getTitle());
     }
 
     @Test(priority = 8)
@@ -185,72 +252,141 @@ public class ProductAPITests extends BaseTest {
     public void testGetNonExistentProduct() {
         int nonExistentId = 999;
 
-        response = request.when().get("/products/" + nonExistentId);
+        Response response = request().when().get("/products/" + nonExistentId);
 
         // Note: This API returns 200 with null, which is not ideal behavior
         Assert.assertEquals(response.getStatusCode(), 200, "Status code should be 200");
         String responseBody = response.getBody().asString();
         Assert.assertEquals(responseBody, "null", "Response should be null for non-existent product");
 
-        System.out.println("⚠️ Non-existent product test completed - API returns null instead of 404");
+        log.warn("⚠️ Non-existent product test completed - API returns null instead of 404");
     }
 
     @Test(priority = 9)
     @Story("Data Validation")
     @Description("Verify data integrity of all products")
     @Severity(SeverityLevel.NORMAL)
-    public void testProductDataIntegrity() {
-        response = request.when().get("/products");
-
-        Product[] products = response.as(Product[].class);
+    public void testProductDataIntegrity() throws IOException {
+        ValidationResult validation = validateStream("/products", "products");
 
-        for (Product product : products) {
-            // Validate required fields
-            Assert.assertNotNull(product.getTitle(), "Product title should not be null for ID: " + product.getId());
-            Assert.assertTrue(product.getPrice() > 0, "Product price should be positive for ID: " + product.getId());
-            Assert.assertNotNull(product.getCategory(), "Product category should not be null for ID: " + product.getId());
-
-            // Validate rating
-            if (product.getRating() != null) {
-                Assert.assertTrue(product.getRating().getRate() >= 0 && product.getRating().getRate() <= 5,
-                        "Rating should be between 0-5 for product ID: " + product.getId());
-                Assert.assertTrue(product.getRating().getCount() >= 0,
-                        "Rating count should be non-negative for product ID: " + product.getId());
-            }
-        }
+        attach("Product stream validation", validation.summary());
+        Assert.assertTrue(validation.isValid(), validation.summary());
 
-        System.out.println("✅ Data integrity validated for " + products.length + " products");
+        log.info("✅ Data integrity validated for {} products ({} items/s)", validation.items(),
+                Math.round(validation.itemsPerSecond()));
     }
 
     @Test(priority = 10)
     @Story("Performance Testing")
     @Description("Verify API performance under normal load")
     @Severity(SeverityLevel.NORMAL)
-    public void testAPIPerformance() {
-        long totalTime = 0;
-        int iterations = 5;
-
-        for (int i = 0; i < iterations; i++) {
-            long startTime = System.currentTimeMillis();
-            response = request.when().get("/products");
-            long endTime = System.currentTimeMillis();
+    // One load run is the sample; the generator's own latencies feed the budget
+    @LatencyBudget(p50 = 1500, p99 = 3000, samples = 1, warmup = 0)
+    @ShardedLoad
+    public void testAPIPerformance() throws InterruptedException {
+        // In a sharded run each worker JVM takes its share of the users and of the arrival rate
+        Shard shard = Shard.current();
+        int virtualUsers = shard.share(Integer.getInteger("fakestore.load.users", 5));
+        int iterations = Integer.getInteger("fakestore.load.iterations", 5);
+        String targetRps = System.getProperty("fakestore.load.rps");
+        if (virtualUsers == 0) {
+            throw new SkipException("No virtual user left for " + shard);
+        }
 
-            Assert.assertEquals(response.getStatusCode(), 200, "Request " + (i + 1) + " should be successful");
+        // Closed loop by default; -Dfakestore.load.rps switches to a fixed open-loop arrival rate
+        LoadGenerator generator = targetRps == null
+                ? LoadGenerator.closedLoop(virtualUsers)
+                : LoadGenerator.openLoop(Double.parseDouble(targetRps) / shard.count());
+
+        // Load runs use the lean JDK transport by default; -Dfakestore.load.transport=restassured for the DSL
+        ApiTransport transport = ApiTransport.create(System.getProperty("fakestore.load.transport", "jdk"), baseURL);
+        PayloadGenerator payloads = PayloadGenerator.shared();
+        JsonSchema productsSchema = JsonSchemas.get("products");
+        Map<String, LoadRequest> endpoints = new LinkedHashMap<>();
+        endpoints.put("GET /products", () -> {
+            // Every response under load is checked against the schema; a mismatch counts as an error
+            ApiResponse response = transport.get("/products");
+            ValidationResult validation = productsSchema.validate(response.body());
+            if (response.isSuccess() && !validation.isValid()) {
+                throw new AssertionError(validation.summary());
+            }
+            return response.statusCode();
+        });
+        // Every write carries a distinct cart, so the server cannot answer from a cache
+        endpoints.put("POST /carts", () ->
+                transport.send("POST", "/carts", payloads.cart(payloads.nextIndex()).toByteArray(), null).statusCode());
+
+        TransportStats.Snapshot before = HttpTransport.shared().stats().snapshot();
+        LoadReport report = generator
+                .duration(Duration.ofSeconds(Long.getLong("fakestore.load.seconds", 30L)))
+                .maxRequests((long) virtualUsers * iterations)
+                .run(endpoints);
+
+        TransportStats.Snapshot connections = HttpTransport.shared().stats().snapshot().since(before);
+
+        log.info("{}", report.summary().stripTrailing());
+        log.info("🔌 Transport: {}, pooled connections: {}", transport.name(), connections);
+        attach("Load report", report.summary() + "transport: " + transport.name() + ", connections: " + connections);
+
+        EndpointStats products = report.endpoint("GET /products");
+        Assert.assertTrue(products.count() > 0, "At least one request should have been recorded");
+        Assert.assertEquals(products.errors(), 0L, "All requests should be successful");
+        Assert.assertEquals(report.endpoint("POST /carts").errors(), 0L, "All cart writes should be successful");
+        if (TestEnvironment.isLocal() && transport.name().equals("restassured")) {
+            // The stub never closes idle sockets early, so the pool bound is a hard ceiling
+            Assert.assertTrue(connections.newConnections() <= HttpTransport.shared().maxConnections(),
+                    "Keep-alive pool should bound socket count. Actual: " + connections);
+        }
 
-            long requestTime = endTime - startTime;
-            totalTime += requestTime;
+        log.info("✅ Performance test completed. {} requests, p50: {}ms, p99: {}ms", products.count(),
+                products.percentileMillis(50), products.percentileMillis(99));
+    }
 
-            System.out.println("Request " + (i + 1) + " completed in: " + requestTime + "ms");
+    @Test(priority = 11, groups = FIXED_DURATION)
+    @Story("Capacity Testing")
+    @Description("Find the highest request rate each endpoint sustains within its p99 and error targets")
+    @Severity(SeverityLevel.NORMAL)
+    public void testCapacityFinder() throws InterruptedException {
+        // Hard client-side cap on the total rate; kept low unless the target is the local stub
+        double maxRps = Double.parseDouble(System.getProperty("fakestore.capacity.maxRps",
+                TestEnvironment.isLocal() ? "1000" : "10"));
+        CapacityFinder finder = CapacityFinder.withRateCap(maxRps)
+                .window(Duration.ofMillis(Long.getLong("fakestore.capacity.windowMillis", 250L)))
+                .maxWindows(Integer.getInteger("fakestore.capacity.maxWindows", 8))
+                .concurrency(1, Integer.getInteger("fakestore.capacity.maxConcurrency", 64))
+                .aimd(Integer.getInteger("fakestore.capacity.increase", 2), 0.5)
+                .targets(Double.parseDouble(System.getProperty("fakestore.capacity.p99Millis",
+                                TestEnvironment.isLocal() ? "250" : "2000")),
+                        Double.parseDouble(System.getProperty("fakestore.capacity.maxErrorRate", "0.01")));
+
+        ApiTransport transport = ApiTransport.create(System.getProperty("fakestore.load.transport", "jdk"), baseURL);
+        PayloadGenerator payloads = PayloadGenerator.shared();
+        Map<String, LoadRequest> endpoints = new LinkedHashMap<>();
+        endpoints.put("GET /products", () -> transport.get("/products").statusCode());
+        endpoints.put("GET /products/{id}", () ->
+                transport.get("/products/" + (1 + ThreadLocalRandom.current().nextInt(20))).statusCode());
+        endpoints.put("POST /carts", () ->
+                transport.send("POST", "/carts", payloads.cart(payloads.nextIndex()).toByteArray(), null).statusCode());
+        endpoints.put("POST /auth/login", () ->
+                transport.send("POST", "/auth/login", PayloadFactory.login("johnd", "m38rmF$").toByteArray(), null).statusCode());
+
+        CapacityReport report = finder.run(endpoints);
+
+        log.info("{}", report.summary().stripTrailing());
+        attach("Capacity report", report.summary());
+
+        for (CapacityReport.Result result : report.endpoints().values()) {
+            Assert.assertNotNull(result.knee(), result.endpoint() + " should stay within targets at low concurrency");
         }
+        // Whatever the concurrency, the client never outran the cap (plus its short burst)
+        double seconds = report.elapsedNanos() / 1e9;
+        Assert.assertTrue(report.requests() <= maxRps * seconds + maxRps / 10 + 1,
+                "Rate cap exceeded: " + report.requests() + " requests in " + seconds + "s at " + maxRps + " req/s");
 
-        long averageTime = totalTime / iterations;
-        Assert.assertTrue(averageTime < 3000,
-                "Average response time should be less than 3 seconds. Actual: " + averageTime + "ms");
-
-        System.out.println("✅ Performance test completed. Average response time: " + averageTime + "ms");
+        log.info("✅ Capacity search completed, {} requests in {}s", report.requests(), Math.round(seconds));
     }
 
-    @DataProvider(name = "categoryData")
+    @DataProvider(name = "categoryData", parallel = true)
     public Object[][] getCategoryData() {
         return new Object[][]{
                 {"electronics"},
@@ -0,0 +1,128 @@
+package qa.fakestore.tests;
+
+import qa.fakestore.base.BaseTest;
+import qa.fakestore.client.ApiResponse;
+import qa.fakestore.client.ApiTransport;
+import qa.fakestore.client.JdkHttpTransport;
+import qa.fakestore.client.ResilientTransport;
+import qa.fakestore.stub.FakeStoreStub;
+import qa.fakestore.stub.FaultInjector;
+import qa.fakestore.stub.ProductCatalog;
+import io.qameta.allure.*;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// Each test starts its own stub with fault rules, so injected faults never reach the other suites and
+// these run offline whatever fakestore.server says
+@Epic("Fake Store API Testing")
+@Feature("Resilience")
+public class ResilienceTests extends BaseTest {
+
+    private static final int REQUESTS = 60;
+
+    @Test(priority = 1, groups = FIXED_DURATION)
+    @Story("Retries")
+    @Description("Retries with jittered backoff turn injected 503s, resets and truncated bodies into successful calls")
+    @Severity(SeverityLevel.CRITICAL)
+    public void testRetriesRecoverFromInjectedFaults() throws IOException {
+        try (FakeStoreStub stub = faultyStub("GET /products/{id} error=0.1:503 reset=0.05 truncate=0.05:16")) {
+            ApiTransport plain = new JdkHttpTransport(stub.baseUrl(), Duration.ofSeconds(5));
+            ResilientTransport resilient = ResilientTransport.wrap(plain)
+                    .retries(6, Duration.ofMillis(5), Duration.ofMillis(50))
+                    .attemptTimeout(Duration.ofSeconds(2));
+
+            int plainFailures = failures(plain);
+            int resilientFailures = failures(resilient);
+
+            log.info("💥 Injected: {}", stub.faults().summary());
+            log.info("🔁 Plain: {} of {} failed; resilient: {} failed, {}", plainFailures, REQUESTS,
+                    resilientFailures, resilient.stats());
+            Assert.assertTrue(plainFailures > 0, "Fault rules should have been visible without retries");
+            Assert.assertEquals(resilientFailures, 0, "Every call should succeed within six attempts");
+            Assert.assertTrue(resilient.retries() > 0, "Recovering should have taken retries");
+        }
+    }
+
+    @Test(priority = 2, groups = FIXED_DURATION)
+    @Story("Timeouts")
+    @Description("The attempt deadline cuts stalled responses and slow-drip bodies short")
+    @Severity(SeverityLevel.CRITICAL)
+    public void testAttemptTimeoutCutsStallsAndSlowBodies() throws IOException {
+        try (FakeStoreStub stub = faultyStub("GET /products/{id} stall=1:5000; GET /products/categories drip=20")) {
+            ResilientTransport client = ResilientTransport.wrap(new JdkHttpTransport(stub.baseUrl(), Duration.ofSeconds(30)))
+                    .retries(2, Duration.ofMillis(5), Duration.ofMillis(20))
+                    .attemptTimeout(Duration.ofMillis(300));
+
+            for (String path : new String[]{"/products/1", "/products/categories"}) {
+                long start = System.nanoTime();
+                UncheckedIOException failure = Assert.expectThrows(UncheckedIOException.class, () -> client.get(path));
+                long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+                Assert.assertTrue(failure.getCause() instanceof HttpTimeoutException, "Expected a timeout, got " + failure);
+                Assert.assertTrue(millis < 2000, path + " should give up after two 300ms attempts, took " + millis + "ms");
+                log.info("⏱️ {} timed out after {}ms", path, millis);
+            }
+            Assert.assertEquals(client.timeouts(), 4L, "Both attempts of both calls should have timed out");
+        }
+    }
+
+    @Test(priority = 3, groups = FIXED_DURATION)
+    @Story("Hedged Requests")
+    @Description("Hedging a slow request after a short delay removes most stalls from the tail")
+    @Severity(SeverityLevel.NORMAL)
+    public void testHedgingCutsTailLatency() throws IOException {
+        long stallMillis = 300;
+        try (FakeStoreStub stub = faultyStub("GET /products/{id} stall=0.1:" + stallMillis)) {
+            ApiTransport plain = new JdkHttpTransport(stub.baseUrl(), Duration.ofSeconds(5));
+            ResilientTransport hedged = ResilientTransport.wrap(plain).hedgeAfter(Duration.ofMillis(50));
+
+            int plainSlow = slowCalls(plain, stallMillis);
+            int hedgedSlow = slowCalls(hedged, stallMillis);
+
+            log.info("🐢 Calls slower than {}ms out of {}: plain {}, hedged {} ({})", stallMillis, REQUESTS * 2,
+                    plainSlow, hedgedSlow, hedged.stats());
+            Assert.assertTrue(hedged.hedgeWins() > 0, "Some hedges should have beaten a stalled original");
+            Assert.assertTrue(hedgedSlow < plainSlow,
+                    "Hedging should cut stalled calls. Plain: " + plainSlow + ", hedged: " + hedgedSlow);
+        }
+    }
+
+    private static FakeStoreStub faultyStub(String rules) throws IOException {
+        // Fixed seed: a sequential run draws the same faults every time
+        return FakeStoreStub.start(0, new ProductCatalog(20)).faults(FaultInjector.parse(rules, 7L));
+    }
+
+    private static int failures(ApiTransport transport) {
+        int failures = 0;
+        for (int i = 0; i < REQUESTS; i++) {
+            try {
+                ApiResponse response = transport.get("/products/" + (1 + i % 20));
+                if (!response.isSuccess() || response.isNullBody()) {
+                    failures++;
+                }
+            } catch (RuntimeException e) {
+                failures++;
+            }
+        }
+        return failures;
+    }
+
+    private static int slowCalls(ApiTransport transport, long thresholdMillis) {
+        int slow = 0;
+        for (int i = 0; i < REQUESTS * 2; i++) {
+            long start = System.nanoTime();
+            ApiResponse response = transport.get("/products/" + (1 + i % 20));
+            Assert.assertTrue(response.isSuccess(), "Stalls should delay calls, not fail them");
+            if (TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= thresholdMillis) {
+                slow++;
+            }
+        }
+        return slow;
+    }
+}
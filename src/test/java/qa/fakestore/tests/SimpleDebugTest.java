@@ -1,5 +1,8 @@
 package qa.fakestore.tests;
 
+import qa.fakestore.base.TestEnvironment;
+import qa.fakestore.http.ResponseCache;
+import qa.fakestore.logging.TestLog;
 import io.restassured.RestAssured;
 import io.restassured.response.Response;
 import org.testng.Assert;
@@ -7,27 +10,28 @@ import org.testng.annotations.Test;
 
 public class SimpleDebugTest {
 
+    private static final TestLog LOG = TestLog.get(SimpleDebugTest.class);
+
     @Test
     public void simpleGetTest() {
         try {
             // Basit bir GET request
-            RestAssured.baseURI = "https://fakestoreapi.com";
-
             Response response = RestAssured.given()
+                    .baseUri(TestEnvironment.baseUrl())
+                    .filter(ResponseCache.shared())
                     .when()
                     .get("/products");
 
-            System.out.println("Status Code: " + response.getStatusCode());
-            System.out.println("Response Time: " + response.getTime() + "ms");
-            System.out.println("Response Body: " + response.getBody().asString().substring(0, 100) + "...");
+            LOG.info("Status Code: {}", response.getStatusCode());
+            LOG.info("Response Time: {}ms", response.getTime());
+            LOG.debug("Response Body: {}...", response.getBody().asString().substring(0, 100));
 
             Assert.assertEquals(response.getStatusCode(), 200);
 
-            System.out.println("✅ Simple test PASSED!");
+            LOG.info("✅ Simple test PASSED!");
 
         } catch (Exception e) {
-            System.out.println("❌ Error: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("❌ Error: {}", e.getMessage());
             throw e;
         }
     }
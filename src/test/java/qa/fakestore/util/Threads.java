@@ -0,0 +1,50 @@
+package qa.fakestore.util;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class Threads {
+
+    // Executors.newVirtualThreadPerTaskExecutor() exists from JDK 21 on; the build targets 11,
+    // so it is looked up reflectively and we fall back to a cached pool of daemon threads.
+    private static final Method VIRTUAL_PER_TASK = lookupVirtualPerTask();
+
+    private Threads() {
+    }
+
+    public static boolean virtualThreadsAvailable() {
+        return VIRTUAL_PER_TASK != null;
+    }
+
+    // One thread per task: virtual when the runtime supports it, pooled platform threads otherwise
+    public static ExecutorService newPerTaskExecutor(String name) {
+        if (VIRTUAL_PER_TASK != null) {
+            try {
+                return (ExecutorService) VIRTUAL_PER_TASK.invoke(null);
+            } catch (ReflectiveOperationException ignored) {
+                // fall through to platform threads
+            }
+        }
+        return Executors.newCachedThreadPool(daemonFactory(name));
+    }
+
+    public static ThreadFactory daemonFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static Method lookupVirtualPerTask() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,490 @@
+package qa.fakestore.validation;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+// A JSON Schema subset compiled once into a tree of checks that runs against the parser's token
+// stream: no tree, no model objects, one pass, every violation reported with its path
+// ($[3].rating.rate). Only a pattern or enum check reads a string's text. Supported keywords:
+//   type (name or array of names), properties, required, additionalProperties (boolean), items,
+//   minItems, maxItems, minimum, maximum, exclusiveMinimum, exclusiveMaximum, minLength, maxLength,
+//   pattern, enum (strings), $ref (another schema by name, see JsonSchemas)
+// $id, $schema, title and description are annotations. Anything else fails compilation, so a
+// misspelt keyword cannot silently check nothing.
+public final class JsonSchema {
+
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final Set<String> ANNOTATIONS = new HashSet<>(Arrays.asList("$id", "$schema", "title", "description"));
+
+    private static final int OBJECT = 1;
+    private static final int ARRAY = 1 << 1;
+    private static final int STRING = 1 << 2;
+    private static final int INTEGER = 1 << 3;
+    private static final int NUMBER = 1 << 4;
+    private static final int BOOLEAN = 1 << 5;
+    private static final int NULL = 1 << 6;
+    private static final int ANY = OBJECT | ARRAY | STRING | INTEGER | NUMBER | BOOLEAN | NULL;
+    private static final String[] TYPE_NAMES = {"object", "array", "string", "integer", "number", "boolean", "null"};
+
+    private final String name;
+    private final Node root;
+    private final int maxReportedViolations;
+
+    private JsonSchema(String name, Node root, int maxReportedViolations) {
+        this.name = name;
+        this.root = root;
+        this.maxReportedViolations = maxReportedViolations;
+    }
+
+    public static JsonSchema compile(String name, JsonNode document) {
+        return new JsonSchema(name, compileNode(document, "#"), 50);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    // Same compiled checks, keeping up to maxReportedViolations messages (all violations are counted)
+    public JsonSchema withMaxReportedViolations(int maxReportedViolations) {
+        return new JsonSchema(name, root, maxReportedViolations);
+    }
+
+    public ValidationResult validate(InputStream body) throws IOException {
+        try (JsonParser parser = JSON.createParser(body)) {
+            return validate(parser);
+        }
+    }
+
+    public ValidationResult validate(byte[] body) {
+        return validate(body, 0, body.length);
+    }
+
+    public ValidationResult validate(byte[] body, int offset, int length) {
+        try (JsonParser parser = JSON.createParser(body, offset, length)) {
+            return validate(parser);
+        } catch (IOException e) {
+            // Only reachable through close(); byte array input cannot fail to read
+            throw new IllegalStateException("Cannot read in-memory body", e);
+        }
+    }
+
+    private ValidationResult validate(JsonParser parser) throws IOException {
+        ValidationResult result = new ValidationResult(maxReportedViolations);
+        Context context = new Context(result);
+        long start = System.nanoTime();
+        try {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                result.addViolation("$: empty body, expected " + typeNames(root.types));
+            } else {
+                root.validate(parser, token, context);
+                if (token != JsonToken.START_ARRAY) {
+                    result.countItem();
+                }
+                // A second value or trailing bytes mean a corrupt or concatenated body, not a valid one
+                if (parser.nextToken() != null) {
+                    result.addViolation("$: unexpected content after the root value");
+                }
+            }
+        } catch (JsonProcessingException e) {
+            result.addViolation(context.path() + ": malformed JSON: " + e.getOriginalMessage());
+        }
+        result.finish(System.nanoTime() - start);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "JsonSchema{" + name + "}";
+    }
+
+    private static Node compileNode(JsonNode schema, String location) {
+        if (!schema.isObject()) {
+            throw new IllegalArgumentException(location + ": a schema must be an object");
+        }
+        Node node = new Node();
+        Iterator<Map.Entry<String, JsonNode>> fields = schema.fields();
+        // A name listed twice must keep a single bit, or the duplicate's bit would never be set
+        Set<String> required = new LinkedHashSet<>();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            String keyword = field.getKey();
+            JsonNode value = field.getValue();
+            String at = location + "/" + keyword;
+            switch (keyword) {
+                case "type":
+                    node.types = 0;
+                    if (value.isArray()) {
+                        for (JsonNode type : value) {
+                            node.types |= typeBit(type.asText(), at);
+                        }
+                    } else {
+                        node.types = typeBit(value.asText(), at);
+                    }
+                    break;
+                case "properties":
+                    node.properties = new HashMap<>();
+                    Iterator<Map.Entry<String, JsonNode>> properties = value.fields();
+                    while (properties.hasNext()) {
+                        Map.Entry<String, JsonNode> property = properties.next();
+                        node.properties.put(property.getKey(),
+                                new Property(compileNode(property.getValue(), at + "/" + property.getKey())));
+                    }
+                    break;
+                case "required":
+                    for (JsonNode requiredName : value) {
+                        required.add(requiredName.asText());
+                    }
+                    break;
+                case "additionalProperties":
+                    if (!value.isBoolean()) {
+                        throw new IllegalArgumentException(at + ": only true or false is supported");
+                    }
+                    node.additionalProperties = value.booleanValue();
+                    break;
+                case "items":
+                    node.items = compileNode(value, at);
+                    break;
+                case "minItems":
+                    node.minItems = value.asInt();
+                    break;
+                case "maxItems":
+                    node.maxItems = value.asInt();
+                    break;
+                case "minimum":
+                    node.minimum = value.asDouble();
+                    break;
+                case "maximum":
+                    node.maximum = value.asDouble();
+                    break;
+                case "exclusiveMinimum":
+                    node.minimum = value.asDouble();
+                    node.exclusiveMinimum = true;
+                    break;
+                case "exclusiveMaximum":
+                    node.maximum = value.asDouble();
+                    node.exclusiveMaximum = true;
+                    break;
+                case "minLength":
+                    node.minLength = value.asInt();
+                    break;
+                case "maxLength":
+                    node.maxLength = value.asInt();
+                    break;
+                case "pattern":
+                    node.pattern = Pattern.compile(value.asText());
+                    break;
+                case "enum":
+                    node.enumValues = new HashSet<>();
+                    for (JsonNode allowed : value) {
+                        node.enumValues.add(allowed.asText());
+                    }
+                    break;
+                case "$ref":
+                    node.ref = JsonSchemas.nameOf(value.asText());
+                    break;
+                default:
+                    if (!ANNOTATIONS.contains(keyword)) {
+                        throw new IllegalArgumentException(at + ": unsupported keyword");
+                    }
+            }
+        }
+        if (!required.isEmpty()) {
+            if (required.size() > 64) {
+                throw new IllegalArgumentException(location + ": at most 64 required properties are supported");
+            }
+            if (node.properties == null) {
+                node.properties = new HashMap<>();
+            }
+            node.required = required.toArray(new String[0]);
+            for (int i = 0; i < node.required.length; i++) {
+                Property property = node.properties.get(node.required[i]);
+                if (property == null) {
+                    property = new Property(new Node());
+                    node.properties.put(node.required[i], property);
+                }
+                property.requiredBit = 1L << i;
+            }
+        }
+        return node;
+    }
+
+    private static int typeBit(String type, String location) {
+        for (int i = 0; i < TYPE_NAMES.length; i++) {
+            if (TYPE_NAMES[i].equals(type)) {
+                // "number" also admits integers
+                return i == 4 ? NUMBER | INTEGER : 1 << i;
+            }
+        }
+        throw new IllegalArgumentException(location + ": unknown type " + type);
+    }
+
+    private static int typeOf(JsonToken token) {
+        switch (token) {
+            case START_OBJECT:
+                return OBJECT;
+            case START_ARRAY:
+                return ARRAY;
+            case VALUE_STRING:
+                return STRING;
+            case VALUE_NUMBER_INT:
+                return INTEGER;
+            case VALUE_NUMBER_FLOAT:
+                return NUMBER;
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+                return BOOLEAN;
+            case VALUE_NULL:
+                return NULL;
+            default:
+                return 0;
+        }
+    }
+
+    private static String typeNames(int types) {
+        if ((types & (NUMBER | INTEGER)) == (NUMBER | INTEGER)) {
+            types &= ~INTEGER;
+        }
+        StringBuilder names = new StringBuilder();
+        for (int i = 0; i < TYPE_NAMES.length; i++) {
+            if ((types & (1 << i)) != 0) {
+                names.append(names.length() == 0 ? "" : " or ").append(TYPE_NAMES[i]);
+            }
+        }
+        return names.toString();
+    }
+
+    private static String bound(double value) {
+        return value == Math.rint(value) && Math.abs(value) < 1e15 ? Long.toString((long) value) : Double.toString(value);
+    }
+
+    private static final class Property {
+        final Node node;
+        long requiredBit;
+
+        Property(Node node) {
+            this.node = node;
+        }
+    }
+
+    private static final class Node {
+        int types = ANY;
+        Map<String, Property> properties;
+        String[] required;
+        boolean additionalProperties = true;
+        Node items;
+        int minItems = -1;
+        int maxItems = -1;
+        double minimum = Double.NaN;
+        double maximum = Double.NaN;
+        boolean exclusiveMinimum;
+        boolean exclusiveMaximum;
+        int minLength = -1;
+        int maxLength = -1;
+        Pattern pattern;
+        Set<String> enumValues;
+        String ref;
+        private volatile Node resolved;
+
+        // Called with the value's first token current; returns with its last token current
+        void validate(JsonParser parser, JsonToken token, Context context) throws IOException {
+            if (ref != null) {
+                target().validate(parser, token, context);
+                return;
+            }
+            int type = typeOf(token);
+            if ((types & type) == 0) {
+                context.violation("expected " + typeNames(types) + " but got " + typeNames(type));
+                parser.skipChildren();
+                return;
+            }
+            switch (type) {
+                case OBJECT:
+                    validateObject(parser, context);
+                    break;
+                case ARRAY:
+                    validateArray(parser, context);
+                    break;
+                case STRING:
+                    validateString(parser, context);
+                    break;
+                case INTEGER:
+                case NUMBER:
+                    validateNumber(parser, context);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private Node target() {
+            Node target = resolved;
+            if (target == null) {
+                // Resolved on first use, so schemas may reference each other in any load order
+                target = JsonSchemas.get(ref).root;
+                resolved = target;
+            }
+            return target;
+        }
+
+        private void validateObject(JsonParser parser, Context context) throws IOException {
+            long seen = 0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                Property property = properties == null ? null : properties.get(field);
+                if (property != null) {
+                    seen |= property.requiredBit;
+                    context.enter(field);
+                    property.node.validate(parser, value, context);
+                    context.exit();
+                } else {
+                    if (!additionalProperties) {
+                        context.enter(field);
+                        context.violation("property not allowed");
+                        context.exit();
+                    }
+                    parser.skipChildren();
+                }
+            }
+            if (required != null && Long.bitCount(seen) != required.length) {
+                for (int i = 0; i < required.length; i++) {
+                    if ((seen & (1L << i)) == 0) {
+                        context.violation("missing required property '" + required[i] + "'");
+                    }
+                }
+            }
+        }
+
+        private void validateArray(JsonParser parser, Context context) throws IOException {
+            int count = 0;
+            JsonToken element;
+            while ((element = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (element == null) {
+                    throw new JsonParseException(parser, "unexpected end of input inside array");
+                }
+                if (items != null) {
+                    context.enter(count);
+                    items.validate(parser, element, context);
+                    context.exit();
+                } else {
+                    parser.skipChildren();
+                }
+                if (context.depth == 0) {
+                    context.result.countItem();
+                }
+                count++;
+            }
+            if (minItems >= 0 && count < minItems) {
+                context.violation(count + " items, expected at least " + minItems);
+            }
+            if (maxItems >= 0 && count > maxItems) {
+                context.violation(count + " items, expected at most " + maxItems);
+            }
+        }
+
+        private void validateString(JsonParser parser, Context context) throws IOException {
+            if (minLength >= 0 || maxLength >= 0) {
+                int length = parser.getTextLength();
+                if (minLength >= 0 && length < minLength) {
+                    context.violation("string of length " + length + " is shorter than " + minLength);
+                }
+                if (maxLength >= 0 && length > maxLength) {
+                    context.violation("string of length " + length + " is longer than " + maxLength);
+                }
+            }
+            if (pattern != null || enumValues != null) {
+                String text = parser.getText();
+                if (pattern != null && !pattern.matcher(text).find()) {
+                    context.violation("'" + text + "' does not match " + pattern.pattern());
+                }
+                if (enumValues != null && !enumValues.contains(text)) {
+                    context.violation("'" + text + "' is not one of " + enumValues);
+                }
+            }
+        }
+
+        private void validateNumber(JsonParser parser, Context context) throws IOException {
+            if (Double.isNaN(minimum) && Double.isNaN(maximum)) {
+                return;
+            }
+            double value = parser.getDoubleValue();
+            if (!Double.isNaN(minimum) && (exclusiveMinimum ? value <= minimum : value < minimum)) {
+                context.violation(parser.getText() + " is below " + (exclusiveMinimum ? "exclusive " : "")
+                        + "minimum " + bound(minimum));
+            }
+            if (!Double.isNaN(maximum) && (exclusiveMaximum ? value >= maximum : value > maximum)) {
+                context.violation(parser.getText() + " is above " + (exclusiveMaximum ? "exclusive " : "")
+                        + "maximum " + bound(maximum));
+            }
+        }
+    }
+
+    // Current path as a stack of field names and array indices; only rendered when a violation is reported
+    private static final class Context {
+        final ValidationResult result;
+        String[] fields = new String[16];
+        int[] indices = new int[16];
+        int depth;
+
+        Context(ValidationResult result) {
+            this.result = result;
+        }
+
+        void enter(String field) {
+            grow();
+            fields[depth] = field;
+            depth++;
+        }
+
+        void enter(int index) {
+            grow();
+            fields[depth] = null;
+            indices[depth] = index;
+            depth++;
+        }
+
+        void exit() {
+            depth--;
+        }
+
+        void violation(String message) {
+            result.addViolation(path() + ": " + message);
+        }
+
+        String path() {
+            StringBuilder path = new StringBuilder("$");
+            for (int i = 0; i < depth; i++) {
+                if (fields[i] != null) {
+                    path.append('.').append(fields[i]);
+                } else {
+                    path.append('[').append(indices[i]).append(']');
+                }
+            }
+            return path.toString();
+        }
+
+        private void grow() {
+            if (depth == fields.length) {
+                fields = Arrays.copyOf(fields, depth * 2);
+                indices = Arrays.copyOf(indices, depth * 2);
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package qa.fakestore.validation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Schemas under src/test/resources/schemas/<name>.schema.json, each read and compiled on first use
+// and then shared by every test and thread for the rest of the JVM:
+//   product, products, cart, carts, user, users, login
+public final class JsonSchemas {
+
+    private static final String SUFFIX = ".schema.json";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Map<String, JsonSchema> COMPILED = new ConcurrentHashMap<>();
+
+    private JsonSchemas() {
+    }
+
+    public static JsonSchema get(String name) {
+        JsonSchema schema = COMPILED.get(name);
+        return schema != null ? schema : COMPILED.computeIfAbsent(name, JsonSchemas::load);
+    }
+
+    // "product", "product.schema.json" and "./product.schema.json" all name the same schema
+    static String nameOf(String reference) {
+        String name = reference.startsWith("./") ? reference.substring(2) : reference;
+        return name.endsWith(SUFFIX) ? name.substring(0, name.length() - SUFFIX.length()) : name;
+    }
+
+    private static JsonSchema load(String name) {
+        String resource = "/schemas/" + name + SUFFIX;
+        try (InputStream in = JsonSchemas.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalArgumentException("No schema named " + name + " (" + resource + ")");
+            }
+            return JsonSchema.compile(name, MAPPER.readTree(in));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read schema " + resource, e);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package qa.fakestore.validation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class ValidationResult {
+
+    private final int maxReportedViolations;
+    private final List<String> violations = new ArrayList<>();
+    private long violationCount;
+    private long items;
+    private long elapsedNanos;
+
+    ValidationResult(int maxReportedViolations) {
+        this.maxReportedViolations = maxReportedViolations;
+    }
+
+    void countItem() {
+        items++;
+    }
+
+    // Every violation is counted, but only the first few messages are kept to bound memory
+    void addViolation(String message) {
+        violationCount++;
+        if (violations.size() < maxReportedViolations) {
+            violations.add(message);
+        }
+    }
+
+    void finish(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public boolean isValid() {
+        return violationCount == 0;
+    }
+
+    public long items() {
+        return items;
+    }
+
+    public long violationCount() {
+        return violationCount;
+    }
+
+    public List<String> violations() {
+        return Collections.unmodifiableList(violations);
+    }
+
+    public long elapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double itemsPerSecond() {
+        return elapsedNanos == 0 ? 0 : items * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    public String summary() {
+        StringBuilder out = new StringBuilder(String.format("%d items validated in %.1f ms (%.0f items/s), %d violations",
+                items, elapsedNanos / 1e6, itemsPerSecond(), violationCount));
+        for (String violation : violations) {
+            out.append(System.lineSeparator()).append("  - ").append(violation);
+        }
+        if (violationCount > violations.size()) {
+            out.append(System.lineSeparator()).append("  ... ").append(violationCount - violations.size()).append(" more");
+        }
+        return out.toString();
+    }
+}